@@ -45,7 +45,7 @@ public class ProductResource {
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    @Operation(summary = "List all products", description = "Retrieves a list of all products")
+    @Operation(summary = "List all products", description = "Retrieves a list of all products, or only the products with the given IDs")
     @APIResponses({
         @APIResponse(
             responseCode = "200", 
@@ -63,10 +63,7 @@ public class ProductResource {
             content = @Content(mediaType = "application/json")
         )
     })
-    public Response getAllProducts() {
-        LOGGER.log(Level.INFO, "REST: Fetching all products");
-        List<Product> products = productService.findAllProducts();
-
+    public Response getAllProducts(@QueryParam("id") List<Long> ids) {
         if (maintenanceMode) {
             return Response
                     .status(Response.Status.SERVICE_UNAVAILABLE)
@@ -74,6 +71,15 @@ public class ProductResource {
                     .build();
         }
 
+        if (ids != null && !ids.isEmpty()) {
+            // Multi-get: unknown IDs are simply left out of the response
+            LOGGER.log(Level.INFO, "REST: Fetching {0} products by ID", ids.size());
+            return Response.ok(productService.findProductsByIds(ids)).build();
+        }
+
+        LOGGER.log(Level.INFO, "REST: Fetching all products");
+        List<Product> products = productService.findAllProducts();
+
         if (products != null && !products.isEmpty()) {
             return Response
                     .status(Response.Status.OK)
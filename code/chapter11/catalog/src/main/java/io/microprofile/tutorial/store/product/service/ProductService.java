@@ -5,6 +5,8 @@ import io.microprofile.tutorial.store.product.repository.ProductRepository;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.logging.Logger;
 
 /**
@@ -40,6 +42,21 @@ public class ProductService {
         return repository.findProductById(id);
     }
     
+    /**
+     * Retrieves the products with the given IDs.
+     *
+     * @param ids Product IDs
+     * @return The products that exist, in the order of the IDs
+     */
+    public List<Product> findProductsByIds(List<Long> ids) {
+        LOGGER.info("Service: Finding " + ids.size() + " products by ID");
+        return ids.stream()
+                .distinct()
+                .map(repository::findProductById)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Creates a new product.
      *
@@ -0,0 +1,121 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.service.InventoryService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of reservations against a slow catalog, run once through the blocking
+ * {@code reserveWithHold} and once through the asynchronous {@code reserveWithHoldAsync} that
+ * {@code PATCH /api/inventories/product/{productId}/reserve/{quantity}} uses. Requests arrive on a
+ * fixed pool of request threads, as they do on the server's executor, and every request reserves
+ * a different product so every catalog check misses the product cache and waits on the catalog.
+ * <p>
+ * The blocking variant holds a request thread for every catalog wait, so it completes at most
+ * one catalog round trip per request thread at a time. The asynchronous variant returns the
+ * request thread at once, so all requests wait on the catalog together. For each variant the
+ * test prints the throughput, latency from submission to completion, the largest number of
+ * product lookups waiting on the catalog at once and the peak number of platform threads, which
+ * stays flat while thousands of catalog waits are in flight.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar io.microprofile.tutorial.store.inventory.benchmark.AsyncCatalogLoad
+ * [requests] [catalog delay in ms] [request threads]}, e.g. {@code ... AsyncCatalogLoad 2000 100 16}.
+ */
+public final class AsyncCatalogLoad {
+
+    private AsyncCatalogLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        long delayMillis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        int requestThreads = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+        // Results are only comparable between machines with the same number of cores
+        System.out.printf("%d reservations, catalog delay %d ms, %d request threads, %d CPUs, JDK %s%n", requests,
+                delayMillis, requestThreads, Runtime.getRuntime().availableProcessors(), Runtime.version().feature());
+        System.out.printf("%-9s %10s %10s %9s %9s %9s %10s %10s %9s%n", "variant", "time ms", "req/s",
+                "p50 ms", "p99 ms", "max ms", "in flight", "platform", "failed");
+        for (boolean async : new boolean[] {false, true}) {
+            run(async, requests, delayMillis, requestThreads);
+        }
+    }
+
+    private static void run(boolean async, int requests, long delayMillis, int requestThreads) throws InterruptedException {
+        DelayedProductServiceClient catalog = new DelayedProductServiceClient(new StubProductServiceClient(requests), delayMillis);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService requestPool = Executors.newFixedThreadPool(requestThreads, runnable -> {
+            Thread thread = new Thread(runnable, "request-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (InventoryFixture fixture = new InventoryFixture(catalog, requests, 10, 900)) {
+            InventoryService service = fixture.service();
+            long[] latencies = new long[requests];
+            AtomicInteger failures = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(requests);
+
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                long productId = i + 1;
+                long submitted = System.nanoTime();
+                requestPool.execute(() -> {
+                    if (async) {
+                        service.reserveWithHoldAsync(productId, 1, null).whenComplete((hold, error) -> {
+                            if (error != null) {
+                                failures.incrementAndGet();
+                            }
+                            latencies[request] = System.nanoTime() - submitted;
+                            done.countDown();
+                        });
+                    } else {
+                        try {
+                            service.reserveWithHold(productId, 1, null);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[request] = System.nanoTime() - submitted;
+                        done.countDown();
+                    }
+                });
+            }
+            if (!done.await(10, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Requests did not complete within 10 minutes");
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            System.out.printf("%-9s %10d %10.0f %9.1f %9.1f %9.1f %10d %10d %9d%n",
+                    async ? "async" : "blocking",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    requests / (elapsed / 1e9),
+                    millis(percentile(latencies, 0.50)),
+                    millis(percentile(latencies, 0.99)),
+                    millis(latencies[requests - 1]),
+                    catalog.maximumInFlight(),
+                    threads.getPeakThreadCount(),
+                    failures.get());
+        } finally {
+            requestPool.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
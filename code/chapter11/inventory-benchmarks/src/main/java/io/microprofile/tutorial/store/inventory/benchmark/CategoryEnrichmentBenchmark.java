@@ -0,0 +1,58 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.dto.InventoryWithProductInfo;
+import io.microprofile.tutorial.store.inventory.service.InventoryService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Joins a whole catalog category with its inventory, as {@code GET /api/inventories/category/{category}}
+ * does. The category listing is served by the category cache after the first call, so this
+ * measures the per-product inventory lookups and the parallel enrichment of large categories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryEnrichmentBenchmark {
+
+    @Param({"1000", "10000"})
+    public int categorySize;
+
+    private InventoryFixture fixture;
+
+    private InventoryService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new InventoryFixture(categorySize, 100, 900);
+        service = fixture.service();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<InventoryWithProductInfo> enrichCategory() {
+        return service.getInventoriesByCategory(StubProductServiceClient.CATEGORY);
+    }
+}
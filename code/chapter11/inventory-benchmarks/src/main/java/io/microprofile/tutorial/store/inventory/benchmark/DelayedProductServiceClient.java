@@ -0,0 +1,111 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Catalog client that answers like another client, but only after a fixed delay, to stand in for
+ * a slow catalog service. The blocking methods sleep in the calling thread, as a REST client waits
+ * on its socket; the asynchronous methods complete from a timer without holding any thread while
+ * they wait. It counts the product lookups in flight, so a load test can tell how many catalog
+ * waits were outstanding at the same time.
+ */
+public class DelayedProductServiceClient implements ProductServiceClient {
+
+    private final ProductServiceClient delegate;
+    private final long delayMillis;
+    private final Executor delayedExecutor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maximumInFlight = new AtomicInteger();
+
+    /**
+     * Creates the stub.
+     *
+     * @param delegate The client that provides the answers
+     * @param delayMillis How long every call takes
+     */
+    public DelayedProductServiceClient(ProductServiceClient delegate, long delayMillis) {
+        this.delegate = delegate;
+        this.delayMillis = delayMillis;
+        this.delayedExecutor = CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The largest number of product lookups that were waiting on the catalog at once
+     */
+    public int maximumInFlight() {
+        return maximumInFlight.get();
+    }
+
+    @Override
+    public Product getProductById(Long id) {
+        return await(1, () -> delegate.getProductById(id));
+    }
+
+    @Override
+    public List<Product> getProductsByCategory(String category) {
+        return await(1, () -> delegate.getProductsByCategory(category));
+    }
+
+    @Override
+    public List<Product> getProductsByIds(List<Long> ids) {
+        return await(ids.size(), () -> delegate.getProductsByIds(ids));
+    }
+
+    @Override
+    public CompletionStage<Product> getProductByIdAsync(Long id) {
+        return later(1, () -> delegate.getProductById(id));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> getProductsByCategoryAsync(String category) {
+        return later(1, () -> delegate.getProductsByCategory(category));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> getProductsByIdsAsync(List<Long> ids) {
+        return later(ids.size(), () -> delegate.getProductsByIds(ids));
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    private <T> T await(int lookups, Supplier<T> answer) {
+        started(lookups);
+        try {
+            Thread.sleep(delayMillis);
+            return answer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the catalog", e);
+        } finally {
+            inFlight.addAndGet(-lookups);
+        }
+    }
+
+    private <T> CompletionStage<T> later(int lookups, Supplier<T> answer) {
+        started(lookups);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return answer.get();
+            } finally {
+                inFlight.addAndGet(-lookups);
+            }
+        }, delayedExecutor);
+    }
+
+    private void started(int lookups) {
+        maximumInFlight.accumulateAndGet(inFlight.addAndGet(lookups), Math::max);
+    }
+}
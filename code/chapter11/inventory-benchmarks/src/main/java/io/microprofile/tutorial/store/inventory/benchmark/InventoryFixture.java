@@ -0,0 +1,172 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.cache.CategoryCache;
+import io.microprofile.tutorial.store.inventory.cache.ProductCache;
+import io.microprofile.tutorial.store.inventory.client.ProductClientRegistry;
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+import io.microprofile.tutorial.store.inventory.reservation.ReservationEngine;
+import io.microprofile.tutorial.store.inventory.reservation.ReservationHoldManager;
+import io.microprofile.tutorial.store.inventory.service.InventoryService;
+import io.microprofile.tutorial.store.inventory.service.LowStockMonitor;
+import io.microprofile.tutorial.store.inventory.warehouse.WarehouseStockManager;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The inventory service wired by hand the way CDI wires it in the server, with a stubbed catalog.
+ * Injection points are private fields, so they are set reflectively, and the lifecycle callbacks
+ * are called in the order the container would call them.
+ */
+public final class InventoryFixture implements AutoCloseable {
+
+    // Held so the level is not lost when the logger is garbage collected
+    private static final Logger SERVICE_LOGGER = Logger.getLogger("io.microprofile.tutorial.store.inventory");
+
+    static {
+        // Per-operation INFO logging would otherwise dominate every measurement
+        SERVICE_LOGGER.setLevel(Level.WARNING);
+    }
+
+    private final InventoryRepository repository = new InventoryRepository();
+    private final ReservationEngine reservationEngine = new ReservationEngine();
+    private final ReservationHoldManager holdManager = new ReservationHoldManager();
+    private final LowStockMonitor lowStockMonitor = new LowStockMonitor();
+    private final ProductCache productCache = new ProductCache(10_000, 300, 240, 30, 2, 50);
+    private final CategoryCache categoryCache = new CategoryCache(256, 60, 45);
+    private final ProductClientRegistry clientRegistry;
+    private final InventoryService service = new InventoryService();
+
+    /**
+     * Creates the service with one inventory item per catalog product.
+     *
+     * @param productCount The number of products, each with an inventory item
+     * @param quantity The on-hand quantity of every item
+     * @param holdTtlSeconds How long reservation holds last before their units return to stock
+     */
+    public InventoryFixture(int productCount, int quantity, long holdTtlSeconds) {
+        this(new StubProductServiceClient(productCount), productCount, quantity, holdTtlSeconds);
+    }
+
+    /**
+     * Creates the service with one inventory item per catalog product, served by the given catalog client.
+     *
+     * @param client The catalog client, which must know the products 1 to {@code productCount}
+     * @param productCount The number of products, each with an inventory item
+     * @param quantity The on-hand quantity of every item
+     * @param holdTtlSeconds How long reservation holds last before their units return to stock
+     */
+    public InventoryFixture(ProductServiceClient client, int productCount, int quantity, long holdTtlSeconds) {
+        clientRegistry = new ProductClientRegistry() {
+            @Override
+            public ProductServiceClient getClient(String baseUri, long connectTimeout, long readTimeout, TimeUnit unit) {
+                return client;
+            }
+        };
+
+        inject(reservationEngine, "inventoryRepository", repository);
+        invoke(reservationEngine, "start");
+
+        inject(holdManager, "inventoryRepository", repository);
+        inject(holdManager, "reservationEngine", reservationEngine);
+        inject(holdManager, "defaultTtlSeconds", holdTtlSeconds);
+        inject(holdManager, "maxTtlSeconds", Math.max(holdTtlSeconds, 86_400L));
+        inject(holdManager, "timerTickMillis", 100L);
+        invoke(holdManager, "start");
+
+        inject(lowStockMonitor, "inventoryRepository", repository);
+        invoke(lowStockMonitor, "start");
+
+        inject(service, "inventoryRepository", repository);
+        inject(service, "productServiceClient", client);
+        inject(service, "productClientRegistry", clientRegistry);
+        inject(service, "productCache", productCache);
+        inject(service, "categoryCache", categoryCache);
+        inject(service, "lowStockMonitor", lowStockMonitor);
+        inject(service, "reservationEngine", reservationEngine);
+        inject(service, "reservationHoldManager", holdManager);
+        inject(service, "warehouseStockManager", new WarehouseStockManager());
+
+        for (long productId = 1; productId <= productCount; productId++) {
+            repository.save(Inventory.builder().productId(productId).quantity(quantity).reservedQuantity(0).build());
+        }
+    }
+
+    /**
+     * @return The wired inventory service
+     */
+    public InventoryService service() {
+        return service;
+    }
+
+    /**
+     * @return The reservation engine behind the service
+     */
+    public ReservationEngine reservationEngine() {
+        return reservationEngine;
+    }
+
+    /**
+     * @return The repository behind the service
+     */
+    public InventoryRepository repository() {
+        return repository;
+    }
+
+    @Override
+    public void close() {
+        invoke(holdManager, "stop");
+        invoke(reservationEngine, "stop");
+        invoke(lowStockMonitor, "stop");
+        invoke(productCache, "shutdown");
+        invoke(categoryCache, "shutdown");
+        invoke(clientRegistry, "closeAll");
+    }
+
+    private static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = findField(target.getClass(), fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getName(), e);
+        }
+    }
+
+    private static void invoke(Object target, String methodName) {
+        try {
+            Method method = findMethod(target.getClass(), methodName);
+            method.setAccessible(true);
+            method.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot call " + methodName + " on " + target.getClass().getName(), e);
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // Declared further up
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static Method findMethod(Class<?> type, String name) throws NoSuchMethodException {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredMethod(name);
+            } catch (NoSuchMethodException e) {
+                // Declared further up
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+}
@@ -0,0 +1,100 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads and writes of the in-memory inventory repository, including the quantity-filtered
+ * offset and keyset pages behind {@code GET /api/inventories}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private InventoryRepository repository;
+
+    @Setup
+    public void setUp() {
+        repository = new InventoryRepository();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long productId = 1; productId <= size; productId++) {
+            repository.save(Inventory.builder()
+                    .productId(productId)
+                    .quantity(random.nextInt(1000))
+                    .reservedQuantity(0)
+                    .build());
+        }
+    }
+
+    /**
+     * Replaces an existing item, which also moves it in the quantity index.
+     */
+    @Benchmark
+    public Inventory save() {
+        long id = randomId();
+        return repository.save(new Inventory(id, id, ThreadLocalRandom.current().nextInt(1000), 0, 0));
+    }
+
+    @Benchmark
+    public Optional<Inventory> findByProductId() {
+        return repository.findByProductId(randomId());
+    }
+
+    @Benchmark
+    public List<Inventory> findAll() {
+        return repository.findAll();
+    }
+
+    /**
+     * A random offset page of the items with 100 to 500 units, as served by {@code ?page=&size=}.
+     */
+    @Benchmark
+    public List<Inventory> filteredOffsetPage() {
+        long pages = Math.max(1, size * 2L / 5 / PAGE_SIZE);
+        long offset = ThreadLocalRandom.current().nextLong(pages) * PAGE_SIZE;
+        return repository.findByQuantityRange(100, 500, offset, PAGE_SIZE);
+    }
+
+    /**
+     * A page of the items with 100 to 500 units after a random cursor, as served by {@code ?after=}.
+     */
+    @Benchmark
+    public List<Inventory> filteredKeysetPage() {
+        return repository.findAfterId(randomId(), 100, 500, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long countFiltered() {
+        return repository.countByQuantityRange(100, 500);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1L);
+    }
+}
@@ -0,0 +1,112 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.dto.ReservationHoldInfo;
+import io.microprofile.tutorial.store.inventory.dto.ReservationRequest;
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.reservation.SplitStockCell;
+import io.microprofile.tutorial.store.inventory.service.InventoryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reservations through {@link InventoryService} with a stubbed catalog, so the numbers cover the
+ * product cache, the stock cells, the hold timer and the repository but no network.
+ * Holds expire after a second and return their units, so stock never runs out however long the
+ * benchmark runs. With {@code products=1} every thread reserves the same product; with 1000 they
+ * spread out. With {@code cell=split} the products use a {@link SplitStockCell}, so together with
+ * {@code products=1} this is the whole flash-sale path, publication through the repository
+ * included, which {@link StockCellBenchmark} leaves out. Run it at several thread counts with
+ * {@link ThreadScaling}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationBenchmark {
+
+    // Products per basket in the batch-versus-single comparison
+    private static final int BASKET_SIZE = 4;
+
+    @Param({"1", "1000"})
+    public int products;
+
+    @Param({"plain", "split"})
+    public String cell;
+
+    private InventoryFixture fixture;
+
+    private InventoryService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new InventoryFixture(products, 1_000_000_000, 1);
+        if ("split".equals(cell)) {
+            for (long productId = 1; productId <= products; productId++) {
+                fixture.reservationEngine().splitStock(productId);
+            }
+        }
+        service = fixture.service();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Inventory reserveInventory() {
+        return service.reserveInventory(randomProduct(), 1);
+    }
+
+    /**
+     * One basket reserved all-or-nothing with a single call.
+     */
+    @Benchmark
+    public List<ReservationHoldInfo> reserveBasketBatch() {
+        long first = randomProduct();
+        List<ReservationRequest> basket = new ArrayList<>(BASKET_SIZE);
+        for (int i = 0; i < BASKET_SIZE; i++) {
+            basket.add(new ReservationRequest(productAt(first + i), 1));
+        }
+        return service.reserveBatch(basket, null);
+    }
+
+    /**
+     * The same basket reserved one product at a time.
+     */
+    @Benchmark
+    public void reserveBasketSingly(Blackhole blackhole) {
+        long first = randomProduct();
+        for (int i = 0; i < BASKET_SIZE; i++) {
+            blackhole.consume(service.reserveWithHold(productAt(first + i), 1, null));
+        }
+    }
+
+    private long randomProduct() {
+        return ThreadLocalRandom.current().nextLong(1, products + 1L);
+    }
+
+    private long productAt(long index) {
+        return (index - 1) % products + 1;
+    }
+}
@@ -0,0 +1,57 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.reservation.SplitStockCell;
+import io.microprofile.tutorial.store.inventory.reservation.StockCell;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reserve-and-release on the stock cell of one hot product, comparing the single packed counter
+ * with the split cell that spreads the stock over buckets. The cells publish straight onto a
+ * detached record here, so this measures the counters alone; {@link ReservationBenchmark} with
+ * {@code cell=split} measures the same cells behind the service and the repository. The
+ * difference only shows with many threads, so run it with {@link ThreadScaling}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockCellBenchmark {
+
+    @Param({"plain", "split"})
+    public String cell;
+
+    private StockCell stockCell;
+
+    @Setup
+    public void setUp() {
+        Inventory inventory = Inventory.builder().inventoryId(1L).productId(1L).quantity(1_000_000).reservedQuantity(0).build();
+        stockCell = "split".equals(cell)
+                ? new SplitStockCell(inventory, Runtime.getRuntime().availableProcessors())
+                : new StockCell(inventory);
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        if (stockCell.tryReserve(1)) {
+            stockCell.release(1);
+            return true;
+        }
+        return false;
+    }
+}
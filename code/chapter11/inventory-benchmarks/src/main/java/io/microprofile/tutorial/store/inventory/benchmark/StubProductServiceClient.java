@@ -0,0 +1,76 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Catalog client that answers from memory, so benchmarks measure the inventory service and not
+ * the network. It knows the products 1 to {@code productCount}, all in one category.
+ */
+public class StubProductServiceClient implements ProductServiceClient {
+
+    /**
+     * The category every stub product belongs to.
+     */
+    public static final String CATEGORY = "benchmark";
+
+    private final List<Product> products;
+
+    /**
+     * Creates the stub.
+     *
+     * @param productCount The number of products the catalog knows
+     */
+    public StubProductServiceClient(int productCount) {
+        products = new ArrayList<>(productCount);
+        for (long id = 1; id <= productCount; id++) {
+            products.add(new Product(id, "Product " + id, 9.99, CATEGORY, "Benchmark product " + id));
+        }
+    }
+
+    @Override
+    public Product getProductById(Long id) {
+        return id >= 1 && id <= products.size() ? products.get((int) (id - 1)) : null;
+    }
+
+    @Override
+    public List<Product> getProductsByCategory(String category) {
+        return CATEGORY.equals(category) ? products : List.of();
+    }
+
+    @Override
+    public List<Product> getProductsByIds(List<Long> ids) {
+        List<Product> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = getProductById(id);
+            if (product != null) {
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public CompletionStage<Product> getProductByIdAsync(Long id) {
+        return CompletableFuture.completedFuture(getProductById(id));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> getProductsByCategoryAsync(String category) {
+        return CompletableFuture.completedFuture(getProductsByCategory(category));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> getProductsByIdsAsync(List<Long> ids) {
+        return CompletableFuture.completedFuture(getProductsByIds(ids));
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,49 @@
+package io.microprofile.tutorial.store.inventory.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks once per thread count with the GC profiler attached, writing one JSON result
+ * file per thread count so that runs of two commits can be compared side by side.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar io.microprofile.tutorial.store.inventory.benchmark.ThreadScaling
+ * [benchmark regex] [thread counts] [result directory]}, e.g.
+ * {@code ... ThreadScaling "ReservationBenchmark|StockCellBenchmark" 1,4,16,64 target/jmh}.
+ */
+public final class ThreadScaling {
+
+    private ThreadScaling() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : "ReservationBenchmark|StockCellBenchmark";
+        String threadCounts = args.length > 1 ? args[1] : "1,2,4,8,16,32,64";
+        Path resultDirectory = Paths.get(args.length > 2 ? args[2] : "target/jmh");
+        Files.createDirectories(resultDirectory);
+
+        for (String threadCount : threadCounts.split(",")) {
+            int threads = Integer.parseInt(threadCount.trim());
+            run(include, threads, resultDirectory.resolve("threads-" + threads + ".json"));
+        }
+    }
+
+    private static void run(String include, int threads, Path resultFile) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .result(resultFile.toString())
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+}
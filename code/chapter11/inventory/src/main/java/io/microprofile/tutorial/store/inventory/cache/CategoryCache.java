@@ -0,0 +1,136 @@
+package io.microprofile.tutorial.store.inventory.cache;
+
+import io.microprofile.tutorial.store.inventory.dto.Product;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+/**
+ * Cache of the catalog's category listings (category name to product list).
+ * Large categories are expensive to fetch, so listings are kept for a TTL, refreshed in
+ * the background before they expire, and concurrent requests for the same category share
+ * one catalog call. A category the catalog reports as empty (404) is cached as an empty list.
+ */
+@ApplicationScoped
+public class CategoryCache {
+
+    private static final Logger LOGGER = Logger.getLogger(CategoryCache.class.getName());
+
+    private long maximumSize;
+    private long ttlSeconds;
+    private long refreshAfterSeconds;
+
+    // Created in start(), so CDI client proxies and test spies start no threads of their own
+    private ExecutorService refreshExecutor;
+
+    private TinyLfuCache<String, List<Product>> cache;
+
+    /**
+     * Creates a category cache for CDI, which configures and starts it.
+     */
+    public CategoryCache() {
+    }
+
+    /**
+     * Creates and starts a category cache outside CDI, e.g. in tests.
+     *
+     * @see #configure(long, long, long)
+     */
+    public CategoryCache(long maximumSize, long ttlSeconds, long refreshAfterSeconds) {
+        configure(maximumSize, ttlSeconds, refreshAfterSeconds);
+        start();
+    }
+
+    /**
+     * Applies the cache settings from MicroProfile Config.
+     *
+     * @param maximumSize The maximum number of cached categories
+     * @param ttlSeconds How long a category listing stays cached
+     * @param refreshAfterSeconds How long after loading a read triggers a background refresh
+     */
+    @Inject
+    void configure(
+            @ConfigProperty(name = "inventory.categoryCache.maximumSize", defaultValue = "256") long maximumSize,
+            @ConfigProperty(name = "inventory.categoryCache.ttlSeconds", defaultValue = "60") long ttlSeconds,
+            @ConfigProperty(name = "inventory.categoryCache.refreshAfterSeconds", defaultValue = "45") long refreshAfterSeconds) {
+        this.maximumSize = maximumSize;
+        this.ttlSeconds = ttlSeconds;
+        this.refreshAfterSeconds = refreshAfterSeconds;
+    }
+
+    @PostConstruct
+    void start() {
+        refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "category-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cache = new TinyLfuCache<>(Math.max(2, maximumSize),
+                Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(Math.min(refreshAfterSeconds, ttlSeconds)),
+                Duration.ofSeconds(ttlSeconds),
+                CategoryCache::isNotFound,
+                refreshExecutor,
+                System::nanoTime);
+        LOGGER.fine("Category cache configured: maximumSize=" + maximumSize + ", ttl=" + ttlSeconds + "s");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the products of a category, loading them from the catalog if they are not cached.
+     *
+     * @param category The category name
+     * @param loader Loads the category's products from the catalog
+     * @return The products, empty if the category has none
+     * @throws WebApplicationException if the catalog call fails for another reason
+     */
+    public List<Product> get(String category, Function<String, List<Product>> loader) {
+        return cache.get(category, loader).orElse(List.of());
+    }
+
+    /**
+     * Removes a category listing from the cache.
+     *
+     * @param category The category name
+     */
+    public void invalidate(String category) {
+        cache.invalidate(category);
+    }
+
+    @Gauge(name = "categoryCacheSize", absolute = true, unit = "none",
+           description = "Number of category listings held in the inventory category cache")
+    public long size() {
+        return cache.size();
+    }
+
+    @Gauge(name = "categoryCacheHitRate", absolute = true, unit = "none",
+           description = "Fraction of category lookups served from the cache")
+    public double hitRate() {
+        return cache.hitRate();
+    }
+
+    private static boolean isNotFound(RuntimeException e) {
+        return e instanceof WebApplicationException
+                && ((WebApplicationException) e).getResponse() != null
+                && ((WebApplicationException) e).getResponse().getStatus() == 404;
+    }
+}
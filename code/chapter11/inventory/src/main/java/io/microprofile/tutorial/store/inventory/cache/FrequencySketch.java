@@ -0,0 +1,86 @@
+package io.microprofile.tutorial.store.inventory.cache;
+
+/**
+ * Count-min sketch that estimates how often a key was accessed recently.
+ * Counters saturate at 15 and are all halved once the number of recorded accesses
+ * reaches a sample size proportional to the cache size, so old popularity fades out.
+ * Not thread-safe; callers guard it with the cache policy lock.
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+        0x9E37_79B9_7F4A_7C15L, 0xC2B2_AE3D_27D4_EB4FL, 0x1656_67B1_9E37_79F9L, 0x85EB_CA77_C2B2_AE63L
+    };
+
+    private final byte[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a sketch sized for a cache of the given capacity.
+     *
+     * @param maximumSize The maximum number of cache entries
+     */
+    FrequencySketch(long maximumSize) {
+        int width = Integer.highestOneBit((int) Math.min(1 << 24, Math.max(16, maximumSize)) - 1) << 1;
+        this.table = new byte[width];
+        this.mask = width - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(16, maximumSize));
+    }
+
+    /**
+     * Records one access of a key.
+     *
+     * @param key The accessed key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = indexOf(hash, i);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Estimates how often a key was accessed.
+     *
+     * @param key The key
+     * @return The estimated access frequency (0-15)
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (byte) (table[i] >>> 1);
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+}
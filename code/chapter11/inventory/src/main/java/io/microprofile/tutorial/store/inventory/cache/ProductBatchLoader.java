@@ -0,0 +1,209 @@
+package io.microprofile.tutorial.store.inventory.cache;
+
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Micro-batches catalog product lookups.
+ * Product IDs requested through the same client within a short window are fetched with a
+ * single multi-get call instead of one call per ID. A batch is sent when the window closes
+ * or as soon as it reaches its maximum size; a batch holding a single ID uses the plain
+ * by-ID call, so a lone lookup keeps the catalog's 404 semantics.
+ */
+public class ProductBatchLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductBatchLoader.class.getName());
+
+    private final long windowNanos;
+    private final int maximumBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Executor callExecutor;
+
+    // Open batches keyed by the identity of the client they will be sent with, guarded by this;
+    // clients are proxies, whose equals and hashCode need not be identity
+    private final Map<ProductServiceClient, Batch> openBatches = new IdentityHashMap<>();
+
+    private final LongAdder catalogCalls = new LongAdder();
+    private final LongAdder batchedLookups = new LongAdder();
+
+    /**
+     * Creates a batch loader.
+     *
+     * @param windowNanos How long a batch collects IDs before it is sent
+     * @param maximumBatchSize The number of IDs that sends a batch immediately
+     * @param scheduler Runs the window timers and the catalog calls
+     */
+    public ProductBatchLoader(long windowNanos, int maximumBatchSize, ScheduledExecutorService scheduler) {
+        this(windowNanos, maximumBatchSize, scheduler, scheduler);
+    }
+
+    /**
+     * Creates a batch loader whose catalog calls run on their own executor.
+     *
+     * @param windowNanos How long a batch collects IDs before it is sent
+     * @param maximumBatchSize The number of IDs that sends a batch immediately
+     * @param scheduler Runs the window timers
+     * @param callExecutor Runs the (blocking) catalog calls
+     */
+    public ProductBatchLoader(long windowNanos, int maximumBatchSize, ScheduledExecutorService scheduler,
+                              Executor callExecutor) {
+        if (maximumBatchSize < 1) {
+            throw new IllegalArgumentException("Maximum batch size must be at least 1");
+        }
+        this.windowNanos = windowNanos;
+        this.maximumBatchSize = maximumBatchSize;
+        this.scheduler = scheduler;
+        this.callExecutor = callExecutor;
+    }
+
+    /**
+     * Loads a product, blocking until the batch it joined has been answered.
+     *
+     * @param productId The product ID
+     * @param client The catalog client to use
+     * @return The product, or null if the catalog does not know it
+     * @throws WebApplicationException if the catalog call fails
+     */
+    public Product load(Long productId, ProductServiceClient client) {
+        if (windowNanos <= 0 || maximumBatchSize == 1) {
+            catalogCalls.increment();
+            return client.getProductById(productId);
+        }
+        try {
+            return enqueue(productId, client).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Loads a product without blocking the caller.
+     *
+     * @param productId The product ID
+     * @param client The catalog client to use
+     * @return Completes with the product, or null if the catalog does not know it; fails if the catalog call fails
+     */
+    public CompletableFuture<Product> loadAsync(Long productId, ProductServiceClient client) {
+        if (windowNanos <= 0 || maximumBatchSize == 1) {
+            catalogCalls.increment();
+            return client.getProductByIdAsync(productId).toCompletableFuture();
+        }
+        return enqueue(productId, client);
+    }
+
+    /**
+     * @return The number of catalog calls made
+     */
+    public long catalogCallCount() {
+        return catalogCalls.sum();
+    }
+
+    /**
+     * @return The number of product lookups answered by those calls
+     */
+    public long lookupCount() {
+        return batchedLookups.sum();
+    }
+
+    private CompletableFuture<Product> enqueue(Long productId, ProductServiceClient client) {
+        Batch full = null;
+        CompletableFuture<Product> result;
+        synchronized (this) {
+            Batch batch = openBatches.get(client);
+            if (batch == null) {
+                Batch opened = new Batch(client);
+                openBatches.put(client, opened);
+                scheduler.schedule(() -> close(opened), windowNanos, TimeUnit.NANOSECONDS);
+                batch = opened;
+            }
+            result = batch.pending.computeIfAbsent(productId, id -> new CompletableFuture<>());
+            if (batch.pending.size() >= maximumBatchSize) {
+                openBatches.remove(client);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            Batch toSend = full;
+            callExecutor.execute(() -> send(toSend));
+        }
+        return result;
+    }
+
+    private void close(Batch batch) {
+        synchronized (this) {
+            // The batch may already have been sent because it filled up
+            if (!openBatches.remove(batch.client, batch)) {
+                return;
+            }
+        }
+        if (callExecutor == scheduler) {
+            send(batch);
+        } else {
+            callExecutor.execute(() -> send(batch));
+        }
+    }
+
+    private void send(Batch batch) {
+        List<Long> ids = new ArrayList<>(batch.pending.keySet());
+        catalogCalls.increment();
+        batchedLookups.add(ids.size());
+        try {
+            if (ids.size() == 1) {
+                batch.pending.get(ids.get(0)).complete(batch.client.getProductById(ids.get(0)));
+                return;
+            }
+            Map<Long, Product> found = new HashMap<>();
+            for (Product product : fetchAll(batch.client, ids)) {
+                if (product != null && product.getId() != null) {
+                    found.put(product.getId(), product);
+                }
+            }
+            // IDs missing from the response are unknown to the catalog
+            batch.pending.forEach((id, future) -> future.complete(found.get(id)));
+            LOGGER.fine("Resolved " + ids.size() + " product lookups with one catalog call");
+        } catch (RuntimeException e) {
+            batch.pending.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static List<Product> fetchAll(ProductServiceClient client, List<Long> ids) {
+        try {
+            List<Product> products = client.getProductsByIds(ids);
+            return products != null ? products : List.of();
+        } catch (WebApplicationException e) {
+            if (e.getResponse() != null && e.getResponse().getStatus() == 404) {
+                return List.of();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * IDs waiting to be sent with one client, each with the future its callers wait on.
+     */
+    private static final class Batch {
+
+        private final ProductServiceClient client;
+        private final Map<Long, CompletableFuture<Product>> pending = new LinkedHashMap<>();
+
+        private Batch(ProductServiceClient client) {
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package io.microprofile.tutorial.store.inventory.cache;
+
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+/**
+ * Cache of catalog products used to validate inventory operations without a
+ * synchronous catalog call for every request.
+ * Products are evicted with W-TinyLFU, expire after a TTL, are refreshed in the
+ * background shortly before they expire, and 404 responses are cached briefly
+ * so unknown product IDs do not hit the catalog on every attempt.
+ * Concurrent misses for one product share a single catalog call, and misses for
+ * different products arriving within a short window are fetched with one multi-get call.
+ */
+@ApplicationScoped
+public class ProductCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductCache.class.getName());
+
+    private long maximumSize;
+    private long ttlSeconds;
+    private long refreshAfterSeconds;
+    private long negativeTtlSeconds;
+    private long batchWindowMillis;
+    private int maximumBatchSize;
+
+    // Created in start(), so CDI client proxies and test spies start no threads of their own
+    private ExecutorService refreshExecutor;
+    private ScheduledExecutorService batchScheduler;
+    private ExecutorService catalogCallExecutor;
+
+    private TinyLfuCache<Long, Product> cache;
+
+    private ProductBatchLoader batchLoader;
+
+    /**
+     * Creates a product cache for CDI, which configures and starts it.
+     */
+    public ProductCache() {
+    }
+
+    /**
+     * Creates and starts a product cache outside CDI, e.g. in tests.
+     *
+     * @see #configure(long, long, long, long, long, int)
+     */
+    public ProductCache(long maximumSize, long ttlSeconds, long refreshAfterSeconds, long negativeTtlSeconds,
+                        long batchWindowMillis, int maximumBatchSize) {
+        configure(maximumSize, ttlSeconds, refreshAfterSeconds, negativeTtlSeconds, batchWindowMillis, maximumBatchSize);
+        start();
+    }
+
+    /**
+     * Applies the cache settings from MicroProfile Config.
+     *
+     * @param maximumSize The maximum number of cached products
+     * @param ttlSeconds How long a product stays cached
+     * @param refreshAfterSeconds How long after loading a read triggers a background refresh
+     * @param negativeTtlSeconds How long a "product not found" result stays cached
+     * @param batchWindowMillis How long misses are collected into one catalog call; 0 disables batching
+     * @param maximumBatchSize The number of collected misses that sends a catalog call immediately
+     */
+    @Inject
+    void configure(
+            @ConfigProperty(name = "inventory.productCache.maximumSize", defaultValue = "10000") long maximumSize,
+            @ConfigProperty(name = "inventory.productCache.ttlSeconds", defaultValue = "300") long ttlSeconds,
+            @ConfigProperty(name = "inventory.productCache.refreshAfterSeconds", defaultValue = "240") long refreshAfterSeconds,
+            @ConfigProperty(name = "inventory.productCache.negativeTtlSeconds", defaultValue = "30") long negativeTtlSeconds,
+            @ConfigProperty(name = "inventory.productCache.batchWindowMillis", defaultValue = "2") long batchWindowMillis,
+            @ConfigProperty(name = "inventory.productCache.maximumBatchSize", defaultValue = "50") int maximumBatchSize) {
+        this.maximumSize = maximumSize;
+        this.ttlSeconds = ttlSeconds;
+        this.refreshAfterSeconds = refreshAfterSeconds;
+        this.negativeTtlSeconds = negativeTtlSeconds;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maximumBatchSize = maximumBatchSize;
+    }
+
+    @PostConstruct
+    void start() {
+        refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "product-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchScheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "product-cache-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Catalog calls block while they wait for the catalog; virtual threads keep that cheap
+        catalogCallExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        cache = new TinyLfuCache<>(maximumSize,
+                Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(Math.min(refreshAfterSeconds, ttlSeconds)),
+                Duration.ofSeconds(negativeTtlSeconds),
+                ProductCache::isNotFound,
+                refreshExecutor,
+                System::nanoTime);
+        batchLoader = new ProductBatchLoader(TimeUnit.MILLISECONDS.toNanos(batchWindowMillis), maximumBatchSize,
+                batchScheduler, catalogCallExecutor);
+        LOGGER.fine("Product cache configured: maximumSize=" + maximumSize + ", ttl=" + ttlSeconds + "s");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            batchScheduler.shutdownNow();
+            catalogCallExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a product, loading it from the catalog if it is not cached.
+     *
+     * @param productId The product ID
+     * @param loader Loads the product from the catalog
+     * @return The product, or empty if the catalog does not know it
+     * @throws WebApplicationException if the catalog call fails for another reason
+     */
+    public Optional<Product> get(Long productId, Function<Long, Product> loader) {
+        return cache.get(productId, loader);
+    }
+
+    /**
+     * Returns a product, loading it through the given catalog client if it is not cached.
+     * Concurrent misses are collapsed and batched into as few catalog calls as possible.
+     *
+     * @param productId The product ID
+     * @param client The catalog client to load the product with
+     * @return The product, or empty if the catalog does not know it
+     * @throws WebApplicationException if the catalog call fails for another reason
+     */
+    public Optional<Product> get(Long productId, ProductServiceClient client) {
+        return cache.get(productId, id -> batchLoader.load(id, client));
+    }
+
+    /**
+     * Returns a product without blocking the caller, loading it through the given catalog client
+     * if it is not cached. Misses are collapsed and batched exactly as with
+     * {@link #get(Long, ProductServiceClient)}.
+     *
+     * @param productId The product ID
+     * @param client The catalog client to load the product with
+     * @return Completes with the product, or empty if the catalog does not know it; fails with a
+     *         {@link WebApplicationException} if the catalog call fails for another reason
+     */
+    public CompletableFuture<Optional<Product>> getAsync(Long productId, ProductServiceClient client) {
+        return cache.getAsync(productId, id -> batchLoader.loadAsync(id, client));
+    }
+
+    /**
+     * Returns a product only if it is cached, without calling the catalog.
+     *
+     * @param productId The product ID
+     * @return The product, or empty if it is not cached or cached as unknown
+     */
+    public Optional<Product> getIfPresent(Long productId) {
+        return cache.getIfPresent(productId);
+    }
+
+    /**
+     * Stores a product that was fetched by other means, e.g. as part of a category listing.
+     *
+     * @param product The product
+     */
+    public void put(Product product) {
+        if (product != null && product.getId() != null) {
+            cache.put(product.getId(), product);
+        }
+    }
+
+    /**
+     * Removes a product from the cache.
+     *
+     * @param productId The product ID
+     */
+    public void invalidate(Long productId) {
+        cache.invalidate(productId);
+    }
+
+    @Gauge(name = "productCacheSize", absolute = true, unit = "none",
+           description = "Number of catalog products held in the inventory product cache")
+    public long size() {
+        return cache.size();
+    }
+
+    @Gauge(name = "productCacheHits", absolute = true, unit = "none",
+           description = "Product lookups served from the cache")
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    @Gauge(name = "productCacheMisses", absolute = true, unit = "none",
+           description = "Product lookups that had to call the catalog service")
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    @Gauge(name = "productCacheLoads", absolute = true, unit = "none",
+           description = "Product loads performed after concurrent misses for the same product were collapsed")
+    public long loadCount() {
+        return cache.loadCount();
+    }
+
+    @Gauge(name = "productCacheCatalogCalls", absolute = true, unit = "none",
+           description = "Catalog calls made to answer batched product loads")
+    public long catalogCallCount() {
+        return batchLoader.catalogCallCount();
+    }
+
+    @Gauge(name = "productCacheEvictions", absolute = true, unit = "none",
+           description = "Products evicted from the cache to stay within its size bound")
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+
+    @Gauge(name = "productCacheRefreshes", absolute = true, unit = "none",
+           description = "Products reloaded in the background before they expired")
+    public long refreshCount() {
+        return cache.refreshCount();
+    }
+
+    @Gauge(name = "productCacheHitRate", absolute = true, unit = "none",
+           description = "Fraction of product lookups served from the cache")
+    public double hitRate() {
+        return cache.hitRate();
+    }
+
+    private static boolean isNotFound(RuntimeException e) {
+        return e instanceof WebApplicationException
+                && ((WebApplicationException) e).getResponse() != null
+                && ((WebApplicationException) e).getResponse().getStatus() == 404;
+    }
+}
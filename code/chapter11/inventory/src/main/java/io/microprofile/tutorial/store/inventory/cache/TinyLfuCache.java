@@ -0,0 +1,437 @@
+package io.microprofile.tutorial.store.inventory.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Concurrent, size-bounded loading cache with W-TinyLFU eviction.
+ * New entries enter a small LRU admission window; entries leaving the window only replace
+ * an entry of the main segmented LRU if a frequency sketch says they are accessed more often,
+ * which keeps one-off lookups from flushing popular entries.
+ * Entries expire a fixed time after they were loaded and are reloaded in the background
+ * (refresh-ahead) when they are read after the refresh point. Lookups that the loader reports
+ * as absent are cached as negative entries with their own, usually shorter, lifetime.
+ * Concurrent misses for the same key are collapsed into a single load whose result all
+ * waiting callers share.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final Logger LOGGER = Logger.getLogger(TinyLfuCache.class.getName());
+
+    private final Map<K, CacheEntry<V>> data = new ConcurrentHashMap<>();
+
+    // Loads in progress; later misses for the same key wait for these instead of loading again
+    private final Map<K, CompletableFuture<CacheEntry<V>>> loading = new ConcurrentHashMap<>();
+
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private final long protectedMaximum;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final long negativeExpireNanos;
+    private final Predicate<RuntimeException> absentCondition;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoClock;
+
+    // Eviction policy state, guarded by policyLock
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize The maximum number of entries
+     * @param expireAfterWrite How long a loaded value stays valid
+     * @param refreshAfterWrite How long after loading a read triggers a background reload
+     * @param negativeExpireAfterWrite How long an absent result stays cached
+     * @param absentCondition Identifies loader exceptions that mean "no such value"
+     * @param refreshExecutor Executor for background reloads
+     * @param nanoClock Source of monotonic time in nanoseconds
+     */
+    public TinyLfuCache(long maximumSize, Duration expireAfterWrite, Duration refreshAfterWrite,
+                        Duration negativeExpireAfterWrite, Predicate<RuntimeException> absentCondition,
+                        Executor refreshExecutor, LongSupplier nanoClock) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("Maximum size must be at least 2");
+        }
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * 4 / 5;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.refreshAfterWriteNanos = refreshAfterWrite.toNanos();
+        this.negativeExpireNanos = negativeExpireAfterWrite.toNanos();
+        this.absentCondition = absentCondition;
+        this.refreshExecutor = refreshExecutor;
+        this.nanoClock = nanoClock;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Returns the cached value for a key, loading it if it is missing or expired.
+     *
+     * @param key The key
+     * @param loader Loads the value; may return null or throw an absent exception if there is none
+     * @return The value, or empty if the loader reported it as absent
+     * @throws RuntimeException any loader exception that does not mean "absent"; it is not cached
+     */
+    public Optional<V> get(K key, Function<K, V> loader) {
+        long now = nanoClock.getAsLong();
+        CacheEntry<V> entry = data.get(key);
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            recordRead(key);
+            if (entry.shouldRefresh(now) && entry.refreshing.compareAndSet(false, true)) {
+                refreshAsync(key, entry, loader);
+            }
+            return Optional.ofNullable(entry.value);
+        }
+
+        misses.increment();
+        return Optional.ofNullable(loadShared(key, loader).value);
+    }
+
+    /**
+     * Returns the cached value for a key without blocking, loading it asynchronously if it is
+     * missing or expired. Loads are shared with concurrent {@link #get(Object, Function)} and
+     * {@code getAsync} calls for the same key, and a read after the refresh point reloads the
+     * entry in the background exactly as {@code get} does.
+     *
+     * @param key The key
+     * @param loader Starts loading the value; may complete with null or an absent exception if there is none
+     * @return The value, or empty if the loader reported it as absent; fails with any other loader exception
+     */
+    public CompletableFuture<Optional<V>> getAsync(K key, Function<K, ? extends CompletionStage<V>> loader) {
+        long now = nanoClock.getAsLong();
+        CacheEntry<V> entry = data.get(key);
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            recordRead(key);
+            if (entry.shouldRefresh(now) && entry.refreshing.compareAndSet(false, true)) {
+                refreshAsync(key, entry, k -> awaitLoad(loader.apply(k)));
+            }
+            return CompletableFuture.completedFuture(Optional.ofNullable(entry.value));
+        }
+
+        misses.increment();
+        CompletableFuture<CacheEntry<V>> pending = new CompletableFuture<>();
+        CompletableFuture<CacheEntry<V>> inProgress = loading.putIfAbsent(key, pending);
+        if (inProgress == null) {
+            inProgress = pending;
+            loads.increment();
+            CompletionStage<V> stage;
+            try {
+                stage = loader.apply(key);
+            } catch (RuntimeException e) {
+                stage = CompletableFuture.failedFuture(e);
+            }
+            stage.whenComplete((value, error) -> {
+                try {
+                    RuntimeException failure = error != null ? unwrap(error) : null;
+                    if (failure != null && !absentCondition.test(failure)) {
+                        pending.completeExceptionally(failure);
+                        return;
+                    }
+                    CacheEntry<V> loaded = newEntry(failure != null ? null : value);
+                    put(key, loaded);
+                    pending.complete(loaded);
+                } finally {
+                    loading.remove(key, pending);
+                }
+            });
+        }
+        return inProgress.thenApply(loaded -> Optional.ofNullable(loaded.value));
+    }
+
+    /**
+     * Returns the cached value for a key without loading it.
+     *
+     * @param key The key
+     * @return The cached value, or empty if it is absent, expired or negatively cached
+     */
+    public Optional<V> getIfPresent(K key) {
+        CacheEntry<V> entry = data.get(key);
+        if (entry == null || entry.isExpired(nanoClock.getAsLong())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry.value);
+    }
+
+    /**
+     * Stores a value that was obtained elsewhere (for example from a multi-get call).
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        put(key, newEntry(value));
+    }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key The key
+     */
+    public void invalidate(K key) {
+        policyLock.lock();
+        try {
+            if (data.remove(key) != null) {
+                window.remove(key);
+                probation.remove(key);
+                protectedSegment.remove(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public long size() {
+        return data.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of loads actually performed; collapsed misses are not counted
+     */
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long refreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * @return The fraction of lookups served from the cache, or 1.0 if there were none
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Loads a missing key, or waits for the load another thread already started for it.
+     */
+    private CacheEntry<V> loadShared(K key, Function<K, V> loader) {
+        CompletableFuture<CacheEntry<V>> pending = new CompletableFuture<>();
+        CompletableFuture<CacheEntry<V>> inProgress = loading.putIfAbsent(key, pending);
+        if (inProgress != null) {
+            try {
+                return inProgress.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            CacheEntry<V> loaded = load(key, loader);
+            put(key, loaded);
+            pending.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, pending);
+        }
+    }
+
+    private CacheEntry<V> load(K key, Function<K, V> loader) {
+        loads.increment();
+        try {
+            return newEntry(loader.apply(key));
+        } catch (RuntimeException e) {
+            if (absentCondition.test(e)) {
+                return newEntry(null);
+            }
+            throw e;
+        }
+    }
+
+    private static <V> V awaitLoad(CompletionStage<V> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+    }
+
+    private CacheEntry<V> newEntry(V value) {
+        long now = nanoClock.getAsLong();
+        if (value == null) {
+            return new CacheEntry<>(null, now + negativeExpireNanos, Long.MAX_VALUE);
+        }
+        return new CacheEntry<>(value, now + expireAfterWriteNanos, now + refreshAfterWriteNanos);
+    }
+
+    private void refreshAsync(K key, CacheEntry<V> current, Function<K, V> loader) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    CacheEntry<V> reloaded = load(key, loader);
+                    policyLock.lock();
+                    try {
+                        // Only replace the entry we refreshed; it may have been evicted or reloaded meanwhile
+                        data.replace(key, current, reloaded);
+                    } finally {
+                        policyLock.unlock();
+                    }
+                    refreshes.increment();
+                } catch (RuntimeException e) {
+                    current.refreshing.set(false);
+                    LOGGER.log(Level.FINE, "Background refresh failed for key " + key, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            current.refreshing.set(false);
+            LOGGER.log(Level.FINE, "Background refresh rejected for key " + key, e);
+        }
+    }
+
+    private void put(K key, CacheEntry<V> entry) {
+        policyLock.lock();
+        try {
+            sketch.increment(key);
+            if (data.put(key, entry) == null) {
+                onInsert(key);
+            } else {
+                onAccess(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Records a read for the eviction policy. Reads are recorded on a best-effort basis:
+     * if another thread holds the policy lock the access is dropped instead of waiting.
+     */
+    private void recordRead(K key) {
+        if (policyLock.tryLock()) {
+            try {
+                sketch.increment(key);
+                onAccess(key);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private void onAccess(K key) {
+        if (window.get(key) != null || protectedSegment.get(key) != null) {
+            return;
+        }
+        if (probation.remove(key) != null) {
+            protectedSegment.put(key, Boolean.TRUE);
+            if (protectedSegment.size() > protectedMaximum) {
+                K demoted = eldest(protectedSegment);
+                protectedSegment.remove(demoted);
+                probation.put(demoted, Boolean.TRUE);
+            }
+        }
+    }
+
+    private void onInsert(K key) {
+        window.put(key, Boolean.TRUE);
+        if (window.size() <= windowMaximum) {
+            return;
+        }
+
+        K candidate = eldest(window);
+        window.remove(candidate);
+        if (probation.size() + protectedSegment.size() < mainMaximum) {
+            probation.put(candidate, Boolean.TRUE);
+            return;
+        }
+
+        // Main segment is full: admit the candidate only if it is more popular than the victim
+        K victim = !probation.isEmpty() ? eldest(probation) : eldest(protectedSegment);
+        if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+            probation.remove(victim);
+            protectedSegment.remove(victim);
+            evict(victim);
+            probation.put(candidate, Boolean.TRUE);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void evict(K key) {
+        data.remove(key);
+        evictions.increment();
+    }
+
+    private static <K> K eldest(LinkedHashMap<K, Boolean> segment) {
+        Iterator<K> iterator = segment.keySet().iterator();
+        return iterator.next();
+    }
+
+    /**
+     * Cached value (null for a negative entry) with its expiry and refresh deadlines.
+     */
+    private static final class CacheEntry<V> {
+
+        private final V value;
+        private final long expireAtNanos;
+        private final long refreshAtNanos;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private CacheEntry(V value, long expireAtNanos, long refreshAtNanos) {
+            this.value = value;
+            this.expireAtNanos = expireAtNanos;
+            this.refreshAtNanos = refreshAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expireAtNanos >= 0;
+        }
+
+        private boolean shouldRefresh(long now) {
+            return refreshAtNanos != Long.MAX_VALUE && now - refreshAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.microprofile.tutorial.store.inventory.client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+
+/**
+ * Registry of programmatically built catalog clients.
+ * Building a REST client creates a new proxy and HTTP stack, so each distinct
+ * (baseUri, connectTimeout, readTimeout) combination is built once with
+ * {@link RestClientBuilder} and then reused, which keeps its pooled keep-alive
+ * connections warm. All clients are closed when the application shuts down.
+ * All clients share one executor: their {@code CompletionStage} methods wait for the
+ * catalog on virtual threads, so any number of pending asynchronous calls holds no
+ * platform thread. The HTTP transport cannot be shared, since MicroProfile Rest Client
+ * sets the timeouts per built client and has no portable way to hand it a connection
+ * pool, so each combination keeps its own pool.
+ */
+@ApplicationScoped
+public class ProductClientRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductClientRegistry.class.getName());
+
+    @Inject
+    @ConfigProperty(name = "product-service/mp-rest/url", defaultValue = "http://localhost:5050/catalog/api")
+    private String catalogBaseUri;
+
+    private final Map<ClientKey, ProductServiceClient> clients = new ConcurrentHashMap<>();
+
+    // Calls currently in progress across all registered clients
+    private final LongAdder inFlightCalls = new LongAdder();
+
+    // Runs the asynchronous methods of all clients; one cheap virtual thread per pending call
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Returns the shared client for the configured catalog URL and the given timeouts.
+     *
+     * @param connectTimeout The connect timeout
+     * @param readTimeout The read timeout
+     * @param unit The unit of both timeouts
+     * @return The shared client
+     */
+    public ProductServiceClient getClient(long connectTimeout, long readTimeout, TimeUnit unit) {
+        return getClient(catalogBaseUri, connectTimeout, readTimeout, unit);
+    }
+
+    /**
+     * Returns the shared client for a base URI and timeouts, building it on first use.
+     *
+     * @param baseUri The catalog base URI
+     * @param connectTimeout The connect timeout
+     * @param readTimeout The read timeout
+     * @param unit The unit of both timeouts
+     * @return The shared client
+     */
+    public ProductServiceClient getClient(String baseUri, long connectTimeout, long readTimeout, TimeUnit unit) {
+        ClientKey key = new ClientKey(baseUri, unit.toMillis(connectTimeout), unit.toMillis(readTimeout));
+        return clients.computeIfAbsent(key, this::build);
+    }
+
+    /**
+     * @return The configured catalog base URI
+     */
+    public String getCatalogBaseUri() {
+        return catalogBaseUri;
+    }
+
+    @Gauge(name = "productClientsLive", absolute = true, unit = "none",
+           description = "Number of programmatically built catalog clients currently open")
+    public int liveClientCount() {
+        return clients.size();
+    }
+
+    @Gauge(name = "productClientCallsInFlight", absolute = true, unit = "none",
+           description = "Catalog calls in progress on registered clients; not a connection count")
+    public long inFlightCallCount() {
+        return inFlightCalls.sum();
+    }
+
+    @PreDestroy
+    void closeAll() {
+        clients.forEach((key, client) -> {
+            try {
+                client.close();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to close catalog client for " + key, e);
+            }
+        });
+        LOGGER.info("Closed " + clients.size() + " catalog clients");
+        clients.clear();
+        asyncExecutor.shutdownNow();
+    }
+
+    private ProductServiceClient build(ClientKey key) {
+        // Using baseUri(String) from MP Rest Client 4.0 - no URI.create() needed
+        ProductServiceClient client = RestClientBuilder.newBuilder()
+                .baseUri(key.baseUri())
+                .connectTimeout(key.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(key.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .executorService(asyncExecutor)
+                .build(ProductServiceClient.class);
+        LOGGER.info("Built catalog client " + key);
+        return track(client);
+    }
+
+    /**
+     * Wraps a client so that calls in progress are counted.
+     */
+    private ProductServiceClient track(ProductServiceClient client) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class || method.getName().equals("close")) {
+                return invoke(client, method, args);
+            }
+            inFlightCalls.increment();
+            boolean pending = false;
+            try {
+                Object result = invoke(client, method, args);
+                if (result instanceof CompletionStage<?> stage) {
+                    // Asynchronous calls stay in flight until the catalog has answered
+                    pending = true;
+                    return stage.whenComplete((value, error) -> inFlightCalls.decrement());
+                }
+                return result;
+            } finally {
+                if (!pending) {
+                    inFlightCalls.decrement();
+                }
+            }
+        };
+        return (ProductServiceClient) Proxy.newProxyInstance(ProductServiceClient.class.getClassLoader(),
+                new Class<?>[] {ProductServiceClient.class}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Identifies one client configuration.
+     */
+    private record ClientKey(String baseUri, long connectTimeoutMillis, long readTimeoutMillis) {
+    }
+}
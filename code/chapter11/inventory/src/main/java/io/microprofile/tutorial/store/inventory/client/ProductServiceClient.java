@@ -5,6 +5,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.QueryParam;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
@@ -20,4 +21,19 @@ public interface ProductServiceClient extends AutoCloseable {
 
     @GET
     List<Product> getProductsByCategory(@QueryParam("category") String category);
+
+    @GET
+    List<Product> getProductsByIds(@QueryParam("id") List<Long> ids);
+
+    // Non-blocking variants: the calling thread is released while the catalog responds
+
+    @GET
+    @Path("/{id}")
+    CompletionStage<Product> getProductByIdAsync(@PathParam("id") Long id);
+
+    @GET
+    CompletionStage<List<Product>> getProductsByCategoryAsync(@QueryParam("category") String category);
+
+    @GET
+    CompletionStage<List<Product>> getProductsByIdsAsync(@QueryParam("id") List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a streaming inventory import, reported after every chunk and once at the end.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgress {
+
+    /**
+     * Non-blank input lines read so far.
+     */
+    private long processed;
+
+    /**
+     * Inventory items created so far.
+     */
+    private long imported;
+
+    /**
+     * Lines rejected so far.
+     */
+    private long rejected;
+
+    /**
+     * Reasons for the lines rejected since the previous report, each prefixed with its line number.
+     */
+    private List<String> errors;
+
+    /**
+     * Whether the whole input has been read.
+     */
+    private boolean done;
+}
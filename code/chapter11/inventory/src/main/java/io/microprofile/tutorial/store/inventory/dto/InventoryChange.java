@@ -0,0 +1,60 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock level of a product after a change, pushed to subscribers of the inventory change stream.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChange {
+
+    /**
+     * Product whose stock changed.
+     */
+    private Long productId;
+
+    /**
+     * Inventory record of the product.
+     */
+    private Long inventoryId;
+
+    /**
+     * On-hand quantity.
+     */
+    private Integer quantity;
+
+    /**
+     * Reserved quantity.
+     */
+    private Integer reservedQuantity;
+
+    /**
+     * Quantity that can still be reserved.
+     */
+    private Integer availableQuantity;
+
+    /**
+     * True if the inventory record was deleted.
+     */
+    private boolean deleted;
+
+    /**
+     * Captures the current values of an inventory record.
+     *
+     * @param inventory The inventory record
+     * @param deleted Whether the record was deleted
+     * @return The change
+     */
+    public static InventoryChange of(Inventory inventory, boolean deleted) {
+        int quantity = inventory.getQuantity() != null ? inventory.getQuantity() : 0;
+        int reserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
+        return new InventoryChange(inventory.getProductId(), inventory.getInventoryId(),
+                deleted ? 0 : quantity, deleted ? 0 : reserved, deleted ? 0 : quantity - reserved, deleted);
+    }
+}
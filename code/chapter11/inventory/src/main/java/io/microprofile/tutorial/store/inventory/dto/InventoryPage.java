@@ -0,0 +1,28 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a keyset-paginated inventory listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryPage {
+
+    /**
+     * Inventory items on this page.
+     */
+    private List<Inventory> items;
+
+    /**
+     * Cursor for the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,39 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock of one product summed over all warehouses that stock it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailability {
+
+    /**
+     * Product the totals are for.
+     */
+    private Long productId;
+
+    /**
+     * Units on hand over all warehouses.
+     */
+    private long quantity;
+
+    /**
+     * Units reserved over all warehouses.
+     */
+    private long reservedQuantity;
+
+    /**
+     * Units that can still be reserved over all warehouses.
+     */
+    private long availableQuantity;
+
+    /**
+     * Number of warehouses stocking the product.
+     */
+    private int warehouseCount;
+}
@@ -0,0 +1,44 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import io.microprofile.tutorial.store.inventory.reservation.HoldStatus;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reservation hold DTO returned to clients.
+ * A hold keeps units reserved until it is confirmed, released or expires.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationHoldInfo {
+
+    /**
+     * Opaque identifier of the hold.
+     */
+    private String holdId;
+
+    /**
+     * Product the units are reserved for.
+     */
+    private Long productId;
+
+    /**
+     * Number of reserved units.
+     */
+    private Integer quantity;
+
+    /**
+     * Current state of the hold.
+     */
+    private HoldStatus status;
+
+    /**
+     * Time at which an active hold is released automatically.
+     */
+    private Instant expiresAt;
+}
@@ -0,0 +1,30 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a batch reservation request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+
+    /**
+     * Product to reserve units of.
+     */
+    @NotNull(message = "Product ID cannot be null")
+    private Long productId;
+
+    /**
+     * Number of units to reserve.
+     */
+    @NotNull(message = "Quantity cannot be null")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
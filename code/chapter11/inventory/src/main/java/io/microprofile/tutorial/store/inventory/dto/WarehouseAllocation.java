@@ -0,0 +1,30 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units of a product reserved in one warehouse.
+ * Release or commit them against the same warehouse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseAllocation {
+
+    /**
+     * Product the units are reserved for.
+     */
+    private Long productId;
+
+    /**
+     * Warehouse the units are reserved in.
+     */
+    private String warehouseId;
+
+    /**
+     * Number of reserved units.
+     */
+    private int quantity;
+}
@@ -0,0 +1,39 @@
+package io.microprofile.tutorial.store.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock of one product in one warehouse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStockInfo {
+
+    /**
+     * Warehouse holding the stock.
+     */
+    private String warehouseId;
+
+    /**
+     * Product the stock is of.
+     */
+    private Long productId;
+
+    /**
+     * Units on hand in the warehouse.
+     */
+    private int quantity;
+
+    /**
+     * Units reserved in the warehouse.
+     */
+    private int reservedQuantity;
+
+    /**
+     * Units that can still be reserved in the warehouse.
+     */
+    private int availableQuantity;
+}
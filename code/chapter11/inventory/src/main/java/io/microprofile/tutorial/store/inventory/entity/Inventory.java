@@ -48,4 +48,11 @@ public class Inventory {
     @Min(value = 0, message = "Reserved quantity must be greater than or equal to 0")
     @Builder.Default
     private Integer reservedQuantity = 0;
+
+    /**
+     * Number of times the record has been stored, assigned by the repository.
+     * Used for optimistic concurrency: an update made against an older version is refused.
+     * Versions are not persisted and restart from 1 when the repository is recovered.
+     */
+    private long version;
 }
@@ -0,0 +1,165 @@
+package io.microprofile.tutorial.store.inventory.event;
+
+import io.microprofile.tutorial.store.inventory.dto.InventoryChange;
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+/**
+ * Fans inventory changes out to stream subscribers.
+ * Repository writes only record the latest state of each changed product in a map, so a burst
+ * of updates to one product between two flushes is coalesced into a single change and writers
+ * never wait for subscribers. A background thread flushes the map every
+ * {@code inventory.changeStream.flushMillis} into each subscriber's bounded buffer; see
+ * {@link InventoryChangeSubscriber} for how slow subscribers are handled.
+ */
+@ApplicationScoped
+public class InventoryChangeBroadcaster implements InventoryRepository.ChangeListener {
+
+    private static final Logger LOGGER = Logger.getLogger(InventoryChangeBroadcaster.class.getName());
+
+    /**
+     * Sends changes to one subscriber, e.g. as server-sent events.
+     */
+    public interface Delivery {
+
+        /**
+         * Sends one change. The next change is not sent before the returned stage completes.
+         *
+         * @param change The change
+         * @param dropped How many older changes were dropped since the previous send
+         * @return Completes when the change was written; completes exceptionally if the subscriber is gone
+         */
+        CompletionStage<?> send(InventoryChange change, long dropped);
+
+        /**
+         * @return true once the subscriber has disconnected
+         */
+        boolean isClosed();
+    }
+
+    @Inject
+    private InventoryRepository inventoryRepository;
+
+    @Inject
+    @ConfigProperty(name = "inventory.changeStream.flushMillis", defaultValue = "250")
+    private long flushMillis = 250;
+
+    @Inject
+    @ConfigProperty(name = "inventory.changeStream.subscriberBufferSize", defaultValue = "256")
+    private int subscriberBufferSize = 256;
+
+    // Latest change per product since the last flush
+    private final Map<Long, InventoryChange> pending = new ConcurrentHashMap<>();
+
+    private final Set<InventoryChangeSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-change-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        inventoryRepository.addChangeListener(this);
+        LOGGER.info("Inventory change stream started, flushing every " + flushMillis + "ms");
+    }
+
+    @PreDestroy
+    void stop() {
+        if (inventoryRepository != null) {
+            inventoryRepository.removeChangeListener(this);
+        }
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        subscribers.forEach(InventoryChangeSubscriber::close);
+        subscribers.clear();
+    }
+
+    /**
+     * Registers a subscriber.
+     *
+     * @param productIds The products to receive changes for; empty for all products
+     * @param delivery Sends changes to the subscriber
+     */
+    public void subscribe(Set<Long> productIds, Delivery delivery) {
+        subscribers.add(new InventoryChangeSubscriber(productIds, subscriberBufferSize, delivery, dropped));
+        LOGGER.fine("Inventory change subscriber added, " + subscribers.size() + " active");
+    }
+
+    @Override
+    public void stored(Inventory inventory) {
+        record(inventory, false);
+    }
+
+    @Override
+    public void deleted(Inventory inventory) {
+        record(inventory, true);
+    }
+
+    /**
+     * Hands all pending changes to the subscribers and drops disconnected subscribers.
+     */
+    void flush() {
+        subscribers.removeIf(InventoryChangeSubscriber::isClosed);
+        for (Long productId : pending.keySet()) {
+            InventoryChange change = pending.remove(productId);
+            if (change != null) {
+                for (InventoryChangeSubscriber subscriber : subscribers) {
+                    subscriber.offer(change);
+                }
+            }
+        }
+    }
+
+    @Gauge(name = "inventoryChangeSubscribers", absolute = true, unit = "none",
+           description = "Number of connected inventory change stream subscribers")
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Gauge(name = "inventoryChangesDropped", absolute = true, unit = "none",
+           description = "Changes dropped because a subscriber's buffer was full")
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    private void record(Inventory inventory, boolean deleted) {
+        if (subscribers.isEmpty() || inventory.getProductId() == null) {
+            return;
+        }
+        pending.put(inventory.getProductId(), InventoryChange.of(inventory, deleted));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to flush inventory changes", e);
+        }
+    }
+}
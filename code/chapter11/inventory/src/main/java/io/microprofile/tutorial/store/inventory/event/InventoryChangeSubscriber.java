@@ -0,0 +1,121 @@
+package io.microprofile.tutorial.store.inventory.event;
+
+import io.microprofile.tutorial.store.inventory.dto.InventoryChange;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One stream subscriber with a bounded buffer of unsent changes.
+ * The buffer holds at most one change per product, so a newer change replaces an unsent older
+ * one. When more products are waiting than the buffer can hold, the oldest waiting change is
+ * dropped and the subscriber is told how many were dropped with its next change. At most one
+ * send is in flight at a time, so a slow connection fills its own buffer and nothing else.
+ */
+final class InventoryChangeSubscriber {
+
+    private static final int PENDING = 0;
+    private static final int INLINE = 1;
+    private static final int ASYNC = 2;
+
+    private final Set<Long> productIds;
+    private final int capacity;
+    private final InventoryChangeBroadcaster.Delivery delivery;
+    private final LongAdder droppedTotal;
+
+    // Guarded by this
+    private final Map<Long, InventoryChange> buffer = new LinkedHashMap<>();
+    private long droppedSinceSend;
+    private boolean sending;
+
+    private volatile boolean closed;
+
+    InventoryChangeSubscriber(Set<Long> productIds, int capacity, InventoryChangeBroadcaster.Delivery delivery,
+            LongAdder droppedTotal) {
+        this.productIds = Set.copyOf(productIds);
+        this.capacity = Math.max(1, capacity);
+        this.delivery = delivery;
+        this.droppedTotal = droppedTotal;
+    }
+
+    /**
+     * Queues a change and starts sending if no send is in flight.
+     *
+     * @param change The change
+     */
+    void offer(InventoryChange change) {
+        if (closed || (!productIds.isEmpty() && !productIds.contains(change.getProductId()))) {
+            return;
+        }
+        synchronized (this) {
+            // Re-inserting moves the product to the back of the queue with its latest value
+            buffer.remove(change.getProductId());
+            buffer.put(change.getProductId(), change);
+            if (buffer.size() > capacity) {
+                Iterator<InventoryChange> oldest = buffer.values().iterator();
+                oldest.next();
+                oldest.remove();
+                droppedSinceSend++;
+                droppedTotal.increment();
+            }
+            if (sending) {
+                return;
+            }
+            sending = true;
+        }
+        drain();
+    }
+
+    boolean isClosed() {
+        return closed || delivery.isClosed();
+    }
+
+    void close() {
+        closed = true;
+        synchronized (this) {
+            buffer.clear();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            InventoryChange next;
+            long dropped;
+            synchronized (this) {
+                if (closed || buffer.isEmpty()) {
+                    sending = false;
+                    return;
+                }
+                Iterator<InventoryChange> oldest = buffer.values().iterator();
+                next = oldest.next();
+                oldest.remove();
+                dropped = droppedSinceSend;
+                droppedSinceSend = 0;
+            }
+            CompletionStage<?> sent;
+            try {
+                sent = delivery.send(next, dropped);
+            } catch (RuntimeException e) {
+                close();
+                return;
+            }
+            // Sends that complete immediately continue in this loop instead of recursing
+            AtomicInteger completion = new AtomicInteger(PENDING);
+            sent.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    close();
+                } else if (!completion.compareAndSet(PENDING, INLINE)) {
+                    drain();
+                }
+            });
+            if (completion.compareAndSet(PENDING, ASYNC)) {
+                return;
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,6 +19,10 @@ public class InventoryExceptionMapper implements ExceptionMapper<RuntimeExceptio
     
     @Override
     public Response toResponse(RuntimeException exception) {
+        // Asynchronous endpoints fail with the exception wrapped by their CompletionStage
+        if (exception instanceof CompletionException && exception.getCause() instanceof RuntimeException) {
+            return toResponse((RuntimeException) exception.getCause());
+        }
         if (exception instanceof InventoryNotFoundException) {
             InventoryNotFoundException notFoundException = (InventoryNotFoundException) exception;
             LOGGER.log(Level.INFO, "Resource not found: {0}", exception.getMessage());
@@ -34,6 +39,14 @@ public class InventoryExceptionMapper implements ExceptionMapper<RuntimeExceptio
                     .entity(new ErrorResponse("conflict", exception.getMessage()))
                     .type(MediaType.APPLICATION_JSON)
                     .build();
+        } else if (exception instanceof InventoryValidationException) {
+            // Invalid quantities, TTLs, cursors and insufficient stock are rejected by the service layer
+            LOGGER.log(Level.INFO, "Bad request: {0}", exception.getMessage());
+            
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("bad_request", exception.getMessage()))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
         }
         
         // Handle unexpected exceptions
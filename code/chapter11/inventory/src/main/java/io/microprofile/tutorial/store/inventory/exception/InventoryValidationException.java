@@ -0,0 +1,28 @@
+package io.microprofile.tutorial.store.inventory.exception;
+
+/**
+ * Exception thrown when a request to the inventory service is invalid, such as a non-positive
+ * quantity, an unknown cursor or more units than are in stock. It is mapped to 400 Bad Request;
+ * any other IllegalArgumentException is a bug and stays a server error.
+ */
+public class InventoryValidationException extends IllegalArgumentException {
+
+    /**
+     * Constructs a new InventoryValidationException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public InventoryValidationException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new InventoryValidationException with the specified message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause
+     */
+    public InventoryValidationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
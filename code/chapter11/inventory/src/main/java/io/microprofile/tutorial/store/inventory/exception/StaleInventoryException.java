@@ -0,0 +1,34 @@
+package io.microprofile.tutorial.store.inventory.exception;
+
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Exception thrown when an inventory item is updated against a version that is no longer
+ * current, because another writer changed it in the meantime. Mapped to 412 Precondition Failed.
+ */
+public class StaleInventoryException extends InventoryConflictException {
+
+    private final long currentVersion;
+
+    /**
+     * Constructs a new StaleInventoryException.
+     *
+     * @param inventoryId the inventory ID
+     * @param expectedVersion the version the update was made against
+     * @param currentVersion the version currently stored
+     */
+    public StaleInventoryException(Long inventoryId, long expectedVersion, long currentVersion) {
+        super("Inventory " + inventoryId + " was modified: expected version " + expectedVersion
+                + " but found " + currentVersion, Response.Status.PRECONDITION_FAILED);
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * Gets the version currently stored.
+     *
+     * @return the current version
+     */
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,379 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead log of inventory mutations.
+ * Every record carries the full state of one inventory item (or its deletion), so replaying
+ * records in order always ends at the latest state, even on top of a snapshot that already
+ * contains some of them. Appends only copy a record into an in-memory buffer and never do I/O,
+ * so they are safe inside the repository's per-key locks; a full buffer is queued for
+ * {@link #flush()}, which writes the queued buffers through a {@link FileChannel} and forces
+ * them to disk, so many writes share one fsync (group commit). Writers call
+ * {@link #awaitCapacity()} before taking a repository lock; once {@value #MAX_QUEUED_BUFFERS}
+ * buffers are queued, it flushes on the writer's thread, which holds writers back while the
+ * disk catches up. If a flush fails, its records are kept and written again before any later
+ * ones on the next flush.
+ * <p>
+ * A write is acknowledged once its record is in the buffer, before it is durable: a crash
+ * loses the records not yet flushed, i.e. up to one group-commit interval of writes.
+ * <p>
+ * The log is split into numbered segments; a new segment is started whenever a snapshot is
+ * taken, and segments older than the latest snapshot can be deleted.
+ * <p>
+ * Record layout (big-endian, {@value #RECORD_SIZE} bytes): type byte, inventory ID,
+ * product ID, quantity, reserved quantity, CRC32 of the preceding bytes. A record with a bad
+ * checksum marks a torn write at the end of the log; replay stops there.
+ */
+public class InventoryJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(InventoryJournal.class.getName());
+
+    static final int RECORD_SIZE = 1 + 8 + 8 + 4 + 4 + 4;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Receives replayed records.
+     */
+    public interface Replay {
+
+        /**
+         * Applies a stored inventory item.
+         *
+         * @param inventory The item as it was written
+         */
+        void put(Inventory inventory);
+
+        /**
+         * Applies a deletion.
+         *
+         * @param inventoryId The deleted inventory ID
+         */
+        void delete(long inventoryId);
+    }
+
+    // Full buffers a writer may leave queued before it has to flush them itself
+    static final int MAX_QUEUED_BUFFERS = 4;
+
+    private final Path directory;
+
+    private final int capacity;
+
+    // Lock order: ioLock before appendLock
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    // Guarded by appendLock
+    private ByteBuffer active;
+    // Full buffers waiting for the next flush, oldest first; guarded by appendLock
+    private final Deque<ByteBuffer> queued = new ArrayDeque<>();
+    // Written buffers ready for reuse; guarded by appendLock
+    private final Deque<ByteBuffer> spare = new ArrayDeque<>();
+    // Number of buffers in queued
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    // Buffers taken by a flush and not yet forced to disk, oldest first; guarded by ioLock.
+    // Kept after a failed flush, so the next one writes them before any later records.
+    private final Deque<ByteBuffer> unwritten = new ArrayDeque<>();
+    private FileChannel channel;
+    private long segment;
+
+    /**
+     * Opens the journal, appending to a new segment after the highest existing one.
+     *
+     * @param directory The directory holding the segments
+     * @param bufferSize The group-commit buffer size in bytes
+     * @throws IOException if the directory or segment cannot be created
+     */
+    public InventoryJournal(Path directory, int bufferSize) throws IOException {
+        this.directory = directory;
+        this.capacity = Math.max(RECORD_SIZE, bufferSize / RECORD_SIZE * RECORD_SIZE);
+        this.active = ByteBuffer.allocateDirect(capacity);
+        Files.createDirectories(directory);
+        List<Long> segments = segments(directory);
+        this.segment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+        this.channel = openSegment(segment);
+    }
+
+    /**
+     * Replays all segments numbered {@code fromSegment} or higher, in order.
+     * A torn record ends the replay of its segment and the segment is truncated there.
+     *
+     * @param directory The directory holding the segments
+     * @param fromSegment The first segment to replay
+     * @param replay Receives the records
+     * @return The number of records replayed
+     * @throws IOException if a segment cannot be read
+     */
+    public static long replay(Path directory, long fromSegment, Replay replay) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long records = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 8192);
+        CRC32 crc = new CRC32();
+        for (long number : segments(directory)) {
+            if (number < fromSegment) {
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(segmentPath(directory, number),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long valid = 0;
+                boolean torn = false;
+                buffer.clear();
+                while (!torn) {
+                    int read = in.read(buffer);
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_SIZE) {
+                        int start = buffer.position();
+                        byte type = buffer.get();
+                        long inventoryId = buffer.getLong();
+                        long productId = buffer.getLong();
+                        int quantity = buffer.getInt();
+                        int reserved = buffer.getInt();
+                        int checksum = buffer.getInt();
+                        crc.reset();
+                        crc.update(buffer.duplicate().position(start).limit(start + RECORD_SIZE - 4));
+                        if ((int) crc.getValue() != checksum || (type != PUT && type != DELETE)) {
+                            torn = true;
+                            break;
+                        }
+                        if (type == PUT) {
+                            replay.put(Inventory.builder()
+                                    .inventoryId(inventoryId)
+                                    .productId(productId)
+                                    .quantity(quantity)
+                                    .reservedQuantity(reserved)
+                                    .build());
+                        } else {
+                            replay.delete(inventoryId);
+                        }
+                        valid += RECORD_SIZE;
+                        records++;
+                    }
+                    buffer.compact();
+                    if (read < 0) {
+                        break;
+                    }
+                }
+                if (torn || valid < in.size()) {
+                    LOGGER.warning("Truncating torn tail of journal segment " + number + " at byte " + valid);
+                    in.truncate(valid);
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Records that an inventory item was stored.
+     *
+     * @param inventory The item
+     */
+    public void appendPut(Inventory inventory) {
+        append(PUT, inventory.getInventoryId(),
+                inventory.getProductId() != null ? inventory.getProductId() : 0L,
+                inventory.getQuantity() != null ? inventory.getQuantity() : 0,
+                inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0);
+    }
+
+    /**
+     * Records that an inventory item was deleted.
+     *
+     * @param inventoryId The inventory ID
+     */
+    public void appendDelete(long inventoryId) {
+        append(DELETE, inventoryId, 0L, 0, 0);
+    }
+
+    /**
+     * Holds the calling writer back while too many full buffers wait for a flush, by flushing
+     * them on its thread. Must be called before any repository lock is taken, so the fsync
+     * stalls only this writer.
+     *
+     * @throws UncheckedIOException if the flush fails; the caller has not changed anything yet
+     */
+    public void awaitCapacity() {
+        if (queuedCount.get() >= MAX_QUEUED_BUFFERS) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered records to the current segment and forces them to disk.
+     *
+     * @throws UncheckedIOException if the write fails
+     */
+    public void flush() {
+        ioLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the current segment and starts a new one. Records appended afterwards go to the
+     * new segment, so a snapshot taken after this call makes all older segments redundant.
+     *
+     * @return The number of the new segment
+     */
+    public long rotate() {
+        ioLock.lock();
+        try {
+            flushLocked();
+            channel.close();
+            segment++;
+            channel = openSegment(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rotate inventory journal", e);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments numbered below the given one.
+     *
+     * @param beforeSegment The first segment to keep
+     * @throws IOException if a segment cannot be deleted
+     */
+    public void deleteSegmentsBefore(long beforeSegment) throws IOException {
+        for (long number : segments(directory)) {
+            if (number < beforeSegment) {
+                Files.deleteIfExists(segmentPath(directory, number));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        ioLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            channel.close();
+            ioLock.unlock();
+        }
+    }
+
+    private void append(byte type, long inventoryId, long productId, int quantity, int reserved) {
+        appendLock.lock();
+        try {
+            if (active.remaining() < RECORD_SIZE) {
+                // Buffer is full: queue it for the next flush and carry on in another one
+                queued.add(active);
+                queuedCount.incrementAndGet();
+                ByteBuffer next = spare.poll();
+                active = next != null ? next : ByteBuffer.allocateDirect(capacity);
+            }
+            int start = active.position();
+            active.put(type).putLong(inventoryId).putLong(productId).putInt(quantity).putInt(reserved);
+            CRC32 crc = new CRC32();
+            crc.update(active.duplicate().position(start).limit(start + RECORD_SIZE - 4));
+            active.putInt((int) crc.getValue());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        appendLock.lock();
+        try {
+            for (ByteBuffer full : queued) {
+                unwritten.add(full.flip());
+            }
+            queued.clear();
+            queuedCount.set(0);
+            if (active.position() > 0) {
+                unwritten.add(active.flip());
+                ByteBuffer next = spare.poll();
+                active = next != null ? next : ByteBuffer.allocateDirect(capacity);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        if (unwritten.isEmpty()) {
+            return;
+        }
+        // Buffers written before a failed force have nothing left to write; forcing again covers them
+        for (ByteBuffer buffer : unwritten) {
+            write(buffer);
+        }
+        force();
+        appendLock.lock();
+        try {
+            for (ByteBuffer buffer : unwritten) {
+                if (spare.size() < MAX_QUEUED_BUFFERS) {
+                    spare.add(buffer.clear());
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        unwritten.clear();
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write inventory journal", e);
+        }
+    }
+
+    private void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write inventory journal", e);
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> segments(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> numbers.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+}
@@ -1,34 +1,273 @@
 package io.microprofile.tutorial.store.inventory.repository;
 
 import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.exception.StaleInventoryException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Thread-safe in-memory repository for Inventory objects.
  * This class provides CRUD operations for Inventory entities to demonstrate MicroProfile concepts.
+ * When {@code inventory.persistence.enabled} is set, every mutation is also appended to a
+ * write-ahead log with group commit, the full state is snapshotted periodically, and the
+ * latest snapshot plus the log tail are replayed on startup.
  */
 @ApplicationScoped
 public class InventoryRepository {
 
     private static final Logger LOGGER = Logger.getLogger(InventoryRepository.class.getName());
+
+    // Product index value for "no inventory"
+    private static final long NO_INVENTORY = Long.MIN_VALUE;
+
+    /**
+     * Expected version that matches any stored version.
+     */
+    public static final long ANY_VERSION = -1;
+
+    /**
+     * Receives every stored and deleted item.
+     * Listeners are called inside the per-key update of the item, in the same order as the
+     * writes are applied, so they must return quickly and must not call back into the repository.
+     */
+    public interface ChangeListener {
+
+        /**
+         * @param inventory The item as it was stored
+         */
+        void stored(Inventory inventory);
+
+        /**
+         * @param inventory The item that was deleted
+         */
+        void deleted(Inventory inventory);
+
+        /**
+         * Called before an item replaces a different instance stored under the same ID, e.g.
+         * after a full update: after the replacement is journaled, and before it is indexed or
+         * passed to {@link #stored(Inventory)}. The listener may carry state over onto the replacement.
+         *
+         * @param previous The item being replaced
+         * @param replacement The item replacing it
+         */
+        default void replacing(Inventory previous, Inventory replacement) {
+        }
+    }
+
+    /**
+     * An item found through the quantity index, with the quantity it was indexed under when it
+     * was found. Reservations change the quantity of a stored item concurrently, so a keyset
+     * cursor must resume from the indexed quantity rather than the item's live one.
+     *
+     * @param quantity The quantity the item was indexed under
+     * @param inventory The item
+     */
+    public record QuantityRow(int quantity, Inventory inventory) {
+    }
     
-    // Thread-safe map for inventory storage
-    private final Map<Long, Inventory> inventories = new ConcurrentHashMap<>();
+    // Thread-safe map for inventory storage, keyed by primitive inventory ID
+    private final LongObjectMap<Inventory> inventories = new LongObjectMap<>();
     
     // Thread-safe ID generator
     private final AtomicLong idGenerator = new AtomicLong(1);
     
-    // Secondary index for faster lookups by productId
-    private final Map<Long, Long> productToInventoryIndex = new ConcurrentHashMap<>();
+    // Secondary index for faster lookups by productId (productId -> inventoryId, no boxing);
+    // maintained inside the per-key compute of inventories like the other indexes
+    private final LongLongMap productToInventoryIndex = new LongLongMap(NO_INVENTORY);
+
+    // Sorted index for quantity range queries; maintained inside the per-key compute of inventories
+    private final QuantityIndex quantityIndex = new QuantityIndex();
+
+    // Inventory IDs in ascending order for keyset pagination; maintained together with quantityIndex
+    private final NavigableSet<Long> idIndex = new ConcurrentSkipListSet<>();
+
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Inject
+    @ConfigProperty(name = "inventory.persistence.enabled", defaultValue = "false")
+    private boolean persistenceEnabled;
+
+    @Inject
+    @ConfigProperty(name = "inventory.persistence.directory", defaultValue = "data/inventory")
+    private String persistenceDirectory;
+
+    @Inject
+    @ConfigProperty(name = "inventory.persistence.groupCommitMillis", defaultValue = "5")
+    private long groupCommitMillis;
+
+    @Inject
+    @ConfigProperty(name = "inventory.persistence.snapshotIntervalSeconds", defaultValue = "300")
+    private long snapshotIntervalSeconds;
+
+    // Write-ahead log, or null while persistence is disabled or recovery is running
+    private volatile InventoryJournal journal;
+
+    private ScheduledExecutorService persistenceScheduler;
+
+    /**
+     * Recovers the repository from disk and starts journaling, if persistence is enabled.
+     */
+    @PostConstruct
+    void openPersistence() {
+        if (persistenceEnabled) {
+            openPersistence(Paths.get(persistenceDirectory), groupCommitMillis, snapshotIntervalSeconds);
+        }
+    }
+
+    /**
+     * Recovers the repository from a directory and starts journaling into it.
+     *
+     * @param directory The directory holding snapshots and journal segments
+     * @param groupCommitMillis How often buffered journal records are forced to disk; writes are
+     *                          acknowledged before that, so a crash can lose this much of them
+     * @param snapshotIntervalSeconds How often a snapshot is taken; 0 disables periodic snapshots
+     */
+    void openPersistence(Path directory, long groupCommitMillis, long snapshotIntervalSeconds) {
+        persistenceDirectory = directory.toString();
+        try {
+            long started = System.nanoTime();
+            Optional<InventorySnapshot.Header> header = InventorySnapshot.readLatest(directory, this::restore);
+            header.ifPresent(h -> advanceIdGenerator(h.nextId()));
+            long replayed = InventoryJournal.replay(directory, header.map(InventorySnapshot.Header::segment).orElse(0L),
+                    new InventoryJournal.Replay() {
+                        @Override
+                        public void put(Inventory inventory) {
+                            restore(inventory);
+                        }
+
+                        @Override
+                        public void delete(long inventoryId) {
+                            unstore(inventoryId);
+                        }
+                    });
+            LOGGER.info("Recovered " + inventories.size() + " inventory items (" + replayed + " journal records) in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms from " + directory);
+            long released = releaseRecoveredReservations();
+            if (released > 0) {
+                LOGGER.info("Returned " + released + " reserved units without a reservation hold to stock");
+            }
+            journal = new InventoryJournal(directory, 256 * 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover inventory from " + directory, e);
+        }
+
+        persistenceScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long commitMillis = Math.max(1, groupCommitMillis);
+        persistenceScheduler.scheduleWithFixedDelay(this::flushJournal, commitMillis, commitMillis, TimeUnit.MILLISECONDS);
+        if (snapshotIntervalSeconds > 0) {
+            persistenceScheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Takes a final snapshot and closes the journal.
+     */
+    @PreDestroy
+    void closePersistence() {
+        if (journal == null) {
+            return;
+        }
+        persistenceScheduler.shutdown();
+        try {
+            persistenceScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to close inventory journal", e);
+        }
+        journal = null;
+    }
+
+    /**
+     * Writes a snapshot of all inventory items and drops the journal segments it makes redundant.
+     *
+     * @return The number of items in the snapshot
+     * @throws IllegalStateException if persistence is not enabled
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized long snapshot() throws IOException {
+        InventoryJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Inventory persistence is not enabled");
+        }
+        Path directory = Paths.get(persistenceDirectory);
+        // Everything journaled from now on goes to the new segment, which is replayed after this snapshot
+        long segment = current.rotate();
+        long count = InventorySnapshot.write(directory, segment, idGenerator.get(), inventories.values());
+        InventorySnapshot.deleteBefore(directory, segment);
+        current.deleteSegmentsBefore(segment);
+        LOGGER.fine("Wrote inventory snapshot of " + count + " items at journal segment " + segment);
+        return count;
+    }
+
+    /**
+     * Registers a listener for stored and deleted items.
+     *
+     * @param listener The listener
+     */
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener The listener
+     */
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Passes every current item to {@link ChangeListener#stored(Inventory)}, e.g. to seed a
+     * listener that was registered after items were loaded. Each call runs inside the item's
+     * per-key update, so a listener registered before the replay stays consistent with writes
+     * that happen while it runs.
+     *
+     * @param listener The listener
+     */
+    public void replayTo(ChangeListener listener) {
+        for (Long id : idIndex) {
+            inventories.computeIfPresent(id, (key, existing) -> {
+                listener.stored(existing);
+                return existing;
+            });
+        }
+    }
 
     /**
      * Saves an inventory item to the repository.
@@ -54,9 +293,8 @@ public class InventoryRepository {
         
         LOGGER.fine("Saving inventory with ID: " + inventory.getInventoryId());
         
-        // Update the inventory and secondary index
-        inventories.put(inventory.getInventoryId(), inventory);
-        productToInventoryIndex.put(inventory.getProductId(), inventory.getInventoryId());
+        // Update the inventory and secondary indexes
+        store(inventory.getInventoryId(), inventory);
         
         return inventory;
     }
@@ -87,16 +325,16 @@ public class InventoryRepository {
             return Optional.empty();
         }
         
-        // Use the secondary index for efficient lookup
-        Long inventoryId = productToInventoryIndex.get(productId);
-        if (inventoryId != null) {
-            return Optional.ofNullable(inventories.get(inventoryId));
+        // The index is written in the same atomic step as the item, so a miss is authoritative
+        long inventoryId = productToInventoryIndex.get(productId);
+        if (inventoryId == NO_INVENTORY) {
+            return Optional.empty();
         }
-        
-        // Fall back to scanning if not found in index (ensures consistency)
-        return inventories.values().stream()
-                .filter(inventory -> productId.equals(inventory.getProductId()))
-                .findFirst();
+        // The item may have been deleted or moved to another product after the index was read
+        Inventory inventory = inventories.get(inventoryId);
+        return inventory != null && productId.equals(inventory.getProductId())
+                ? Optional.of(inventory)
+                : Optional.empty();
     }
 
     /**
@@ -108,6 +346,106 @@ public class InventoryRepository {
         return new ArrayList<>(inventories.values());
     }
 
+    /**
+     * Streams all inventory items in ID order. Items are looked up while the stream is
+     * consumed, so walking the whole store never copies it into a list.
+     *
+     * @return A lazy stream of all inventory items
+     */
+    public Stream<Inventory> streamAll() {
+        return idIndex.stream()
+                .map(inventories::get)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Finds inventory items whose quantity lies in a range, ordered by quantity and then ID.
+     * Uses the sorted quantity index, so only the requested page is materialized.
+     *
+     * @param minQuantity Minimum quantity, inclusive (optional)
+     * @param maxQuantity Maximum quantity, inclusive (optional)
+     * @param offset The number of matching items to skip
+     * @param limit The maximum number of items to return
+     * @return The matching inventory items
+     */
+    public List<Inventory> findByQuantityRange(Integer minQuantity, Integer maxQuantity, long offset, int limit) {
+        List<Long> ids = quantityIndex.range(minQuantity, maxQuantity, offset, limit);
+        List<Inventory> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Inventory inventory = inventories.get(id);
+            // Skip items deleted after the index was read
+            if (inventory != null) {
+                page.add(inventory);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Finds the inventory items that follow an inventory ID, in ID order (keyset pagination).
+     * Quantity filters are applied while walking the ID index.
+     *
+     * @param afterId The last inventory ID already returned, or null to start at the beginning
+     * @param minQuantity Minimum quantity, inclusive (optional)
+     * @param maxQuantity Maximum quantity, inclusive (optional)
+     * @param limit The maximum number of items to return
+     * @return The matching inventory items
+     */
+    public List<Inventory> findAfterId(Long afterId, Integer minQuantity, Integer maxQuantity, int limit) {
+        List<Inventory> page = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        NavigableSet<Long> ids = afterId != null ? idIndex.tailSet(afterId, false) : idIndex;
+        for (Long id : ids) {
+            if (page.size() >= limit) {
+                break;
+            }
+            Inventory inventory = inventories.get(id);
+            if (inventory != null
+                    && (minQuantity == null || inventory.getQuantity() >= minQuantity)
+                    && (maxQuantity == null || inventory.getQuantity() <= maxQuantity)) {
+                page.add(inventory);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Finds the inventory items in a quantity range that follow a (quantity, inventory ID) key,
+     * ordered by quantity and then ID (keyset pagination).
+     *
+     * @param minQuantity Minimum quantity, inclusive (optional)
+     * @param maxQuantity Maximum quantity, inclusive (optional)
+     * @param afterQuantity The quantity of the last item already returned, or null to start at the beginning
+     * @param afterId The inventory ID of the last item already returned
+     * @param limit The maximum number of items to return
+     * @return The matching inventory items with the quantities they were indexed under
+     */
+    public List<QuantityRow> findAfterQuantity(Integer minQuantity, Integer maxQuantity,
+                                               Integer afterQuantity, Long afterId, int limit) {
+        List<QuantityIndex.Entry> entries = quantityIndex.rangeAfter(minQuantity, maxQuantity, afterQuantity, afterId, limit);
+        List<QuantityRow> page = new ArrayList<>(entries.size());
+        for (QuantityIndex.Entry entry : entries) {
+            Inventory inventory = inventories.get(entry.inventoryId());
+            if (inventory != null) {
+                page.add(new QuantityRow(entry.quantity(), inventory));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Counts inventory items whose quantity lies in a range.
+     *
+     * @param minQuantity Minimum quantity, inclusive (optional)
+     * @param maxQuantity Maximum quantity, inclusive (optional)
+     * @return The number of matching inventory items
+     */
+    public long countByQuantityRange(Integer minQuantity, Integer maxQuantity) {
+        if (minQuantity == null && maxQuantity == null) {
+            return inventories.size();
+        }
+        return quantityIndex.count(minQuantity, maxQuantity);
+    }
+
     /**
      * Deletes an inventory item by ID.
      *
@@ -120,10 +458,8 @@ public class InventoryRepository {
             return false;
         }
         
-        Inventory removed = inventories.remove(id);
+        Inventory removed = unstore(id);
         if (removed != null) {
-            // Also remove from the secondary index
-            productToInventoryIndex.remove(removed.getProductId());
             LOGGER.fine("Deleted inventory with ID: " + id);
             return true;
         }
@@ -140,29 +476,223 @@ public class InventoryRepository {
      * @return An Optional containing the updated inventory, or empty if not found
      */
     public Optional<Inventory> update(Long id, Inventory inventory) {
+        return update(id, inventory, ANY_VERSION);
+    }
+
+    /**
+     * Replaces an existing inventory item if it is still at the expected version.
+     * The version check and the replacement happen in one atomic step per item, so of two
+     * writers that read the same version only the first succeeds; no lock is shared across items.
+     *
+     * @param id The ID of the inventory to update
+     * @param inventory The updated inventory information
+     * @param expectedVersion The version the update was based on, or {@link #ANY_VERSION}
+     * @return An Optional containing the updated inventory, or empty if not found
+     * @throws StaleInventoryException if the stored item has a different version
+     */
+    public Optional<Inventory> update(Long id, Inventory inventory, long expectedVersion) {
         if (id == null || inventory == null) {
             LOGGER.warning("Attempted to update inventory with null ID or null inventory");
             return Optional.empty();
         }
         
-        if (!inventories.containsKey(id)) {
+        Inventory existing = replaceIfVersion(id, expectedVersion, current -> {
+            inventory.setInventoryId(id);
+            return inventory;
+        });
+        if (existing == null) {
             LOGGER.fine("Failed to update inventory with ID (not found): " + id);
             return Optional.empty();
         }
         
-        // Get the existing inventory to update its product index if needed
-        Inventory existing = inventories.get(id);
-        if (existing != null && !existing.getProductId().equals(inventory.getProductId())) {
-            // Product ID changed, update the index
-            productToInventoryIndex.remove(existing.getProductId());
-        }
-        
-        // Set ID and update the repository
-        inventory.setInventoryId(id);
-        inventories.put(id, inventory);
-        productToInventoryIndex.put(inventory.getProductId(), id);
-        
         LOGGER.fine("Updated inventory with ID: " + id);
         return Optional.of(inventory);
     }
+
+    /**
+     * Applies a change to an existing inventory item if it is still at the expected version.
+     * The change runs inside the item's atomic update and must not call back into the
+     * repository; it may modify the item in place but must keep its product ID. The change is
+     * always given the stored item, never an instance read earlier, so writing it back cannot
+     * undo a concurrent update.
+     *
+     * @param id The inventory ID
+     * @param expectedVersion The version the change was based on, or {@link #ANY_VERSION}
+     * @param change Modifies the current item; returns null to leave it unchanged, in which
+     *               case its version is not bumped
+     * @return An Optional containing the current inventory, or empty if not found
+     * @throws StaleInventoryException if the stored item has a different version
+     */
+    public Optional<Inventory> compareAndUpdate(Long id, long expectedVersion, UnaryOperator<Inventory> change) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(replaceIfVersion(id, expectedVersion, current ->
+                change.apply(current) != null ? current : null));
+    }
+
+    /**
+     * Replaces an item with the result of a function of it, if it exists and is at the expected
+     * version; a null result leaves the item as it is.
+     *
+     * @return The item that was replaced or left as it is, or null if there was none
+     */
+    private Inventory replaceIfVersion(Long id, long expectedVersion, UnaryOperator<Inventory> replacement) {
+        awaitJournalCapacity();
+        Inventory[] replaced = new Inventory[1];
+        long[] stale = {-1};
+        inventories.computeIfPresent(id, (key, existing) -> {
+            if (expectedVersion != ANY_VERSION && existing.getVersion() != expectedVersion) {
+                stale[0] = existing.getVersion();
+                return existing;
+            }
+            replaced[0] = existing;
+            Inventory next = replacement.apply(existing);
+            return next != null ? apply(key, existing, next) : existing;
+        });
+        if (stale[0] >= 0) {
+            throw new StaleInventoryException(id, expectedVersion, stale[0]);
+        }
+        return replaced[0];
+    }
+
+    /**
+     * Stores an inventory item and re-indexes its product and quantity atomically with respect
+     * to other writes of the same ID. Callers that change an item's quantity in place must save it
+     * again so the index follows.
+     */
+    private void store(Long id, Inventory inventory) {
+        awaitJournalCapacity();
+        inventories.compute(id, (key, previous) -> apply(key, previous, inventory));
+    }
+
+    /**
+     * Holds a writer back while the journal has too many records waiting for disk; called before
+     * the per-key compute, so no other key waits for the flush.
+     */
+    private void awaitJournalCapacity() {
+        InventoryJournal current = journal;
+        if (current != null) {
+            current.awaitCapacity();
+        }
+    }
+
+    /**
+     * Makes an item the stored value of its key; called inside the per-key compute.
+     */
+    private Inventory apply(long key, Inventory previous, Inventory inventory) {
+        // Journaled first and inside the per-key compute, so the log order matches the apply order
+        // and a failed append leaves the item, its indexes and the listeners untouched. The append
+        // only buffers the record. Listeners may still carry the reserved quantity over, which
+        // recovery clears anyway.
+        InventoryJournal current = journal;
+        if (current != null) {
+            current.appendPut(inventory);
+        }
+        if (previous != null && previous != inventory) {
+            for (ChangeListener listener : listeners) {
+                listener.replacing(previous, inventory);
+            }
+        }
+        inventory.setVersion(previous != null ? previous.getVersion() + 1 : 1);
+        // Conditional removal, so a product already taken over by another item keeps its entry
+        if (previous != null && previous.getProductId() != null
+                && !previous.getProductId().equals(inventory.getProductId())) {
+            productToInventoryIndex.remove(previous.getProductId(), key);
+        }
+        if (inventory.getProductId() != null) {
+            productToInventoryIndex.put(inventory.getProductId(), key);
+        }
+        quantityIndex.put(key, inventory.getQuantity() != null ? inventory.getQuantity() : 0);
+        idIndex.add(key);
+        for (ChangeListener listener : listeners) {
+            listener.stored(inventory);
+        }
+        return inventory;
+    }
+
+    /**
+     * Removes an inventory item and its index entries.
+     *
+     * @return The removed item, or null if there was none
+     */
+    private Inventory unstore(Long id) {
+        awaitJournalCapacity();
+        Inventory[] removed = new Inventory[1];
+        inventories.computeIfPresent(id, (key, existing) -> {
+            InventoryJournal current = journal;
+            if (current != null) {
+                current.appendDelete(key);
+            }
+            if (existing.getProductId() != null) {
+                productToInventoryIndex.remove(existing.getProductId(), key);
+            }
+            quantityIndex.remove(key);
+            idIndex.remove(key);
+            for (ChangeListener listener : listeners) {
+                listener.deleted(existing);
+            }
+            removed[0] = existing;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Applies an inventory item read from a snapshot or the journal.
+     */
+    private void restore(Inventory inventory) {
+        store(inventory.getInventoryId(), inventory);
+        advanceIdGenerator(inventory.getInventoryId() + 1);
+    }
+
+    /**
+     * Returns the reserved units of recovered items to stock. Reservation holds are not
+     * persisted, so nothing would ever confirm or release those units after a restart.
+     * Runs before journaling starts; the next snapshot records the cleared quantities, and a
+     * crash before it simply clears them again.
+     *
+     * @return The number of units returned to stock
+     */
+    private long releaseRecoveredReservations() {
+        long released = 0;
+        for (Inventory inventory : inventories.values()) {
+            Integer reserved = inventory.getReservedQuantity();
+            if (reserved != null && reserved > 0) {
+                released += reserved;
+                inventory.setReservedQuantity(0);
+            }
+        }
+        return released;
+    }
+
+    /**
+     * @return The number of entries in the product index; exact only while no writes are in progress
+     */
+    int productIndexSize() {
+        return productToInventoryIndex.size();
+    }
+
+    private void advanceIdGenerator(long nextId) {
+        idGenerator.accumulateAndGet(nextId, Math::max);
+    }
+
+    void flushJournal() {
+        try {
+            InventoryJournal current = journal;
+            if (current != null) {
+                current.flush();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Failed to flush inventory journal", e);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Failed to write inventory snapshot", e);
+        }
+    }
 }
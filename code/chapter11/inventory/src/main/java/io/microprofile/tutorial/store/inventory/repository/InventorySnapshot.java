@@ -0,0 +1,176 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary snapshot of all inventory items.
+ * A snapshot is tagged with the journal segment that was started just before it was taken;
+ * recovery loads the newest snapshot and replays that segment and every later one.
+ * Snapshots are written to a temporary file, forced to disk and then atomically renamed, so a
+ * crash while writing never leaves a partial snapshot behind.
+ * <p>
+ * File layout (big-endian): magic, format version, next inventory ID, then one
+ * 24-byte record per item (inventory ID, product ID, quantity, reserved quantity) each preceded
+ * by a marker byte, an end marker, and a CRC32 of everything before it.
+ */
+public final class InventorySnapshot {
+
+    private static final int MAGIC = 0x494E5653;
+    private static final int VERSION = 1;
+
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private InventorySnapshot() {
+    }
+
+    /**
+     * Writes a snapshot.
+     *
+     * @param directory The directory holding the snapshots
+     * @param segment The journal segment to replay after this snapshot
+     * @param nextId The next inventory ID to assign
+     * @param inventories The items to store
+     * @return The number of items written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static long write(Path directory, long segment, long nextId, Collection<Inventory> inventories)
+            throws IOException {
+        Files.createDirectories(directory);
+        Path target = path(directory, segment);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long count = 0;
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(
+                     new CheckedOutputStream(new BufferedOutputStream(file, BUFFER_SIZE), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(nextId);
+            for (Inventory inventory : inventories) {
+                out.writeByte(RECORD);
+                out.writeLong(inventory.getInventoryId());
+                out.writeLong(inventory.getProductId() != null ? inventory.getProductId() : 0L);
+                out.writeInt(inventory.getQuantity() != null ? inventory.getQuantity() : 0);
+                out.writeInt(inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0);
+                count++;
+            }
+            out.writeByte(END);
+            out.flush();
+            // The checksum itself is not part of the checked bytes
+            new DataOutputStream(file).writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    /**
+     * Loads the newest snapshot, if there is one.
+     *
+     * @param directory The directory holding the snapshots
+     * @param consumer Receives every stored item
+     * @return The snapshot's journal segment and next inventory ID, or empty if there is no snapshot
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    public static Optional<Header> readLatest(Path directory, Consumer<Inventory> consumer) throws IOException {
+        List<Long> segments = segments(directory);
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        long segment = segments.get(segments.size() - 1);
+        CRC32 crc = new CRC32();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path(directory, segment)), BUFFER_SIZE)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an inventory snapshot: " + path(directory, segment));
+            }
+            long nextId = in.readLong();
+            while (in.readByte() == RECORD) {
+                consumer.accept(Inventory.builder()
+                        .inventoryId(in.readLong())
+                        .productId(in.readLong())
+                        .quantity(in.readInt())
+                        .reservedQuantity(in.readInt())
+                        .build());
+            }
+            int expected = (int) crc.getValue();
+            if (new DataInputStream(file).readInt() != expected) {
+                throw new IOException("Corrupt inventory snapshot: " + path(directory, segment));
+            }
+            return Optional.of(new Header(segment, nextId));
+        }
+    }
+
+    /**
+     * Deletes the snapshots older than the given one.
+     *
+     * @param directory The directory holding the snapshots
+     * @param beforeSegment The segment of the oldest snapshot to keep
+     * @throws IOException if a snapshot cannot be deleted
+     */
+    public static void deleteBefore(Path directory, long beforeSegment) throws IOException {
+        for (long segment : segments(directory)) {
+            if (segment < beforeSegment) {
+                Files.deleteIfExists(path(directory, segment));
+            }
+        }
+    }
+
+    private static Path path(Path directory, long segment) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, segment, SUFFIX));
+    }
+
+    private static List<Long> segments(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return numbers;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> numbers.add(Long.parseLong(
+                            name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    /**
+     * What a snapshot says about the state it captured.
+     *
+     * @param segment The journal segment to replay after the snapshot
+     * @param nextId The next inventory ID to assign
+     */
+    public record Header(long segment, long nextId) {
+    }
+}
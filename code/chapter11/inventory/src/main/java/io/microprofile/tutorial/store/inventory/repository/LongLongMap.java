@@ -0,0 +1,283 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent hash map from primitive {@code long} keys to primitive {@code long} values.
+ * Uses the same striped open-addressing layout as {@link LongObjectMap}: an entry costs two
+ * array slots and no objects. Absent keys are reported as a caller-chosen "no value" constant,
+ * which therefore cannot be stored.
+ */
+public class LongLongMap {
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Marks an empty slot; the key 0 is kept outside the tables
+    private static final long EMPTY = 0L;
+
+    private final long noValue;
+    private final Stripe[] stripes;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param noValue The value returned for absent keys
+     */
+    public LongLongMap(long noValue) {
+        this.noValue = noValue;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(noValue);
+        }
+    }
+
+    /**
+     * Spreads the bits of a key so that sequential IDs do not cluster in one probe run.
+     *
+     * @param key The key
+     * @return The mixed hash
+     */
+    static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * @return The value returned for absent keys
+     */
+    public long noValue() {
+        return noValue;
+    }
+
+    /**
+     * @param key The key
+     * @return The value, or {@link #noValue()} if the key is absent
+     */
+    public long get(long key) {
+        long hash = mix(key);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            long value = stripe.find(key, hash);
+            if (stripe.lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.find(key, hash);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return true if the key is present
+     */
+    public boolean containsKey(long key) {
+        return get(key) != noValue;
+    }
+
+    /**
+     * @param key The key
+     * @param value The value; must not be {@link #noValue()}
+     * @return The previous value, or {@link #noValue()} if there was none
+     */
+    public long put(long key, long value) {
+        if (value == noValue) {
+            throw new IllegalArgumentException("Cannot store the no-value marker " + noValue);
+        }
+        long hash = mix(key);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.put(key, hash, value);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return The removed value, or {@link #noValue()} if the key was absent
+     */
+    public long remove(long key) {
+        long hash = mix(key);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.remove(key, hash);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a key only if it is mapped to the given value.
+     *
+     * @param key The key
+     * @param value The expected value
+     * @return true if the key was removed
+     */
+    public boolean remove(long key, long value) {
+        long hash = mix(key);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (stripe.find(key, hash) != value || value == noValue) {
+                return false;
+            }
+            stripe.remove(key, hash);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return The number of entries; exact only while no writes are in progress
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 58)];
+    }
+
+    /**
+     * One lock-protected open-addressing table; a zero key marks an empty slot.
+     */
+    private static final class Stripe {
+
+        private final StampedLock lock = new StampedLock();
+        private final long noValue;
+
+        // Replaced as a whole on resize so optimistic readers always see matching arrays
+        private volatile long[][] table = {new long[INITIAL_CAPACITY], new long[INITIAL_CAPACITY]};
+        private volatile int size;
+
+        // The key 0 collides with the empty marker, so its value lives here
+        private volatile long zeroValue;
+
+        private Stripe(long noValue) {
+            this.noValue = noValue;
+            this.zeroValue = noValue;
+        }
+
+        private long find(long key, long hash) {
+            if (key == EMPTY) {
+                return zeroValue;
+            }
+            long[][] current = table;
+            long[] keys = current[0];
+            long[] values = current[1];
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            // Bounded so a read racing with a write can never loop forever
+            for (int probes = 0; probes <= mask; probes++) {
+                long candidate = keys[slot];
+                if (candidate == EMPTY) {
+                    return noValue;
+                }
+                if (candidate == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return noValue;
+        }
+
+        private long put(long key, long hash, long value) {
+            if (key == EMPTY) {
+                long previous = zeroValue;
+                zeroValue = value;
+                if (previous == noValue) {
+                    size++;
+                }
+                return previous;
+            }
+            long[] keys = table[0];
+            long[] values = table[1];
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    long previous = values[slot];
+                    values[slot] = value;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            values[slot] = value;
+            keys[slot] = key;
+            size++;
+            if (size * 4L > keys.length * 3L) {
+                resize();
+            }
+            return noValue;
+        }
+
+        private long remove(long key, long hash) {
+            if (key == EMPTY) {
+                long previous = zeroValue;
+                if (previous != noValue) {
+                    zeroValue = noValue;
+                    size--;
+                }
+                return previous;
+            }
+            long[] keys = table[0];
+            long[] values = table[1];
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    long previous = values[slot];
+                    // Backward-shift deletion: move later entries of the probe run into the gap
+                    int gap = slot;
+                    int next = (gap + 1) & mask;
+                    while (keys[next] != EMPTY) {
+                        int home = (int) mix(keys[next]) & mask;
+                        if (((next - home) & mask) >= ((next - gap) & mask)) {
+                            keys[gap] = keys[next];
+                            values[gap] = values[next];
+                            gap = next;
+                        }
+                        next = (next + 1) & mask;
+                    }
+                    keys[gap] = EMPTY;
+                    size--;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return noValue;
+        }
+
+        private void resize() {
+            long[] keys = table[0];
+            long[] values = table[1];
+            long[] largerKeys = new long[keys.length * 2];
+            long[] largerValues = new long[keys.length * 2];
+            int mask = largerKeys.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    int slot = (int) mix(keys[i]) & mask;
+                    while (largerKeys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    largerKeys[slot] = keys[i];
+                    largerValues[slot] = values[i];
+                }
+            }
+            table = new long[][] {largerKeys, largerValues};
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent hash map from primitive {@code long} keys to objects, without boxing.
+ * Keys are spread over independently locked stripes; each stripe is an open-addressing table
+ * with linear probing held in two parallel arrays, so an entry costs one array slot instead of
+ * a node plus a boxed key. Reads use optimistic stamps and only fall back to a read lock when
+ * they race with a write to the same stripe. Deletions shift later entries back instead of
+ * leaving tombstones. Null values are not allowed.
+ *
+ * @param <V> The value type
+ */
+public class LongObjectMap<V> {
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Computes a new value for a key from its current value.
+     *
+     * @param <V> The value type
+     */
+    @FunctionalInterface
+    public interface Remapping<V> {
+
+        /**
+         * @param key The key
+         * @param current The current value, or null if the key is absent
+         * @return The new value, or null to remove the key
+         */
+        V apply(long key, V current);
+    }
+
+    private final Stripe<V>[] stripes;
+
+    /**
+     * Creates an empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public LongObjectMap() {
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return The value, or null if the key is absent
+     */
+    public V get(long key) {
+        long hash = LongLongMap.mix(key);
+        return stripeFor(hash).get(key, hash);
+    }
+
+    /**
+     * @param key The key
+     * @return true if the key is present
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key The key
+     * @param value The value, not null
+     * @return The previous value, or null if there was none
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        long hash = LongLongMap.mix(key);
+        Stripe<V> stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.put(key, hash, value);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return The removed value, or null if the key was absent
+     */
+    public V remove(long key) {
+        long hash = LongLongMap.mix(key);
+        Stripe<V> stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.remove(key, hash);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically replaces the value of a key. The function runs while the key's stripe is
+     * locked, so it must be short and must not access this map.
+     *
+     * @param key The key
+     * @param remapping Computes the new value (null removes the key)
+     * @return The new value, or null if the key is now absent
+     */
+    public V compute(long key, Remapping<V> remapping) {
+        long hash = LongLongMap.mix(key);
+        Stripe<V> stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            V current = stripe.find(key, hash);
+            V updated = remapping.apply(key, current);
+            if (updated != null) {
+                stripe.put(key, hash, updated);
+            } else if (current != null) {
+                stripe.remove(key, hash);
+            }
+            return updated;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Like {@link #compute(long, Remapping)}, but only runs the function if the key is present.
+     *
+     * @param key The key
+     * @param remapping Computes the new value (null removes the key)
+     * @return The new value, or null if the key is now absent
+     */
+    public V computeIfPresent(long key, Remapping<V> remapping) {
+        return compute(key, (k, current) -> current != null ? remapping.apply(k, current) : null);
+    }
+
+    /**
+     * @return The number of entries; exact only while no writes are in progress
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Visits all values. Each stripe is read under its read lock; the map as a whole is not
+     * locked, so concurrent writes to other stripes may or may not be seen.
+     *
+     * @param action Receives each value
+     */
+    public void forEachValue(Consumer<? super V> action) {
+        for (Stripe<V> stripe : stripes) {
+            List<V> values;
+            long stamp = stripe.lock.readLock();
+            try {
+                values = stripe.values();
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+            values.forEach(action);
+        }
+    }
+
+    /**
+     * @return A copy of all values
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEachValue(values::add);
+        return values;
+    }
+
+    private Stripe<V> stripeFor(long hash) {
+        return stripes[(int) (hash >>> 58)];
+    }
+
+    /**
+     * One lock-protected open-addressing table.
+     */
+    private static final class Stripe<V> {
+
+        private final StampedLock lock = new StampedLock();
+
+        // Replaced as a whole on resize so optimistic readers always see matching arrays
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+        private volatile int size;
+
+        @SuppressWarnings("unchecked")
+        private V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                Object value = table.find(key, hash);
+                if (lock.validate(stamp)) {
+                    return (V) value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return (V) table.find(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Caller must hold the write lock
+        @SuppressWarnings("unchecked")
+        private V find(long key, long hash) {
+            return (V) table.find(key, hash);
+        }
+
+        @SuppressWarnings("unchecked")
+        private V put(long key, long hash, V value) {
+            Table current = table;
+            int mask = current.keys.length - 1;
+            int slot = (int) hash & mask;
+            while (current.values[slot] != null) {
+                if (current.keys[slot] == key) {
+                    V previous = (V) current.values[slot];
+                    current.values[slot] = value;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            current.keys[slot] = key;
+            current.values[slot] = value;
+            size++;
+            if (size * 4L > current.keys.length * 3L) {
+                table = current.resize();
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V remove(long key, long hash) {
+            Table current = table;
+            long[] keys = current.keys;
+            Object[] values = current.values;
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    V previous = (V) values[slot];
+                    // Backward-shift deletion: move later entries of the probe run into the gap
+                    int gap = slot;
+                    int next = (gap + 1) & mask;
+                    while (values[next] != null) {
+                        int home = (int) LongLongMap.mix(keys[next]) & mask;
+                        if (((next - home) & mask) >= ((next - gap) & mask)) {
+                            keys[gap] = keys[next];
+                            values[gap] = values[next];
+                            gap = next;
+                        }
+                        next = (next + 1) & mask;
+                    }
+                    values[gap] = null;
+                    keys[gap] = 0;
+                    size--;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<V> values() {
+            List<V> result = new ArrayList<>(size);
+            for (Object value : table.values) {
+                if (value != null) {
+                    result.add((V) value);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Parallel key and value arrays; a null value marks an empty slot.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final Object[] values;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        private Object find(long key, long hash) {
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            // Bounded so a read racing with a write can never loop forever
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private Table resize() {
+            Table larger = new Table(keys.length * 2);
+            int mask = larger.keys.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    int slot = (int) LongLongMap.mix(keys[i]) & mask;
+                    while (larger.values[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    larger.keys[slot] = keys[i];
+                    larger.values[slot] = values[i];
+                }
+            }
+            return larger;
+        }
+    }
+}
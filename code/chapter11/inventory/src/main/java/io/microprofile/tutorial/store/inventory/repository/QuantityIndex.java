@@ -0,0 +1,183 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Concurrent sorted index of inventory records by quantity.
+ * Entries are kept in a skip list ordered by (quantity, inventoryId), so a quantity range
+ * can be paged in O(log n + offset + page) without copying the repository. A histogram of
+ * record counts per quantity answers range counts by summing one value per distinct quantity
+ * instead of visiting every record.
+ * Updates for one inventory ID must not run concurrently; the repository serializes them
+ * per key.
+ */
+public class QuantityIndex {
+
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>();
+
+    // Quantity each inventory ID is currently indexed under
+    private final LongLongMap indexedQuantities = new LongLongMap(Long.MIN_VALUE);
+
+    // Number of indexed records per quantity
+    private final ConcurrentSkipListMap<Integer, Long> histogram = new ConcurrentSkipListMap<>();
+
+    /**
+     * Indexes an inventory record under its current quantity, replacing any previous entry.
+     *
+     * @param inventoryId The inventory ID
+     * @param quantity The current quantity
+     */
+    public void put(long inventoryId, int quantity) {
+        long previous = indexedQuantities.put(inventoryId, quantity);
+        if (previous != indexedQuantities.noValue()) {
+            if (previous == quantity) {
+                return;
+            }
+            unlink(inventoryId, (int) previous);
+        }
+        entries.add(new Entry(quantity, inventoryId));
+        histogram.merge(quantity, 1L, Long::sum);
+    }
+
+    /**
+     * Removes an inventory record from the index.
+     *
+     * @param inventoryId The inventory ID
+     */
+    public void remove(long inventoryId) {
+        long previous = indexedQuantities.remove(inventoryId);
+        if (previous != indexedQuantities.noValue()) {
+            unlink(inventoryId, (int) previous);
+        }
+    }
+
+    /**
+     * Returns the IDs of records whose quantity lies in a range, ordered by quantity and then ID.
+     *
+     * @param minQuantity The inclusive lower bound, or null for none
+     * @param maxQuantity The inclusive upper bound, or null for none
+     * @param offset The number of matching records to skip
+     * @param limit The maximum number of IDs to return
+     * @return The inventory IDs
+     */
+    public List<Long> range(Integer minQuantity, Integer maxQuantity, long offset, int limit) {
+        List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        if (limit <= 0 || isEmptyRange(minQuantity, maxQuantity)) {
+            return ids;
+        }
+        Iterator<Entry> iterator = view(minQuantity, maxQuantity).iterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add(iterator.next().inventoryId());
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the entries of records in a quantity range that sort after a given (quantity, ID) key.
+     * This seeks directly to the key, so deep pages cost the same as the first one.
+     *
+     * @param minQuantity The inclusive lower bound, or null for none
+     * @param maxQuantity The inclusive upper bound, or null for none
+     * @param afterQuantity The quantity of the last record already returned, or null to start at the beginning
+     * @param afterId The inventory ID of the last record already returned; ignored if afterQuantity is null
+     * @param limit The maximum number of entries to return
+     * @return The index entries, ordered by quantity and then ID
+     */
+    public List<Entry> rangeAfter(Integer minQuantity, Integer maxQuantity, Integer afterQuantity, Long afterId, int limit) {
+        List<Entry> ids = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        if (limit <= 0 || isEmptyRange(minQuantity, maxQuantity)) {
+            return ids;
+        }
+        Entry from = lowerBound(minQuantity);
+        Entry to = upperBound(maxQuantity);
+        boolean fromInclusive = true;
+        if (afterQuantity != null) {
+            Entry after = new Entry(afterQuantity, afterId);
+            if (after.compareTo(to) >= 0) {
+                return ids;
+            }
+            if (after.compareTo(from) >= 0) {
+                from = after;
+                fromInclusive = false;
+            }
+        }
+        for (Entry entry : entries.subSet(from, fromInclusive, to, true)) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(entry);
+        }
+        return ids;
+    }
+
+    /**
+     * Counts the records whose quantity lies in a range.
+     *
+     * @param minQuantity The inclusive lower bound, or null for none
+     * @param maxQuantity The inclusive upper bound, or null for none
+     * @return The number of matching records
+     */
+    public long count(Integer minQuantity, Integer maxQuantity) {
+        if (isEmptyRange(minQuantity, maxQuantity)) {
+            return 0;
+        }
+        Map<Integer, Long> counts = histogram;
+        if (minQuantity != null && maxQuantity != null) {
+            counts = histogram.subMap(minQuantity, true, maxQuantity, true);
+        } else if (minQuantity != null) {
+            counts = histogram.tailMap(minQuantity, true);
+        } else if (maxQuantity != null) {
+            counts = histogram.headMap(maxQuantity, true);
+        }
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private NavigableSet<Entry> view(Integer minQuantity, Integer maxQuantity) {
+        return entries.subSet(lowerBound(minQuantity), true, upperBound(maxQuantity), true);
+    }
+
+    private static Entry lowerBound(Integer minQuantity) {
+        return new Entry(minQuantity != null ? minQuantity : Integer.MIN_VALUE, Long.MIN_VALUE);
+    }
+
+    private static Entry upperBound(Integer maxQuantity) {
+        return new Entry(maxQuantity != null ? maxQuantity : Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    private void unlink(long inventoryId, int quantity) {
+        entries.remove(new Entry(quantity, inventoryId));
+        histogram.merge(quantity, -1L, (count, delta) -> count + delta == 0 ? null : count + delta);
+    }
+
+    private static boolean isEmptyRange(Integer minQuantity, Integer maxQuantity) {
+        return minQuantity != null && maxQuantity != null && minQuantity > maxQuantity;
+    }
+
+    /**
+     * Index key ordered by quantity, then inventory ID.
+     *
+     * @param quantity The quantity the record is indexed under
+     * @param inventoryId The inventory ID
+     */
+    public record Entry(int quantity, long inventoryId) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int byQuantity = Integer.compare(quantity, other.quantity);
+            return byQuantity != 0 ? byQuantity : Long.compare(inventoryId, other.inventoryId);
+        }
+    }
+}
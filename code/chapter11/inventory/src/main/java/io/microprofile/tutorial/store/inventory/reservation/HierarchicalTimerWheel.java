@@ -0,0 +1,311 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hierarchical timer wheel for scheduling large numbers of timeouts.
+ * Scheduling and cancelling a timeout are O(1): each level is an array of slots holding
+ * doubly linked lists, and timeouts far in the future live in coarser levels and are
+ * cascaded into finer levels as the wheel turns. Only the timeouts that are due are
+ * touched on each tick, so there is no periodic scan of all pending timeouts.
+ */
+public class HierarchicalTimerWheel {
+
+    private static final Logger LOGGER = Logger.getLogger(HierarchicalTimerWheel.class.getName());
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    // Largest distance (in ticks) that fits in the wheel; longer timeouts are re-cascaded
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickNanos;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long currentTick;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Creates a timer wheel driven by the system clock.
+     *
+     * @param tickDuration The duration of one tick
+     * @param unit The unit of the tick duration
+     */
+    public HierarchicalTimerWheel(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, System::nanoTime);
+    }
+
+    /**
+     * Creates a timer wheel driven by a custom clock.
+     *
+     * @param tickDuration The duration of one tick
+     * @param unit The unit of the tick duration
+     * @param nanoClock Source of monotonic time in nanoseconds
+     */
+    public HierarchicalTimerWheel(long tickDuration, TimeUnit unit, LongSupplier nanoClock) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+    }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task The task to run
+     * @param delay The delay before the task runs
+     * @param unit The unit of the delay
+     * @return A handle that can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long now = nanoClock.getAsLong() - startNanos;
+        long delayNanos = Math.max(0, unit.toNanos(delay));
+        // Saturate instead of overflowing, so a huge delay cannot wrap around into the past
+        long deadlineNanos = delayNanos > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delayNanos;
+        long deadlineTick = Math.ceilDiv(deadlineNanos, tickNanos);
+        Timeout timeout = new Timeout(task, deadlineTick);
+        lock.lock();
+        try {
+            insert(timeout, currentTick + 1);
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * Starts a daemon thread that advances the wheel once per tick.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-timer-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the ticking thread. Pending timeouts are kept but no longer fire.
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Advances the wheel up to the current clock time and runs every task that became due.
+     *
+     * @return The number of tasks that were run
+     */
+    public int advance() {
+        long targetTick = (nanoClock.getAsLong() - startNanos) / tickNanos;
+        List<Timeout> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                Slot slot = wheels[0][(int) (currentTick & SLOT_MASK)];
+                Timeout timeout = slot.head;
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    slot.remove(timeout);
+                    if (timeout.deadlineTick <= currentTick) {
+                        expired.add(timeout);
+                    } else {
+                        // Longer than the wheel span, place it again
+                        insert(timeout, currentTick + 1);
+                    }
+                    timeout = next;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Timeout timeout : expired) {
+            if (timeout.markExpired()) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Timer task failed", e);
+                }
+            }
+        }
+        return expired.size();
+    }
+
+    /**
+     * @return The number of timeouts currently scheduled
+     */
+    public int size() {
+        lock.lock();
+        try {
+            int size = 0;
+            for (Slot[] wheel : wheels) {
+                for (Slot slot : wheel) {
+                    size += slot.size;
+                }
+            }
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the timeouts of the next coarser slot down whenever a finer wheel wraps around.
+     * Must be called with the lock held.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Slot slot = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            Timeout timeout = slot.head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                slot.remove(timeout);
+                // The current level-0 slot has not been processed yet, so timeouts due now still fire on time
+                insert(timeout, currentTick);
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Places a timeout in the slot that matches its remaining delay.
+     * Must be called with the lock held.
+     *
+     * @param timeout The timeout to place
+     * @param earliestTick The earliest tick whose slot has not been processed yet
+     */
+    private void insert(Timeout timeout, long earliestTick) {
+        long tick = Math.max(timeout.deadlineTick, earliestTick);
+        long delta = tick - currentTick;
+        if (delta >= MAX_SPAN) {
+            tick = currentTick + MAX_SPAN - 1;
+            delta = MAX_SPAN - 1;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+    }
+
+    /**
+     * Handle for a scheduled task.
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineTick;
+
+        private Slot slot;
+        private Timeout prev;
+        private Timeout next;
+        private boolean done;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled, false if it already ran or was cancelled
+         */
+        public boolean cancel() {
+            lock.lock();
+            try {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                if (slot != null) {
+                    slot.remove(this);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean markExpired() {
+            lock.lock();
+            try {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts sharing one wheel slot.
+     */
+    private static final class Slot {
+
+        private Timeout head;
+        private int size;
+
+        private void add(Timeout timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+            size++;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+/**
+ * Lifecycle states of a reservation hold.
+ */
+public enum HoldStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,293 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Lock-free reservation engine for inventory records.
+ * Each product gets a {@link StockCell} whose counters are updated with compare-and-set,
+ * so concurrent reservations on the same product never oversell and reservations on
+ * different products never contend with each other. Products listed in
+ * {@code inventory.reservation.splitProductIds} (or passed to {@link #splitStock(Long)}) get a
+ * {@link SplitStockCell} instead, which spreads their stock over several buckets so that
+ * reservations of one hot product do not all contend on a single counter.
+ * <p>
+ * Reserved units belong to holds, not to the inventory record: when the repository replaces a
+ * record, e.g. on a full update, the product's cell moves to the replacement and carries its
+ * live reserved quantity over, whatever reserved quantity the replacement was given.
+ * <p>
+ * Reservations and settlements change the cell without taking any repository lock. Once the
+ * engine is started, the result is published onto the stored record through a short
+ * {@link InventoryRepository#compareAndUpdate} that only copies the counters, so the record's
+ * version, indexes, journal and listeners follow; concurrent changes of one product are combined
+ * into one publication. Cell operations that publish must therefore not be called from inside
+ * an update of the repository.
+ */
+@ApplicationScoped
+public class ReservationEngine implements InventoryRepository.ChangeListener {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationEngine.class.getName());
+
+    // Stock cells keyed by product ID
+    private final Map<Long, StockCell> cells = new ConcurrentHashMap<>();
+
+    // Serializes multi-product reservations that touch the same products
+    private final StripedLockTable batchLocks = new StripedLockTable(256);
+
+    // Products whose stock is split across buckets
+    private final Set<Long> splitProducts = ConcurrentHashMap.newKeySet();
+
+    private int stockBuckets = Runtime.getRuntime().availableProcessors();
+
+    // Cells publish straight onto their records until the engine is started against the repository
+    private volatile StockCell.Publisher publisher = StockCell.DIRECT;
+
+    @Inject
+    private InventoryRepository inventoryRepository;
+
+    @PostConstruct
+    void start() {
+        publisher = this::publish;
+        inventoryRepository.addChangeListener(this);
+    }
+
+    @PreDestroy
+    void stop() {
+        inventoryRepository.removeChangeListener(this);
+    }
+
+    /**
+     * Applies the stock splitting settings from MicroProfile Config.
+     *
+     * @param splitProductIds Products whose stock is split across buckets
+     * @param stockBuckets Buckets per split product; 0 for one per available processor
+     */
+    @Inject
+    void configure(
+            @ConfigProperty(name = "inventory.reservation.splitProductIds") Optional<List<Long>> splitProductIds,
+            @ConfigProperty(name = "inventory.reservation.stockBuckets", defaultValue = "0") int stockBuckets) {
+        if (stockBuckets > 0) {
+            this.stockBuckets = stockBuckets;
+        }
+        splitProductIds.ifPresent(ids -> ids.forEach(this::splitStock));
+    }
+
+    /**
+     * Splits a product's stock across buckets from the next time its stock cell is seeded,
+     * i.e. before its first reservation or after its record is replaced. Meant for products
+     * known to be hot, such as flash-sale items, before traffic arrives.
+     *
+     * @param productId The product ID
+     */
+    public void splitStock(Long productId) {
+        if (splitProducts.add(productId)) {
+            LOGGER.info("Stock of product " + productId + " will be split across " + stockBuckets + " buckets");
+        }
+    }
+
+    /**
+     * Returns the stock cell for an inventory record, seeding it from the record the first
+     * time. A cell follows replacements of its record (see {@link #replacing(Inventory, Inventory)}),
+     * so an instance of the same record read before a replacement still maps to the live cell;
+     * only a different record of the product, e.g. one created after a delete, is seeded afresh.
+     * Seed cells from the stored record, i.e. inside its atomic update in the repository.
+     *
+     * @param inventory The inventory record
+     * @return The stock cell mirroring the record
+     */
+    public StockCell cellFor(Inventory inventory) {
+        // Plain read first: compute would lock the map bin, which every reservation of a hot product shares
+        StockCell existing = cells.get(inventory.getProductId());
+        if (existing != null && isSameRecord(existing.getOwner(), inventory)) {
+            return existing;
+        }
+        return cells.compute(inventory.getProductId(), (productId, cell) -> {
+            if (cell != null && isSameRecord(cell.getOwner(), inventory)) {
+                return cell;
+            }
+            LOGGER.fine("Seeding stock cell for product ID: " + productId);
+            return splitProducts.contains(productId)
+                    ? new SplitStockCell(inventory, stockBuckets, publisher)
+                    : new StockCell(inventory, publisher);
+        });
+    }
+
+    /**
+     * Returns the live stock cell of a stored inventory record without locking the record.
+     * The first time, the cell is seeded inside the record's atomic update, so it never starts
+     * from a copy that a concurrent update has already replaced; after that this is a plain map
+     * read. Must not be called from inside an update of the repository.
+     *
+     * @param inventory The inventory record, or a copy of it read earlier
+     * @return The stock cell, or empty if the record no longer exists or now holds another product
+     */
+    public Optional<StockCell> liveCell(Inventory inventory) {
+        StockCell existing = cells.get(inventory.getProductId());
+        if (existing != null && isSameRecord(existing.getOwner(), inventory)) {
+            return Optional.of(existing);
+        }
+        StockCell[] seeded = new StockCell[1];
+        inventoryRepository.compareAndUpdate(inventory.getInventoryId(), InventoryRepository.ANY_VERSION, current -> {
+            if (Objects.equals(current.getProductId(), inventory.getProductId())) {
+                seeded[0] = cellFor(current);
+            }
+            return null;
+        });
+        return Optional.ofNullable(seeded[0]);
+    }
+
+    /**
+     * Atomically reserves units of a product.
+     *
+     * @param inventory The inventory record of the product
+     * @param units The number of units to reserve
+     * @return true if the units were reserved, false if there was insufficient stock
+     */
+    public boolean tryReserve(Inventory inventory, int units) {
+        return cellFor(inventory).tryReserve(units);
+    }
+
+    /**
+     * Reserves units of several products, either all of them or none.
+     * The stripes of all products are locked in a deterministic order so that concurrent
+     * baskets never deadlock; if any product lacks stock the reservations already made
+     * are rolled back before the locks are released.
+     *
+     * @param inventories The inventory records of the products
+     * @param unitsByProduct The number of units to reserve, keyed by product ID
+     * @return The product ID that could not be reserved, or empty if everything was reserved
+     */
+    public Optional<Long> tryReserveAll(List<Inventory> inventories, Map<Long, Integer> unitsByProduct) {
+        List<ReentrantLock> locks = batchLocks.lockAll(unitsByProduct.keySet());
+        try {
+            List<StockCell> reserved = new ArrayList<>(inventories.size());
+            for (Inventory inventory : inventories) {
+                StockCell cell = cellFor(inventory);
+                int units = unitsByProduct.get(inventory.getProductId());
+                if (!cell.tryReserve(units)) {
+                    for (StockCell done : reserved) {
+                        done.release(unitsByProduct.get(done.getOwner().getProductId()));
+                    }
+                    return Optional.of(inventory.getProductId());
+                }
+                reserved.add(cell);
+            }
+            return Optional.empty();
+        } finally {
+            batchLocks.unlockAll(locks);
+        }
+    }
+
+    /**
+     * Atomically releases reserved units of a product.
+     *
+     * @param inventory The inventory record of the product
+     * @param units The number of units to release
+     */
+    public void release(Inventory inventory, int units) {
+        cellFor(inventory).release(units);
+    }
+
+    /**
+     * Atomically commits reserved units of a product, deducting them from stock.
+     *
+     * @param inventory The inventory record of the product
+     * @param units The number of units to commit
+     */
+    public void commit(Inventory inventory, int units) {
+        cellFor(inventory).commit(units);
+    }
+
+    /**
+     * Atomically replaces the on-hand quantity of a product, keeping its reservations, and
+     * writes the result onto the record. Meant for the record's atomic update in the repository,
+     * e.g. when the change is conditional on the record's version; elsewhere use
+     * {@link StockCell#setQuantity(int)}.
+     *
+     * @param inventory The stored inventory record of the product
+     * @param quantity The new on-hand quantity
+     */
+    public void updateQuantity(Inventory inventory, int quantity) {
+        cellFor(inventory).replaceQuantity(inventory, quantity);
+    }
+
+    /**
+     * Drops the stock cell of a product, e.g. after its inventory record was deleted.
+     *
+     * @param productId The product ID
+     */
+    public void evict(Long productId) {
+        if (productId != null) {
+            cells.remove(productId);
+        }
+    }
+
+    /**
+     * Moves the product's cell to a record that replaces the record it mirrors, keeping the
+     * live reserved quantity. If the product has no cell yet, the previous record's reserved
+     * quantity is kept. A replacement for another product starts without reservations, since
+     * the holds of the previous product cannot be settled against it.
+     */
+    @Override
+    public void replacing(Inventory previous, Inventory replacement) {
+        if (!Objects.equals(previous.getProductId(), replacement.getProductId())) {
+            evict(previous.getProductId());
+            evict(replacement.getProductId());
+            replacement.setReservedQuantity(0);
+            return;
+        }
+        StockCell cell = cells.get(replacement.getProductId());
+        if (cell != null && isSameRecord(cell.getOwner(), replacement)) {
+            cell.adopt(replacement);
+        } else {
+            replacement.setReservedQuantity(previous.getReservedQuantity());
+        }
+    }
+
+    @Override
+    public void stored(Inventory inventory) {
+        // Cells publish their own changes onto the stored record
+    }
+
+    @Override
+    public void deleted(Inventory inventory) {
+        evict(inventory.getProductId());
+    }
+
+    /**
+     * Copies a cell's counters onto the stored record. The counters are read inside the record's
+     * update, so publications of one record are applied in order and the last one is current.
+     * A cell that no longer belongs to the stored record, e.g. after a delete, publishes nothing.
+     */
+    private void publish(StockCell cell) {
+        inventoryRepository.compareAndUpdate(cell.getOwner().getInventoryId(), InventoryRepository.ANY_VERSION,
+                current -> {
+                    if (current.getProductId() == null || cells.get(current.getProductId()) != cell) {
+                        return null;
+                    }
+                    cell.copyTo(current);
+                    return current;
+                });
+    }
+
+    private static boolean isSameRecord(Inventory owner, Inventory inventory) {
+        return owner == inventory || Objects.equals(owner.getInventoryId(), inventory.getInventoryId());
+    }
+}
@@ -0,0 +1,74 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.dto.ReservationHoldInfo;
+
+import java.time.Instant;
+
+/**
+ * A time-limited reservation of units for one product.
+ * Holds are owned by {@link ReservationHoldManager}, which releases them when they expire.
+ */
+public class ReservationHold {
+
+    private final String holdId;
+    private final Long productId;
+    private final int quantity;
+    private final Instant expiresAt;
+
+    private volatile HoldStatus status = HoldStatus.ACTIVE;
+    private volatile HierarchicalTimerWheel.Timeout expiry;
+
+    /**
+     * Creates an active hold.
+     *
+     * @param holdId The hold identifier
+     * @param productId The product ID
+     * @param quantity The number of reserved units
+     * @param expiresAt The time at which the hold expires
+     */
+    public ReservationHold(String holdId, Long productId, int quantity, Instant expiresAt) {
+        this.holdId = holdId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    void setStatus(HoldStatus status) {
+        this.status = status;
+    }
+
+    HierarchicalTimerWheel.Timeout getExpiry() {
+        return expiry;
+    }
+
+    void setExpiry(HierarchicalTimerWheel.Timeout expiry) {
+        this.expiry = expiry;
+    }
+
+    /**
+     * @return A snapshot of this hold for API responses
+     */
+    public ReservationHoldInfo toInfo() {
+        return new ReservationHoldInfo(holdId, productId, quantity, status, expiresAt);
+    }
+}
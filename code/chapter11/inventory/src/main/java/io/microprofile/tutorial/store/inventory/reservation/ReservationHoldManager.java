@@ -0,0 +1,191 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.exception.InventoryConflictException;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Tracks reservation holds and releases them when their TTL elapses.
+ * Expiry is driven by a {@link HierarchicalTimerWheel}, so scheduling and cancelling a hold
+ * is O(1) and no periodic scan over holds or inventory records is needed.
+ * A hold is claimed exactly once by removing it from the active map, which makes
+ * confirm, release and expiry mutually exclusive without extra locking.
+ */
+@ApplicationScoped
+public class ReservationHoldManager {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationHoldManager.class.getName());
+
+    @Inject
+    private InventoryRepository inventoryRepository;
+
+    @Inject
+    private ReservationEngine reservationEngine;
+
+    @Inject
+    @ConfigProperty(name = "inventory.reservation.ttlSeconds", defaultValue = "900")
+    private long defaultTtlSeconds;
+
+    @Inject
+    @ConfigProperty(name = "inventory.reservation.maxTtlSeconds", defaultValue = "86400")
+    private long maxTtlSeconds;
+
+    @Inject
+    @ConfigProperty(name = "inventory.reservation.timerTickMillis", defaultValue = "100")
+    private long timerTickMillis;
+
+    // Active holds keyed by hold ID
+    private final Map<String, ReservationHold> activeHolds = new ConcurrentHashMap<>();
+
+    private HierarchicalTimerWheel timerWheel;
+
+    @PostConstruct
+    void start() {
+        timerWheel = new HierarchicalTimerWheel(timerTickMillis, TimeUnit.MILLISECONDS);
+        timerWheel.start();
+        LOGGER.info("Reservation hold timer started with " + timerTickMillis + "ms ticks");
+    }
+
+    @PreDestroy
+    void stop() {
+        if (timerWheel != null) {
+            timerWheel.stop();
+        }
+    }
+
+    /**
+     * @return The longest TTL a hold may be given, in seconds
+     */
+    public long getMaxTtlSeconds() {
+        return maxTtlSeconds;
+    }
+
+    /**
+     * Registers a hold for units that have already been reserved on the stock cell.
+     *
+     * @param productId The product ID
+     * @param quantity The number of reserved units
+     * @param ttlSeconds The hold lifetime in seconds, or null for the configured default; capped
+     *                   at {@link #getMaxTtlSeconds()}, which callers should validate against first
+     * @return The new hold
+     */
+    public ReservationHold placeHold(Long productId, int quantity, Long ttlSeconds) {
+        long ttl = Math.min(ttlSeconds != null ? ttlSeconds : defaultTtlSeconds, maxTtlSeconds);
+        ReservationHold hold = new ReservationHold(UUID.randomUUID().toString(), productId, quantity,
+                Instant.now().plusSeconds(ttl));
+        activeHolds.put(hold.getHoldId(), hold);
+        hold.setExpiry(timerWheel.schedule(() -> expire(hold), ttl, TimeUnit.SECONDS));
+        LOGGER.fine("Placed hold " + hold.getHoldId() + " for " + quantity + " units of product " + productId);
+        return hold;
+    }
+
+    /**
+     * Finds an active hold.
+     *
+     * @param holdId The hold ID
+     * @return An Optional containing the hold if it is still active
+     */
+    public Optional<ReservationHold> findActive(String holdId) {
+        return holdId != null ? Optional.ofNullable(activeHolds.get(holdId)) : Optional.empty();
+    }
+
+    /**
+     * Confirms a hold, committing its units so they leave stock for good.
+     *
+     * @param holdId The hold ID
+     * @return An Optional containing the confirmed hold, or empty if no such active hold exists
+     * @throws InventoryConflictException if the hold's units are no longer reserved, for example
+     *                                    because the inventory was deleted; the hold is dropped
+     */
+    public Optional<ReservationHold> confirm(String holdId) {
+        return claim(holdId).map(hold -> {
+            if (!withStockCell(hold, cell -> cell.commit(hold.getQuantity()))) {
+                hold.setStatus(HoldStatus.RELEASED);
+                throw new InventoryConflictException("Reservation hold " + holdId
+                        + " can no longer be confirmed: its units are no longer reserved");
+            }
+            hold.setStatus(HoldStatus.CONFIRMED);
+            return hold;
+        });
+    }
+
+    /**
+     * Releases a hold, returning its units to the available pool.
+     *
+     * @param holdId The hold ID
+     * @return An Optional containing the released hold, or empty if no such active hold exists
+     */
+    public Optional<ReservationHold> release(String holdId) {
+        return claim(holdId).map(hold -> {
+            hold.setStatus(HoldStatus.RELEASED);
+            withStockCell(hold, cell -> cell.release(hold.getQuantity()));
+            return hold;
+        });
+    }
+
+    /**
+     * @return The number of active holds
+     */
+    public int activeHoldCount() {
+        return activeHolds.size();
+    }
+
+    private Optional<ReservationHold> claim(String holdId) {
+        if (holdId == null) {
+            return Optional.empty();
+        }
+        ReservationHold hold = activeHolds.remove(holdId);
+        if (hold != null && hold.getExpiry() != null) {
+            hold.getExpiry().cancel();
+        }
+        return Optional.ofNullable(hold);
+    }
+
+    private void expire(ReservationHold hold) {
+        if (!activeHolds.remove(hold.getHoldId(), hold)) {
+            return;
+        }
+        hold.setStatus(HoldStatus.EXPIRED);
+        withStockCell(hold, cell -> cell.release(hold.getQuantity()));
+        LOGGER.info("Reservation hold " + hold.getHoldId() + " expired, released " + hold.getQuantity()
+                + " units of product " + hold.getProductId());
+    }
+
+    /**
+     * Settles a hold on the product's live stock cell. The cell publishes the result onto the
+     * stored record itself, so no repository lock is held while settling.
+     *
+     * @return true if the hold was settled, false if the product or its reservation is gone
+     */
+    private boolean withStockCell(ReservationHold hold, Consumer<StockCell> action) {
+        Long productId = hold.getProductId();
+        Optional<StockCell> cell = inventoryRepository.findByProductId(productId).flatMap(reservationEngine::liveCell);
+        if (cell.isEmpty()) {
+            LOGGER.warning("Inventory for product " + productId + " no longer exists, dropping hold " + hold.getHoldId());
+            return false;
+        }
+        try {
+            action.accept(cell.get());
+            return true;
+        } catch (IllegalArgumentException e) {
+            // The stock cell no longer carries this reservation
+            LOGGER.warning("Could not settle hold " + hold.getHoldId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
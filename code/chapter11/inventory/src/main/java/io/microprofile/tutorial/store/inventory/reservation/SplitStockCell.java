@@ -0,0 +1,260 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock counter for a hot product whose stock is split across several buckets.
+ * Each bucket packs its own available and reserved units into one 64-bit word (available in
+ * the high 32 bits, reserved in the low 32 bits) and lives on its own cache line, so threads
+ * reserving the same product mostly compare-and-set different memory locations. A thread
+ * starts at the bucket its thread ID hashes to and steals from the following buckets when that
+ * one is short. Only when no single bucket can serve a request is the cell locked: all buckets
+ * are drained into one total, the operation is applied to it exactly, and the result is spread
+ * evenly over the buckets again. Stock is therefore never oversold and a reservation fails only
+ * if the whole product is short, not just one bucket.
+ * <p>
+ * The on-hand quantity is the sum of available and reserved units over all buckets; the base
+ * class counter is not used. Publishing to the inventory record is combined as in the base
+ * class, so the record may trail the buckets briefly but always ends at the exact totals.
+ */
+public class SplitStockCell extends StockCell {
+
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+    // Longs per cache line; only every STRIDE-th slot of the array is used
+    private static final int STRIDE = 8;
+
+    private final int mask;
+    private final AtomicLongArray buckets;
+
+    // Held while draining and refilling the buckets, and while summing them
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Creates a cell seeded from the current values of an inventory record, publishing
+     * straight onto the record.
+     *
+     * @param owner The inventory record mirrored by this cell
+     * @param bucketCount The number of buckets, rounded up to a power of two
+     */
+    public SplitStockCell(Inventory owner, int bucketCount) {
+        this(owner, bucketCount, DIRECT);
+    }
+
+    /**
+     * Creates a cell seeded from the current values of an inventory record.
+     *
+     * @param owner The inventory record mirrored by this cell
+     * @param bucketCount The number of buckets, rounded up to a power of two
+     * @param publisher Copies changed totals onto the record
+     */
+    public SplitStockCell(Inventory owner, int bucketCount, Publisher publisher) {
+        super(owner, publisher);
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new AtomicLongArray(size * STRIDE);
+        int quantity = owner.getQuantity() != null ? owner.getQuantity() : 0;
+        int reserved = owner.getReservedQuantity() != null ? owner.getReservedQuantity() : 0;
+        refill(quantity - reserved, reserved);
+    }
+
+    @Override
+    public boolean tryReserve(int units) {
+        int home = home();
+        for (int probe = 0; probe <= mask; probe++) {
+            int slot = slot(home + probe);
+            long current;
+            while (available(current = buckets.get(slot)) >= units) {
+                if (buckets.compareAndSet(slot, current, pack(available(current) - units, reserved(current) + units))) {
+                    publish();
+                    return true;
+                }
+            }
+        }
+        // No single bucket holds enough: decide on the exact total
+        lock.lock();
+        try {
+            long[] totals = drain();
+            boolean reserved = totals[0] >= units;
+            if (reserved) {
+                totals[0] -= units;
+                totals[1] += units;
+            }
+            refill(totals[0], totals[1]);
+            if (!reserved) {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        publish();
+        return true;
+    }
+
+    @Override
+    public void release(int units) {
+        if (!tryTakeReserved(units, true)) {
+            settleUnderLock(units, true);
+        }
+        publish();
+    }
+
+    @Override
+    public void commit(int units) {
+        if (!tryTakeReserved(units, false)) {
+            settleUnderLock(units, false);
+        }
+        publish();
+    }
+
+    @Override
+    protected void applyQuantity(int quantity) {
+        lock.lock();
+        try {
+            long[] totals = drain();
+            refill(quantity - totals[1], totals[1]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getQuantity() {
+        long[] totals = totals();
+        return (int) (totals[0] + totals[1]);
+    }
+
+    @Override
+    public int getReservedQuantity() {
+        return (int) totals()[1];
+    }
+
+    @Override
+    public int getAvailableQuantity() {
+        return (int) totals()[0];
+    }
+
+    @Override
+    void copyTo(Inventory target) {
+        long[] totals = totals();
+        target.setQuantity((int) (totals[0] + totals[1]));
+        target.setReservedQuantity((int) totals[1]);
+    }
+
+    /**
+     * @return The number of buckets
+     */
+    public int getBucketCount() {
+        return mask + 1;
+    }
+
+    /**
+     * Takes reserved units from a single bucket without locking.
+     *
+     * @param units The number of units
+     * @param toAvailable true to return them to the available pool (release), false to remove them (commit)
+     * @return false if no bucket holds that many reserved units
+     */
+    private boolean tryTakeReserved(int units, boolean toAvailable) {
+        int home = home();
+        for (int probe = 0; probe <= mask; probe++) {
+            int slot = slot(home + probe);
+            long current;
+            while (reserved(current = buckets.get(slot)) >= units) {
+                int available = available(current) + (toAvailable ? units : 0);
+                if (buckets.compareAndSet(slot, current, pack(available, reserved(current) - units))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void settleUnderLock(int units, boolean toAvailable) {
+        lock.lock();
+        try {
+            long[] totals = drain();
+            if (totals[1] < units) {
+                refill(totals[0], totals[1]);
+                throw new IllegalArgumentException("Cannot " + (toAvailable ? "release " : "commit ") + units
+                        + " units, only " + totals[1] + " reserved");
+            }
+            refill(totals[0] + (toAvailable ? units : 0), totals[1] - units);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empties all buckets. Emptied buckets cannot satisfy any lock-free operation, so
+     * concurrent callers fall through to the lock until {@link #refill(long, long)} runs.
+     *
+     * @return The total available and reserved units
+     */
+    private long[] drain() {
+        long available = 0;
+        long reserved = 0;
+        for (int i = 0; i <= mask; i++) {
+            long taken = buckets.getAndSet(slot(i), 0L);
+            available += available(taken);
+            reserved += reserved(taken);
+        }
+        return new long[] {available, reserved};
+    }
+
+    /**
+     * Spreads totals evenly over the (drained) buckets; a negative available total, left by
+     * setting the quantity below the reservations, stays in the first bucket.
+     */
+    private void refill(long available, long reserved) {
+        int count = mask + 1;
+        for (int i = 0; i < count; i++) {
+            long availableShare = available < 0 ? (i == 0 ? available : 0) : share(available, count, i);
+            buckets.set(slot(i), pack((int) availableShare, (int) share(reserved, count, i)));
+        }
+    }
+
+    private long[] totals() {
+        lock.lock();
+        try {
+            long available = 0;
+            long reserved = 0;
+            for (int i = 0; i <= mask; i++) {
+                long current = buckets.get(slot(i));
+                available += available(current);
+                reserved += reserved(current);
+            }
+            return new long[] {available, reserved};
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int home() {
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+
+    private int slot(int bucket) {
+        return (bucket & mask) * STRIDE;
+    }
+
+    private static long share(long total, int count, int index) {
+        return total / count + (index < total % count ? 1 : 0);
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & LOW_MASK);
+    }
+
+    private static int available(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+}
@@ -0,0 +1,305 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock-free stock counter for a single inventory record.
+ * The on-hand quantity and the reserved quantity are packed into one 64-bit word
+ * (quantity in the high 32 bits, reserved in the low 32 bits) so that both values
+ * are always read and changed together with a single compare-and-set.
+ * <p>
+ * Changes are copied onto the inventory record by a {@link Publisher} after the compare-and-set,
+ * never while deciding it. Publications are combined: a thread that finds one already pending
+ * leaves the work to the thread performing it instead of waiting, so the record may trail the
+ * counters briefly but always ends at their latest values.
+ */
+public class StockCell {
+
+    /**
+     * Copies the counters of a cell onto the inventory record it mirrors, e.g. through the
+     * repository so that the record's version, indexes and listeners follow.
+     */
+    @FunctionalInterface
+    public interface Publisher {
+
+        /**
+         * @param cell The cell whose counters changed; read them with {@link #copyTo(Inventory)}
+         */
+        void publish(StockCell cell);
+    }
+
+    /**
+     * Writes the counters straight onto the record, under the record's monitor.
+     */
+    public static final Publisher DIRECT = cell -> {
+        Inventory target = cell.getOwner();
+        synchronized (target) {
+            cell.copyTo(target);
+        }
+    };
+
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+    // Replaced when the repository replaces the record, see adopt(Inventory)
+    private volatile Inventory owner;
+
+    private final AtomicLong state;
+
+    private final Publisher publisher;
+
+    // Only one thread publishes at a time; others mark a publication pending and move on
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+
+    // Set while the product's stock is kept elsewhere, see close()
+    private volatile boolean closed;
+
+    /**
+     * Creates a cell seeded from the current values of an inventory record, publishing
+     * straight onto the record.
+     *
+     * @param owner The inventory record mirrored by this cell
+     */
+    public StockCell(Inventory owner) {
+        this(owner, DIRECT);
+    }
+
+    /**
+     * Creates a cell seeded from the current values of an inventory record.
+     *
+     * @param owner The inventory record mirrored by this cell
+     * @param publisher Copies changed counters onto the record
+     */
+    public StockCell(Inventory owner, Publisher publisher) {
+        this.owner = owner;
+        this.publisher = publisher;
+        this.state = new AtomicLong(pack(valueOf(owner.getQuantity()), valueOf(owner.getReservedQuantity())));
+    }
+
+    /**
+     * Atomically reserves units if enough stock is available.
+     *
+     * @param units The number of units to reserve
+     * @return true if the units were reserved, false if there was insufficient stock
+     */
+    public boolean tryReserve(int units) {
+        while (true) {
+            long current = state.get();
+            int quantity = quantity(current);
+            int reserved = reserved(current);
+            if (quantity - reserved < units) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(quantity, reserved + units))) {
+                publish();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Atomically returns previously reserved units to the available pool.
+     *
+     * @param units The number of units to release
+     * @throws IllegalArgumentException if fewer units are reserved than requested
+     */
+    public void release(int units) {
+        while (true) {
+            long current = state.get();
+            int reserved = reserved(current);
+            if (reserved < units) {
+                throw new IllegalArgumentException("Cannot release " + units + " units, only " + reserved + " reserved");
+            }
+            if (state.compareAndSet(current, pack(quantity(current), reserved - units))) {
+                publish();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically commits previously reserved units, removing them from both
+     * the reserved and the on-hand quantity.
+     *
+     * @param units The number of units to commit
+     * @throws IllegalArgumentException if fewer units are reserved than requested
+     */
+    public void commit(int units) {
+        while (true) {
+            long current = state.get();
+            int reserved = reserved(current);
+            if (reserved < units) {
+                throw new IllegalArgumentException("Cannot commit " + units + " units, only " + reserved + " reserved");
+            }
+            if (state.compareAndSet(current, pack(quantity(current) - units, reserved - units))) {
+                publish();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically replaces the on-hand quantity, keeping the current reservations.
+     *
+     * @param quantity The new on-hand quantity
+     */
+    public void setQuantity(int quantity) {
+        applyQuantity(quantity);
+        publish();
+    }
+
+    /**
+     * Replaces the on-hand quantity without publishing it.
+     *
+     * @param quantity The new on-hand quantity
+     */
+    protected void applyQuantity(int quantity) {
+        while (true) {
+            long current = state.get();
+            if (state.compareAndSet(current, pack(quantity, reserved(current)))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The on-hand quantity
+     */
+    public int getQuantity() {
+        return quantity(state.get());
+    }
+
+    /**
+     * @return The reserved quantity
+     */
+    public int getReservedQuantity() {
+        return reserved(state.get());
+    }
+
+    /**
+     * @return The quantity that can still be reserved
+     */
+    public int getAvailableQuantity() {
+        long current = state.get();
+        return quantity(current) - reserved(current);
+    }
+
+    /**
+     * @return The inventory record mirrored by this cell
+     */
+    public Inventory getOwner() {
+        return owner;
+    }
+
+    /**
+     * Stops product-level reservations if none are outstanding, e.g. before the product's stock
+     * moves to its warehouses. The flag is set before the reserved quantity is read, and a
+     * reservation reads it after its compare-and-set, so of a racing close and reservation at
+     * least one sees the other: callers must check {@link #isClosed()} after reserving and
+     * release the units again if it is set.
+     *
+     * @return true if the cell is now closed, false if units are reserved and it stays open
+     */
+    public boolean close() {
+        closed = true;
+        if (getReservedQuantity() > 0) {
+            closed = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Allows reservations again after {@link #close()}, e.g. when moving the stock failed.
+     */
+    public void reopen() {
+        closed = false;
+    }
+
+    /**
+     * @return true if the product's stock is no longer reserved through this cell
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Binds the cell to a record that replaced its owner, e.g. after a full update.
+     * The on-hand quantity is taken from the replacement and the live reserved quantity is
+     * written onto it, so reservations made before the replacement stay reserved. Called while
+     * the replacement is being stored, so it is written directly rather than published.
+     *
+     * @param replacement The record that now holds the product's stock
+     */
+    void adopt(Inventory replacement) {
+        owner = replacement;
+        replaceQuantity(replacement, valueOf(replacement.getQuantity()));
+    }
+
+    /**
+     * Replaces the on-hand quantity and writes the counters directly onto a record that is being
+     * updated, e.g. inside its atomic update in the repository.
+     *
+     * @param record The record holding the product's stock
+     * @param quantity The new on-hand quantity
+     */
+    void replaceQuantity(Inventory record, int quantity) {
+        applyQuantity(quantity);
+        copyTo(record);
+    }
+
+    /**
+     * Writes the current counter values onto a record.
+     *
+     * @param target The record to write to
+     */
+    void copyTo(Inventory target) {
+        long current = state.get();
+        target.setQuantity(quantity(current));
+        target.setReservedQuantity(reserved(current));
+    }
+
+    /**
+     * Hands the latest counter values to the publisher. If a publication is already pending,
+     * the thread that will perform it reads the counters after this change, so there is nothing
+     * left to do here; the publishing thread keeps going until no change is pending.
+     */
+    protected final void publish() {
+        if (publishPending.get() || !publishPending.compareAndSet(false, true)) {
+            return;
+        }
+        while (publishLock.tryLock()) {
+            try {
+                while (publishPending.getAndSet(false)) {
+                    publisher.publish(this);
+                }
+            } finally {
+                publishLock.unlock();
+            }
+            // A change marked pending while the lock was released is left to whoever holds it now
+            if (!publishPending.get()) {
+                return;
+            }
+        }
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static long pack(int quantity, int reserved) {
+        return ((long) quantity << 32) | (reserved & LOW_MASK);
+    }
+
+    private static int quantity(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+}
@@ -0,0 +1,72 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed table of locks shared by many keys.
+ * Several keys are locked together by acquiring their stripes in ascending stripe order,
+ * so two callers locking overlapping key sets can never deadlock, whatever order
+ * the keys were supplied in.
+ */
+public class StripedLockTable {
+
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Creates a lock table.
+     *
+     * @param stripeCount The number of stripes, rounded up to a power of two
+     */
+    public StripedLockTable(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks the stripes of all given keys in deterministic order.
+     *
+     * @param keys The keys to lock
+     * @return The acquired locks, to be passed to {@link #unlockAll(List)}
+     */
+    public List<ReentrantLock> lockAll(Collection<Long> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long key : keys) {
+            indexes.add(stripeIndex(key));
+        }
+        List<ReentrantLock> acquired = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                lock.lock();
+                acquired.add(lock);
+            }
+        } catch (RuntimeException e) {
+            unlockAll(acquired);
+            throw e;
+        }
+        return acquired;
+    }
+
+    /**
+     * Releases locks acquired by {@link #lockAll(Collection)} in reverse order.
+     *
+     * @param locks The acquired locks
+     */
+    public void unlockAll(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    private int stripeIndex(Long key) {
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (hash >>> 32) & (stripes.length - 1);
+    }
+}
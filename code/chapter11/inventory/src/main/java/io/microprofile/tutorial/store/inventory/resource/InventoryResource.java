@@ -1,21 +1,53 @@
 package io.microprofile.tutorial.store.inventory.resource;
 
 import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.event.InventoryChangeBroadcaster;
+import io.microprofile.tutorial.store.inventory.exception.ErrorResponse;
+import io.microprofile.tutorial.store.inventory.exception.InventoryConflictException;
+import io.microprofile.tutorial.store.inventory.service.BulkInventoryService;
 import io.microprofile.tutorial.store.inventory.service.InventoryService;
+import io.microprofile.tutorial.store.inventory.dto.ImportProgress;
+import io.microprofile.tutorial.store.inventory.dto.InventoryChange;
+import io.microprofile.tutorial.store.inventory.dto.InventoryPage;
+import io.microprofile.tutorial.store.inventory.dto.InventoryWithProductInfo;
 import io.microprofile.tutorial.store.inventory.dto.Product;
+import io.microprofile.tutorial.store.inventory.dto.ProductAvailability;
+import io.microprofile.tutorial.store.inventory.dto.ReservationHoldInfo;
+import io.microprofile.tutorial.store.inventory.dto.ReservationRequest;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseAllocation;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseStockInfo;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriBuilder;
 import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
@@ -35,14 +67,31 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 @Tag(name = "Inventory", description = "Operations related to product inventory management")
 public class InventoryResource {
 
+    // Serializes streamed items one at a time; Jsonb instances are thread-safe
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    // Newline-delimited JSON: one document per line, used for bulk import and export
+    private static final String NDJSON = "application/x-ndjson";
+
+    // Entity tags are "<start time>-<version>": versions restart when the repository is
+    // recovered from disk, so a tag handed out before a restart must never match afterwards
+    private static final String ETAG_PREFIX = Long.toString(System.currentTimeMillis(), 36) + "-";
+
     @Inject
     private InventoryService inventoryService;
 
+    @Inject
+    private BulkInventoryService bulkInventoryService;
+
+    @Inject
+    private InventoryChangeBroadcaster inventoryChangeBroadcaster;
+
     @Context
     private UriInfo uriInfo;
 
     @GET
-    @Operation(summary = "Get all inventory items", description = "Returns a paginated list of inventory items with optional filtering")
+    @Operation(summary = "Get all inventory items", description = "Returns a paginated list of inventory items with optional filtering. "
+            + "Passing limit or after switches from offset to keyset pagination with an X-Next-Cursor header")
     @APIResponse(
         responseCode = "200",
         description = "List of inventory items",
@@ -62,7 +111,28 @@ public class InventoryResource {
         @QueryParam("minQuantity") Integer minQuantity,
         
         @Parameter(description = "Filter by maximum quantity")
-        @QueryParam("maxQuantity") Integer maxQuantity) {
+        @QueryParam("maxQuantity") Integer maxQuantity,
+        
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page; switches to keyset pagination")
+        @QueryParam("after") String after,
+        
+        @Parameter(description = "Page size for keyset pagination; switches to keyset pagination")
+        @QueryParam("limit") Integer limit,
+        
+        @Parameter(description = "Sort order for keyset pagination: id or quantity", schema = @Schema(defaultValue = "id"))
+        @QueryParam("orderBy") @DefaultValue("id") String orderBy) {
+        
+        if (after != null || limit != null) {
+            // An invalid cursor or sort order is answered with 400 by InventoryExceptionMapper
+            InventoryPage inventoryPage = inventoryService.getInventoryPage(after, limit != null ? limit : size,
+                    orderBy, minQuantity, maxQuantity);
+            Response.ResponseBuilder response = Response.ok(inventoryPage.getItems())
+                    .header("X-Page-Size", inventoryPage.getItems().size());
+            if (inventoryPage.getNextCursor() != null) {
+                response.header("X-Next-Cursor", inventoryPage.getNextCursor());
+            }
+            return response.build();
+        }
         
         List<Inventory> inventories = inventoryService.getAllInventories(page, size, minQuantity, maxQuantity);
         long totalCount = inventoryService.countInventories(minQuantity, maxQuantity);
@@ -89,10 +159,10 @@ public class InventoryResource {
         responseCode = "404",
         description = "Inventory not found"
     )
-    public Inventory getInventoryById(
+    public Response getInventoryById(
         @Parameter(description = "ID of the inventory item", required = true)
         @PathParam("id") Long id) {
-        return inventoryService.getInventoryById(id);
+        return withEntityTag(Response.ok(), inventoryService.getInventoryById(id));
     }
 
     @GET
@@ -110,10 +180,61 @@ public class InventoryResource {
         responseCode = "404",
         description = "Inventory not found for product"
     )
-    public Inventory getInventoryByProductId(
+    public Response getInventoryByProductId(
         @Parameter(description = "Product ID", required = true)
         @PathParam("productId") Long productId) {
-        return inventoryService.getInventoryByProductId(productId);
+        return withEntityTag(Response.ok(), inventoryService.getInventoryByProductId(productId));
+    }
+
+    @GET
+    @Path("/low-stock")
+    @Operation(summary = "Get low-stock inventory items",
+               description = "Returns items whose available quantity is at or below the configured low-stock "
+                       + "threshold, lowest first. Served from an incrementally maintained set, not a scan")
+    @APIResponse(
+        responseCode = "200",
+        description = "Low-stock inventory items",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(type = SchemaType.ARRAY, implementation = Inventory.class)
+        )
+    )
+    public Response getLowStockInventories(
+        @Parameter(description = "Page number (zero-based)", schema = @Schema(defaultValue = "0"))
+        @QueryParam("page") @DefaultValue("0") int page,
+        
+        @Parameter(description = "Page size", schema = @Schema(defaultValue = "100"))
+        @QueryParam("size") @DefaultValue("100") int size) {
+        
+        List<Inventory> inventories = inventoryService.getLowStockInventories(page, size);
+        return Response.ok(inventories)
+                .header("X-Total-Count", inventoryService.countLowStockInventories())
+                .header("X-Low-Stock-Threshold", inventoryService.getLowStockThreshold())
+                .header("X-Page-Number", page)
+                .header("X-Page-Size", size)
+                .build();
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Stream inventory changes",
+               description = "Pushes an 'inventory' server-sent event with the latest stock levels whenever a product's "
+                       + "quantity or reservations change. Changes to one product within a flush interval are coalesced")
+    @APIResponse(
+        responseCode = "200",
+        description = "Stream of inventory changes",
+        content = @Content(
+            mediaType = MediaType.SERVER_SENT_EVENTS,
+            schema = @Schema(implementation = InventoryChange.class)
+        )
+    )
+    public void streamInventoryChanges(
+        @Parameter(description = "Only stream changes for these product IDs (repeatable); all products if omitted")
+        @QueryParam("productId") List<Long> productIds,
+        @Context SseEventSink eventSink,
+        @Context Sse sse) {
+        inventoryChangeBroadcaster.subscribe(Set.copyOf(productIds), new SseDelivery(sse, eventSink));
     }
 
     @POST
@@ -130,12 +251,15 @@ public class InventoryResource {
         responseCode = "409",
         description = "Inventory for product already exists"
     )
-    public Response createInventory(
+    public CompletionStage<Response> createInventory(
         @Parameter(description = "Inventory details", required = true)
         @NotNull @Valid Inventory inventory) {
-        Inventory createdInventory = inventoryService.createInventory(inventory);
-        URI location = uriInfo.getAbsolutePathBuilder().path(createdInventory.getInventoryId().toString()).build();
-        return Response.created(location).entity(createdInventory).build();
+        // Resolve the base URI now; the stage may complete on a thread without the request context
+        URI base = uriInfo.getAbsolutePath();
+        return inventoryService.createInventoryAsync(inventory).thenApply(createdInventory -> {
+            URI location = UriBuilder.fromUri(base).path(createdInventory.getInventoryId().toString()).build();
+            return withEntityTag(Response.created(location), createdInventory);
+        });
     }
 
     @PUT
@@ -157,12 +281,19 @@ public class InventoryResource {
         responseCode = "409",
         description = "Another inventory record already exists for this product"
     )
-    public Inventory updateInventory(
+    @APIResponse(
+        responseCode = "412",
+        description = "The inventory item changed since the entity tag in If-Match was issued"
+    )
+    public CompletionStage<Response> updateInventory(
         @Parameter(description = "ID of the inventory item", required = true)
         @PathParam("id") Long id,
+        @Parameter(description = "Entity tag from a previous response; the update is refused if the item changed since")
+        @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
         @Parameter(description = "Updated inventory details", required = true)
         @NotNull @Valid Inventory inventory) {
-        return inventoryService.updateInventory(id, inventory);
+        return inventoryService.updateInventoryAsync(id, inventory, expectedVersion(ifMatch))
+                .thenApply(updated -> withEntityTag(Response.ok(), updated));
     }
 
     @DELETE
@@ -198,18 +329,27 @@ public class InventoryResource {
         responseCode = "404",
         description = "Inventory not found for product"
     )
-    public Inventory updateQuantity(
+    @APIResponse(
+        responseCode = "412",
+        description = "The inventory item changed since the entity tag in If-Match was issued"
+    )
+    public Response updateQuantity(
         @Parameter(description = "Product ID", required = true)
         @PathParam("productId") Long productId,
         @Parameter(description = "New quantity", required = true)
-        @PathParam("quantity") int quantity) {
-        return inventoryService.updateQuantity(productId, quantity);
+        @PathParam("quantity") int quantity,
+        @Parameter(description = "Entity tag from a previous response; the update is refused if the item changed since")
+        @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        Inventory updated = inventoryService.updateQuantity(productId, quantity, expectedVersion(ifMatch));
+        return withEntityTag(Response.ok(), updated);
     }
 
     @PATCH
     @Path("/product/{productId}/reserve/{quantity}")
     @Operation(summary = "Reserve inventory for a product", 
-               description = "Reserves the specified quantity of inventory for a product if it's available in the catalog")
+               description = "Reserves the specified quantity of inventory for a product if it's available in the catalog. "
+                           + "The reservation is held until it is confirmed, released or its TTL expires; "
+                           + "the hold ID is returned in the X-Reservation-Id header.")
     @APIResponse(
         responseCode = "200",
         description = "Inventory reserved successfully",
@@ -226,12 +366,276 @@ public class InventoryResource {
         responseCode = "404",
         description = "Product not found in catalog or inventory not found"
     )
-    public Inventory reserveInventory(
+    @APIResponse(
+        responseCode = "409",
+        description = "Product is stocked per warehouse and must be reserved through its warehouses"
+    )
+    public CompletionStage<Response> reserveInventory(
         @Parameter(description = "Product ID", required = true)
         @PathParam("productId") Long productId,
         @Parameter(description = "Quantity to reserve", required = true)
+        @PathParam("quantity") int quantity,
+        @Parameter(description = "Hold lifetime in seconds (defaults to inventory.reservation.ttlSeconds)")
+        @QueryParam("ttlSeconds") Long ttlSeconds) {
+        UriBuilder reservations = uriInfo.getBaseUriBuilder()
+                .path(InventoryResource.class)
+                .path("reservations");
+        return inventoryService.reserveWithHoldAsync(productId, quantity, ttlSeconds).thenApply(hold ->
+                Response.ok(inventoryService.getInventoryByProductId(productId))
+                        .header("X-Reservation-Id", hold.getHoldId())
+                        .header("X-Reservation-Expires", hold.getExpiresAt())
+                        .location(reservations.path(hold.getHoldId()).build())
+                        .build());
+    }
+
+    @GET
+    @Path("/product/{productId}/warehouses")
+    @Operation(summary = "Get warehouse stock of a product", description = "Returns the stock of a product in each warehouse")
+    @APIResponse(
+        responseCode = "200",
+        description = "Warehouse stocks ordered by warehouse ID",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(type = SchemaType.ARRAY, implementation = WarehouseStockInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "Inventory not found"
+    )
+    public List<WarehouseStockInfo> getWarehouseStocks(
+        @Parameter(description = "Product ID", required = true)
+        @PathParam("productId") Long productId) {
+        return inventoryService.getWarehouseStocks(productId);
+    }
+
+    @GET
+    @Path("/product/{productId}/availability")
+    @Operation(summary = "Get availability of a product over all warehouses",
+               description = "Returns the on-hand, reserved and available units summed over all warehouses. "
+                           + "The totals are kept up to date as warehouses change, so this is a constant-time read.")
+    @APIResponse(
+        responseCode = "200",
+        description = "Totals over all warehouses",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = ProductAvailability.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "Inventory not found"
+    )
+    public ProductAvailability getWarehouseAvailability(
+        @Parameter(description = "Product ID", required = true)
+        @PathParam("productId") Long productId) {
+        return inventoryService.getWarehouseAvailability(productId);
+    }
+
+    @PUT
+    @Path("/product/{productId}/warehouses/{warehouseId}/quantity/{quantity}")
+    @Operation(summary = "Set warehouse stock", description = "Sets the on-hand quantity of a product in one warehouse")
+    @APIResponse(
+        responseCode = "200",
+        description = "Warehouse stock updated",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = WarehouseStockInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "Inventory not found"
+    )
+    @APIResponse(
+        responseCode = "409",
+        description = "Product has outstanding product-level reservations"
+    )
+    public WarehouseStockInfo updateWarehouseQuantity(
+        @Parameter(description = "Product ID", required = true)
+        @PathParam("productId") Long productId,
+        @Parameter(description = "Warehouse ID", required = true)
+        @PathParam("warehouseId") String warehouseId,
+        @Parameter(description = "New on-hand quantity", required = true)
+        @PathParam("quantity") int quantity) {
+        return inventoryService.updateWarehouseQuantity(productId, warehouseId, quantity);
+    }
+
+    @PATCH
+    @Path("/product/{productId}/warehouses/reserve/{quantity}")
+    @Operation(summary = "Reserve a product in one warehouse",
+               description = "Reserves units of a product in a single warehouse chosen by the configured "
+                           + "warehouse selection strategy")
+    @APIResponse(
+        responseCode = "200",
+        description = "Units reserved",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = WarehouseAllocation.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "400",
+        description = "Invalid quantity or no single warehouse has enough stock"
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "Inventory not found"
+    )
+    public WarehouseAllocation reserveFromWarehouse(
+        @Parameter(description = "Product ID", required = true)
+        @PathParam("productId") Long productId,
+        @Parameter(description = "Quantity to reserve", required = true)
+        @PathParam("quantity") int quantity) {
+        return inventoryService.reserveFromWarehouse(productId, quantity);
+    }
+
+    @PATCH
+    @Path("/product/{productId}/warehouses/{warehouseId}/release/{quantity}")
+    @Operation(summary = "Release a warehouse reservation", description = "Returns reserved units to a warehouse's available stock")
+    @APIResponse(
+        responseCode = "200",
+        description = "Units released",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = WarehouseStockInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "The warehouse does not stock the product"
+    )
+    public WarehouseStockInfo releaseWarehouseReservation(
+        @Parameter(description = "Product ID", required = true)
+        @PathParam("productId") Long productId,
+        @Parameter(description = "Warehouse ID", required = true)
+        @PathParam("warehouseId") String warehouseId,
+        @Parameter(description = "Quantity to release", required = true)
+        @PathParam("quantity") int quantity) {
+        return inventoryService.releaseWarehouseReservation(productId, warehouseId, quantity);
+    }
+
+    @PATCH
+    @Path("/product/{productId}/warehouses/{warehouseId}/commit/{quantity}")
+    @Operation(summary = "Commit a warehouse reservation", description = "Deducts reserved units from a warehouse's stock")
+    @APIResponse(
+        responseCode = "200",
+        description = "Units committed",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = WarehouseStockInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "The warehouse does not stock the product"
+    )
+    public WarehouseStockInfo commitWarehouseReservation(
+        @Parameter(description = "Product ID", required = true)
+        @PathParam("productId") Long productId,
+        @Parameter(description = "Warehouse ID", required = true)
+        @PathParam("warehouseId") String warehouseId,
+        @Parameter(description = "Quantity to commit", required = true)
         @PathParam("quantity") int quantity) {
-        return inventoryService.reserveInventory(productId, quantity);
+        return inventoryService.commitWarehouseReservation(productId, warehouseId, quantity);
+    }
+
+    @POST
+    @Path("/reservations")
+    @Operation(summary = "Reserve several products at once", 
+               description = "Reserves all requested products atomically: either every line is reserved or none is. "
+                           + "Returns one reservation hold per product.")
+    @APIResponse(
+        responseCode = "200",
+        description = "All products reserved",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(type = SchemaType.ARRAY, implementation = ReservationHoldInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "400",
+        description = "Invalid request or insufficient inventory for at least one product; nothing was reserved"
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "A product was not found in the catalog or has no inventory; nothing was reserved"
+    )
+    @APIResponse(
+        responseCode = "409",
+        description = "A product is stocked per warehouse; nothing was reserved"
+    )
+    public List<ReservationHoldInfo> reserveBatch(
+        @Parameter(description = "Products and quantities to reserve", required = true)
+        @NotNull @Valid List<ReservationRequest> requests,
+        @Parameter(description = "Hold lifetime in seconds (defaults to inventory.reservation.ttlSeconds)")
+        @QueryParam("ttlSeconds") Long ttlSeconds) {
+        return inventoryService.reserveBatch(requests, ttlSeconds);
+    }
+
+    @GET
+    @Path("/reservations/{holdId}")
+    @Operation(summary = "Get reservation hold", description = "Returns an active reservation hold")
+    @APIResponse(
+        responseCode = "200",
+        description = "Reservation hold",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = ReservationHoldInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "No active reservation hold with this ID"
+    )
+    public ReservationHoldInfo getReservationHold(
+        @Parameter(description = "Reservation hold ID", required = true)
+        @PathParam("holdId") String holdId) {
+        return inventoryService.getReservationHold(holdId);
+    }
+
+    @POST
+    @Path("/reservations/{holdId}/confirm")
+    @Operation(summary = "Confirm reservation hold", 
+               description = "Confirms an active reservation hold and deducts its units from stock")
+    @APIResponse(
+        responseCode = "200",
+        description = "Reservation hold confirmed",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = ReservationHoldInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "No active reservation hold with this ID (it may have expired)"
+    )
+    public ReservationHoldInfo confirmReservation(
+        @Parameter(description = "Reservation hold ID", required = true)
+        @PathParam("holdId") String holdId) {
+        return inventoryService.confirmReservation(holdId);
+    }
+
+    @DELETE
+    @Path("/reservations/{holdId}")
+    @Operation(summary = "Release reservation hold", 
+               description = "Releases an active reservation hold and returns its units to available stock")
+    @APIResponse(
+        responseCode = "200",
+        description = "Reservation hold released",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = ReservationHoldInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "No active reservation hold with this ID (it may have expired)"
+    )
+    public ReservationHoldInfo releaseReservation(
+        @Parameter(description = "Reservation hold ID", required = true)
+        @PathParam("holdId") String holdId) {
+        return inventoryService.releaseReservation(holdId);
     }
 
     @GET
@@ -250,17 +654,219 @@ public class InventoryResource {
         responseCode = "404",
         description = "Product not found"
     )
-    public Response getProductInfo(
+    public CompletionStage<Response> getProductInfo(
         @Parameter(description = "Product ID", required = true)
         @PathParam("productId") Long productId) {
         
-        Product product = inventoryService.getProductWithCustomClient(productId);
-        if (product != null) {
-            return Response.ok(product).build();
-        } else {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("{\"message\": \"Product not found\"}")
-                    .build();
+        return inventoryService.getProductWithCustomClientAsync(productId).thenApply(product -> {
+            if (product != null) {
+                return Response.ok(product).build();
+            } else {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"message\": \"Product not found\"}")
+                        .build();
+            }
+        });
+    }
+
+    @GET
+    @Path("/{id}/with-product-info")
+    @Operation(summary = "Get inventory with product information",
+               description = "Returns an inventory item together with its product details from the catalog service")
+    @APIResponse(
+        responseCode = "200",
+        description = "Inventory with product information",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = InventoryWithProductInfo.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "Inventory not found or product not found in catalog"
+    )
+    public CompletionStage<InventoryWithProductInfo> getInventoryWithProductInfo(
+        @Parameter(description = "ID of the inventory item", required = true)
+        @PathParam("id") Long id) {
+        return inventoryService.getInventoryWithProductInfoAsync(id);
+    }
+
+    @GET
+    @Path("/category/{category}")
+    @Operation(summary = "Get inventories for a product category",
+               description = "Streams the inventory items of a catalog category, enriched with product details")
+    @APIResponse(
+        responseCode = "200",
+        description = "Inventory items with product details",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(type = SchemaType.ARRAY, implementation = InventoryWithProductInfo.class)
+        )
+    )
+    public Response getInventoriesByCategory(
+        @Parameter(description = "Product category", required = true)
+        @PathParam("category") String category) {
+        
+        // Resolve the category before streaming so catalog failures still map to an error status
+        Stream<InventoryWithProductInfo> inventories = inventoryService.streamInventoriesByCategory(category);
+        StreamingOutput body = output -> {
+            try (inventories; Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                writer.write('[');
+                boolean[] first = {true};
+                inventories.forEachOrdered(inventory -> {
+                    try {
+                        if (!first[0]) {
+                            writer.write(',');
+                        }
+                        first[0] = false;
+                        writer.write(JSONB.toJson(inventory));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.write(']');
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return Response.ok(body, MediaType.APPLICATION_JSON).build();
+    }
+
+    @POST
+    @Path("/import")
+    @Consumes(NDJSON)
+    @Produces(NDJSON)
+    @Operation(summary = "Import inventory items",
+               description = "Creates inventory items from newline-delimited JSON, one item per line, without buffering "
+                       + "the whole upload. Products are validated against the catalog in batches and items are inserted "
+                       + "in chunks; a progress line is streamed back after every chunk, the last one with done=true. "
+                       + "Rejected lines are reported with their line number and do not stop the import")
+    @APIResponse(
+        responseCode = "200",
+        description = "Progress lines of the import",
+        content = @Content(
+            mediaType = NDJSON,
+            schema = @Schema(implementation = ImportProgress.class)
+        )
+    )
+    public Response importInventories(
+        @Parameter(description = "Inventory items, one JSON object per line", required = true)
+        InputStream body) {
+        
+        StreamingOutput progress = output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try {
+                bulkInventoryService.importInventories(body, report -> {
+                    try {
+                        writer.write(JSONB.toJson(report));
+                        writer.write('\n');
+                        // Push each report out as soon as its chunk is done
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (WebApplicationException e) {
+                // The status is already sent, so a catalog failure ends the stream with an error line
+                writer.write(JSONB.toJson(new ErrorResponse("import_failed", "Import stopped: " + e.getMessage())));
+                writer.write('\n');
+                writer.flush();
+            }
+        };
+        return Response.ok(progress, NDJSON).build();
+    }
+
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    @Operation(summary = "Export inventory items",
+               description = "Streams all inventory items as newline-delimited JSON in inventory ID order, "
+                       + "in the format accepted by the import endpoint")
+    @APIResponse(
+        responseCode = "200",
+        description = "Inventory items, one per line",
+        content = @Content(
+            mediaType = NDJSON,
+            schema = @Schema(implementation = Inventory.class)
+        )
+    )
+    public Response exportInventories() {
+        StreamingOutput body = bulkInventoryService::exportInventories;
+        return Response.ok(body, NDJSON).build();
+    }
+
+    /**
+     * Adds an inventory item and its entity tag to a response. The tag is taken before the item
+     * is serialized, so if the item changes meanwhile the tag is older than the body and an
+     * update based on it is refused rather than accepted.
+     */
+    private static Response withEntityTag(Response.ResponseBuilder response, Inventory inventory) {
+        EntityTag tag = new EntityTag(ETAG_PREFIX + inventory.getVersion());
+        return response.tag(tag).entity(inventory).build();
+    }
+
+    /**
+     * Reads the version an update is based on from an If-Match header; if it lists several
+     * tags, the first one issued by this instance is used.
+     *
+     * @return The version, or null if the header is absent or "*"
+     * @throws InventoryConflictException with status 412 if no tag in the header was issued by this instance
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return null;
+            }
+            // Weak tags never match for If-Match
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+                if (value.startsWith(ETAG_PREFIX)) {
+                    try {
+                        return Long.parseLong(value.substring(ETAG_PREFIX.length()));
+                    } catch (NumberFormatException e) {
+                        // Not one of ours; try the next tag
+                    }
+                }
+            }
+        }
+        throw new InventoryConflictException("If-Match does not match the current inventory version",
+                Response.Status.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Writes inventory changes to one server-sent event connection.
+     */
+    private static final class SseDelivery implements InventoryChangeBroadcaster.Delivery {
+
+        private final Sse sse;
+        private final SseEventSink eventSink;
+
+        private SseDelivery(Sse sse, SseEventSink eventSink) {
+            this.sse = sse;
+            this.eventSink = eventSink;
+        }
+
+        @Override
+        public CompletionStage<?> send(InventoryChange change, long dropped) {
+            OutboundSseEvent.Builder event = sse.newEventBuilder()
+                    .name("inventory")
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(InventoryChange.class, change);
+            if (dropped > 0) {
+                event.comment(dropped + " older changes were dropped; re-read inventory to resynchronize");
+            }
+            return eventSink.send(event.build());
+        }
+
+        @Override
+        public boolean isClosed() {
+            return eventSink.isClosed();
         }
     }
 }
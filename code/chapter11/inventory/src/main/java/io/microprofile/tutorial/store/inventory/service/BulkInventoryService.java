@@ -0,0 +1,264 @@
+package io.microprofile.tutorial.store.inventory.service;
+
+import io.microprofile.tutorial.store.inventory.cache.ProductCache;
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.dto.ImportProgress;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+/**
+ * Streams inventory in and out as newline-delimited JSON, one inventory item per line.
+ * Neither direction holds the whole data set in memory: imports are read, validated against
+ * the catalog and inserted one chunk at a time, and exports walk the repository lazily.
+ */
+@ApplicationScoped
+public class BulkInventoryService {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkInventoryService.class.getName());
+
+    // Product IDs per catalog call; keeps the query string well below common URL length limits
+    private static final int CATALOG_BATCH_SIZE = 200;
+
+    // Rejection reasons carried by one progress report; the counts are always exact
+    private static final int MAX_ERRORS_PER_REPORT = 100;
+
+    @Inject
+    private InventoryRepository inventoryRepository;
+
+    @Inject
+    @RestClient
+    private ProductServiceClient productServiceClient;
+
+    @Inject
+    private ProductCache productCache;
+
+    @Inject
+    @ConfigProperty(name = "inventory.import.chunkSize", defaultValue = "1000")
+    private int chunkSize = 1000;
+
+    /**
+     * Imports inventory items from newline-delimited JSON. Lines are parsed and checked as they
+     * arrive and collected into chunks; the products of a chunk are validated against the
+     * catalog with a few multi-get calls, and its items are then inserted. Lines that are
+     * malformed, name an unknown product, or conflict with an existing item are rejected and
+     * reported, and the import carries on with the next line.
+     *
+     * @param input The request body; blank lines are ignored
+     * @param progress Called after every chunk and once more with the final counts
+     * @return The final counts
+     * @throws IOException if the input cannot be read
+     * @throws WebApplicationException if the catalog fails; items of earlier chunks stay imported
+     */
+    public ImportProgress importInventories(InputStream input, Consumer<ImportProgress> progress) throws IOException {
+        ImportRun run = new ImportRun();
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.processed++;
+            Inventory inventory;
+            try {
+                inventory = InventoryLineCodec.parse(line);
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, "malformed inventory JSON, " + e.getMessage());
+                continue;
+            }
+            String invalid = validate(inventory);
+            if (invalid != null) {
+                run.reject(lineNumber, invalid);
+                continue;
+            }
+            chunk.add(new ImportLine(lineNumber, inventory));
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, run);
+                chunk.clear();
+                progress.accept(run.report(false));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, run);
+        }
+        ImportProgress result = run.report(true);
+        progress.accept(result);
+        LOGGER.info("Imported " + result.getImported() + " of " + result.getProcessed() + " inventory items, "
+                + result.getRejected() + " rejected");
+        return result;
+    }
+
+    /**
+     * Writes all inventory items as newline-delimited JSON in inventory ID order, in the format
+     * {@link #importInventories(InputStream, Consumer)} reads.
+     *
+     * @param output The stream to write to; it is flushed but not closed
+     * @return The number of items written
+     * @throws IOException if writing fails
+     */
+    public long exportInventories(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long[] written = {0};
+        try (Stream<Inventory> inventories = inventoryRepository.streamAll()) {
+            inventories.forEachOrdered(inventory -> {
+                try {
+                    InventoryLineCodec.write(inventory, writer);
+                    writer.write('\n');
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        LOGGER.fine("Exported " + written[0] + " inventory items");
+        return written[0];
+    }
+
+    private static String validate(Inventory inventory) {
+        if (inventory.getProductId() == null) {
+            return "product ID is missing";
+        }
+        if (inventory.getQuantity() == null || inventory.getQuantity() < 0) {
+            return "quantity must be a number greater than or equal to 0";
+        }
+        if (inventory.getReservedQuantity() == null) {
+            inventory.setReservedQuantity(0);
+        } else if (inventory.getReservedQuantity() < 0) {
+            return "reserved quantity must be greater than or equal to 0";
+        }
+        return null;
+    }
+
+    private void importChunk(List<ImportLine> chunk, ImportRun run) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (ImportLine line : chunk) {
+            productIds.add(line.inventory.getProductId());
+        }
+        Set<Long> known = findCatalogProducts(productIds);
+
+        // Items are inserted one after another, so duplicates within the chunk are caught too
+        for (ImportLine line : chunk) {
+            Inventory inventory = line.inventory;
+            if (!known.contains(inventory.getProductId())) {
+                run.reject(line.number, "product " + inventory.getProductId() + " not found in catalog");
+            } else if (inventoryRepository.findByProductId(inventory.getProductId()).isPresent()) {
+                run.reject(line.number, "inventory for product " + inventory.getProductId() + " already exists");
+            } else if (inventory.getInventoryId() != null
+                    && inventoryRepository.findById(inventory.getInventoryId()).isPresent()) {
+                run.reject(line.number, "inventory ID " + inventory.getInventoryId() + " already exists");
+            } else {
+                inventoryRepository.save(inventory);
+                run.imported++;
+            }
+        }
+    }
+
+    /**
+     * Resolves which of the given products exist, from the product cache where possible and
+     * otherwise with multi-get catalog calls whose results are added to the cache.
+     */
+    private Set<Long> findCatalogProducts(Set<Long> productIds) {
+        Set<Long> known = new HashSet<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            if (productCache.getIfPresent(productId).isPresent()) {
+                known.add(productId);
+            } else {
+                missing.add(productId);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += CATALOG_BATCH_SIZE) {
+            List<Long> batch = missing.subList(from, Math.min(missing.size(), from + CATALOG_BATCH_SIZE));
+            for (Product product : fetchProducts(batch)) {
+                if (product != null && product.getId() != null) {
+                    productCache.put(product);
+                    known.add(product.getId());
+                }
+            }
+        }
+        return known;
+    }
+
+    private List<Product> fetchProducts(List<Long> productIds) {
+        try {
+            List<Product> products = productServiceClient.getProductsByIds(productIds);
+            return products != null ? products : List.of();
+        } catch (WebApplicationException e) {
+            // The catalog answers 404 when none of the IDs exist
+            if (e.getResponse() != null && e.getResponse().getStatus() == 404) {
+                return List.of();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * An accepted input line waiting for its chunk to be imported.
+     */
+    private static final class ImportLine {
+
+        private final long number;
+        private final Inventory inventory;
+
+        private ImportLine(long number, Inventory inventory) {
+            this.number = number;
+            this.inventory = inventory;
+        }
+    }
+
+    /**
+     * Running counts of one import.
+     */
+    private static final class ImportRun {
+
+        private long processed;
+        private long imported;
+        private long rejected;
+        private List<String> errors = new ArrayList<>();
+
+        private void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS_PER_REPORT) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        private ImportProgress report(boolean done) {
+            ImportProgress report = new ImportProgress(processed, imported, rejected, errors, done);
+            errors = new ArrayList<>();
+            return report;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.microprofile.tutorial.store.inventory.service;
+
+import io.microprofile.tutorial.store.inventory.exception.InventoryValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Opaque position in a keyset-paginated inventory listing.
+ * A cursor records the sort order and the sort key of the last item on a page, so the next
+ * page starts right after it no matter how many items were inserted or deleted before it.
+ * It is sent to clients as URL-safe Base64 text.
+ *
+ * @param order The sort order the cursor belongs to
+ * @param quantity The quantity of the last item (only meaningful for {@link Order#QUANTITY})
+ * @param inventoryId The inventory ID of the last item
+ */
+public record InventoryCursor(Order order, int quantity, long inventoryId) {
+
+    /**
+     * Sort orders supported by keyset pagination.
+     */
+    public enum Order {
+        ID,
+        QUANTITY;
+
+        /**
+         * Parses an order name such as {@code id} or {@code quantity}.
+         *
+         * @param value The order name
+         * @return The order
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Order parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new InventoryValidationException("Unknown sort order: " + value);
+            }
+        }
+    }
+
+    /**
+     * Creates the cursor pointing just past an inventory item in ID order.
+     *
+     * @param inventoryId The inventory ID of the last item of the page
+     * @return The cursor
+     */
+    public static InventoryCursor afterId(long inventoryId) {
+        return new InventoryCursor(Order.ID, 0, inventoryId);
+    }
+
+    /**
+     * Creates the cursor pointing just past an inventory item in quantity order. The quantity
+     * must be the one the item was indexed under when the page was read: its live quantity may
+     * already have changed, and resuming from that would skip or repeat items.
+     *
+     * @param quantity The indexed quantity of the last item of the page
+     * @param inventoryId The inventory ID of the last item of the page
+     * @return The cursor
+     */
+    public static InventoryCursor afterQuantity(int quantity, long inventoryId) {
+        return new InventoryCursor(Order.QUANTITY, quantity, inventoryId);
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @param token The encoded cursor
+     * @return The cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static InventoryCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new InventoryValidationException("Malformed cursor");
+            }
+            return new InventoryCursor(Order.valueOf(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InventoryValidationException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * @return The cursor as URL-safe text
+     */
+    public String encode() {
+        String raw = order.name() + ":" + quantity + ":" + inventoryId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,207 @@
+package io.microprofile.tutorial.store.inventory.service;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes one inventory item per line of newline-delimited JSON.
+ * An item is a flat object of four integer fields, so a hand-written scanner is used instead of
+ * reflective JSON binding: bulk transfers spend their time on I/O rather than on per-line
+ * binding. Unknown fields of any JSON type are skipped, so exports of older versions with extra
+ * fields still import.
+ */
+final class InventoryLineCodec {
+
+    private final String line;
+    private int pos;
+
+    private InventoryLineCodec(String line) {
+        this.line = line;
+    }
+
+    /**
+     * Parses one line.
+     *
+     * @param line A JSON object such as {@code {"productId":1,"quantity":50}}
+     * @return The inventory item; fields missing from the line are null
+     * @throws IllegalArgumentException if the line is not a JSON object or a known field is not an integer
+     */
+    static Inventory parse(String line) {
+        return new InventoryLineCodec(line).readInventory();
+    }
+
+    /**
+     * Writes one item, without the line terminator.
+     *
+     * @param inventory The inventory item
+     * @param out Where to write
+     * @throws IOException if writing fails
+     */
+    static void write(Inventory inventory, Appendable out) throws IOException {
+        out.append("{\"inventoryId\":").append(String.valueOf(inventory.getInventoryId()))
+                .append(",\"productId\":").append(String.valueOf(inventory.getProductId()))
+                .append(",\"quantity\":").append(String.valueOf(inventory.getQuantity()))
+                .append(",\"reservedQuantity\":").append(String.valueOf(inventory.getReservedQuantity()))
+                .append('}');
+    }
+
+    private Inventory readInventory() {
+        Inventory inventory = new Inventory();
+        inventory.setReservedQuantity(null);
+        expect('{');
+        if (peek() == '}') {
+            pos++;
+        } else {
+            do {
+                String name = readString();
+                expect(':');
+                switch (name) {
+                    case "inventoryId" -> inventory.setInventoryId(readLong(name));
+                    case "productId" -> inventory.setProductId(readLong(name));
+                    case "quantity" -> inventory.setQuantity(readInt(name));
+                    case "reservedQuantity" -> inventory.setReservedQuantity(readInt(name));
+                    default -> skipValue();
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        if (peek() != -1) {
+            throw error("unexpected content after the object");
+        }
+        return inventory;
+    }
+
+    private Integer readInt(String name) {
+        Long value = readLong(name);
+        if (value != null && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)) {
+            throw error(name + " is out of range");
+        }
+        return value != null ? value.intValue() : null;
+    }
+
+    private Long readLong(String name) {
+        if (consumeLiteral("null")) {
+            return null;
+        }
+        int start = pos;
+        if (peek() == '-') {
+            pos++;
+        }
+        while (pos < line.length() && Character.isDigit(line.charAt(pos))) {
+            pos++;
+        }
+        int end = pos;
+        if (end == start || pos < line.length() && ".eE".indexOf(line.charAt(pos)) >= 0) {
+            throw error(name + " must be an integer");
+        }
+        try {
+            return Long.parseLong(line, start, end, 10);
+        } catch (NumberFormatException e) {
+            throw error(name + " is out of range");
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (pos < line.length()) {
+            char c = line.charAt(pos++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c == '\\') {
+                if (pos >= line.length()) {
+                    break;
+                }
+                char escaped = line.charAt(pos++);
+                if (escaped == 'u') {
+                    if (pos + 4 > line.length()) {
+                        break;
+                    }
+                    value.append((char) Integer.parseInt(line, pos, pos + 4, 16));
+                    pos += 4;
+                } else {
+                    value.append(switch (escaped) {
+                        case 'n' -> '\n';
+                        case 't' -> '\t';
+                        case 'r' -> '\r';
+                        case 'b' -> '\b';
+                        case 'f' -> '\f';
+                        default -> escaped;
+                    });
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private void skipValue() {
+        int c = peek();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            char close = c == '{' ? '}' : ']';
+            pos++;
+            if (consume(close)) {
+                return;
+            }
+            do {
+                if (close == '}') {
+                    readString();
+                    expect(':');
+                }
+                skipValue();
+            } while (consume(','));
+            expect(close);
+        } else if (!consumeLiteral("null") && !consumeLiteral("true") && !consumeLiteral("false")) {
+            int start = pos;
+            while (pos < line.length() && "+-.eE0123456789".indexOf(line.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (pos == start) {
+                throw error("unexpected character");
+            }
+        }
+    }
+
+    private boolean consumeLiteral(String literal) {
+        skipWhitespace();
+        if (line.startsWith(literal, pos)) {
+            pos += literal.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean consume(char expected) {
+        if (peek() == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!consume(expected)) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private int peek() {
+        skipWhitespace();
+        return pos < line.length() ? line.charAt(pos) : -1;
+    }
+
+    private void skipWhitespace() {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at column " + (pos + 1));
+    }
+}
@@ -1,27 +1,48 @@
 package io.microprofile.tutorial.store.inventory.service;
 
+import io.microprofile.tutorial.store.inventory.cache.CategoryCache;
+import io.microprofile.tutorial.store.inventory.cache.ProductCache;
 import io.microprofile.tutorial.store.inventory.entity.Inventory;
 import io.microprofile.tutorial.store.inventory.exception.InventoryConflictException;
 import io.microprofile.tutorial.store.inventory.exception.InventoryNotFoundException;
+import io.microprofile.tutorial.store.inventory.exception.StaleInventoryException;
+import io.microprofile.tutorial.store.inventory.exception.InventoryValidationException;
 import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+import io.microprofile.tutorial.store.inventory.client.ProductClientRegistry;
 import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
 import io.microprofile.tutorial.store.inventory.dto.Product;
+import io.microprofile.tutorial.store.inventory.dto.InventoryPage;
 import io.microprofile.tutorial.store.inventory.dto.InventoryWithProductInfo;
+import io.microprofile.tutorial.store.inventory.dto.ReservationHoldInfo;
+import io.microprofile.tutorial.store.inventory.dto.ReservationRequest;
+import io.microprofile.tutorial.store.inventory.dto.ProductAvailability;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseAllocation;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseStockInfo;
+import io.microprofile.tutorial.store.inventory.reservation.ReservationEngine;
+import io.microprofile.tutorial.store.inventory.reservation.ReservationHold;
+import io.microprofile.tutorial.store.inventory.reservation.ReservationHoldManager;
+import io.microprofile.tutorial.store.inventory.reservation.StockCell;
+import io.microprofile.tutorial.store.inventory.warehouse.WarehouseStockManager;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.transaction.Transactional;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 /**
@@ -32,6 +53,14 @@ public class InventoryService {
 
     private static final Logger LOGGER = Logger.getLogger(InventoryService.class.getName());
 
+    /**
+     * Largest page a keyset-paginated listing returns.
+     */
+    public static final int MAX_PAGE_LIMIT = 1000;
+
+    // Categories with at least this many products are enriched on the common fork-join pool
+    private static final int PARALLEL_ENRICHMENT_THRESHOLD = 2048;
+
     @Inject
     private InventoryRepository inventoryRepository;
 
@@ -39,9 +68,30 @@ public class InventoryService {
     @RestClient
     private ProductServiceClient productServiceClient;
 
+    @Inject
+    private ProductClientRegistry productClientRegistry;
+
+    @Inject
+    private ProductCache productCache;
+
+    @Inject
+    private CategoryCache categoryCache;
+
+    @Inject
+    private LowStockMonitor lowStockMonitor;
+
+    @Inject
+    private ReservationEngine reservationEngine;
+
+    @Inject
+    private ReservationHoldManager reservationHoldManager;
+
+    @Inject
+    private WarehouseStockManager warehouseStockManager;
+
     /**
      * Checks if a product is available in the catalog service.
-     * This method demonstrates the use of RestClientBuilder for programmatic REST client creation.
+     * This method demonstrates the use of a programmatic REST client created with RestClientBuilder.
      * This is a lightweight check that returns only a boolean result.
      *
      * @param productId The product ID to check
@@ -51,18 +101,10 @@ public class InventoryService {
         LOGGER.fine("Checking product availability for ID: " + productId);
         
         try {
-            // Demonstrate RestClientBuilder usage with MP Rest Client 4.0
-            // Using new baseUri(String) method - no need for URI.create()
-            ProductServiceClient dynamicClient = RestClientBuilder.newBuilder()
-                    .baseUri("http://localhost:5050/catalog/api")
-                    .connectTimeout(5, TimeUnit.SECONDS)
-                    .readTimeout(10, TimeUnit.SECONDS)
-                    .build(ProductServiceClient.class);
-            
-            LOGGER.fine("Built dynamic REST client for catalog service using baseUri(String)");
-            
-            Product product = dynamicClient.getProductById(productId);
-            boolean available = product != null;
+            // RestClientBuilder client (5s connect, 10s read), built once and reused by the registry
+            ProductServiceClient dynamicClient = productClientRegistry.getClient(5, 10, TimeUnit.SECONDS);
+            // Served from the product cache; the catalog is only called on a miss
+            boolean available = productCache.get(productId, dynamicClient).isPresent();
             LOGGER.fine("Product " + productId + " availability check via RestClientBuilder: " + available);
             return available;
             
@@ -79,6 +121,32 @@ public class InventoryService {
         }
     }
 
+    /**
+     * Checks if a product is available in the catalog service without blocking the caller.
+     * On a cache miss the catalog call runs on a virtual thread and the returned stage
+     * completes when it answers.
+     *
+     * @param productId The product ID to check
+     * @return Completes with true if the product exists, false otherwise; never fails
+     */
+    public CompletionStage<Boolean> isProductAvailableAsync(Long productId) {
+        LOGGER.fine("Checking product availability asynchronously for ID: " + productId);
+        ProductServiceClient dynamicClient = productClientRegistry.getClient(5, 10, TimeUnit.SECONDS);
+        return productCache.getAsync(productId, dynamicClient).handle((product, error) -> {
+            if (error == null) {
+                return product.isPresent();
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof WebApplicationException
+                    && ((WebApplicationException) cause).getResponse().getStatus() == 404) {
+                LOGGER.fine("Product " + productId + " not found in catalog (via RestClientBuilder)");
+            } else {
+                LOGGER.log(Level.WARNING, "Error checking product availability for ID " + productId + " via RestClientBuilder", cause);
+            }
+            return false;
+        });
+    }
+
     /**
      * Validates that a product exists in the catalog service.
      *
@@ -90,25 +158,53 @@ public class InventoryService {
         LOGGER.fine("Validating product existence for ID: " + productId);
         
         try {
-            Product product = productServiceClient.getProductById(productId);
-            if (product == null) {
-                throw new InventoryNotFoundException("Product not found in catalog with ID: " + productId);
-            }
+            // Catalog 404s are cached as absent products, so repeated lookups of unknown IDs stay local;
+            // concurrent misses are collapsed and batched into multi-get calls
+            Product product = productCache.get(productId, productServiceClient)
+                    .orElseThrow(() -> new InventoryNotFoundException("Product not found in catalog with ID: " + productId));
             LOGGER.fine("Product validated successfully: " + product.getName());
             return product;
         } catch (InventoryNotFoundException e) {
             // Re-throw InventoryNotFoundException without wrapping
             throw e;
-        } catch (WebApplicationException e) {
+        } catch (Exception e) {
+            throw validationFailure(productId, e);
+        }
+    }
+
+    /**
+     * Validates that a product exists in the catalog service without blocking the caller.
+     *
+     * @param productId The product ID to validate
+     * @return Completes with the product details; fails with the exceptions of {@link #validateProductExists(Long)}
+     */
+    private CompletionStage<Product> validateProductExistsAsync(Long productId) {
+        LOGGER.fine("Validating product existence asynchronously for ID: " + productId);
+        return productCache.getAsync(productId, productServiceClient).handle((product, error) -> {
+            if (error != null) {
+                throw validationFailure(productId, unwrap(error));
+            }
+            return product.orElseThrow(() -> new InventoryNotFoundException("Product not found in catalog with ID: " + productId));
+        });
+    }
+
+    private static RuntimeException validationFailure(Long productId, Throwable e) {
+        if (e instanceof InventoryNotFoundException) {
+            return (InventoryNotFoundException) e;
+        }
+        if (e instanceof WebApplicationException) {
             LOGGER.warning("Product validation failed for ID " + productId + ": " + e.getMessage());
-            if (e.getResponse().getStatus() == 404) {
-                throw new InventoryNotFoundException("Product not found in catalog with ID: " + productId);
+            if (((WebApplicationException) e).getResponse().getStatus() == 404) {
+                return new InventoryNotFoundException("Product not found in catalog with ID: " + productId);
             }
-            throw new RuntimeException("Failed to validate product with catalog service: " + e.getMessage(), e);
-        } catch (Exception e) {
+        } else {
             LOGGER.log(Level.SEVERE, "Unexpected error validating product " + productId, e);
-            throw new RuntimeException("Failed to validate product with catalog service: " + e.getMessage(), e);
         }
+        return new RuntimeException("Failed to validate product with catalog service: " + e.getMessage(), e);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     /**
@@ -123,7 +219,22 @@ public class InventoryService {
         LOGGER.info("Creating inventory for product ID: " + inventory.getProductId());
         
         // Validate that the product exists in the catalog service
-        Product product = validateProductExists(inventory.getProductId());
+        return insert(inventory, validateProductExists(inventory.getProductId()));
+    }
+
+    /**
+     * Creates a new inventory item without blocking the caller on the catalog check.
+     *
+     * @param inventory The inventory to create
+     * @return Completes with the created inventory; fails with the exceptions of {@link #createInventory(Inventory)}
+     */
+    public CompletionStage<Inventory> createInventoryAsync(Inventory inventory) {
+        LOGGER.info("Creating inventory asynchronously for product ID: " + inventory.getProductId());
+        return validateProductExistsAsync(inventory.getProductId())
+                .thenApply(product -> insert(inventory, product));
+    }
+
+    private Inventory insert(Inventory inventory, Product product) {
         LOGGER.info("Product validated: " + product.getName() + " (Price: $" + product.getPrice() + ")");
         
         // Check if product ID already exists
@@ -222,33 +333,69 @@ public class InventoryService {
      * @param size Page size
      * @param minQuantity Minimum quantity filter (optional)
      * @param maxQuantity Maximum quantity filter (optional)
-     * @return A filtered and paginated list of inventory items
+     * @return A filtered and paginated list of inventory items, ordered by quantity and then ID
      */
     public List<Inventory> getAllInventories(int page, int size, Integer minQuantity, Integer maxQuantity) {
         LOGGER.fine("Getting inventory items with pagination: page=" + page + ", size=" + size + 
                    ", minQuantity=" + minQuantity + ", maxQuantity=" + maxQuantity);
         
-        // First, get all inventories
-        List<Inventory> allInventories = inventoryRepository.findAll();
-        
-        // Apply filters if provided
-        List<Inventory> filteredInventories = allInventories.stream()
-            .filter(inv -> minQuantity == null || inv.getQuantity() >= minQuantity)
-            .filter(inv -> maxQuantity == null || inv.getQuantity() <= maxQuantity)
-            .collect(Collectors.toList());
-        
-        // Apply pagination
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, filteredInventories.size());
-        
-        // Check if the start index is valid
-        if (startIndex >= filteredInventories.size()) {
+        if (page < 0 || size <= 0) {
             return new ArrayList<>();
         }
         
-        return filteredInventories.subList(startIndex, endIndex);
+        // Walk the sorted quantity index to the requested page instead of copying and filtering everything
+        return inventoryRepository.findByQuantityRange(minQuantity, maxQuantity, (long) page * size, size);
     }
     
+    /**
+     * Gets one page of inventory items using keyset (cursor) pagination.
+     * Each page starts right after the item the cursor points at, so the cost per page is
+     * O(log n + limit) however deep the listing is, and pages stay stable while items change.
+     *
+     * @param after Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of items on the page (capped at {@value #MAX_PAGE_LIMIT})
+     * @param orderBy Sort order, {@code id} or {@code quantity}; must match the cursor if one is given
+     * @param minQuantity Minimum quantity filter (optional)
+     * @param maxQuantity Maximum quantity filter (optional)
+     * @return The page with the cursor for the next one
+     * @throws IllegalArgumentException if the cursor or sort order is invalid
+     */
+    public InventoryPage getInventoryPage(String after, int limit, String orderBy,
+                                          Integer minQuantity, Integer maxQuantity) {
+        InventoryCursor.Order order = InventoryCursor.Order.parse(orderBy);
+        InventoryCursor cursor = after != null ? InventoryCursor.decode(after) : null;
+        if (cursor != null && cursor.order() != order) {
+            throw new InventoryValidationException("Cursor was issued for order " + cursor.order()
+                    + " and cannot be used with order " + order);
+        }
+        int pageLimit = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        LOGGER.fine("Getting inventory page after=" + after + ", limit=" + pageLimit + ", order=" + order);
+
+        // Read one extra item to know whether there is a next page
+        List<Inventory> items;
+        InventoryCursor next = null;
+        if (order == InventoryCursor.Order.ID) {
+            items = inventoryRepository.findAfterId(cursor != null ? cursor.inventoryId() : null,
+                    minQuantity, maxQuantity, pageLimit + 1);
+            if (items.size() > pageLimit) {
+                items = items.subList(0, pageLimit);
+                next = InventoryCursor.afterId(items.get(pageLimit - 1).getInventoryId());
+            }
+        } else {
+            List<InventoryRepository.QuantityRow> rows = inventoryRepository.findAfterQuantity(minQuantity, maxQuantity,
+                    cursor != null ? cursor.quantity() : null,
+                    cursor != null ? cursor.inventoryId() : null, pageLimit + 1);
+            if (rows.size() > pageLimit) {
+                rows = rows.subList(0, pageLimit);
+                // Resume from the index key that produced the row, not from its live quantity
+                InventoryRepository.QuantityRow last = rows.get(pageLimit - 1);
+                next = InventoryCursor.afterQuantity(last.quantity(), last.inventory().getInventoryId());
+            }
+            items = rows.stream().map(InventoryRepository.QuantityRow::inventory).collect(Collectors.toList());
+        }
+        return new InventoryPage(new ArrayList<>(items), next != null ? next.encode() : null);
+    }
+
     /**
      * Counts inventory items with filtering.
      *
@@ -260,13 +407,41 @@ public class InventoryService {
         LOGGER.fine("Counting inventory items with filters: minQuantity=" + minQuantity + 
                     ", maxQuantity=" + maxQuantity);
         
-        List<Inventory> allInventories = inventoryRepository.findAll();
-        
-        // Apply filters and count
-        return allInventories.stream()
-            .filter(inv -> minQuantity == null || inv.getQuantity() >= minQuantity)
-            .filter(inv -> maxQuantity == null || inv.getQuantity() <= maxQuantity)
-            .count();
+        return inventoryRepository.countByQuantityRange(minQuantity, maxQuantity);
+    }
+
+    /**
+     * Gets inventory items that are low on stock, read from the live low-stock set.
+     *
+     * @param page Page number (zero-based)
+     * @param size Page size
+     * @return Items at or below the low-stock threshold, lowest available quantity first
+     */
+    public List<Inventory> getLowStockInventories(int page, int size) {
+        if (page < 0 || size <= 0) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = lowStockMonitor.find((long) page * size, size);
+        List<Inventory> inventories = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // An item deleted since the lookup is simply left out
+            inventoryRepository.findById(id).ifPresent(inventories::add);
+        }
+        return inventories;
+    }
+
+    /**
+     * @return The number of inventory items at or below the low-stock threshold
+     */
+    public long countLowStockInventories() {
+        return lowStockMonitor.count();
+    }
+
+    /**
+     * @return The available quantity at or below which an item counts as low on stock
+     */
+    public int getLowStockThreshold() {
+        return lowStockMonitor.getThreshold();
     }
 
     /**
@@ -280,10 +455,44 @@ public class InventoryService {
      */
     @Transactional
     public Inventory updateInventory(Long id, Inventory inventory) {
+        return updateInventory(id, inventory, null);
+    }
+
+    /**
+     * Updates an inventory item if it has not changed since the given version was read.
+     *
+     * @param id The inventory ID
+     * @param inventory The updated inventory information
+     * @param expectedVersion The version the update is based on, or null to overwrite any version
+     * @return The updated inventory
+     * @throws InventoryNotFoundException if the inventory is not found
+     * @throws InventoryConflictException if another inventory with the same product ID exists
+     * @throws StaleInventoryException if the inventory is no longer at the expected version
+     */
+    @Transactional
+    public Inventory updateInventory(Long id, Inventory inventory, Long expectedVersion) {
         LOGGER.info("Updating inventory ID: " + id + " for product ID: " + inventory.getProductId());
         
         // Validate that the product exists in the catalog service
-        Product product = validateProductExists(inventory.getProductId());
+        return applyUpdate(id, inventory, expectedVersion, validateProductExists(inventory.getProductId()));
+    }
+
+    /**
+     * Updates an inventory item without blocking the caller on the catalog check.
+     *
+     * @param id The inventory ID
+     * @param inventory The updated inventory information
+     * @param expectedVersion The version the update is based on, or null to overwrite any version
+     * @return Completes with the updated inventory; fails with the exceptions of
+     *         {@link #updateInventory(Long, Inventory, Long)}
+     */
+    public CompletionStage<Inventory> updateInventoryAsync(Long id, Inventory inventory, Long expectedVersion) {
+        LOGGER.info("Updating inventory ID asynchronously: " + id + " for product ID: " + inventory.getProductId());
+        return validateProductExistsAsync(inventory.getProductId())
+                .thenApply(product -> applyUpdate(id, inventory, expectedVersion, product));
+    }
+
+    private Inventory applyUpdate(Long id, Inventory inventory, Long expectedVersion, Product product) {
         LOGGER.info("Product validated for update: " + product.getName() + " (ID: " + product.getId() + ")");
         
         // Check if product ID exists in a different inventory record
@@ -295,11 +504,13 @@ public class InventoryService {
                                              Response.Status.CONFLICT);
         }
         
-        return inventoryRepository.update(id, inventory)
-                .orElseThrow(() -> {
-                    LOGGER.warning("Inventory not found with ID: " + id);
-                    return new InventoryNotFoundException("Inventory not found", Response.Status.NOT_FOUND);
-                });
+        Optional<Inventory> updated = expectedVersion != null
+                ? inventoryRepository.update(id, inventory, expectedVersion)
+                : inventoryRepository.update(id, inventory);
+        return updated.orElseThrow(() -> {
+            LOGGER.warning("Inventory not found with ID: " + id);
+            return new InventoryNotFoundException("Inventory not found", Response.Status.NOT_FOUND);
+        });
     }
 
     /**
@@ -311,11 +522,14 @@ public class InventoryService {
     @Transactional
     public void deleteInventory(Long id) {
         LOGGER.info("Deleting inventory with ID: " + id);
+        Optional<Inventory> existing = inventoryRepository.findById(id);
         boolean deleted = inventoryRepository.deleteById(id);
         if (!deleted) {
             LOGGER.warning("Inventory not found with ID: " + id);
             throw new InventoryNotFoundException("Inventory not found", Response.Status.NOT_FOUND);
         }
+        // The stock cell is dropped by the reservation engine as part of the delete
+        existing.ifPresent(inventory -> warehouseStockManager.remove(inventory.getProductId()));
         LOGGER.info("Successfully deleted inventory with ID: " + id);
     }
 
@@ -329,17 +543,47 @@ public class InventoryService {
      */
     @Transactional
     public Inventory updateQuantity(Long productId, int quantity) {
+        return updateQuantity(productId, quantity, null);
+    }
+
+    /**
+     * Updates the quantity for a product if its inventory has not changed since the given
+     * version was read.
+     *
+     * @param productId The product ID
+     * @param quantity The new quantity
+     * @param expectedVersion The version the update is based on, or null to overwrite any version
+     * @return The updated inventory
+     * @throws InventoryNotFoundException if the inventory is not found
+     * @throws StaleInventoryException if the inventory is no longer at the expected version
+     */
+    @Transactional
+    public Inventory updateQuantity(Long productId, int quantity, Long expectedVersion) {
         if (quantity < 0) {
             LOGGER.warning("Invalid quantity: " + quantity + " for product ID: " + productId);
-            throw new IllegalArgumentException("Quantity cannot be negative");
+            throw new InventoryValidationException("Quantity cannot be negative");
         }
         
         LOGGER.info("Updating quantity to " + quantity + " for product ID: " + productId);
         Inventory inventory = getInventoryByProductId(productId);
         int oldQuantity = inventory.getQuantity();
-        inventory.setQuantity(quantity);
         
-        Inventory updated = inventoryRepository.save(inventory);
+        Inventory updated;
+        if (expectedVersion == null) {
+            // Set through the stock cell, which keeps concurrent reservations and publishes onto the stored record
+            reservationEngine.liveCell(inventory)
+                    .orElseThrow(() -> new InventoryNotFoundException("Inventory not found", Response.Status.NOT_FOUND))
+                    .setQuantity(quantity);
+            updated = getInventoryById(inventory.getInventoryId());
+        } else {
+            // Check the version and set the quantity in one step on the stored record, so a
+            // concurrent write between the two cannot be overwritten
+            updated = inventoryRepository.compareAndUpdate(inventory.getInventoryId(), expectedVersion, current -> {
+                        reservationEngine.updateQuantity(current, quantity);
+                        return current;
+                    })
+                    .orElseThrow(() -> new InventoryNotFoundException("Inventory not found", Response.Status.NOT_FOUND));
+        }
         LOGGER.info("Updated quantity from " + oldQuantity + " to " + quantity + 
                    " for product ID: " + productId + " (inventory ID: " + inventory.getInventoryId() + ")");
         
@@ -369,6 +613,19 @@ public class InventoryService {
         return new InventoryWithProductInfo(inventory, product);
     }
 
+    /**
+     * Gets inventory with enriched product information without blocking the caller on the catalog.
+     *
+     * @param inventoryId The inventory ID
+     * @return Completes with the inventory and its product details
+     * @throws InventoryNotFoundException if the inventory is not found
+     */
+    public CompletionStage<InventoryWithProductInfo> getInventoryWithProductInfoAsync(Long inventoryId) {
+        Inventory inventory = getInventoryById(inventoryId);
+        return validateProductExistsAsync(inventory.getProductId())
+                .thenApply(product -> new InventoryWithProductInfo(inventory, product));
+    }
+
     /**
      * Gets all inventories with product information for a specific category.
      *
@@ -378,40 +635,74 @@ public class InventoryService {
     public List<InventoryWithProductInfo> getInventoriesByCategory(String category) {
         LOGGER.info("Getting inventories for category: " + category);
         
-        try {
-            // Get products by category from catalog service
-            List<Product> productsInCategory = productServiceClient.getProductsByCategory(category);
-            
-            if (productsInCategory == null || productsInCategory.isEmpty()) {
-                LOGGER.info("No products found in category: " + category);
-                return new ArrayList<>();
-            }
-            
-            // Find inventories for these products
-            List<InventoryWithProductInfo> result = new ArrayList<>();
-            for (Product product : productsInCategory) {
-                try {
-                    Inventory inventory = inventoryRepository.findByProductId(product.getId()).orElse(null);
-                    if (inventory != null) {
-                        result.add(new InventoryWithProductInfo(inventory, product));
-                    }
-                } catch (Exception e) {
-                    LOGGER.warning("Error getting inventory for product " + product.getId() + ": " + e.getMessage());
-                }
-            }
-            
+        try (Stream<InventoryWithProductInfo> inventories = streamInventoriesByCategory(category)) {
+            List<InventoryWithProductInfo> result = inventories.collect(Collectors.toList());
             LOGGER.info("Found " + result.size() + " inventory items for category: " + category);
             return result;
-            
+        }
+    }
+
+    /**
+     * Streams the inventories with product information for a specific category.
+     * The category's products come from the category cache; enrichment is lazy and runs
+     * in parallel for large categories, so callers can write results as they are produced.
+     * Consume the stream with an ordered terminal operation to keep the catalog's order.
+     *
+     * @param category The product category
+     * @return Inventories for products in the specified category
+     */
+    public Stream<InventoryWithProductInfo> streamInventoriesByCategory(String category) {
+        List<Product> productsInCategory = getProductsInCategory(category);
+        if (productsInCategory.isEmpty()) {
+            LOGGER.info("No products found in category: " + category);
+            return Stream.empty();
+        }
+        
+        Stream<Product> products = productsInCategory.size() >= PARALLEL_ENRICHMENT_THRESHOLD
+                ? productsInCategory.parallelStream()
+                : productsInCategory.stream();
+        return products.map(this::withInventory).filter(Objects::nonNull);
+    }
+
+    /**
+     * Gets the products of a category, calling the catalog only when the category is not cached.
+     */
+    private List<Product> getProductsInCategory(String category) {
+        try {
+            return categoryCache.get(category, name -> {
+                List<Product> products = productServiceClient.getProductsByCategory(name);
+                if (products != null) {
+                    // Category listings also warm the product cache used for validation
+                    products.forEach(productCache::put);
+                }
+                return products;
+            });
         } catch (WebApplicationException e) {
             LOGGER.warning("Failed to get products by category from catalog service: " + e.getMessage());
             throw new RuntimeException("Failed to retrieve products by category: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Pairs a product with its inventory.
+     *
+     * @return The enriched inventory, or null if the product has no inventory
+     */
+    private InventoryWithProductInfo withInventory(Product product) {
+        try {
+            return inventoryRepository.findByProductId(product.getId())
+                    .map(inventory -> new InventoryWithProductInfo(inventory, product))
+                    .orElse(null);
+        } catch (Exception e) {
+            LOGGER.warning("Error getting inventory for product " + product.getId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Reserves inventory for a product if it's available in the catalog.
-     * This method uses isProductAvailable for a lightweight check before reservation.
+     * The reservation is held with the default TTL and released automatically if it is
+     * neither confirmed nor released in time.
      *
      * @param productId The product ID
      * @param quantityToReserve The quantity to reserve
@@ -421,44 +712,384 @@ public class InventoryService {
      */
     @Transactional
     public Inventory reserveInventory(Long productId, int quantityToReserve) {
+        reserveWithHold(productId, quantityToReserve, null);
+        return getInventoryByProductId(productId);
+    }
+
+    /**
+     * Reserves inventory for a product and returns a hold that expires after a TTL.
+     * This method uses isProductAvailable for a lightweight check before reservation.
+     *
+     * @param productId The product ID
+     * @param quantityToReserve The quantity to reserve
+     * @param ttlSeconds The hold lifetime in seconds, or null for the configured default
+     * @return The reservation hold
+     * @throws InventoryNotFoundException if the inventory or product is not found
+     * @throws InventoryConflictException if the product is stocked per warehouse
+     * @throws IllegalArgumentException if there's insufficient inventory or the TTL is not positive
+     *         or exceeds the configured maximum
+     */
+    @Transactional
+    public ReservationHoldInfo reserveWithHold(Long productId, int quantityToReserve, Long ttlSeconds) {
         if (quantityToReserve <= 0) {
-            throw new IllegalArgumentException("Quantity to reserve must be positive");
+            throw new InventoryValidationException("Quantity to reserve must be positive");
         }
+        validateTtl(ttlSeconds);
         
         LOGGER.info("Attempting to reserve " + quantityToReserve + " units for product ID: " + productId);
         
         // Use isProductAvailable for a lightweight availability check
-        if (!isProductAvailable(productId)) {
+        return reserveAvailable(productId, quantityToReserve, ttlSeconds, isProductAvailable(productId));
+    }
+
+    /**
+     * Reserves inventory for a product without blocking the caller on the catalog check.
+     *
+     * @param productId The product ID
+     * @param quantityToReserve The quantity to reserve
+     * @param ttlSeconds The hold lifetime in seconds, or null for the configured default
+     * @return Completes with the reservation hold; fails with the exceptions of
+     *         {@link #reserveWithHold(Long, int, Long)}
+     * @throws IllegalArgumentException if the quantity is not positive or the TTL is not positive
+     *         or exceeds the configured maximum
+     */
+    public CompletionStage<ReservationHoldInfo> reserveWithHoldAsync(Long productId, int quantityToReserve, Long ttlSeconds) {
+        if (quantityToReserve <= 0) {
+            throw new InventoryValidationException("Quantity to reserve must be positive");
+        }
+        validateTtl(ttlSeconds);
+        
+        LOGGER.info("Attempting to reserve " + quantityToReserve + " units asynchronously for product ID: " + productId);
+        return isProductAvailableAsync(productId)
+                .thenApply(available -> reserveAvailable(productId, quantityToReserve, ttlSeconds, available));
+    }
+
+    private ReservationHoldInfo reserveAvailable(Long productId, int quantityToReserve, Long ttlSeconds, boolean available) {
+        if (!available) {
             LOGGER.warning("Cannot reserve inventory - product " + productId + " is not available in catalog");
             throw new InventoryNotFoundException("Product is not available in catalog: " + productId);
         }
         
         // Get the current inventory
         Inventory inventory = getInventoryByProductId(productId);
+        requireProductLevelStock(productId);
         
-        // Check if we have enough inventory to reserve
-        int availableQuantity = inventory.getQuantity() - inventory.getReservedQuantity();
-        if (availableQuantity < quantityToReserve) {
+        // Reserve with a compare-and-set on the product's stock cell; no repository lock is held,
+        // and the cell publishes the result onto the stored record
+        StockCell cell = reservationEngine.liveCell(inventory)
+                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product", Response.Status.NOT_FOUND));
+        if (!cell.tryReserve(quantityToReserve)) {
+            int availableQuantity = cell.getAvailableQuantity();
             LOGGER.warning("Insufficient inventory to reserve " + quantityToReserve + 
                           " units for product " + productId + ". Available: " + availableQuantity);
-            throw new IllegalArgumentException("Insufficient inventory available. Requested: " + 
+            throw new InventoryValidationException("Insufficient inventory available. Requested: " + 
                                              quantityToReserve + ", Available: " + availableQuantity);
         }
+        if (cell.isClosed()) {
+            // The product switched to warehouse stock while the units were being reserved
+            cell.release(quantityToReserve);
+            throw warehouseStocked(productId);
+        }
         
-        // Update reserved quantity
-        inventory.setReservedQuantity(inventory.getReservedQuantity() + quantityToReserve);
-        
-        Inventory updated = inventoryRepository.save(inventory);
+        ReservationHold hold = reservationHoldManager.placeHold(productId, quantityToReserve, ttlSeconds);
         LOGGER.info("Reserved " + quantityToReserve + " units for product " + productId + 
-                   ". New reserved quantity: " + updated.getReservedQuantity());
+                   " (hold " + hold.getHoldId() + ", expires " + hold.getExpiresAt() + 
+                   "). New reserved quantity: " + cell.getReservedQuantity());
         
-        return updated;
+        return hold.toInfo();
+    }
+
+    /**
+     * Reserves several products in one call, either all of them or none.
+     * Lines for the same product are merged, and each product gets its own hold with the same TTL.
+     *
+     * @param requests The products and quantities to reserve
+     * @param ttlSeconds The hold lifetime in seconds, or null for the configured default
+     * @return One reservation hold per product
+     * @throws InventoryNotFoundException if any inventory or product is not found
+     * @throws InventoryConflictException if any product is stocked per warehouse
+     * @throws IllegalArgumentException if any product has insufficient inventory or the TTL is invalid
+     */
+    @Transactional
+    public List<ReservationHoldInfo> reserveBatch(List<ReservationRequest> requests, Long ttlSeconds) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InventoryValidationException("At least one product must be reserved");
+        }
+        validateTtl(ttlSeconds);
+        
+        // Merge lines per product; sorted so that processing order is deterministic
+        Map<Long, Integer> unitsByProduct = new TreeMap<>();
+        for (ReservationRequest request : requests) {
+            if (request.getProductId() == null || request.getQuantity() == null || request.getQuantity() <= 0) {
+                throw new InventoryValidationException("Each reservation needs a product ID and a positive quantity");
+            }
+            unitsByProduct.merge(request.getProductId(), request.getQuantity(), Integer::sum);
+        }
+        
+        LOGGER.info("Attempting batch reservation for " + unitsByProduct.size() + " products");
+        
+        List<Inventory> inventories = new ArrayList<>(unitsByProduct.size());
+        List<StockCell> cells = new ArrayList<>(unitsByProduct.size());
+        for (Long productId : unitsByProduct.keySet()) {
+            if (!isProductAvailable(productId)) {
+                LOGGER.warning("Cannot reserve inventory - product " + productId + " is not available in catalog");
+                throw new InventoryNotFoundException("Product is not available in catalog: " + productId);
+            }
+            requireProductLevelStock(productId);
+            // Bind the stock cell to the stored record; from then on it follows replacements of the record
+            Inventory inventory = getInventoryByProductId(productId);
+            cells.add(reservationEngine.liveCell(inventory)
+                    .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product", Response.Status.NOT_FOUND)));
+            inventories.add(inventory);
+        }
+        
+        Optional<Long> insufficient = reservationEngine.tryReserveAll(inventories, unitsByProduct);
+        if (insufficient.isPresent()) {
+            Long productId = insufficient.get();
+            LOGGER.warning("Batch reservation rolled back, insufficient inventory for product " + productId);
+            throw new InventoryValidationException("Insufficient inventory available for product " + productId + 
+                                             ". Requested: " + unitsByProduct.get(productId));
+        }
+        
+        // A product switched to warehouse stock while the units were being reserved must not keep them
+        for (StockCell cell : cells) {
+            if (cell.isClosed()) {
+                Long productId = cell.getOwner().getProductId();
+                for (StockCell reserved : cells) {
+                    reserved.release(unitsByProduct.get(reserved.getOwner().getProductId()));
+                }
+                LOGGER.warning("Batch reservation rolled back, product " + productId + " is now stocked per warehouse");
+                throw warehouseStocked(productId);
+            }
+        }
+        
+        List<ReservationHoldInfo> holds = new ArrayList<>(inventories.size());
+        for (Inventory inventory : inventories) {
+            Long productId = inventory.getProductId();
+            holds.add(reservationHoldManager.placeHold(productId, unitsByProduct.get(productId), ttlSeconds).toInfo());
+        }
+        
+        LOGGER.info("Reserved " + holds.size() + " products in one batch");
+        return holds;
+    }
+
+    /**
+     * Checks a requested hold TTL before any units are reserved, so an invalid TTL never leaves
+     * units reserved without a hold.
+     */
+    private void validateTtl(Long ttlSeconds) {
+        if (ttlSeconds == null) {
+            return;
+        }
+        if (ttlSeconds <= 0) {
+            throw new InventoryValidationException("Reservation TTL must be positive");
+        }
+        long maxTtlSeconds = reservationHoldManager.getMaxTtlSeconds();
+        if (ttlSeconds > maxTtlSeconds) {
+            throw new InventoryValidationException("Reservation TTL must not exceed " + maxTtlSeconds + " seconds");
+        }
+    }
+
+    /**
+     * Fails if an inventory record was moved to another product after it was looked up.
+     */
+    private static void requireProduct(Inventory inventory, Long productId) {
+        if (!productId.equals(inventory.getProductId())) {
+            throw new InventoryNotFoundException("Inventory not found for product", Response.Status.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Fails if a product's stock is kept per warehouse. Its warehouses are then the only pool to
+     * reserve from, so the record's own quantity is never sold on top of them. A product that
+     * switches over while a reservation is being taken closes its stock cell first, so the
+     * reservation is undone when the cell is found closed afterwards.
+     */
+    private void requireProductLevelStock(Long productId) {
+        if (warehouseStockManager.isWarehouseStocked(productId)) {
+            throw warehouseStocked(productId);
+        }
+    }
+
+    private static InventoryConflictException warehouseStocked(Long productId) {
+        return new InventoryConflictException("Product " + productId
+                + " is stocked per warehouse; reserve it through its warehouses");
+    }
+
+    /**
+     * Gets an active reservation hold.
+     *
+     * @param holdId The hold ID
+     * @return The hold
+     * @throws InventoryNotFoundException if no active hold exists with this ID
+     */
+    public ReservationHoldInfo getReservationHold(String holdId) {
+        return reservationHoldManager.findActive(holdId)
+                .map(ReservationHold::toInfo)
+                .orElseThrow(() -> new InventoryNotFoundException("Active reservation hold not found: " + holdId));
+    }
+
+    /**
+     * Confirms a reservation hold, deducting its units from stock.
+     *
+     * @param holdId The hold ID
+     * @return The confirmed hold
+     * @throws InventoryNotFoundException if no active hold exists with this ID
+     * @throws InventoryConflictException if the hold's units are no longer reserved
+     */
+    @Transactional
+    public ReservationHoldInfo confirmReservation(String holdId) {
+        LOGGER.info("Confirming reservation hold: " + holdId);
+        return reservationHoldManager.confirm(holdId)
+                .map(ReservationHold::toInfo)
+                .orElseThrow(() -> new InventoryNotFoundException("Active reservation hold not found: " + holdId));
+    }
+
+    /**
+     * Releases a reservation hold, returning its units to available stock.
+     *
+     * @param holdId The hold ID
+     * @return The released hold
+     * @throws InventoryNotFoundException if no active hold exists with this ID
+     */
+    @Transactional
+    public ReservationHoldInfo releaseReservation(String holdId) {
+        LOGGER.info("Releasing reservation hold: " + holdId);
+        return reservationHoldManager.release(holdId)
+                .map(ReservationHold::toInfo)
+                .orElseThrow(() -> new InventoryNotFoundException("Active reservation hold not found: " + holdId));
+    }
+
+    /**
+     * Sets the on-hand quantity of a product in one warehouse.
+     * The first warehouse quantity switches the product to warehouse stock: from then on it is
+     * reserved only through its warehouses, so it must not have product-level reservations left.
+     *
+     * @param productId The product ID
+     * @param warehouseId The warehouse ID; the warehouse is added to the product if it did not stock it yet
+     * @param quantity The new on-hand quantity
+     * @return The updated warehouse stock
+     * @throws InventoryNotFoundException if the product has no inventory record
+     * @throws InventoryConflictException if the product is switched to warehouse stock while it has
+     *         product-level reservations
+     * @throws IllegalArgumentException if the quantity is negative or the warehouse ID is blank
+     */
+    public WarehouseStockInfo updateWarehouseQuantity(Long productId, String warehouseId, int quantity) {
+        Inventory inventory = getInventoryByProductId(productId);
+        LOGGER.info("Updating quantity to " + quantity + " for product ID: " + productId + " in warehouse " + warehouseId);
+        // Under the record's lock, so warehouse stock is set up once; the stock cell is closed
+        // before its reservations are counted, so no product-level reservation slips in meanwhile
+        WarehouseStockInfo[] updated = new WarehouseStockInfo[1];
+        inventoryRepository.compareAndUpdate(inventory.getInventoryId(), InventoryRepository.ANY_VERSION, current -> {
+            requireProduct(current, productId);
+            if (warehouseStockManager.isWarehouseStocked(productId)) {
+                updated[0] = warehouseStockManager.setQuantity(productId, warehouseId, quantity);
+                return null;
+            }
+            StockCell cell = reservationEngine.cellFor(current);
+            if (!cell.close()) {
+                throw new InventoryConflictException("Product " + productId
+                        + " has product-level reservations; settle them before stocking it per warehouse");
+            }
+            try {
+                updated[0] = warehouseStockManager.setQuantity(productId, warehouseId, quantity);
+            } catch (RuntimeException e) {
+                cell.reopen();
+                throw e;
+            }
+            return null;
+        }).orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product", Response.Status.NOT_FOUND));
+        return updated[0];
+    }
+
+    /**
+     * Gets the stock of a product in each warehouse.
+     *
+     * @param productId The product ID
+     * @return The warehouse stocks ordered by warehouse ID
+     * @throws InventoryNotFoundException if the product has no inventory record
+     */
+    public List<WarehouseStockInfo> getWarehouseStocks(Long productId) {
+        getInventoryByProductId(productId);
+        return warehouseStockManager.getWarehouseStocks(productId);
+    }
+
+    /**
+     * Gets the stock of a product summed over all warehouses. The totals are maintained as the
+     * warehouses change, so this does not depend on the number of warehouses.
+     *
+     * @param productId The product ID
+     * @return The totals; all zero if no warehouse stocks the product yet
+     * @throws InventoryNotFoundException if the product has no inventory record
+     */
+    public ProductAvailability getWarehouseAvailability(Long productId) {
+        getInventoryByProductId(productId);
+        return warehouseStockManager.getAvailability(productId)
+                .orElseGet(() -> new ProductAvailability(productId, 0, 0, 0, 0));
+    }
+
+    /**
+     * Reserves units of a product in a single warehouse chosen by the warehouse selection strategy.
+     *
+     * @param productId The product ID
+     * @param quantityToReserve The quantity to reserve
+     * @return The warehouse the units were reserved in
+     * @throws InventoryNotFoundException if the product has no inventory record
+     * @throws IllegalArgumentException if the quantity is not positive or no warehouse has enough stock
+     */
+    public WarehouseAllocation reserveFromWarehouse(Long productId, int quantityToReserve) {
+        getInventoryByProductId(productId);
+        WarehouseAllocation allocation = warehouseStockManager.reserve(productId, quantityToReserve)
+                .orElseThrow(() -> {
+                    LOGGER.warning("No warehouse can serve " + quantityToReserve + " units of product " + productId);
+                    return new InventoryValidationException("Insufficient inventory available in any single warehouse. Requested: "
+                            + quantityToReserve + ", Available in all warehouses: "
+                            + warehouseStockManager.getAvailableQuantity(productId));
+                });
+        LOGGER.info("Reserved " + quantityToReserve + " units for product " + productId
+                + " in warehouse " + allocation.getWarehouseId());
+        return allocation;
+    }
+
+    /**
+     * Releases units reserved in a warehouse.
+     *
+     * @param productId The product ID
+     * @param warehouseId The warehouse the units were reserved in
+     * @param quantity The quantity to release
+     * @return The updated warehouse stock
+     * @throws InventoryNotFoundException if the warehouse does not stock the product
+     * @throws IllegalArgumentException if the quantity is not positive or fewer units are reserved
+     */
+    public WarehouseStockInfo releaseWarehouseReservation(Long productId, String warehouseId, int quantity) {
+        return warehouseStockManager.release(productId, warehouseId, quantity)
+                .orElseThrow(() -> warehouseNotFound(productId, warehouseId));
+    }
+
+    /**
+     * Commits units reserved in a warehouse, deducting them from its stock.
+     *
+     * @param productId The product ID
+     * @param warehouseId The warehouse the units were reserved in
+     * @param quantity The quantity to commit
+     * @return The updated warehouse stock
+     * @throws InventoryNotFoundException if the warehouse does not stock the product
+     * @throws IllegalArgumentException if the quantity is not positive or fewer units are reserved
+     */
+    public WarehouseStockInfo commitWarehouseReservation(Long productId, String warehouseId, int quantity) {
+        return warehouseStockManager.commit(productId, warehouseId, quantity)
+                .orElseThrow(() -> warehouseNotFound(productId, warehouseId));
+    }
+
+    private static InventoryNotFoundException warehouseNotFound(Long productId, String warehouseId) {
+        LOGGER.warning("Warehouse " + warehouseId + " does not stock product " + productId);
+        return new InventoryNotFoundException("Warehouse " + warehouseId + " does not stock product " + productId);
     }
 
     /**
      * Demonstrates advanced RestClientBuilder usage with custom configuration.
-     * This method builds a REST client with specific timeout and error handling settings.
-     * Uses MicroProfile Rest Client 4.0 baseUri(String) convenience method.
+     * This method uses a REST client with specific timeout and error handling settings,
+     * built through RestClientBuilder by the ProductClientRegistry.
      *
      * @param productId The product ID to check
      * @return Product details if found, null otherwise
@@ -467,15 +1098,8 @@ public class InventoryService {
         LOGGER.info("Getting product details using custom RestClientBuilder for ID: " + productId);
         
         try {
-            // Build REST client with custom configuration using MP Rest Client 4.0
-            // Using baseUri(String) - no URI.create() needed
-            ProductServiceClient customClient = RestClientBuilder.newBuilder()
-                    .baseUri("http://localhost:5050/catalog/api")
-                    .connectTimeout(3, TimeUnit.SECONDS)      // Custom connect timeout
-                    .readTimeout(8, TimeUnit.SECONDS)         // Custom read timeout
-                    .build(ProductServiceClient.class);
-            
-            LOGGER.info("Built custom REST client with 3s connect and 8s read timeout");
+            // REST client with custom configuration (3s connect, 8s read), built once by the registry
+            ProductServiceClient customClient = productClientRegistry.getClient(3, 8, TimeUnit.SECONDS);
             
             Product product = customClient.getProductById(productId);
             LOGGER.info("Retrieved product via custom client: " + (product != null ? product.getName() : "null"));
@@ -490,4 +1114,30 @@ public class InventoryService {
             return null;
         }
     }
+
+    /**
+     * Asynchronous variant of {@link #getProductWithCustomClient(Long)}, using the
+     * CompletionStage method of the same custom REST client.
+     *
+     * @param productId The product ID to check
+     * @return Completes with the product details if found, null otherwise; never fails
+     */
+    public CompletionStage<Product> getProductWithCustomClientAsync(Long productId) {
+        LOGGER.info("Getting product details asynchronously using custom RestClientBuilder for ID: " + productId);
+        ProductServiceClient customClient = productClientRegistry.getClient(3, 8, TimeUnit.SECONDS);
+        return customClient.getProductByIdAsync(productId).handle((product, error) -> {
+            if (error == null) {
+                return product;
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof WebApplicationException) {
+                LOGGER.warning("WebApplicationException from custom client for product " + productId +
+                              ": Status=" + ((WebApplicationException) cause).getResponse().getStatus() +
+                              ", Message=" + cause.getMessage());
+            } else {
+                LOGGER.log(Level.WARNING, "Unexpected error from custom REST client for product " + productId, cause);
+            }
+            return null;
+        });
+    }
 }
@@ -0,0 +1,94 @@
+package io.microprofile.tutorial.store.inventory.service;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+import io.microprofile.tutorial.store.inventory.repository.QuantityIndex;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+/**
+ * Live set of inventory records whose available quantity (on-hand minus reserved) is at or
+ * below {@code inventory.lowStock.threshold}.
+ * The set is seeded once from the repository and then updated by every save and delete, so
+ * quantity updates, reservations and settled holds move records in and out of it without any
+ * scan. Records are ordered by available quantity, most critical first; listing a page costs
+ * O(log n + page) and counting costs O(threshold), independent of the catalog size.
+ */
+@ApplicationScoped
+public class LowStockMonitor implements InventoryRepository.ChangeListener {
+
+    private static final Logger LOGGER = Logger.getLogger(LowStockMonitor.class.getName());
+
+    @Inject
+    private InventoryRepository inventoryRepository;
+
+    @Inject
+    @ConfigProperty(name = "inventory.lowStock.threshold", defaultValue = "10")
+    private int threshold = 10;
+
+    // Low-stock records indexed by available quantity
+    private final QuantityIndex lowStock = new QuantityIndex();
+
+    @PostConstruct
+    void start() {
+        inventoryRepository.addChangeListener(this);
+        inventoryRepository.replayTo(this);
+        LOGGER.info("Tracking " + lowStock.count(null, null) + " inventory records at or below " + threshold
+                + " available units");
+    }
+
+    @PreDestroy
+    void stop() {
+        inventoryRepository.removeChangeListener(this);
+    }
+
+    @Override
+    public void stored(Inventory inventory) {
+        int quantity = inventory.getQuantity() != null ? inventory.getQuantity() : 0;
+        int reserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
+        int available = quantity - reserved;
+        if (available <= threshold) {
+            lowStock.put(inventory.getInventoryId(), available);
+        } else {
+            lowStock.remove(inventory.getInventoryId());
+        }
+    }
+
+    @Override
+    public void deleted(Inventory inventory) {
+        lowStock.remove(inventory.getInventoryId());
+    }
+
+    /**
+     * Returns low-stock inventory IDs, lowest available quantity first.
+     *
+     * @param offset The number of records to skip
+     * @param limit The maximum number of IDs to return
+     * @return The inventory IDs
+     */
+    public List<Long> find(long offset, int limit) {
+        return lowStock.range(null, null, offset, limit);
+    }
+
+    /**
+     * @return The available quantity at or below which a record counts as low on stock
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Gauge(name = "inventoryLowStockItems", absolute = true, unit = "none",
+           description = "Number of inventory records at or below the low-stock threshold")
+    public long count() {
+        return lowStock.count(null, null);
+    }
+}
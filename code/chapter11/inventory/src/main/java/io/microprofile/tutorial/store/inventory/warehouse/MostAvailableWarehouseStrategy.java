@@ -0,0 +1,30 @@
+package io.microprofile.tutorial.store.inventory.warehouse;
+
+import java.util.List;
+
+/**
+ * Reserves from the warehouse with the most available units, which spreads reservations over
+ * all warehouses and keeps any single one from running dry early. Ties go to the lowest warehouse ID.
+ */
+public class MostAvailableWarehouseStrategy implements WarehouseSelectionStrategy {
+
+    /**
+     * The name selecting this strategy in {@code inventory.warehouse.selectionStrategy}.
+     */
+    public static final String NAME = "most-available";
+
+    @Override
+    public WarehouseStock select(int units, List<WarehouseStock> candidates) {
+        WarehouseStock best = null;
+        int bestAvailable = Integer.MIN_VALUE;
+        for (WarehouseStock candidate : candidates) {
+            int available = candidate.getAvailableQuantity();
+            if (available > bestAvailable
+                    || available == bestAvailable && candidate.getWarehouseId().compareTo(best.getWarehouseId()) < 0) {
+                best = candidate;
+                bestAvailable = available;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,46 @@
+package io.microprofile.tutorial.store.inventory.warehouse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reserves from the first warehouse in a fixed order that has enough stock, e.g. the warehouse
+ * nearest to the customers first and the others as overflow. Warehouses missing from the order
+ * come last, by warehouse ID.
+ */
+public class PriorityWarehouseStrategy implements WarehouseSelectionStrategy {
+
+    /**
+     * The name selecting this strategy in {@code inventory.warehouse.selectionStrategy}.
+     */
+    public static final String NAME = "priority";
+
+    private final Map<String, Integer> ranks = new HashMap<>();
+
+    /**
+     * Creates the strategy.
+     *
+     * @param order Warehouse IDs, most preferred first
+     */
+    public PriorityWarehouseStrategy(List<String> order) {
+        for (String warehouseId : order) {
+            ranks.putIfAbsent(warehouseId, ranks.size());
+        }
+    }
+
+    @Override
+    public WarehouseStock select(int units, List<WarehouseStock> candidates) {
+        WarehouseStock best = null;
+        int bestRank = Integer.MAX_VALUE;
+        for (WarehouseStock candidate : candidates) {
+            int rank = ranks.getOrDefault(candidate.getWarehouseId(), Integer.MAX_VALUE);
+            if (best == null || rank < bestRank
+                    || rank == bestRank && candidate.getWarehouseId().compareTo(best.getWarehouseId()) < 0) {
+                best = candidate;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,109 @@
+package io.microprofile.tutorial.store.inventory.warehouse;
+
+import io.microprofile.tutorial.store.inventory.dto.ProductAvailability;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The warehouse stocks of one product together with their running totals.
+ * The totals are {@link LongAdder}s fed with the delta of every warehouse change, so reading
+ * them costs the same whether the product is stocked in one warehouse or in hundreds, and
+ * writers in different warehouses do not contend on one counter. A total read while
+ * reservations are in flight may be off by the units of those reservations; the exact
+ * per-warehouse counters are what reservations check, so this never causes overselling.
+ */
+public class ProductStock {
+
+    private final Long productId;
+
+    private final Map<String, WarehouseStock> warehouses = new ConcurrentHashMap<>();
+
+    private final LongAdder quantity = new LongAdder();
+
+    private final LongAdder reserved = new LongAdder();
+
+    ProductStock(Long productId) {
+        this.productId = productId;
+    }
+
+    /**
+     * @return The product ID
+     */
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Returns the stock of the product in a warehouse, creating an empty one if needed.
+     *
+     * @param warehouseId The warehouse ID
+     * @return The warehouse stock
+     */
+    public WarehouseStock warehouse(String warehouseId) {
+        WarehouseStock existing = warehouses.get(warehouseId);
+        return existing != null ? existing : warehouses.computeIfAbsent(warehouseId, id -> new WarehouseStock(id, this));
+    }
+
+    /**
+     * Returns the stock of the product in a warehouse.
+     *
+     * @param warehouseId The warehouse ID
+     * @return The warehouse stock, or empty if the warehouse does not stock the product
+     */
+    public Optional<WarehouseStock> find(String warehouseId) {
+        return Optional.ofNullable(warehouses.get(warehouseId));
+    }
+
+    /**
+     * @return The warehouses stocking the product
+     */
+    public Collection<WarehouseStock> warehouses() {
+        return warehouses.values();
+    }
+
+    /**
+     * @return The on-hand quantity over all warehouses
+     */
+    public long getQuantity() {
+        return quantity.sum();
+    }
+
+    /**
+     * @return The reserved quantity over all warehouses
+     */
+    public long getReservedQuantity() {
+        return reserved.sum();
+    }
+
+    /**
+     * @return The quantity that can still be reserved over all warehouses
+     */
+    public long getAvailableQuantity() {
+        // Reserved first: a commit lowers the quantity before the reservations, so it never shows as available
+        long reservedUnits = reserved.sum();
+        return quantity.sum() - reservedUnits;
+    }
+
+    /**
+     * @return The totals of the product for clients
+     */
+    public ProductAvailability toAvailability() {
+        long reservedUnits = reserved.sum();
+        long quantityUnits = quantity.sum();
+        return new ProductAvailability(productId, quantityUnits, reservedUnits, quantityUnits - reservedUnits,
+                warehouses.size());
+    }
+
+    void add(long quantityDelta, long reservedDelta) {
+        if (quantityDelta != 0) {
+            quantity.add(quantityDelta);
+        }
+        if (reservedDelta != 0) {
+            reserved.add(reservedDelta);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.microprofile.tutorial.store.inventory.warehouse;
+
+import java.util.List;
+
+/**
+ * Decides which warehouse a reservation is taken from.
+ * Built-in strategies are selected with {@code inventory.warehouse.selectionStrategy}; others can
+ * be installed with {@link WarehouseStockManager#setSelectionStrategy(WarehouseSelectionStrategy)}.
+ * Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface WarehouseSelectionStrategy {
+
+    /**
+     * Picks a warehouse for a reservation. If the reservation then fails because a concurrent
+     * reservation took the stock first, the strategy is asked again without that warehouse.
+     *
+     * @param units The number of units to reserve
+     * @param candidates The warehouses of the product that had enough available stock when they were read
+     * @return One of the candidates, or null to refuse the reservation
+     */
+    WarehouseStock select(int units, List<WarehouseStock> candidates);
+}
@@ -0,0 +1,165 @@
+package io.microprofile.tutorial.store.inventory.warehouse;
+
+import io.microprofile.tutorial.store.inventory.dto.WarehouseStockInfo;
+import io.microprofile.tutorial.store.inventory.exception.InventoryValidationException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free stock counter of one product in one warehouse.
+ * Like {@link io.microprofile.tutorial.store.inventory.reservation.StockCell} it packs the on-hand
+ * and the reserved quantity into one 64-bit word, so both change together with a single
+ * compare-and-set and a warehouse is never oversold. Every successful change also adds its delta
+ * to the product's aggregate, so product totals are maintained without ever summing warehouses.
+ */
+public class WarehouseStock {
+
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+    private final String warehouseId;
+
+    private final ProductStock product;
+
+    private final AtomicLong state = new AtomicLong();
+
+    WarehouseStock(String warehouseId, ProductStock product) {
+        this.warehouseId = warehouseId;
+        this.product = product;
+    }
+
+    /**
+     * Atomically reserves units if enough stock is available in this warehouse.
+     *
+     * @param units The number of units to reserve
+     * @return true if the units were reserved, false if there was insufficient stock
+     */
+    public boolean tryReserve(int units) {
+        while (true) {
+            long current = state.get();
+            int quantity = quantity(current);
+            int reserved = reserved(current);
+            if (quantity - reserved < units) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(quantity, reserved + units))) {
+                product.add(0, units);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Atomically returns previously reserved units to the available pool.
+     *
+     * @param units The number of units to release
+     * @throws IllegalArgumentException if fewer units are reserved than requested
+     */
+    public void release(int units) {
+        while (true) {
+            long current = state.get();
+            int reserved = reserved(current);
+            if (reserved < units) {
+                throw new InventoryValidationException("Cannot release " + units + " units, only " + reserved
+                        + " reserved in warehouse " + warehouseId);
+            }
+            if (state.compareAndSet(current, pack(quantity(current), reserved - units))) {
+                product.add(0, -units);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically commits previously reserved units, removing them from both the reserved
+     * and the on-hand quantity.
+     *
+     * @param units The number of units to commit
+     * @throws IllegalArgumentException if fewer units are reserved than requested
+     */
+    public void commit(int units) {
+        while (true) {
+            long current = state.get();
+            int reserved = reserved(current);
+            if (reserved < units) {
+                throw new InventoryValidationException("Cannot commit " + units + " units, only " + reserved
+                        + " reserved in warehouse " + warehouseId);
+            }
+            if (state.compareAndSet(current, pack(quantity(current) - units, reserved - units))) {
+                product.add(-units, -units);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically replaces the on-hand quantity, keeping the current reservations.
+     *
+     * @param quantity The new on-hand quantity
+     */
+    public void setQuantity(int quantity) {
+        while (true) {
+            long current = state.get();
+            if (state.compareAndSet(current, pack(quantity, reserved(current)))) {
+                product.add(quantity - quantity(current), 0);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The warehouse holding this stock
+     */
+    public String getWarehouseId() {
+        return warehouseId;
+    }
+
+    /**
+     * @return The product this stock is of
+     */
+    public Long getProductId() {
+        return product.getProductId();
+    }
+
+    /**
+     * @return The on-hand quantity
+     */
+    public int getQuantity() {
+        return quantity(state.get());
+    }
+
+    /**
+     * @return The reserved quantity
+     */
+    public int getReservedQuantity() {
+        return reserved(state.get());
+    }
+
+    /**
+     * @return The quantity that can still be reserved
+     */
+    public int getAvailableQuantity() {
+        long current = state.get();
+        return quantity(current) - reserved(current);
+    }
+
+    /**
+     * @return A consistent snapshot of this stock for clients
+     */
+    public WarehouseStockInfo toInfo() {
+        long current = state.get();
+        return new WarehouseStockInfo(warehouseId, product.getProductId(), quantity(current), reserved(current),
+                quantity(current) - reserved(current));
+    }
+
+    private static long pack(int quantity, int reserved) {
+        return ((long) quantity << 32) | (reserved & LOW_MASK);
+    }
+
+    private static int quantity(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+}
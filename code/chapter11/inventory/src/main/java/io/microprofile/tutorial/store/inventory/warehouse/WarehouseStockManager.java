@@ -0,0 +1,233 @@
+package io.microprofile.tutorial.store.inventory.warehouse;
+
+import io.microprofile.tutorial.store.inventory.dto.ProductAvailability;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseAllocation;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseStockInfo;
+import io.microprofile.tutorial.store.inventory.exception.InventoryValidationException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Keeps the stock of each product per warehouse, so one inventory service can serve several sites.
+ * Availability over all warehouses of a product is read from running totals in O(1), and a
+ * reservation is taken from a single warehouse picked by the configured
+ * {@link WarehouseSelectionStrategy}. Reservations that cannot be served because the product as
+ * a whole is short are refused from the totals alone, without looking at any warehouse.
+ * <p>
+ * Once a product is stocked here, its warehouses are the only pool its units are reserved from;
+ * the quantity on its inventory record is not sold on top of them.
+ */
+@ApplicationScoped
+public class WarehouseStockManager {
+
+    private static final Logger LOGGER = Logger.getLogger(WarehouseStockManager.class.getName());
+
+    // Stock keyed by product ID
+    private final Map<Long, ProductStock> products = new ConcurrentHashMap<>();
+
+    private volatile WarehouseSelectionStrategy selectionStrategy = new MostAvailableWarehouseStrategy();
+
+    /**
+     * Applies the warehouse selection settings from MicroProfile Config.
+     *
+     * @param strategy {@value MostAvailableWarehouseStrategy#NAME} or {@value PriorityWarehouseStrategy#NAME}
+     * @param priority Warehouse IDs in order of preference, used by the priority strategy
+     */
+    @Inject
+    void configure(
+            @ConfigProperty(name = "inventory.warehouse.selectionStrategy", defaultValue = MostAvailableWarehouseStrategy.NAME) String strategy,
+            @ConfigProperty(name = "inventory.warehouse.priority") Optional<List<String>> priority) {
+        switch (strategy) {
+            case MostAvailableWarehouseStrategy.NAME -> setSelectionStrategy(new MostAvailableWarehouseStrategy());
+            case PriorityWarehouseStrategy.NAME -> setSelectionStrategy(new PriorityWarehouseStrategy(priority.orElse(List.of())));
+            default -> throw new IllegalArgumentException("Unknown warehouse selection strategy: " + strategy);
+        }
+        LOGGER.fine("Warehouse selection strategy: " + strategy);
+    }
+
+    /**
+     * Replaces the strategy that picks the warehouse for a reservation.
+     *
+     * @param selectionStrategy The strategy
+     */
+    public void setSelectionStrategy(WarehouseSelectionStrategy selectionStrategy) {
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    /**
+     * Sets the on-hand quantity of a product in a warehouse, keeping its reservations.
+     * The warehouse is added to the product if it did not stock it yet.
+     *
+     * @param productId The product ID
+     * @param warehouseId The warehouse ID
+     * @param quantity The new on-hand quantity
+     * @return The updated warehouse stock
+     * @throws IllegalArgumentException if the quantity is negative or the warehouse ID is blank
+     */
+    public WarehouseStockInfo setQuantity(Long productId, String warehouseId, int quantity) {
+        if (quantity < 0) {
+            throw new InventoryValidationException("Quantity cannot be negative");
+        }
+        if (warehouseId == null || warehouseId.isBlank()) {
+            throw new InventoryValidationException("Warehouse ID must not be blank");
+        }
+        WarehouseStock stock = products.computeIfAbsent(productId, ProductStock::new).warehouse(warehouseId);
+        stock.setQuantity(quantity);
+        LOGGER.fine("Set quantity of product " + productId + " in warehouse " + warehouseId + " to " + quantity);
+        return stock.toInfo();
+    }
+
+    /**
+     * Reserves units of a product in one warehouse picked by the selection strategy.
+     * A reservation is never split across warehouses.
+     *
+     * @param productId The product ID
+     * @param units The number of units to reserve
+     * @return The warehouse the units were reserved in, or empty if no warehouse could serve them
+     * @throws IllegalArgumentException if the number of units is not positive
+     */
+    public Optional<WarehouseAllocation> reserve(Long productId, int units) {
+        if (units <= 0) {
+            throw new InventoryValidationException("Quantity to reserve must be positive");
+        }
+        ProductStock product = products.get(productId);
+        if (product == null || product.getAvailableQuantity() < units) {
+            return Optional.empty();
+        }
+        List<WarehouseStock> candidates = new ArrayList<>();
+        for (WarehouseStock stock : product.warehouses()) {
+            if (stock.getAvailableQuantity() >= units) {
+                candidates.add(stock);
+            }
+        }
+        WarehouseSelectionStrategy strategy = selectionStrategy;
+        while (!candidates.isEmpty()) {
+            WarehouseStock selected = strategy.select(units, candidates);
+            if (selected == null) {
+                return Optional.empty();
+            }
+            if (selected.tryReserve(units)) {
+                LOGGER.fine("Reserved " + units + " units of product " + productId + " in warehouse "
+                        + selected.getWarehouseId());
+                return Optional.of(new WarehouseAllocation(productId, selected.getWarehouseId(), units));
+            }
+            // Taken by a concurrent reservation since the candidates were read
+            candidates.remove(selected);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns reserved units of a product to the available pool of a warehouse.
+     *
+     * @param productId The product ID
+     * @param warehouseId The warehouse the units were reserved in
+     * @param units The number of units to release
+     * @return The updated warehouse stock, or empty if the warehouse does not stock the product
+     * @throws IllegalArgumentException if the number of units is not positive or fewer units are reserved
+     */
+    public Optional<WarehouseStockInfo> release(Long productId, String warehouseId, int units) {
+        if (units <= 0) {
+            throw new InventoryValidationException("Quantity to release must be positive");
+        }
+        return find(productId, warehouseId).map(stock -> {
+            stock.release(units);
+            return stock.toInfo();
+        });
+    }
+
+    /**
+     * Commits reserved units of a product in a warehouse, deducting them from its stock.
+     *
+     * @param productId The product ID
+     * @param warehouseId The warehouse the units were reserved in
+     * @param units The number of units to commit
+     * @return The updated warehouse stock, or empty if the warehouse does not stock the product
+     * @throws IllegalArgumentException if the number of units is not positive or fewer units are reserved
+     */
+    public Optional<WarehouseStockInfo> commit(Long productId, String warehouseId, int units) {
+        if (units <= 0) {
+            throw new InventoryValidationException("Quantity to commit must be positive");
+        }
+        return find(productId, warehouseId).map(stock -> {
+            stock.commit(units);
+            return stock.toInfo();
+        });
+    }
+
+    /**
+     * Returns the totals of a product over all its warehouses without visiting them.
+     *
+     * @param productId The product ID
+     * @return The totals, or empty if no warehouse stocks the product
+     */
+    public Optional<ProductAvailability> getAvailability(Long productId) {
+        return Optional.ofNullable(products.get(productId)).map(ProductStock::toAvailability);
+    }
+
+    /**
+     * Tells whether the stock of a product is kept per warehouse.
+     *
+     * @param productId The product ID
+     * @return true if at least one warehouse stocks the product
+     */
+    public boolean isWarehouseStocked(Long productId) {
+        return productId != null && products.containsKey(productId);
+    }
+
+    /**
+     * Returns the quantity of a product that can still be reserved over all its warehouses,
+     * without visiting them.
+     *
+     * @param productId The product ID
+     * @return The available quantity; 0 if no warehouse stocks the product
+     */
+    public long getAvailableQuantity(Long productId) {
+        ProductStock product = products.get(productId);
+        return product != null ? product.getAvailableQuantity() : 0;
+    }
+
+    /**
+     * Returns the stock of a product in each of its warehouses.
+     *
+     * @param productId The product ID
+     * @return The warehouse stocks ordered by warehouse ID; empty if no warehouse stocks the product
+     */
+    public List<WarehouseStockInfo> getWarehouseStocks(Long productId) {
+        ProductStock product = products.get(productId);
+        if (product == null) {
+            return List.of();
+        }
+        return product.warehouses().stream()
+                .map(WarehouseStock::toInfo)
+                .sorted(Comparator.comparing(WarehouseStockInfo::getWarehouseId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops all warehouse stock of a product, e.g. after its inventory record was deleted.
+     *
+     * @param productId The product ID
+     */
+    public void remove(Long productId) {
+        if (productId != null) {
+            products.remove(productId);
+        }
+    }
+
+    private Optional<WarehouseStock> find(Long productId, String warehouseId) {
+        return Optional.ofNullable(products.get(productId)).flatMap(product -> product.find(warehouseId));
+    }
+}
@@ -0,0 +1,243 @@
+package io.microprofile.tutorial.store.inventory.cache;
+
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductBatchLoader using a stub catalog client.
+ */
+class ProductBatchLoaderTest {
+
+    private ScheduledExecutorService scheduler;
+
+    private StubClient client;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newScheduledThreadPool(2);
+        client = new StubClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testLoad_WithSingleLookup_ShouldUseByIdCall() {
+        ProductBatchLoader loader = new ProductBatchLoader(TimeUnit.MILLISECONDS.toNanos(1), 50, scheduler);
+
+        assertEquals("Product 5", loader.load(5L, client).getName());
+        assertEquals(1, client.byIdCalls.get());
+        assertEquals(0, client.multiGetCalls.get());
+    }
+
+    @Test
+    void testLoad_WithConcurrentLookups_ShouldBatchIntoMultiGetCalls() throws Exception {
+        ProductBatchLoader loader = new ProductBatchLoader(TimeUnit.MILLISECONDS.toNanos(50), 8, scheduler);
+
+        int lookups = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(lookups);
+        try {
+            List<Future<Product>> futures = new ArrayList<>();
+            for (long id = 1; id <= lookups; id++) {
+                long productId = id;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(productId, client);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < lookups; i++) {
+                assertEquals("Product " + (i + 1), futures.get(i).get(10, TimeUnit.SECONDS).getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(lookups, loader.lookupCount());
+        assertTrue(loader.catalogCallCount() < lookups, "Lookups should share catalog calls");
+        assertTrue(client.multiGetCalls.get() > 0);
+    }
+
+    @Test
+    void testLoad_WithUnknownIdInBatch_ShouldReturnNull() throws Exception {
+        ProductBatchLoader loader = new ProductBatchLoader(TimeUnit.SECONDS.toNanos(10), 2, scheduler);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Product> known = executor.submit(() -> loader.load(1L, client));
+            Future<Product> unknown = executor.submit(() -> loader.load(999L, client));
+
+            assertEquals("Product 1", known.get(10, TimeUnit.SECONDS).getName());
+            assertNull(unknown.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, client.multiGetCalls.get());
+    }
+
+    @Test
+    void testLoad_WithBatchingDisabled_ShouldCallCatalogDirectly() {
+        ProductBatchLoader loader = new ProductBatchLoader(0, 50, scheduler);
+
+        assertThrows(WebApplicationException.class, () -> loader.load(999L, client));
+        assertEquals(1, client.byIdCalls.get());
+    }
+
+    @Test
+    void testLoadAsync_ShouldBatchWithoutBlockingTheCaller() throws Exception {
+        ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            ProductBatchLoader loader = new ProductBatchLoader(TimeUnit.MILLISECONDS.toNanos(50), 8, scheduler, callExecutor);
+
+            // All lookups are issued from this one thread before any of them completes
+            List<CompletableFuture<Product>> futures = new ArrayList<>();
+            for (long id = 1; id <= 31; id++) {
+                futures.add(loader.loadAsync(id, client));
+            }
+            futures.add(loader.loadAsync(999L, client));
+
+            for (int i = 0; i < 31; i++) {
+                assertEquals("Product " + (i + 1), futures.get(i).get(10, TimeUnit.SECONDS).getName());
+            }
+            assertNull(futures.get(31).get(10, TimeUnit.SECONDS));
+            assertEquals(4, loader.catalogCallCount());
+            assertEquals(0, client.byIdCalls.get());
+        } finally {
+            callExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLoadAsync_WithClientsThatEqualEachOther_ShouldBatchPerClientInstance() throws Exception {
+        // Like a proxy that forwards equals and hashCode, these clients all claim to be equal
+        StubClient first = new EqualStubClient();
+        StubClient second = new EqualStubClient();
+        ProductBatchLoader loader = new ProductBatchLoader(TimeUnit.MILLISECONDS.toNanos(50), 8, scheduler);
+
+        List<CompletableFuture<Product>> futures = List.of(
+                loader.loadAsync(1L, first), loader.loadAsync(2L, first),
+                loader.loadAsync(3L, second), loader.loadAsync(4L, second));
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("Product " + (i + 1), futures.get(i).get(10, TimeUnit.SECONDS).getName());
+        }
+        assertEquals(1, first.multiGetCalls.get());
+        assertEquals(1, second.multiGetCalls.get());
+    }
+
+    @Test
+    void testLoadAsync_WithBatchingDisabled_ShouldUseAsyncClientCall() {
+        ProductBatchLoader loader = new ProductBatchLoader(0, 50, scheduler);
+
+        CompletableFuture<Product> unknown = loader.loadAsync(999L, client);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> unknown.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(WebApplicationException.class, failure.getCause());
+        assertEquals(1, client.asyncCalls.get());
+        assertEquals(1, loader.catalogCallCount());
+    }
+
+    /**
+     * Catalog stub that knows products 1 to 100.
+     */
+    private static class StubClient implements ProductServiceClient {
+
+        private final AtomicInteger byIdCalls = new AtomicInteger();
+        private final AtomicInteger multiGetCalls = new AtomicInteger();
+        private final AtomicInteger asyncCalls = new AtomicInteger();
+
+        @Override
+        public Product getProductById(Long id) {
+            byIdCalls.incrementAndGet();
+            if (id > 100) {
+                throw new WebApplicationException(Response.Status.NOT_FOUND);
+            }
+            return product(id);
+        }
+
+        @Override
+        public List<Product> getProductsByCategory(String category) {
+            return List.of();
+        }
+
+        @Override
+        public List<Product> getProductsByIds(List<Long> ids) {
+            multiGetCalls.incrementAndGet();
+            return ids.stream()
+                    .filter(id -> id <= 100)
+                    .map(StubClient::product)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public CompletionStage<Product> getProductByIdAsync(Long id) {
+            asyncCalls.incrementAndGet();
+            return id > 100
+                    ? CompletableFuture.failedFuture(new WebApplicationException(Response.Status.NOT_FOUND))
+                    : CompletableFuture.completedFuture(product(id));
+        }
+
+        @Override
+        public CompletionStage<List<Product>> getProductsByCategoryAsync(String category) {
+            return CompletableFuture.completedFuture(getProductsByCategory(category));
+        }
+
+        @Override
+        public CompletionStage<List<Product>> getProductsByIdsAsync(List<Long> ids) {
+            return CompletableFuture.completedFuture(getProductsByIds(ids));
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static Product product(Long id) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            return product;
+        }
+    }
+
+    /**
+     * Catalog stub that is equal to every other instance of its class.
+     */
+    private static final class EqualStubClient extends StubClient {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof EqualStubClient;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.microprofile.tutorial.store.inventory.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TinyLfuCache using a manual clock and a direct executor.
+ */
+class TinyLfuCacheTest {
+
+    private AtomicLong clock;
+
+    private AtomicInteger loads;
+
+    private TinyLfuCache<Long, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        loads = new AtomicInteger();
+        cache = new TinyLfuCache<>(100, Duration.ofSeconds(60), Duration.ofSeconds(45), Duration.ofSeconds(5),
+                e -> e instanceof IllegalStateException, Runnable::run, clock::get);
+    }
+
+    private final Function<Long, String> loader = key -> {
+        loads.incrementAndGet();
+        if (key < 0) {
+            throw new IllegalStateException("not found");
+        }
+        return key == 0 ? null : "value-" + key + "-" + loads.get();
+    };
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void testGet_ShouldLoadOnceAndThenHit() {
+        assertEquals(Optional.of("value-1-1"), cache.get(1L, loader));
+        assertEquals(Optional.of("value-1-1"), cache.get(1L, loader));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testGet_WithAbsentValue_ShouldCacheNegativeResultUntilItExpires() {
+        assertEquals(Optional.empty(), cache.get(-1L, loader));
+        assertEquals(Optional.empty(), cache.get(0L, loader));
+        assertEquals(Optional.empty(), cache.get(-1L, loader));
+        assertEquals(2, loads.get());
+
+        advanceSeconds(5);
+        assertEquals(Optional.empty(), cache.get(-1L, loader));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testGet_WithOtherFailure_ShouldNotCache() {
+        Function<Long, String> failing = key -> {
+            loads.incrementAndGet();
+            throw new IllegalArgumentException("catalog down");
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(1L, failing));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(1L, failing));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testGet_AfterRefreshPoint_ShouldReloadInBackgroundAndServeStaleValue() {
+        cache.get(1L, loader);
+
+        advanceSeconds(46);
+        // The stale value is returned while the (direct) refresh replaces it
+        assertEquals(Optional.of("value-1-1"), cache.get(1L, loader));
+        assertEquals(Optional.of("value-1-2"), cache.get(1L, loader));
+        assertEquals(1, cache.refreshCount());
+
+        advanceSeconds(61);
+        assertEquals(Optional.of("value-1-3"), cache.get(1L, loader));
+    }
+
+    @Test
+    void testGetAsync_ShouldShareOneLoadAndServeLaterReadsFromTheCache() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        Function<Long, CompletionStage<String>> asyncLoader = key -> {
+            loads.incrementAndGet();
+            return pending;
+        };
+
+        CompletableFuture<Optional<String>> first = cache.getAsync(1L, asyncLoader);
+        CompletableFuture<Optional<String>> second = cache.getAsync(1L, asyncLoader);
+        assertFalse(first.isDone());
+
+        pending.complete("value-1");
+
+        assertEquals(Optional.of("value-1"), first.get());
+        assertEquals(Optional.of("value-1"), second.get());
+        assertEquals(Optional.of("value-1"), cache.get(1L, loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.loadCount());
+    }
+
+    @Test
+    void testGetAsync_WithAbsentOrFailedLoad_ShouldCacheOnlyTheAbsentResult() throws Exception {
+        Function<Long, CompletionStage<String>> asyncLoader = key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.failedFuture(key < 0
+                    ? new IllegalStateException("not found")
+                    : new IllegalArgumentException("catalog down"));
+        };
+
+        assertEquals(Optional.empty(), cache.getAsync(-1L, asyncLoader).get());
+        assertEquals(Optional.empty(), cache.getAsync(-1L, asyncLoader).get());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> cache.getAsync(2L, asyncLoader).get());
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertThrows(ExecutionException.class, () -> cache.getAsync(2L, asyncLoader).get());
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testEviction_ShouldStayBoundedAndKeepFrequentlyUsedEntries() {
+        // Make a small set of keys popular
+        for (int round = 0; round < 10; round++) {
+            for (long key = 1; key <= 50; key++) {
+                cache.get(key, loader);
+            }
+        }
+
+        // A scan of one-off keys must not flush the popular ones
+        for (long key = 1_000; key < 11_000; key++) {
+            cache.get(key, loader);
+        }
+
+        assertTrue(cache.size() <= 100, "size was " + cache.size());
+        assertTrue(cache.evictionCount() > 0);
+        int retained = 0;
+        for (long key = 1; key <= 50; key++) {
+            if (cache.getIfPresent(key).isPresent()) {
+                retained++;
+            }
+        }
+        assertTrue(retained >= 45, "only " + retained + " popular keys retained");
+    }
+
+    @Test
+    void testInvalidate_ShouldForceReload() {
+        cache.get(1L, loader);
+        cache.invalidate(1L);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_WithConcurrentMisses_ShouldLoadOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, String> slowLoader = key -> {
+            loads.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "value-" + key;
+        };
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Optional<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> cache.get(7L, slowLoader)));
+            }
+            // Let every caller reach the in-flight load before it completes
+            while (cache.missCount() < threads) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<Optional<String>> future : futures) {
+                assertEquals(Optional.of("value-7"), future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.loadCount());
+    }
+}
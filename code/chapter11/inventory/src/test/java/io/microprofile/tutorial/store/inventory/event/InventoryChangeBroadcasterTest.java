@@ -0,0 +1,153 @@
+package io.microprofile.tutorial.store.inventory.event;
+
+import io.microprofile.tutorial.store.inventory.dto.InventoryChange;
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InventoryChangeBroadcaster and its per-subscriber buffering, flushed by hand.
+ */
+class InventoryChangeBroadcasterTest {
+
+    private InventoryChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new InventoryChangeBroadcaster();
+    }
+
+    @Test
+    void testFlush_ShouldCoalesceChangesToTheSameProduct() {
+        RecordingDelivery delivery = new RecordingDelivery(true);
+        broadcaster.subscribe(Set.of(), delivery);
+
+        for (int quantity = 1; quantity <= 10; quantity++) {
+            broadcaster.stored(inventory(1L, quantity, 0));
+        }
+        broadcaster.stored(inventory(2L, 5, 2));
+        broadcaster.flush();
+
+        assertEquals(2, delivery.sent.size());
+        assertEquals(10, delivery.sent.get(0).getQuantity());
+        assertEquals(3, delivery.sent.get(1).getAvailableQuantity());
+    }
+
+    @Test
+    void testFlush_ShouldOnlyDeliverSubscribedProducts() {
+        RecordingDelivery delivery = new RecordingDelivery(true);
+        broadcaster.subscribe(Set.of(2L), delivery);
+
+        broadcaster.stored(inventory(1L, 1, 0));
+        broadcaster.deleted(inventory(2L, 7, 0));
+        broadcaster.flush();
+
+        assertEquals(1, delivery.sent.size());
+        assertTrue(delivery.sent.get(0).isDeleted());
+        assertEquals(0, delivery.sent.get(0).getQuantity());
+    }
+
+    @Test
+    void testSlowSubscriber_ShouldKeepLatestValuesAndNotHoldBackOthers() {
+        RecordingDelivery slow = new RecordingDelivery(false);
+        RecordingDelivery fast = new RecordingDelivery(true);
+        broadcaster.subscribe(Set.of(), slow);
+        broadcaster.subscribe(Set.of(), fast);
+
+        // The first send stays in flight; everything after it waits in the slow buffer
+        for (long productId = 1; productId <= 300; productId++) {
+            broadcaster.stored(inventory(productId, 1, 0));
+            broadcaster.flush();
+        }
+        broadcaster.stored(inventory(300L, 99, 0));
+        broadcaster.flush();
+
+        assertEquals(301, fast.sent.size());
+        assertEquals(1, slow.sent.size());
+        assertEquals(299 - 256, broadcaster.droppedCount());
+
+        slow.completeAll();
+
+        assertEquals(257, slow.sent.size());
+        assertEquals(299 - 256, slow.dropped.get(1));
+        assertEquals(0, slow.dropped.get(2));
+        // Product 300 was re-queued with its latest value, so it is sent last
+        InventoryChange last = slow.sent.get(slow.sent.size() - 1);
+        assertEquals(300L, last.getProductId());
+        assertEquals(99, last.getQuantity());
+    }
+
+    @Test
+    void testFailedSend_ShouldRemoveSubscriber() {
+        RecordingDelivery delivery = new RecordingDelivery(true);
+        delivery.fail = true;
+        broadcaster.subscribe(Set.of(), delivery);
+
+        broadcaster.stored(inventory(1L, 1, 0));
+        broadcaster.flush();
+        broadcaster.flush();
+
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    private static Inventory inventory(Long productId, int quantity, int reserved) {
+        return Inventory.builder()
+                .inventoryId(productId + 100)
+                .productId(productId)
+                .quantity(quantity)
+                .reservedQuantity(reserved)
+                .build();
+    }
+
+    /**
+     * Records sends; either completes them immediately or leaves them in flight until released.
+     */
+    private static class RecordingDelivery implements InventoryChangeBroadcaster.Delivery {
+
+        private final boolean completeImmediately;
+        private final List<InventoryChange> sent = new ArrayList<>();
+        private final List<Long> dropped = new ArrayList<>();
+        private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        private boolean fail;
+
+        private RecordingDelivery(boolean completeImmediately) {
+            this.completeImmediately = completeImmediately;
+        }
+
+        @Override
+        public CompletionStage<?> send(InventoryChange change, long droppedBefore) {
+            if (fail) {
+                return CompletableFuture.failedFuture(new IllegalStateException("closed"));
+            }
+            sent.add(change);
+            dropped.add(droppedBefore);
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            if (completeImmediately) {
+                future.complete(null);
+            } else {
+                inFlight.add(future);
+            }
+            return future;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        private void completeAll() {
+            while (!inFlight.isEmpty()) {
+                inFlight.remove(0).complete(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.microprofile.tutorial.store.inventory.exception;
+
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InventoryExceptionMapper.
+ */
+class InventoryExceptionMapperTest {
+
+    private final InventoryExceptionMapper mapper = new InventoryExceptionMapper();
+
+    @Test
+    void testToResponse_WithValidationFailure_ShouldReturnBadRequest() {
+        Response response = mapper.toResponse(new InventoryValidationException("Quantity to reserve must be positive"));
+
+        assertBadRequest(response, "Quantity to reserve must be positive");
+    }
+
+    @Test
+    void testToResponse_WithOtherIllegalArgument_ShouldReturnServerError() {
+        Response response = mapper.toResponse(new IllegalArgumentException("Cannot release 5 units, only 0 reserved"));
+
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+        assertEquals("server_error", ((ErrorResponse) response.getEntity()).getErrorCode());
+    }
+
+    @Test
+    void testToResponse_WithValidationFailureFromAsyncStage_ShouldReturnBadRequest() {
+        CompletableFuture<Object> stage = CompletableFuture.supplyAsync(() -> {
+            throw new InventoryValidationException("Insufficient inventory");
+        });
+        CompletionException failure = assertThrows(CompletionException.class, stage::join);
+
+        assertBadRequest(mapper.toResponse(failure), "Insufficient inventory");
+        // A stage derived from a failed stage wraps the original failure once more
+        assertBadRequest(mapper.toResponse(new CompletionException(failure)), "Insufficient inventory");
+    }
+
+    @Test
+    void testToResponse_WithNotFoundFromAsyncStage_ShouldReturnNotFound() {
+        Response response = mapper.toResponse(new CompletionException(new InventoryNotFoundException("Inventory not found")));
+
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+        assertEquals("not_found", ((ErrorResponse) response.getEntity()).getErrorCode());
+    }
+
+    @Test
+    void testToResponse_WithUnexpectedException_ShouldReturnServerError() {
+        Response response = mapper.toResponse(new IllegalStateException("boom"));
+
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+        assertEquals("server_error", ((ErrorResponse) response.getEntity()).getErrorCode());
+    }
+
+    private static void assertBadRequest(Response response, String message) {
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        ErrorResponse error = (ErrorResponse) response.getEntity();
+        assertEquals("bad_request", error.getErrorCode());
+        assertEquals(message, error.getMessage());
+    }
+}
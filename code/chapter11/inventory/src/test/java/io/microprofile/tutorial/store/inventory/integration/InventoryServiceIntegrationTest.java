@@ -3,6 +3,8 @@ package io.microprofile.tutorial.store.inventory.integration;
 import io.microprofile.tutorial.store.inventory.service.InventoryService;
 import io.microprofile.tutorial.store.inventory.entity.Inventory;
 import io.microprofile.tutorial.store.inventory.dto.Product;
+import io.microprofile.tutorial.store.inventory.cache.CategoryCache;
+import io.microprofile.tutorial.store.inventory.cache.ProductCache;
 import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
 import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
 
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Field;
@@ -32,6 +35,12 @@ class InventoryServiceIntegrationTest {
     @Mock
     private ProductServiceClient productServiceClient;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(10_000, 300, 240, 30, 2, 50);
+
+    @Spy
+    private CategoryCache categoryCache = new CategoryCache(256, 60, 45);
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -0,0 +1,231 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recovery tests for the write-ahead log and snapshots of InventoryRepository.
+ */
+class InventoryPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    private InventoryRepository open() {
+        InventoryRepository repository = new InventoryRepository();
+        repository.openPersistence(directory, 1, 0);
+        return repository;
+    }
+
+    private static Inventory inventory(long productId, int quantity) {
+        return Inventory.builder().productId(productId).quantity(quantity).build();
+    }
+
+    @Test
+    void testRecovery_FromJournalOnly_ShouldRestoreStateAndIds() {
+        InventoryRepository repository = open();
+        repository.save(inventory(1L, 10));
+        Inventory second = repository.save(inventory(2L, 20));
+        repository.save(inventory(3L, 30));
+        second.setQuantity(25);
+        second.setReservedQuantity(5);
+        repository.save(second);
+        repository.deleteById(3L);
+        // Simulate a crash: records reached the disk, but no snapshot was taken
+        repository.flushJournal();
+
+        InventoryRepository recovered = open();
+
+        assertEquals(2, recovered.findAll().size());
+        Inventory restored = recovered.findByProductId(2L).orElseThrow();
+        assertEquals(25, restored.getQuantity());
+        // No hold survives a restart, so its units are back in stock
+        assertEquals(0, restored.getReservedQuantity());
+        assertTrue(recovered.findByProductId(3L).isEmpty());
+        assertEquals(1, recovered.countByQuantityRange(20, 30));
+        // IDs keep increasing after recovery
+        assertEquals(4L, recovered.save(inventory(4L, 40)).getInventoryId());
+        recovered.closePersistence();
+    }
+
+    @Test
+    void testRecovery_FromSnapshotAndJournalTail_ShouldApplyBoth() throws IOException {
+        InventoryRepository repository = open();
+        for (long productId = 1; productId <= 100; productId++) {
+            repository.save(inventory(productId, (int) productId));
+        }
+        assertEquals(100, repository.snapshot());
+        repository.deleteById(1L);
+        Inventory changed = repository.findByProductId(2L).orElseThrow();
+        changed.setQuantity(200);
+        repository.save(changed);
+        repository.flushJournal();
+
+        InventoryRepository recovered = open();
+
+        assertEquals(99, recovered.findAll().size());
+        assertEquals(200, recovered.findByProductId(2L).orElseThrow().getQuantity());
+        assertEquals(List.of(200), recovered.findByQuantityRange(150, null, 0, 10).stream()
+                .map(Inventory::getQuantity).collect(Collectors.toList()));
+        recovered.closePersistence();
+    }
+
+    @Test
+    void testSnapshot_ShouldDropRedundantSegments() throws IOException {
+        InventoryRepository repository = open();
+        repository.save(inventory(1L, 10));
+        repository.snapshot();
+        repository.save(inventory(2L, 20));
+        repository.snapshot();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+            assertEquals(1, names.stream().filter(name -> name.startsWith("snapshot-")).count());
+            assertEquals(1, names.stream().filter(name -> name.startsWith("wal-")).count());
+        }
+        repository.closePersistence();
+
+        assertEquals(2, open().findAll().size());
+    }
+
+    private static void setField(Object target, Class<?> type, String name, Object value) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private FileChannel closedChannel() throws IOException {
+        FileChannel closed = FileChannel.open(directory.resolve("closed"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        closed.close();
+        return closed;
+    }
+
+    @Test
+    void testSave_WhenJournalCannotKeepUp_ShouldRefuseBeforeChangingAnything() throws Exception {
+        InventoryRepository repository = new InventoryRepository();
+        // No background flush during the test
+        repository.openPersistence(directory, 60_000, 0);
+        Inventory stored = repository.save(inventory(1L, 10));
+        Long id = stored.getInventoryId();
+        // A journal of one-record buffers with the most full buffers queued, that cannot write to disk
+        InventoryJournal failing = new InventoryJournal(directory.resolve("failing"), InventoryJournal.RECORD_SIZE);
+        for (int i = 0; i <= InventoryJournal.MAX_QUEUED_BUFFERS; i++) {
+            failing.appendDelete(99L);
+        }
+        setField(failing, InventoryJournal.class, "channel", closedChannel());
+        Field journalField = InventoryRepository.class.getDeclaredField("journal");
+        journalField.setAccessible(true);
+        Object journal = journalField.get(repository);
+        journalField.set(repository, failing);
+
+        Inventory replacement = Inventory.builder().inventoryId(id).productId(2L).quantity(50).build();
+        assertThrows(UncheckedIOException.class, () -> repository.save(replacement));
+
+        assertSame(stored, repository.findById(id).orElseThrow());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(0L, replacement.getVersion());
+        assertSame(stored, repository.findByProductId(1L).orElseThrow());
+        assertTrue(repository.findByProductId(2L).isEmpty());
+        assertEquals(1, repository.countByQuantityRange(10, 10));
+        assertEquals(0, repository.countByQuantityRange(50, 50));
+        journalField.set(repository, journal);
+        repository.closePersistence();
+    }
+
+    @Test
+    void testAppend_WhenBufferFull_ShouldQueueItWithoutWriting() throws Exception {
+        InventoryJournal journal = new InventoryJournal(directory, InventoryJournal.RECORD_SIZE);
+        Field channelField = InventoryJournal.class.getDeclaredField("channel");
+        channelField.setAccessible(true);
+        FileChannel channel = (FileChannel) channelField.get(journal);
+
+        // Appends never touch the disk, so a broken channel goes unnoticed until the flush
+        channelField.set(journal, closedChannel());
+        for (long id = 1; id <= 10; id++) {
+            journal.appendPut(Inventory.builder().inventoryId(id).productId(id).quantity(10).build());
+        }
+        assertThrows(UncheckedIOException.class, journal::awaitCapacity);
+        channelField.set(journal, channel);
+        journal.awaitCapacity();
+        journal.close();
+
+        List<Long> replayed = new ArrayList<>();
+        InventoryJournal.replay(directory, 0, new InventoryJournal.Replay() {
+            @Override
+            public void put(Inventory inventory) {
+                replayed.add(inventory.getInventoryId());
+            }
+
+            @Override
+            public void delete(long inventoryId) {
+            }
+        });
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), replayed);
+    }
+
+    @Test
+    void testFlush_AfterFailure_ShouldWriteRetainedRecords() throws Exception {
+        InventoryJournal journal = new InventoryJournal(directory, 1024);
+        journal.appendPut(Inventory.builder().inventoryId(1L).productId(1L).quantity(10).build());
+        Field channelField = InventoryJournal.class.getDeclaredField("channel");
+        channelField.setAccessible(true);
+        FileChannel channel = (FileChannel) channelField.get(journal);
+
+        channelField.set(journal, closedChannel());
+        assertThrows(UncheckedIOException.class, journal::flush);
+        journal.appendPut(Inventory.builder().inventoryId(2L).productId(2L).quantity(20).build());
+        channelField.set(journal, channel);
+        journal.flush();
+        journal.close();
+
+        List<Long> replayed = new ArrayList<>();
+        InventoryJournal.replay(directory, 0, new InventoryJournal.Replay() {
+            @Override
+            public void put(Inventory inventory) {
+                replayed.add(inventory.getInventoryId());
+            }
+
+            @Override
+            public void delete(long inventoryId) {
+            }
+        });
+        assertEquals(List.of(1L, 2L), replayed);
+    }
+
+    @Test
+    void testRecovery_WithTornTail_ShouldKeepCompleteRecords() throws IOException {
+        InventoryRepository repository = open();
+        repository.save(inventory(1L, 10));
+        repository.save(inventory(2L, 20));
+        repository.flushJournal();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+        }
+        // Half of a third record, as left by a crash in the middle of a write
+        Files.write(segment, new byte[InventoryJournal.RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        InventoryRepository recovered = open();
+
+        assertEquals(2, recovered.findAll().size());
+        assertEquals(2L * InventoryJournal.RECORD_SIZE, Files.size(segment));
+        recovered.closePersistence();
+    }
+}
@@ -0,0 +1,276 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.exception.StaleInventoryException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests that interleave writers and readers on one InventoryRepository and then check
+ * that the primary map and its product, quantity and ID indexes still agree.
+ */
+class InventoryRepositoryStressTest {
+
+    // Items whose quantity is incremented and whose product is switched back and forth
+    private static final int COUNTERS = 16;
+
+    // Items that are deleted and saved again under the same ID
+    private static final int CHURNED = 16;
+
+    // Item i owns products i and i + PRODUCT_OFFSET, so no two items ever share a product
+    private static final long PRODUCT_OFFSET = 1_000;
+
+    private static final int INITIAL_QUANTITY = 100;
+
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = new InventoryRepository();
+    }
+
+    /**
+     * A task run by every racing thread; the argument is the thread's index.
+     */
+    @FunctionalInterface
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs writers and readers at the same time. Readers loop until every writer has finished.
+     */
+    private static void race(int writers, Worker writer, int readers, Worker reader) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        try {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            List<Future<?>> readerFutures = new ArrayList<>();
+            for (int t = 0; t < writers; t++) {
+                int thread = t;
+                writerFutures.add(executor.submit(() -> {
+                    start.await();
+                    writer.run(thread);
+                    return null;
+                }));
+            }
+            for (int t = 0; t < readers; t++) {
+                int thread = t;
+                readerFutures.add(executor.submit(() -> {
+                    start.await();
+                    do {
+                        reader.run(thread);
+                    } while (writing.get());
+                    return null;
+                }));
+            }
+            start.countDown();
+            try {
+                for (Future<?> future : writerFutures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                writing.set(false);
+            }
+            for (Future<?> future : readerFutures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Inventory newItem(Long inventoryId, long productId, int quantity) {
+        return Inventory.builder()
+                .inventoryId(inventoryId)
+                .productId(productId)
+                .quantity(quantity)
+                .reservedQuantity(0)
+                .build();
+    }
+
+    private static long otherProduct(long itemIndex, long productId) {
+        return productId == itemIndex ? itemIndex + PRODUCT_OFFSET : itemIndex;
+    }
+
+    @Test
+    void testConcurrentSaves_ShouldAssignUniqueIdsAndIndexEveryItem() throws Exception {
+        int threads = 8;
+        int savesPerThread = 1_000;
+        Map<Long, Long> productByInventoryId = new ConcurrentHashMap<>();
+
+        race(threads, thread -> {
+            for (int i = 0; i < savesPerThread; i++) {
+                long productId = (long) thread * savesPerThread + i + 1;
+                Inventory saved = inventoryRepository.save(newItem(null, productId, i));
+                assertNull(productByInventoryId.put(saved.getInventoryId(), productId),
+                        "Inventory ID " + saved.getInventoryId() + " was assigned twice");
+            }
+        }, 1, thread -> {
+            // IDs are handed out in order, so the ID index must always iterate in ascending order
+            long previous = Long.MIN_VALUE;
+            for (Inventory inventory : inventoryRepository.streamAll().collect(Collectors.toList())) {
+                assertTrue(inventory.getInventoryId() > previous);
+                previous = inventory.getInventoryId();
+            }
+        });
+
+        int total = threads * savesPerThread;
+        assertEquals(total, productByInventoryId.size());
+        for (Map.Entry<Long, Long> entry : productByInventoryId.entrySet()) {
+            assertEquals(entry.getKey(),
+                    inventoryRepository.findByProductId(entry.getValue()).orElseThrow().getInventoryId());
+        }
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void testInterleavedWriters_ShouldKeepIndexesConsistentAndLoseNoUpdate() throws Exception {
+        long[] counterIds = new long[COUNTERS];
+        for (int i = 0; i < COUNTERS; i++) {
+            counterIds[i] = inventoryRepository.save(newItem(null, i + 1, INITIAL_QUANTITY)).getInventoryId();
+        }
+        long[] churnedIds = new long[CHURNED];
+        for (int i = 0; i < CHURNED; i++) {
+            churnedIds[i] = inventoryRepository.save(newItem(null, COUNTERS + i + 1, INITIAL_QUANTITY)).getInventoryId();
+        }
+
+        int writers = 4;
+        int operationsPerWriter = 2_000;
+        AtomicLong increments = new AtomicLong();
+
+        race(writers, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int op = 0; op < operationsPerWriter; op++) {
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        // Read-modify-write increment against the version that was read
+                        long id = counterIds[random.nextInt(COUNTERS)];
+                        Inventory current = inventoryRepository.findById(id).orElseThrow();
+                        int quantity = current.getQuantity();
+                        try {
+                            inventoryRepository.compareAndUpdate(id, current.getVersion(), inventory -> {
+                                inventory.setQuantity(quantity + 1);
+                                return inventory;
+                            });
+                            increments.incrementAndGet();
+                        } catch (StaleInventoryException e) {
+                            // Lost the race; the winner's write stands
+                        }
+                    }
+                    case 1 -> {
+                        // Move a counter to its other product, keeping its quantity
+                        int index = random.nextInt(COUNTERS);
+                        long id = counterIds[index];
+                        Inventory current = inventoryRepository.findById(id).orElseThrow();
+                        Inventory moved = newItem(id, otherProduct(index + 1, current.getProductId()), current.getQuantity());
+                        try {
+                            inventoryRepository.update(id, moved, current.getVersion());
+                        } catch (StaleInventoryException e) {
+                            // Changed since it was read; skip
+                        }
+                    }
+                    default -> {
+                        // Delete a churned item and save it again under the same ID, possibly for its other product
+                        int index = random.nextInt(CHURNED);
+                        long id = churnedIds[index];
+                        long itemIndex = COUNTERS + index + 1;
+                        long productId = random.nextBoolean() ? itemIndex : itemIndex + PRODUCT_OFFSET;
+                        inventoryRepository.deleteById(id);
+                        inventoryRepository.save(newItem(id, productId, INITIAL_QUANTITY));
+                    }
+                }
+            }
+        }, 2, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long itemIndex = random.nextLong(1, COUNTERS + CHURNED + 1);
+            long productId = random.nextBoolean() ? itemIndex : itemIndex + PRODUCT_OFFSET;
+            inventoryRepository.findByProductId(productId)
+                    .ifPresent(inventory -> assertEquals(productId, inventory.getProductId()));
+
+            long id = random.nextBoolean() ? counterIds[random.nextInt(COUNTERS)] : churnedIds[random.nextInt(CHURNED)];
+            inventoryRepository.findById(id).ifPresent(inventory -> assertEquals(id, inventory.getInventoryId()));
+
+            for (Inventory inventory : inventoryRepository.findByQuantityRange(null, null, 0, 8)) {
+                assertNotNull(inventory.getInventoryId());
+            }
+        });
+
+        long total = 0;
+        for (long id : counterIds) {
+            total += inventoryRepository.findById(id).orElseThrow().getQuantity();
+        }
+        assertEquals((long) COUNTERS * INITIAL_QUANTITY + increments.get(), total);
+        for (long id : churnedIds) {
+            assertTrue(inventoryRepository.findById(id).isPresent(), "Churned item " + id + " is missing");
+        }
+        assertEquals(COUNTERS + CHURNED, inventoryRepository.findAll().size());
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void testConcurrentDeletesOfOneItem_ShouldSucceedOnce() throws Exception {
+        int rounds = 200;
+        int threads = 4;
+        for (int round = 0; round < rounds; round++) {
+            long id = inventoryRepository.save(newItem(null, round + 1, 1)).getInventoryId();
+            AtomicLong deleted = new AtomicLong();
+            race(threads, thread -> {
+                if (inventoryRepository.deleteById(id)) {
+                    deleted.incrementAndGet();
+                }
+            }, 0, thread -> {
+            });
+            assertEquals(1, deleted.get());
+        }
+        assertIndexesConsistent();
+    }
+
+    /**
+     * Checks, with no writes in progress, that every index holds exactly the stored items.
+     */
+    private void assertIndexesConsistent() {
+        List<Inventory> all = inventoryRepository.findAll();
+        Set<Long> ids = new HashSet<>();
+        for (Inventory inventory : all) {
+            assertTrue(ids.add(inventory.getInventoryId()));
+            Optional<Inventory> byProduct = inventoryRepository.findByProductId(inventory.getProductId());
+            assertTrue(byProduct.isPresent(), "Product " + inventory.getProductId() + " is not indexed");
+            assertEquals(inventory.getInventoryId(), byProduct.get().getInventoryId());
+        }
+        // No entries left behind for deleted items or products that were moved away from
+        assertEquals(all.size(), inventoryRepository.productIndexSize());
+
+        List<Long> streamed = inventoryRepository.streamAll().map(Inventory::getInventoryId).collect(Collectors.toList());
+        assertEquals(ids, new HashSet<>(streamed));
+        assertEquals(all.size(), streamed.size());
+
+        List<Integer> indexed = inventoryRepository.findByQuantityRange(null, null, 0, Integer.MAX_VALUE).stream()
+                .map(Inventory::getQuantity)
+                .collect(Collectors.toList());
+        List<Integer> stored = all.stream().map(Inventory::getQuantity).sorted().collect(Collectors.toList());
+        assertEquals(stored, indexed);
+        assertEquals(all.size(), inventoryRepository.countByQuantityRange(0, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,195 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.exception.StaleInventoryException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the quantity and ID indexes and the versioned updates of InventoryRepository.
+ */
+class InventoryRepositoryTest {
+
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = new InventoryRepository();
+        // Quantities 10, 20, ..., 100 for products 1..10
+        for (long productId = 1; productId <= 10; productId++) {
+            inventoryRepository.save(Inventory.builder()
+                    .productId(productId)
+                    .quantity((int) productId * 10)
+                    .build());
+        }
+    }
+
+    private static List<Integer> quantities(List<Inventory> inventories) {
+        return inventories.stream().map(Inventory::getQuantity).collect(Collectors.toList());
+    }
+
+    @Test
+    void testFindByQuantityRange_ShouldReturnSortedPage() {
+        assertEquals(List.of(30, 40), quantities(inventoryRepository.findByQuantityRange(25, 80, 0, 2)));
+        assertEquals(List.of(50, 60), quantities(inventoryRepository.findByQuantityRange(25, 80, 2, 2)));
+        assertEquals(List.of(70, 80), quantities(inventoryRepository.findByQuantityRange(25, 80, 4, 5)));
+        assertTrue(inventoryRepository.findByQuantityRange(25, 80, 6, 5).isEmpty());
+        assertEquals(List.of(10, 20, 30), quantities(inventoryRepository.findByQuantityRange(null, null, 0, 3)));
+    }
+
+    @Test
+    void testCountByQuantityRange_ShouldCountInclusiveBounds() {
+        assertEquals(10, inventoryRepository.countByQuantityRange(null, null));
+        assertEquals(6, inventoryRepository.countByQuantityRange(30, 80));
+        assertEquals(3, inventoryRepository.countByQuantityRange(80, null));
+        assertEquals(2, inventoryRepository.countByQuantityRange(null, 20));
+        assertEquals(0, inventoryRepository.countByQuantityRange(80, 30));
+    }
+
+    @Test
+    void testIndex_ShouldFollowSaveUpdateAndDelete() {
+        Inventory first = inventoryRepository.findByProductId(1L).orElseThrow();
+        first.setQuantity(95);
+        inventoryRepository.save(first);
+
+        Inventory replacement = Inventory.builder().productId(2L).quantity(5).build();
+        inventoryRepository.update(inventoryRepository.findByProductId(2L).orElseThrow().getInventoryId(), replacement);
+
+        inventoryRepository.deleteById(inventoryRepository.findByProductId(3L).orElseThrow().getInventoryId());
+
+        assertEquals(List.of(5, 40), quantities(inventoryRepository.findByQuantityRange(null, 40, 0, 10)));
+        assertEquals(List.of(90, 95, 100), quantities(inventoryRepository.findByQuantityRange(90, null, 0, 10)));
+        assertEquals(9, inventoryRepository.countByQuantityRange(null, null));
+        assertEquals(2, inventoryRepository.countByQuantityRange(null, 40));
+        assertEquals(0, inventoryRepository.countByQuantityRange(10, 10));
+    }
+
+    @Test
+    void testFindByQuantityRange_WithEqualQuantities_ShouldOrderByInventoryId() {
+        Inventory a = inventoryRepository.save(Inventory.builder().productId(20L).quantity(50).build());
+        Inventory b = inventoryRepository.save(Inventory.builder().productId(21L).quantity(50).build());
+
+        List<Inventory> page = inventoryRepository.findByQuantityRange(50, 50, 0, 10);
+
+        assertEquals(3, page.size());
+        assertEquals(a.getInventoryId(), page.get(1).getInventoryId());
+        assertEquals(b.getInventoryId(), page.get(2).getInventoryId());
+        assertEquals(3, inventoryRepository.countByQuantityRange(50, 50));
+    }
+
+    @Test
+    void testFindAfterId_ShouldWalkAllItemsInIdOrder() {
+        List<Long> seen = new ArrayList<>();
+        Long after = null;
+        List<Inventory> page;
+        while (!(page = inventoryRepository.findAfterId(after, null, null, 3)).isEmpty()) {
+            page.forEach(inventory -> seen.add(inventory.getInventoryId()));
+            after = page.get(page.size() - 1).getInventoryId();
+            // Deleting an item already returned must not shift later pages
+            inventoryRepository.deleteById(page.get(0).getInventoryId());
+        }
+
+        // Item 4 (quantity 40) was deleted above
+        assertEquals(List.of(50), quantities(inventoryRepository.findAfterId(3L, 35, 55, 10)));
+    }
+
+    private static List<Integer> rowQuantities(List<InventoryRepository.QuantityRow> rows) {
+        return rows.stream().map(InventoryRepository.QuantityRow::quantity).collect(Collectors.toList());
+    }
+
+    @Test
+    void testFindAfterQuantity_ShouldResumeAfterKey() {
+        assertEquals(List.of(10, 20), rowQuantities(inventoryRepository.findAfterQuantity(null, null, null, null, 2)));
+        assertEquals(List.of(30, 40), rowQuantities(inventoryRepository.findAfterQuantity(null, null, 20, 2L, 2)));
+        assertEquals(List.of(60, 70), rowQuantities(inventoryRepository.findAfterQuantity(60, 70, 20, 2L, 5)));
+        assertTrue(inventoryRepository.findAfterQuantity(null, 50, 50, 5L, 5).isEmpty());
+    }
+
+    @Test
+    void testFindAfterQuantity_ShouldReturnIndexedQuantity() {
+        // A stored item whose live quantity has moved on before it was indexed again
+        inventoryRepository.findByProductId(2L).orElseThrow().setQuantity(95);
+
+        List<InventoryRepository.QuantityRow> rows = inventoryRepository.findAfterQuantity(null, null, 10, 1L, 2);
+
+        assertEquals(List.of(20, 30), rowQuantities(rows));
+        assertEquals(95, rows.get(0).inventory().getQuantity());
+    }
+
+    @Test
+    void testUpdate_WithStaleVersion_ShouldBeRefused() {
+        Inventory stored = inventoryRepository.findByProductId(1L).orElseThrow();
+        assertEquals(1, stored.getVersion());
+        stored.setQuantity(15);
+        inventoryRepository.save(stored);
+        assertEquals(2, stored.getVersion());
+
+        Inventory replacement = Inventory.builder().productId(1L).quantity(99).build();
+        StaleInventoryException stale = assertThrows(StaleInventoryException.class,
+                () -> inventoryRepository.update(stored.getInventoryId(), replacement, 1));
+        assertEquals(2, stale.getCurrentVersion());
+        assertEquals(15, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+
+        Inventory updated = inventoryRepository.update(stored.getInventoryId(), replacement, 2).orElseThrow();
+        assertEquals(3, updated.getVersion());
+        assertEquals(List.of(99), quantities(inventoryRepository.findByQuantityRange(99, 99, 0, 10)));
+        assertTrue(inventoryRepository.update(999L, replacement, 1).isEmpty());
+    }
+
+    @Test
+    void testCompareAndUpdate_ConcurrentWriters_ShouldNeverLoseAnUpdate() throws Exception {
+        Long id = inventoryRepository.findByProductId(1L).orElseThrow().getInventoryId();
+        int threads = 8;
+        int incrementsPerThread = 500;
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int done = 0; done < incrementsPerThread; ) {
+                        // Read, then write back against the version that was read; retry on conflict
+                        Inventory current = inventoryRepository.findById(id).orElseThrow();
+                        long version = current.getVersion();
+                        int quantity = current.getQuantity();
+                        try {
+                            inventoryRepository.compareAndUpdate(id, version, inventory -> {
+                                inventory.setQuantity(quantity + 1);
+                                return inventory;
+                            });
+                            done++;
+                        } catch (StaleInventoryException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Inventory result = inventoryRepository.findById(id).orElseThrow();
+        assertEquals(10 + threads * incrementsPerThread, result.getQuantity());
+        assertEquals(1 + threads * incrementsPerThread, result.getVersion());
+    }
+}
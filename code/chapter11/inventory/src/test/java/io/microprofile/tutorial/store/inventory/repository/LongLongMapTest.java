@@ -0,0 +1,58 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LongLongMap.
+ */
+class LongLongMapTest {
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    @Test
+    void testRandomOperations_ShouldMatchHashMap() {
+        LongLongMap map = new LongLongMap(NONE);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Includes the key 0, which is stored outside the tables
+            long key = random.nextInt(5_000) - 100;
+            long value = random.nextLong() >>> 1;
+            switch (random.nextInt(4)) {
+                case 0, 1 -> assertEquals(orNone(expected.put(key, value)), map.put(key, value));
+                case 2 -> assertEquals(orNone(expected.remove(key)), map.remove(key));
+                default -> assertEquals(orNone(expected.get(key)), map.get(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void testConditionalRemove_ShouldOnlyRemoveMatchingValue() {
+        LongLongMap map = new LongLongMap(NONE);
+        map.put(0L, 5L);
+        map.put(1L, 6L);
+
+        assertFalse(map.remove(1L, 7L));
+        assertTrue(map.remove(1L, 6L));
+        assertTrue(map.remove(0L, 5L));
+        assertFalse(map.containsKey(0L));
+        assertEquals(0, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(2L, NONE));
+    }
+
+    private static long orNone(Long value) {
+        return value != null ? value : NONE;
+    }
+}
@@ -0,0 +1,98 @@
+package io.microprofile.tutorial.store.inventory.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit and concurrency tests for LongObjectMap.
+ */
+class LongObjectMapTest {
+
+    @Test
+    void testRandomOperations_ShouldMatchHashMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range forces collisions, long probe runs and backward-shift deletions
+            long key = random.nextInt(5_000) - 100;
+            switch (random.nextInt(4)) {
+                case 0, 1 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                case 2 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        assertEquals(expected.size(), map.values().size());
+    }
+
+    @Test
+    void testCompute_ShouldInsertReplaceAndRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertEquals("a", map.compute(7L, (key, current) -> current == null ? "a" : current + "b"));
+        assertEquals("ab", map.compute(7L, (key, current) -> current == null ? "a" : current + "b"));
+        assertNull(map.computeIfPresent(8L, (key, current) -> "never"));
+        assertFalse(map.containsKey(8L));
+        assertNull(map.computeIfPresent(7L, (key, current) -> null));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void testConcurrentWritersAndReaders_ShouldNotLoseUpdates() throws Exception {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        int threads = 8;
+        int keysPerThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * keysPerThread;
+                futures.add(executor.submit(() -> {
+                    for (long key = base; key < base + keysPerThread; key++) {
+                        map.put(key, key);
+                        if (key % 3 == 0) {
+                            map.remove(key);
+                        }
+                    }
+                    return null;
+                }));
+                futures.add(executor.submit(() -> {
+                    for (long key = base; key < base + keysPerThread; key++) {
+                        Long value = map.get(key);
+                        assertTrue(value == null || value == key);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long expected = (long) threads * keysPerThread - ((long) threads * keysPerThread + 2) / 3;
+        assertEquals(expected, map.size());
+        for (long key = 0; key < (long) threads * keysPerThread; key++) {
+            assertEquals(key % 3 == 0 ? null : key, map.get(key));
+        }
+    }
+}
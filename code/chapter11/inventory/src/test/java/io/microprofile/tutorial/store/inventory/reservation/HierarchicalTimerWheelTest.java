@@ -0,0 +1,104 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HierarchicalTimerWheel driven by a manual clock.
+ */
+class HierarchicalTimerWheelTest {
+
+    private AtomicLong clock;
+
+    private HierarchicalTimerWheel timerWheel;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        timerWheel = new HierarchicalTimerWheel(1, TimeUnit.MILLISECONDS, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        timerWheel.advance();
+    }
+
+    @Test
+    void testSchedule_ShouldFireOnlyWhenDue() {
+        AtomicInteger fired = new AtomicInteger();
+        timerWheel.schedule(fired::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+
+        advanceMillis(9);
+        assertEquals(0, fired.get());
+
+        advanceMillis(1);
+        assertEquals(1, fired.get());
+        assertEquals(0, timerWheel.size());
+    }
+
+    @Test
+    void testSchedule_AcrossLevels_ShouldFireInDeadlineOrder() {
+        List<Long> firedAt = new ArrayList<>();
+        long[] delays = {3, 70, 4_100, 300_000, 20_000_000};
+        for (long delay : delays) {
+            timerWheel.schedule(() -> firedAt.add(delay), delay, TimeUnit.MILLISECONDS);
+        }
+
+        for (long delay : delays) {
+            advanceMillis(delay - currentMillis() - 1);
+            assertFalse(firedAt.contains(delay), "fired early: " + delay);
+            advanceMillis(1);
+            assertTrue(firedAt.contains(delay), "not fired: " + delay);
+        }
+        assertEquals(List.of(3L, 70L, 4_100L, 300_000L, 20_000_000L), firedAt);
+    }
+
+    @Test
+    void testSchedule_WithHugeDelay_ShouldNotOverflowIntoThePast() {
+        AtomicInteger fired = new AtomicInteger();
+        advanceMillis(5);
+        timerWheel.schedule(fired::incrementAndGet, Long.MAX_VALUE, TimeUnit.SECONDS);
+
+        advanceMillis(1_000);
+        assertEquals(0, fired.get());
+        assertEquals(1, timerWheel.size());
+    }
+
+    @Test
+    void testCancel_ShouldPreventFiring() {
+        AtomicInteger fired = new AtomicInteger();
+        HierarchicalTimerWheel.Timeout timeout = timerWheel.schedule(fired::incrementAndGet, 500, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timerWheel.size());
+
+        advanceMillis(1_000);
+        assertEquals(0, fired.get());
+    }
+
+    @Test
+    void testManyTimeouts_ShouldAllFire() {
+        AtomicInteger fired = new AtomicInteger();
+        for (int i = 1; i <= 10_000; i++) {
+            timerWheel.schedule(fired::incrementAndGet, i, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(10_000, timerWheel.size());
+
+        advanceMillis(10_000);
+        assertEquals(10_000, fired.get());
+        assertEquals(0, timerWheel.size());
+    }
+
+    private long currentMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(clock.get());
+    }
+}
@@ -0,0 +1,231 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit and concurrency tests for ReservationEngine.
+ */
+class ReservationEngineTest {
+
+    private ReservationEngine reservationEngine;
+
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        reservationEngine = new ReservationEngine();
+        inventory = Inventory.builder()
+                .inventoryId(1L)
+                .productId(1L)
+                .quantity(100)
+                .reservedQuantity(10)
+                .build();
+    }
+
+    @Test
+    void testTryReserve_WithSufficientStock_ShouldReserveAndPublish() {
+        assertTrue(reservationEngine.tryReserve(inventory, 90));
+
+        assertEquals(100, inventory.getReservedQuantity());
+        assertEquals(0, reservationEngine.cellFor(inventory).getAvailableQuantity());
+    }
+
+    @Test
+    void testTryReserve_WithInsufficientStock_ShouldNotChangeCounters() {
+        assertFalse(reservationEngine.tryReserve(inventory, 91));
+
+        assertEquals(100, inventory.getQuantity());
+        assertEquals(10, inventory.getReservedQuantity());
+    }
+
+    @Test
+    void testReleaseAndCommit_ShouldAdjustCounters() {
+        reservationEngine.release(inventory, 4);
+        assertEquals(6, inventory.getReservedQuantity());
+
+        reservationEngine.commit(inventory, 6);
+        assertEquals(94, inventory.getQuantity());
+        assertEquals(0, inventory.getReservedQuantity());
+
+        assertThrows(IllegalArgumentException.class, () -> reservationEngine.release(inventory, 1));
+        assertThrows(IllegalArgumentException.class, () -> reservationEngine.commit(inventory, 1));
+    }
+
+    @Test
+    void testReplacing_WithSameRecord_ShouldCarryLiveReservations() {
+        reservationEngine.tryReserve(inventory, 5);
+
+        Inventory replacement = Inventory.builder()
+                .inventoryId(1L)
+                .productId(1L)
+                .quantity(50)
+                .reservedQuantity(0)
+                .build();
+        reservationEngine.replacing(inventory, replacement);
+
+        // The 15 reserved units stay reserved and can still be released from the replacement
+        assertEquals(15, replacement.getReservedQuantity());
+        assertEquals(50, replacement.getQuantity());
+        assertEquals(35, reservationEngine.cellFor(replacement).getAvailableQuantity());
+        // A copy read before the replacement maps to the same live cell
+        assertSame(reservationEngine.cellFor(replacement), reservationEngine.cellFor(inventory));
+        reservationEngine.release(replacement, 15);
+        assertEquals(0, replacement.getReservedQuantity());
+    }
+
+    @Test
+    void testReplacing_WithoutCell_ShouldKeepPreviousReservedQuantity() {
+        Inventory replacement = Inventory.builder()
+                .inventoryId(1L)
+                .productId(1L)
+                .quantity(50)
+                .reservedQuantity(0)
+                .build();
+        reservationEngine.replacing(inventory, replacement);
+
+        assertEquals(10, replacement.getReservedQuantity());
+    }
+
+    @Test
+    void testCellFor_WithNewRecordOfSameProduct_ShouldReseed() {
+        reservationEngine.tryReserve(inventory, 5);
+
+        Inventory recreated = Inventory.builder()
+                .inventoryId(9L)
+                .productId(1L)
+                .quantity(50)
+                .reservedQuantity(0)
+                .build();
+
+        assertEquals(50, reservationEngine.cellFor(recreated).getAvailableQuantity());
+    }
+
+    @Test
+    void testTryReserveAll_WithOneShortProduct_ShouldReserveNothing() {
+        Inventory other = Inventory.builder()
+                .inventoryId(3L)
+                .productId(3L)
+                .quantity(5)
+                .reservedQuantity(0)
+                .build();
+
+        Optional<Long> failed = reservationEngine.tryReserveAll(List.of(inventory, other), Map.of(1L, 20, 3L, 6));
+
+        assertEquals(Optional.of(3L), failed);
+        assertEquals(10, inventory.getReservedQuantity());
+        assertEquals(0, other.getReservedQuantity());
+
+        assertEquals(Optional.empty(), reservationEngine.tryReserveAll(List.of(inventory, other), Map.of(1L, 20, 3L, 5)));
+        assertEquals(30, inventory.getReservedQuantity());
+        assertEquals(5, other.getReservedQuantity());
+    }
+
+    @Test
+    void testTryReserveAll_WithOverlappingBaskets_ShouldNotDeadlockOrOversell() throws Exception {
+        int products = 16;
+        int stock = 500;
+        List<Inventory> inventories = new ArrayList<>();
+        for (long id = 100; id < 100 + products; id++) {
+            inventories.add(Inventory.builder().inventoryId(id).productId(id).quantity(stock).reservedQuantity(0).build());
+        }
+        List<Inventory> reversed = new ArrayList<>(inventories);
+        Collections.reverse(reversed);
+
+        Map<Long, Integer> oneEach = new HashMap<>();
+        inventories.forEach(inv -> oneEach.put(inv.getProductId(), 1));
+
+        AtomicInteger baskets = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                List<Inventory> order = t % 2 == 0 ? inventories : reversed;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        if (reservationEngine.tryReserveAll(order, oneEach).isEmpty()) {
+                            baskets.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(stock, baskets.get());
+        for (Inventory inv : inventories) {
+            assertEquals(stock, inv.getReservedQuantity());
+        }
+    }
+
+    @Test
+    void testConcurrentReservations_OnSingleProduct_ShouldNeverOversell() throws Exception {
+        int stock = 1_000;
+        int threads = 32;
+        int attemptsPerThread = 200;
+
+        Inventory hotItem = Inventory.builder()
+                .inventoryId(2L)
+                .productId(2L)
+                .quantity(stock)
+                .reservedQuantity(0)
+                .build();
+
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (reservationEngine.tryReserve(hotItem, 1)) {
+                            reserved.incrementAndGet();
+                        }
+                        // Interleave releases and re-reservations to stress the CAS loop
+                        if (i % 10 == 0 && reservationEngine.tryReserve(hotItem, 1)) {
+                            reservationEngine.release(hotItem, 1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        StockCell cell = reservationEngine.cellFor(hotItem);
+        assertEquals(stock, reserved.get());
+        assertEquals(stock, cell.getReservedQuantity());
+        assertEquals(0, cell.getAvailableQuantity());
+        assertEquals(stock, hotItem.getReservedQuantity());
+        assertEquals(stock, hotItem.getQuantity());
+    }
+}
@@ -0,0 +1,302 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.cache.ProductCache;
+import io.microprofile.tutorial.store.inventory.client.ProductClientRegistry;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+import io.microprofile.tutorial.store.inventory.dto.ReservationHoldInfo;
+import io.microprofile.tutorial.store.inventory.dto.ReservationRequest;
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.exception.InventoryConflictException;
+import io.microprofile.tutorial.store.inventory.exception.StaleInventoryException;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+import io.microprofile.tutorial.store.inventory.service.InventoryService;
+import io.microprofile.tutorial.store.inventory.warehouse.WarehouseStockManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Races full updates of an inventory record against reservations of the same product through
+ * InventoryService, wired by hand with a real repository, reservation engine and hold manager.
+ */
+class ReservationRaceTest {
+
+    private static final long PRODUCT_ID = 1L;
+
+    private static final int STOCK = 100_000;
+
+    private InventoryRepository inventoryRepository;
+
+    private ReservationHoldManager reservationHoldManager;
+
+    private InventoryService inventoryService;
+
+    private ProductCache productCache;
+
+    private Long inventoryId;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = new InventoryRepository();
+
+        ReservationEngine reservationEngine = new ReservationEngine();
+        inject(reservationEngine, "inventoryRepository", inventoryRepository);
+        reservationEngine.start();
+
+        reservationHoldManager = new ReservationHoldManager();
+        inject(reservationHoldManager, "inventoryRepository", inventoryRepository);
+        inject(reservationHoldManager, "reservationEngine", reservationEngine);
+        inject(reservationHoldManager, "defaultTtlSeconds", 900L);
+        inject(reservationHoldManager, "maxTtlSeconds", 86_400L);
+        inject(reservationHoldManager, "timerTickMillis", 10L);
+        reservationHoldManager.start();
+
+        // A cached product never reaches the catalog client
+        productCache = new ProductCache(10_000, 300, 240, 30, 2, 50);
+        productCache.put(new Product(PRODUCT_ID, "Hot product", 9.99, "Test", null));
+
+        inventoryService = new InventoryService();
+        inject(inventoryService, "inventoryRepository", inventoryRepository);
+        inject(inventoryService, "productCache", productCache);
+        inject(inventoryService, "productClientRegistry", mock(ProductClientRegistry.class));
+        inject(inventoryService, "reservationEngine", reservationEngine);
+        inject(inventoryService, "reservationHoldManager", reservationHoldManager);
+        inject(inventoryService, "warehouseStockManager", new WarehouseStockManager());
+
+        inventoryId = inventoryRepository.save(replacement(STOCK)).getInventoryId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationHoldManager.stop();
+    }
+
+    private static Inventory replacement(int quantity) {
+        // A request body that knows nothing about outstanding reservations
+        return Inventory.builder()
+                .productId(PRODUCT_ID)
+                .quantity(quantity)
+                .reservedQuantity(0)
+                .build();
+    }
+
+    @Test
+    void testFullUpdate_ShouldKeepOutstandingHolds() {
+        ReservationHoldInfo hold = inventoryService.reserveWithHold(PRODUCT_ID, 5, null);
+
+        Inventory updated = inventoryService.updateInventory(inventoryId, replacement(50));
+
+        assertEquals(50, updated.getQuantity());
+        assertEquals(5, updated.getReservedQuantity());
+        inventoryService.releaseReservation(hold.getHoldId());
+        Inventory stored = inventoryService.getInventoryById(inventoryId);
+        assertEquals(50, stored.getQuantity());
+        assertEquals(0, stored.getReservedQuantity());
+    }
+
+    @Test
+    void testConfirmReservation_WhenInventoryDeleted_ShouldConflictAndDropHold() {
+        ReservationHoldInfo hold = inventoryService.reserveWithHold(PRODUCT_ID, 5, null);
+        inventoryRepository.deleteById(inventoryId);
+
+        assertThrows(InventoryConflictException.class, () -> inventoryService.confirmReservation(hold.getHoldId()));
+        assertEquals(0, reservationHoldManager.activeHoldCount());
+    }
+
+    @Test
+    void testReserveWithHold_WithTtlAboveMaximum_ShouldReserveNothing() {
+        long ttlSeconds = reservationHoldManager.getMaxTtlSeconds() + 1;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.reserveWithHold(PRODUCT_ID, 5, ttlSeconds));
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.reserveWithHold(PRODUCT_ID, 5, Long.MAX_VALUE));
+
+        assertEquals(0, inventoryService.getInventoryById(inventoryId).getReservedQuantity());
+        assertEquals(0, reservationHoldManager.activeHoldCount());
+    }
+
+    @Test
+    void testProductLevelReservations_WithWarehouseStock_ShouldBeRefused() {
+        inventoryService.updateWarehouseQuantity(PRODUCT_ID, "berlin", 10);
+
+        assertThrows(InventoryConflictException.class, () -> inventoryService.reserveWithHold(PRODUCT_ID, 5, null));
+        assertThrows(InventoryConflictException.class,
+                () -> inventoryService.reserveBatch(List.of(new ReservationRequest(PRODUCT_ID, 5)), null));
+
+        assertEquals(0, inventoryService.getInventoryById(inventoryId).getReservedQuantity());
+        assertEquals(0, reservationHoldManager.activeHoldCount());
+        assertEquals("berlin", inventoryService.reserveFromWarehouse(PRODUCT_ID, 5).getWarehouseId());
+    }
+
+    @Test
+    void testWarehouseStock_WithProductLevelHolds_ShouldBeRefusedUntilSettled() {
+        ReservationHoldInfo hold = inventoryService.reserveWithHold(PRODUCT_ID, 5, null);
+
+        assertThrows(InventoryConflictException.class,
+                () -> inventoryService.updateWarehouseQuantity(PRODUCT_ID, "berlin", 10));
+        assertEquals(0, inventoryService.getWarehouseAvailability(PRODUCT_ID).getQuantity());
+
+        inventoryService.releaseReservation(hold.getHoldId());
+        assertEquals(10, inventoryService.updateWarehouseQuantity(PRODUCT_ID, "berlin", 10).getQuantity());
+    }
+
+    @Test
+    void testVersionedUpdates_RacingReservations_ShouldLoseNeitherUpdatesNorHolds() throws Exception {
+        int reservers = 4;
+        int reservationsPerThread = 2_000;
+        List<String> holdIds = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean reserving = new AtomicBoolean(true);
+        int[] lastUpdatedQuantity = {STOCK};
+        int[] updates = new int[1];
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(reservers + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < reservers; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < reservationsPerThread; i++) {
+                        holdIds.add(inventoryService.reserveWithHold(PRODUCT_ID, 1, null).getHoldId());
+                    }
+                    return null;
+                }));
+            }
+            Future<?> updater = executor.submit(() -> {
+                start.await();
+                // Read-modify-write with If-Match semantics; every successful write sets a new quantity
+                for (int quantity = STOCK + 1; reserving.get(); quantity++) {
+                    Inventory read = inventoryService.getInventoryById(inventoryId);
+                    try {
+                        inventoryService.updateInventory(inventoryId, replacement(quantity), read.getVersion());
+                        lastUpdatedQuantity[0] = quantity;
+                        updates[0]++;
+                    } catch (StaleInventoryException e) {
+                        // A reservation got in first; retry against the new version
+                    }
+                }
+                return null;
+            });
+            start.countDown();
+            try {
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                reserving.set(false);
+            }
+            updater.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int holds = reservers * reservationsPerThread;
+        assertTrue(updates[0] > 0, "No versioned update succeeded during the race");
+        assertEquals(holds, holdIds.size());
+        Inventory stored = inventoryService.getInventoryById(inventoryId);
+        // No reservation wrote back a record older than the last successful update
+        assertEquals(lastUpdatedQuantity[0], stored.getQuantity());
+        // No update dropped a reservation
+        assertEquals(holds, stored.getReservedQuantity());
+
+        // Every hold can still be settled: commit half, release the rest
+        for (int i = 0; i < holds; i++) {
+            if (i % 2 == 0) {
+                inventoryService.confirmReservation(holdIds.get(i));
+            } else {
+                inventoryService.releaseReservation(holdIds.get(i));
+            }
+        }
+        stored = inventoryService.getInventoryById(inventoryId);
+        assertEquals(lastUpdatedQuantity[0] - holds / 2, stored.getQuantity());
+        assertEquals(0, stored.getReservedQuantity());
+        assertEquals(0, reservationHoldManager.activeHoldCount());
+    }
+
+    @Test
+    void testReservationAndSettlement_ShouldPublishThroughRepository() {
+        long version = inventoryService.getInventoryById(inventoryId).getVersion();
+
+        ReservationHoldInfo hold = inventoryService.reserveWithHold(PRODUCT_ID, 5, null);
+        Inventory reserved = inventoryService.getInventoryById(inventoryId);
+        assertEquals(5, reserved.getReservedQuantity());
+        assertTrue(reserved.getVersion() > version, "A reservation must change the ETag");
+
+        inventoryService.confirmReservation(hold.getHoldId());
+        // The quantity index follows the committed quantity
+        assertEquals(1, inventoryRepository.countByQuantityRange(STOCK - 5, STOCK - 5));
+        assertEquals(0, inventoryRepository.countByQuantityRange(STOCK, STOCK));
+
+        inventoryService.updateQuantity(PRODUCT_ID, 42);
+        assertEquals(1, inventoryRepository.countByQuantityRange(42, 42));
+        assertEquals(42, inventoryService.getInventoryById(inventoryId).getQuantity());
+    }
+
+    @Test
+    void testWarehouseSwitch_RacingReservations_ShouldNeverKeepProductLevelHolds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (long productId = 1_000; productId < 1_200; productId++) {
+                long id = productId;
+                productCache.put(new Product(id, "Product " + id, 1.0, "Test", null));
+                inventoryRepository.save(Inventory.builder().productId(id).quantity(10).reservedQuantity(0).build());
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Boolean> reserved = executor.submit(() -> {
+                    start.await();
+                    try {
+                        inventoryService.reserveWithHold(id, 1, null);
+                        return true;
+                    } catch (InventoryConflictException e) {
+                        return false;
+                    }
+                });
+                Future<Boolean> switched = executor.submit(() -> {
+                    start.await();
+                    try {
+                        inventoryService.updateWarehouseQuantity(id, "berlin", 10);
+                        return true;
+                    } catch (InventoryConflictException e) {
+                        return false;
+                    }
+                });
+                start.countDown();
+
+                boolean heldAtProductLevel = reserved.get(10, TimeUnit.SECONDS);
+                boolean warehouseStocked = switched.get(10, TimeUnit.SECONDS);
+                assertFalse(heldAtProductLevel && warehouseStocked, "Product " + id + " has both kinds of stock");
+                if (warehouseStocked) {
+                    assertEquals(0, inventoryService.getInventoryByProductId(id).getReservedQuantity());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.microprofile.tutorial.store.inventory.reservation;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit and concurrency tests for SplitStockCell.
+ */
+class SplitStockCellTest {
+
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = Inventory.builder()
+                .inventoryId(1L)
+                .productId(1L)
+                .quantity(100)
+                .reservedQuantity(10)
+                .build();
+    }
+
+    @Test
+    void testTryReserve_LargerThanOneBucket_ShouldUseTheWholeStock() {
+        SplitStockCell cell = new SplitStockCell(inventory, 8);
+
+        // 90 available units are spread over 8 buckets, so 80 only fit by combining them
+        assertTrue(cell.tryReserve(80));
+        assertFalse(cell.tryReserve(11));
+        assertTrue(cell.tryReserve(10));
+
+        assertEquals(0, cell.getAvailableQuantity());
+        assertEquals(100, cell.getReservedQuantity());
+        assertEquals(100, inventory.getReservedQuantity());
+    }
+
+    @Test
+    void testReleaseAndCommit_ShouldKeepExactTotals() {
+        SplitStockCell cell = new SplitStockCell(inventory, 4);
+
+        cell.release(7);
+        cell.commit(3);
+
+        assertEquals(97, cell.getQuantity());
+        assertEquals(0, cell.getReservedQuantity());
+        assertEquals(97, inventory.getQuantity());
+        assertEquals(0, inventory.getReservedQuantity());
+        assertThrows(IllegalArgumentException.class, () -> cell.release(1));
+        assertThrows(IllegalArgumentException.class, () -> cell.commit(1));
+    }
+
+    @Test
+    void testSetQuantity_BelowReservations_ShouldBlockReservations() {
+        SplitStockCell cell = new SplitStockCell(inventory, 4);
+
+        cell.setQuantity(5);
+
+        assertEquals(-5, cell.getAvailableQuantity());
+        assertFalse(cell.tryReserve(1));
+        cell.release(10);
+        assertEquals(5, cell.getAvailableQuantity());
+        assertEquals(5, inventory.getQuantity());
+    }
+
+    @Test
+    void testConcurrentReservations_ShouldNeverOversellAndPublishExactTotals() throws Exception {
+        int stock = 10_000;
+        int threads = 16;
+        Inventory hotItem = Inventory.builder()
+                .inventoryId(2L)
+                .productId(2L)
+                .quantity(stock)
+                .reservedQuantity(0)
+                .build();
+        SplitStockCell cell = new SplitStockCell(hotItem, 8);
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger committed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int units = 1 + t % 3;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2_000; i++) {
+                        if (!cell.tryReserve(units)) {
+                            continue;
+                        }
+                        // Mix in releases and commits so buckets drift apart and get rebalanced
+                        if (i % 5 == 0) {
+                            cell.release(units);
+                        } else if (i % 7 == 0) {
+                            cell.commit(units);
+                            committed.addAndGet(units);
+                        } else {
+                            reserved.addAndGet(units);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(stock - committed.get(), cell.getQuantity());
+        assertEquals(reserved.get(), cell.getReservedQuantity());
+        assertTrue(cell.getAvailableQuantity() >= 0);
+        // The thread that performed the last publication read the final totals before returning
+        assertEquals(cell.getQuantity(), hotItem.getQuantity());
+        assertEquals(cell.getReservedQuantity(), hotItem.getReservedQuantity());
+    }
+
+    @Test
+    void testConcurrentReservations_WithRepository_ShouldPublishFinalTotalsThroughIt() throws Exception {
+        InventoryRepository repository = new InventoryRepository();
+        ReservationEngine engine = new ReservationEngine();
+        Field field = ReservationEngine.class.getDeclaredField("inventoryRepository");
+        field.setAccessible(true);
+        field.set(engine, repository);
+        engine.start();
+        engine.splitStock(5L);
+        Inventory stored = repository.save(Inventory.builder().productId(5L).quantity(10_000).reservedQuantity(0).build());
+        StockCell cell = engine.liveCell(stored).orElseThrow();
+        assertInstanceOf(SplitStockCell.class, cell);
+
+        AtomicInteger committed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        if (cell.tryReserve(1) && i % 4 == 0) {
+                            cell.commit(1);
+                            committed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            engine.stop();
+        }
+
+        Inventory published = repository.findById(stored.getInventoryId()).orElseThrow();
+        assertEquals(cell.getQuantity(), published.getQuantity());
+        assertEquals(cell.getReservedQuantity(), published.getReservedQuantity());
+        // The quantity index saw the last publication, not a value written around the repository
+        assertEquals(1, repository.countByQuantityRange(10_000 - committed.get(), 10_000 - committed.get()));
+    }
+
+    @Test
+    void testReservationEngine_ShouldSplitOnlyConfiguredProducts() {
+        ReservationEngine engine = new ReservationEngine();
+        engine.splitStock(1L);
+        Inventory other = Inventory.builder().inventoryId(2L).productId(2L).quantity(5).build();
+
+        assertInstanceOf(SplitStockCell.class, engine.cellFor(inventory));
+        assertFalse(engine.cellFor(other) instanceof SplitStockCell);
+        assertTrue(engine.tryReserve(inventory, 90));
+        assertEquals(100, inventory.getReservedQuantity());
+    }
+}
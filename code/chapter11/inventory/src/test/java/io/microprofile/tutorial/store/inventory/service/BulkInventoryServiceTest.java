@@ -0,0 +1,180 @@
+package io.microprofile.tutorial.store.inventory.service;
+
+import io.microprofile.tutorial.store.inventory.cache.ProductCache;
+import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
+import io.microprofile.tutorial.store.inventory.dto.ImportProgress;
+import io.microprofile.tutorial.store.inventory.dto.Product;
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.ws.rs.WebApplicationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkInventoryService backed by a real in-memory repository.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkInventoryServiceTest {
+
+    @Spy
+    private InventoryRepository inventoryRepository = new InventoryRepository();
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(10_000, 300, 240, 30, 2, 50);
+
+    @InjectMocks
+    private BulkInventoryService bulkInventoryService;
+
+    @Test
+    void testImport_ShouldValidateInBatchesAndReportEveryChunk() throws Exception {
+        // Products above 2400 are unknown to the catalog
+        when(productServiceClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .filter(id -> id <= 2400)
+                    .map(id -> new Product(id, "Product " + id, 1.0, "Test", null))
+                    .collect(Collectors.toList());
+        });
+        StringBuilder body = new StringBuilder();
+        for (long productId = 1; productId <= 2500; productId++) {
+            body.append("{\"productId\":").append(productId).append(",\"quantity\":").append(productId % 50).append("}\n");
+        }
+
+        List<ImportProgress> reports = new ArrayList<>();
+        ImportProgress result = bulkInventoryService.importInventories(input(body.toString()), reports::add);
+
+        assertEquals(3, reports.size());
+        assertEquals(1000, reports.get(0).getImported());
+        assertFalse(reports.get(1).isDone());
+        assertSame(result, reports.get(2));
+        assertTrue(result.isDone());
+        assertEquals(2500, result.getProcessed());
+        assertEquals(2400, result.getImported());
+        assertEquals(100, result.getRejected());
+        assertEquals("line 2401: product 2401 not found in catalog", result.getErrors().get(0));
+        assertEquals(2400, inventoryRepository.findAll().size());
+        // 1000 products per chunk in calls of at most 200 IDs
+        verify(productServiceClient, times(13)).getProductsByIds(anyList());
+        verify(productServiceClient, never()).getProductById(any());
+    }
+
+    @Test
+    void testImport_ShouldRejectBadLinesAndConflictsAndCarryOn() throws Exception {
+        when(productServiceClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new Product(id, "Product " + id, 1.0, "Test", null)).collect(Collectors.toList());
+        });
+        inventoryRepository.save(Inventory.builder().inventoryId(7L).productId(1L).quantity(5).build());
+        String body = String.join("\n",
+                "{\"productId\":1,\"quantity\":10}",
+                "not json",
+                "",
+                "{\"productId\":2,\"quantity\":-1}",
+                "{\"productId\":3,\"quantity\":10,\"reservedQuantity\":2}",
+                "{\"productId\":3,\"quantity\":20}",
+                "{\"inventoryId\":7,\"productId\":4,\"quantity\":10}",
+                "{\"quantity\":10}");
+
+        ImportProgress result = bulkInventoryService.importInventories(input(body), report -> { });
+
+        assertEquals(7, result.getProcessed());
+        assertEquals(1, result.getImported());
+        assertEquals(6, result.getRejected());
+        assertEquals(List.of(
+                "line 2: malformed inventory JSON, expected '{' at column 1",
+                "line 4: quantity must be a number greater than or equal to 0",
+                "line 8: product ID is missing",
+                "line 1: inventory for product 1 already exists",
+                "line 6: inventory for product 3 already exists",
+                "line 7: inventory ID 7 already exists"), result.getErrors());
+        assertEquals(2, inventoryRepository.findByProductId(3L).orElseThrow().getReservedQuantity());
+        assertEquals(5, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testImport_ShouldSkipUnknownFieldsAndRejectNonIntegers() throws Exception {
+        productCache.put(new Product(1L, "Cached", 1.0, "Test", null));
+        productCache.put(new Product(2L, "Cached", 1.0, "Test", null));
+        String body = " { \"location\" : \"Warehouse \\\"A\\\"\", \"productId\" : 1, \"tags\": [1, {\"x\": null}],"
+                + " \"quantity\": 50, \"active\": true }\n"
+                + "{\"productId\":2,\"quantity\":1.5}\n";
+
+        ImportProgress result = bulkInventoryService.importInventories(input(body), report -> { });
+
+        assertEquals(1, result.getImported());
+        assertEquals(50, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        assertEquals(List.of("line 2: malformed inventory JSON, quantity must be an integer at column 28"),
+                result.getErrors());
+        verifyNoInteractions(productServiceClient);
+    }
+
+    @Test
+    void testImport_ShouldUseCachedProductsAndTreatNotFoundAsUnknown() throws Exception {
+        productCache.put(new Product(1L, "Cached", 1.0, "Test", null));
+        when(productServiceClient.getProductsByIds(List.of(2L)))
+                .thenThrow(new WebApplicationException(404));
+
+        ImportProgress result = bulkInventoryService.importInventories(
+                input("{\"productId\":1,\"quantity\":1}\n{\"productId\":2,\"quantity\":1}\n"), report -> { });
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of("line 2: product 2 not found in catalog"), result.getErrors());
+        verify(productServiceClient).getProductsByIds(List.of(2L));
+    }
+
+    @Test
+    void testExport_ShouldRoundTripThroughImport() throws Exception {
+        for (long productId = 1; productId <= 5; productId++) {
+            inventoryRepository.save(Inventory.builder().productId(productId).quantity((int) productId * 10)
+                    .reservedQuantity((int) productId).build());
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(5, bulkInventoryService.exportInventories(output));
+
+        String exported = output.toString(StandardCharsets.UTF_8);
+        assertEquals(5, exported.lines().count());
+        assertTrue(exported.lines().findFirst().orElseThrow().contains("\"inventoryId\":1"));
+
+        List<Inventory> before = inventoryRepository.findAll().stream()
+                .map(inventory -> new Inventory(inventory.getInventoryId(), inventory.getProductId(),
+                        inventory.getQuantity(), inventory.getReservedQuantity(), inventory.getVersion()))
+                .collect(Collectors.toList());
+        before.forEach(inventory -> inventoryRepository.deleteById(inventory.getInventoryId()));
+        when(productServiceClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new Product(id, "Product " + id, 1.0, "Test", null)).collect(Collectors.toList());
+        });
+
+        ImportProgress result = bulkInventoryService.importInventories(input(exported), report -> { });
+
+        assertEquals(5, result.getImported());
+        for (Inventory inventory : before) {
+            assertEquals(inventory, inventoryRepository.findById(inventory.getInventoryId()).orElseThrow());
+        }
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,29 @@
+package io.microprofile.tutorial.store.inventory.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InventoryCursor.
+ */
+class InventoryCursorTest {
+
+    @Test
+    void testEncodeDecode_ShouldRoundTrip() {
+        InventoryCursor cursor = new InventoryCursor(InventoryCursor.Order.QUANTITY, -5, 42L);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, InventoryCursor.decode(token));
+    }
+
+    @Test
+    void testDecode_WithInvalidToken_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> InventoryCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryCursor.decode("SUQ6MQ"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryCursor.Order.parse("price"));
+        assertEquals(InventoryCursor.Order.QUANTITY, InventoryCursor.Order.parse("quantity"));
+    }
+}
@@ -4,8 +4,11 @@ import io.microprofile.tutorial.store.inventory.entity.Inventory;
 import io.microprofile.tutorial.store.inventory.exception.InventoryNotFoundException;
 import io.microprofile.tutorial.store.inventory.exception.InventoryConflictException;
 import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+import io.microprofile.tutorial.store.inventory.cache.CategoryCache;
+import io.microprofile.tutorial.store.inventory.cache.ProductCache;
 import io.microprofile.tutorial.store.inventory.client.ProductServiceClient;
 import io.microprofile.tutorial.store.inventory.dto.Product;
+import io.microprofile.tutorial.store.inventory.dto.InventoryPage;
 import io.microprofile.tutorial.store.inventory.dto.InventoryWithProductInfo;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import jakarta.ws.rs.WebApplicationException;
@@ -21,6 +25,8 @@ import jakarta.ws.rs.core.Response;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +43,12 @@ class InventoryServiceTest {
     @Mock
     private ProductServiceClient productServiceClient;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(10_000, 300, 240, 30, 2, 50);
+
+    @Spy
+    private CategoryCache categoryCache = new CategoryCache(256, 60, 45);
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -124,6 +136,50 @@ class InventoryServiceTest {
         verify(inventoryRepository, never()).save(any());
     }
 
+    @Test
+    void testCreateInventoryAsync_WithValidProduct_ShouldCompleteWithCreatedInventory() throws Exception {
+        // Arrange
+        Inventory newInventory = Inventory.builder()
+                .productId(1L)
+                .quantity(50)
+                .reservedQuantity(0)
+                .build();
+
+        when(productServiceClient.getProductById(1L)).thenReturn(mockProduct);
+        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.empty());
+        when(inventoryRepository.save(any(Inventory.class))).thenReturn(mockInventory);
+
+        // Act
+        Inventory result = inventoryService.createInventoryAsync(newInventory)
+                .toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1L, result.getInventoryId());
+        verify(inventoryRepository).save(newInventory);
+    }
+
+    @Test
+    void testCreateInventoryAsync_WithInvalidProduct_ShouldFailWithNotFoundException() {
+        // Arrange
+        Inventory newInventory = Inventory.builder()
+                .productId(999L)
+                .quantity(50)
+                .reservedQuantity(0)
+                .build();
+
+        when(productServiceClient.getProductById(999L)).thenThrow(new WebApplicationException(404));
+
+        // Act & Assert
+        ExecutionException exception = assertThrows(
+                ExecutionException.class,
+                () -> inventoryService.createInventoryAsync(newInventory).toCompletableFuture().get(10, TimeUnit.SECONDS)
+        );
+
+        assertInstanceOf(InventoryNotFoundException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("Product not found in catalog with ID: 999"));
+        verify(inventoryRepository, never()).save(any());
+    }
+
     @Test
     void testUpdateInventory_WithValidProduct_ShouldSucceed() {
         // Arrange
@@ -208,6 +264,23 @@ class InventoryServiceTest {
         verify(inventoryRepository, times(2)).save(any(Inventory.class));
     }
 
+    @Test
+    void testGetInventoryPage_ByQuantity_ShouldResumeFromIndexedQuantity() {
+        // Indexed under 100, but a reservation has already lowered the live quantity
+        mockInventory.setQuantity(40);
+        Inventory next = new Inventory();
+        next.setInventoryId(2L);
+        next.setQuantity(120);
+        when(inventoryRepository.findAfterQuantity(null, null, null, null, 2)).thenReturn(List.of(
+                new InventoryRepository.QuantityRow(100, mockInventory),
+                new InventoryRepository.QuantityRow(120, next)));
+
+        InventoryPage page = inventoryService.getInventoryPage(null, 1, "quantity", null, null);
+
+        assertEquals(List.of(mockInventory), page.getItems());
+        assertEquals(InventoryCursor.afterQuantity(100, 1L), InventoryCursor.decode(page.getNextCursor()));
+    }
+
     @Test
     void testGetInventoryWithProductInfo_ShouldReturnEnrichedData() {
         // Arrange
@@ -266,6 +339,23 @@ class InventoryServiceTest {
         verify(inventoryRepository).findByProductId(2L);
     }
 
+    @Test
+    void testGetInventoriesByCategory_ShouldServeRepeatedCallsFromCategoryCache() {
+        // Arrange
+        when(productServiceClient.getProductsByCategory("Electronics")).thenReturn(Arrays.asList(mockProduct));
+        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.of(mockInventory));
+
+        // Act
+        inventoryService.getInventoriesByCategory("Electronics");
+        List<InventoryWithProductInfo> result = inventoryService.getInventoriesByCategory("Electronics");
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(productServiceClient, times(1)).getProductsByCategory("Electronics");
+        // The listing also warms the product cache used for validation
+        assertEquals(1, productCache.size());
+    }
+
     @Test
     void testGetProductInfo_ShouldReturnProductDetails() {
         // Arrange
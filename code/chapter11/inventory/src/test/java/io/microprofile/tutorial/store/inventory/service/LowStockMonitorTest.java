@@ -0,0 +1,83 @@
+package io.microprofile.tutorial.store.inventory.service;
+
+import io.microprofile.tutorial.store.inventory.entity.Inventory;
+import io.microprofile.tutorial.store.inventory.repository.InventoryRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LowStockMonitor backed by a real in-memory repository.
+ */
+@ExtendWith(MockitoExtension.class)
+class LowStockMonitorTest {
+
+    @Spy
+    private InventoryRepository inventoryRepository = new InventoryRepository();
+
+    @InjectMocks
+    private LowStockMonitor lowStockMonitor;
+
+    @Test
+    void testStart_ShouldSeedFromExistingInventory() {
+        inventoryRepository.save(inventory(1L, 5, 0));
+        inventoryRepository.save(inventory(2L, 50, 0));
+        inventoryRepository.save(inventory(3L, 30, 25));
+
+        lowStockMonitor.start();
+
+        assertEquals(2, lowStockMonitor.count());
+        // Both have 5 units available; ties are ordered by inventory ID
+        assertEquals(List.of(1L, 3L), lowStockMonitor.find(0, 10));
+    }
+
+    @Test
+    void testWrites_ShouldMoveItemsInAndOutIncrementally() {
+        lowStockMonitor.start();
+        Inventory inventory = inventoryRepository.save(inventory(1L, 100, 0));
+        Inventory other = inventoryRepository.save(inventory(2L, 8, 0));
+        assertEquals(List.of(other.getInventoryId()), lowStockMonitor.find(0, 10));
+
+        // Reservations reduce the available quantity
+        inventory.setReservedQuantity(95);
+        inventoryRepository.save(inventory);
+        assertEquals(List.of(inventory.getInventoryId(), other.getInventoryId()), lowStockMonitor.find(0, 10));
+
+        // Restocking moves it back out
+        inventory.setQuantity(200);
+        inventoryRepository.save(inventory);
+        assertEquals(List.of(other.getInventoryId()), lowStockMonitor.find(0, 10));
+
+        inventoryRepository.deleteById(other.getInventoryId());
+        assertEquals(0, lowStockMonitor.count());
+        assertTrue(lowStockMonitor.find(0, 10).isEmpty());
+    }
+
+    @Test
+    void testFind_ShouldPageInAvailableQuantityOrder() {
+        lowStockMonitor.start();
+        for (long productId = 1; productId <= 10; productId++) {
+            inventoryRepository.save(inventory(productId, (int) (11 - productId), 0));
+        }
+
+        assertEquals(10, lowStockMonitor.count());
+        assertEquals(List.of(10L, 9L, 8L), lowStockMonitor.find(0, 3));
+        assertEquals(List.of(7L, 6L, 5L), lowStockMonitor.find(3, 3));
+    }
+
+    private static Inventory inventory(Long id, int quantity, int reserved) {
+        return Inventory.builder()
+                .inventoryId(id)
+                .productId(id)
+                .quantity(quantity)
+                .reservedQuantity(reserved)
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package io.microprofile.tutorial.store.inventory.warehouse;
+
+import io.microprofile.tutorial.store.inventory.dto.ProductAvailability;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseAllocation;
+import io.microprofile.tutorial.store.inventory.dto.WarehouseStockInfo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WarehouseStockManager.
+ */
+class WarehouseStockManagerTest {
+
+    private WarehouseStockManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new WarehouseStockManager();
+    }
+
+    @Test
+    void testAvailability_ShouldFollowEveryWarehouseChange() {
+        manager.setQuantity(1L, "berlin", 30);
+        manager.setQuantity(1L, "hamburg", 20);
+        manager.reserve(1L, 5);
+        manager.setQuantity(1L, "berlin", 40);
+        manager.commit(1L, "berlin", 5);
+
+        ProductAvailability availability = manager.getAvailability(1L).orElseThrow();
+        assertEquals(55, availability.getQuantity());
+        assertEquals(0, availability.getReservedQuantity());
+        assertEquals(55, availability.getAvailableQuantity());
+        assertEquals(2, availability.getWarehouseCount());
+        assertEquals(List.of("berlin", "hamburg"),
+                manager.getWarehouseStocks(1L).stream().map(WarehouseStockInfo::getWarehouseId).toList());
+        assertEquals(Optional.empty(), manager.getAvailability(2L));
+    }
+
+    @Test
+    void testReserve_WithDefaultStrategy_ShouldPickWarehouseWithMostAvailable() {
+        manager.setQuantity(1L, "berlin", 10);
+        manager.setQuantity(1L, "hamburg", 25);
+
+        WarehouseAllocation allocation = manager.reserve(1L, 8).orElseThrow();
+
+        assertEquals("hamburg", allocation.getWarehouseId());
+        assertEquals(8, allocation.getQuantity());
+        assertEquals(27, manager.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void testReserve_WithPriorityStrategy_ShouldFillPreferredWarehouseFirst() {
+        manager.setSelectionStrategy(new PriorityWarehouseStrategy(List.of("munich", "berlin")));
+        manager.setQuantity(1L, "berlin", 10);
+        manager.setQuantity(1L, "hamburg", 50);
+        manager.setQuantity(1L, "munich", 4);
+
+        assertEquals("munich", manager.reserve(1L, 4).orElseThrow().getWarehouseId());
+        assertEquals("berlin", manager.reserve(1L, 4).orElseThrow().getWarehouseId());
+        assertEquals("hamburg", manager.reserve(1L, 7).orElseThrow().getWarehouseId());
+    }
+
+    @Test
+    void testReserve_WhenProductIsShort_ShouldRefuseWithoutAskingTheStrategy() {
+        manager.setSelectionStrategy((units, candidates) -> fail("Strategy must not be consulted"));
+        manager.setQuantity(1L, "berlin", 3);
+        manager.setQuantity(1L, "hamburg", 3);
+
+        assertEquals(Optional.empty(), manager.reserve(1L, 7));
+        assertEquals(Optional.empty(), manager.reserve(2L, 1));
+    }
+
+    @Test
+    void testReserve_WhenNoSingleWarehouseHasEnough_ShouldNotSplitTheReservation() {
+        manager.setQuantity(1L, "berlin", 3);
+        manager.setQuantity(1L, "hamburg", 3);
+
+        assertEquals(Optional.empty(), manager.reserve(1L, 5));
+        assertEquals(6, manager.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void testReleaseAndCommit_ShouldValidateWarehouseAndUnits() {
+        manager.setQuantity(1L, "berlin", 10);
+        manager.reserve(1L, 4);
+
+        assertEquals(Optional.empty(), manager.release(1L, "paris", 1));
+        assertThrows(IllegalArgumentException.class, () -> manager.commit(1L, "berlin", 5));
+        assertThrows(IllegalArgumentException.class, () -> manager.release(1L, "berlin", 0));
+        assertEquals(2, manager.release(1L, "berlin", 2).orElseThrow().getReservedQuantity());
+        assertEquals(8, manager.commit(1L, "berlin", 2).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testReserve_WithConcurrentReservations_ShouldNeverOversellAndKeepTotalsExact() throws Exception {
+        String[] warehouses = {"berlin", "hamburg", "munich", "cologne"};
+        for (String warehouse : warehouses) {
+            manager.setQuantity(1L, warehouse, 250);
+        }
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int reserved = 0;
+                    // Each thread asks for more than its share, so the stock runs out
+                    for (int i = 0; i < 100; i++) {
+                        if (manager.reserve(1L, 3).isPresent()) {
+                            reserved += 3;
+                        }
+                    }
+                    return reserved;
+                }));
+            }
+            start.countDown();
+            int reserved = 0;
+            for (Future<Integer> result : results) {
+                reserved += result.get(30, TimeUnit.SECONDS);
+            }
+
+            int perWarehouse = 0;
+            for (WarehouseStockInfo stock : manager.getWarehouseStocks(1L)) {
+                assertTrue(stock.getReservedQuantity() <= stock.getQuantity());
+                perWarehouse += stock.getReservedQuantity();
+            }
+            ProductAvailability availability = manager.getAvailability(1L).orElseThrow();
+            assertEquals(reserved, perWarehouse);
+            assertEquals(reserved, availability.getReservedQuantity());
+            assertEquals(1000 - reserved, availability.getAvailableQuantity());
+            // Every warehouse ends with fewer than 3 units left, 250 being 1 more than a multiple of 3
+            assertEquals(996, reserved);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
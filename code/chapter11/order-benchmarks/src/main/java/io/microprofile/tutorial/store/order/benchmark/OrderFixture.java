@@ -0,0 +1,111 @@
+package io.microprofile.tutorial.store.order.benchmark;
+
+import io.microprofile.tutorial.store.order.entity.Order;
+import io.microprofile.tutorial.store.order.entity.OrderItem;
+import io.microprofile.tutorial.store.order.entity.OrderStatus;
+import io.microprofile.tutorial.store.order.repository.OrderItemRepository;
+import io.microprofile.tutorial.store.order.repository.OrderRepository;
+import io.microprofile.tutorial.store.order.service.OrderService;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The order service wired by hand the way CDI wires it in the server. Injection points are
+ * private fields, so they are set reflectively.
+ */
+public final class OrderFixture {
+
+    private final OrderRepository orderRepository = new OrderRepository();
+    private final OrderItemRepository orderItemRepository = new OrderItemRepository();
+    private final OrderService service = new OrderService();
+
+    private final Long orderId;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    /**
+     * Creates the service with one order of the given number of lines.
+     *
+     * @param lines The number of items in the order
+     */
+    public OrderFixture(int lines) {
+        inject(service, "orderRepository", orderRepository);
+        inject(service, "orderItemRepository", orderItemRepository);
+
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int line = 0; line < lines; line++) {
+            items.add(item(line + 1L, 1));
+        }
+        Order order = service.createOrder(Order.builder()
+                .userId(1L)
+                .status(OrderStatus.CREATED)
+                .orderItems(items)
+                .build());
+        orderId = order.getOrderId();
+        for (OrderItem item : order.getOrderItems()) {
+            itemIds.add(item.getOrderItemId());
+        }
+    }
+
+    /**
+     * A line of the benchmark order; prices are whole cents, as they are for real catalog prices.
+     *
+     * @param productId The product ID
+     * @param quantity The quantity
+     * @return A new, unsaved order item
+     */
+    public static OrderItem item(long productId, int quantity) {
+        return OrderItem.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .priceAtOrder(BigDecimal.valueOf(1999 + productId % 100, 2))
+                .build();
+    }
+
+    /**
+     * @return The wired order service
+     */
+    public OrderService service() {
+        return service;
+    }
+
+    /**
+     * @return The order repository behind the service
+     */
+    public OrderRepository orderRepository() {
+        return orderRepository;
+    }
+
+    /**
+     * @return The order item repository behind the service
+     */
+    public OrderItemRepository orderItemRepository() {
+        return orderItemRepository;
+    }
+
+    /**
+     * @return The ID of the benchmark order
+     */
+    public Long orderId() {
+        return orderId;
+    }
+
+    /**
+     * @return The IDs of the items of the benchmark order
+     */
+    public List<Long> itemIds() {
+        return itemIds;
+    }
+
+    private static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getName(), e);
+        }
+    }
+}
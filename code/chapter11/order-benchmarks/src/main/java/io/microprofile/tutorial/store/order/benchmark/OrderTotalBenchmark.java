@@ -0,0 +1,120 @@
+package io.microprofile.tutorial.store.order.benchmark;
+
+import io.microprofile.tutorial.store.order.entity.Order;
+import io.microprofile.tutorial.store.order.entity.OrderItem;
+import io.microprofile.tutorial.store.order.repository.OrderItemRepository;
+import io.microprofile.tutorial.store.order.repository.OrderRepository;
+import io.microprofile.tutorial.store.order.service.OrderService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Editing one line of an order, with the order total maintained incrementally in cents by
+ * {@link OrderService} versus recalculated from all lines with {@code BigDecimal} after every
+ * edit, as the service did before. The incremental cost should not depend on the number of lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lines;
+
+    private OrderFixture fixture;
+
+    private OrderService service;
+
+    private OrderRepository orderRepository;
+
+    private OrderItemRepository orderItemRepository;
+
+    private Long orderId;
+
+    private List<Long> itemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new OrderFixture(lines);
+        service = fixture.service();
+        orderRepository = fixture.orderRepository();
+        orderItemRepository = fixture.orderItemRepository();
+        orderId = fixture.orderId();
+        itemIds = fixture.itemIds();
+    }
+
+    @Benchmark
+    public OrderItem updateItemIncremental() {
+        return service.updateOrderItem(randomItem(), OrderFixture.item(1, randomQuantity()));
+    }
+
+    @Benchmark
+    public Order updateItemRecalculated() {
+        Long itemId = randomItem();
+        OrderItem item = OrderFixture.item(1, randomQuantity());
+        item.setOrderId(orderId);
+        orderItemRepository.update(itemId, item);
+        return recalculateTotal();
+    }
+
+    /**
+     * A line added and removed again, so the order keeps its size.
+     */
+    @Benchmark
+    public OrderItem addAndDeleteItemIncremental() {
+        OrderItem item = service.addOrderItem(orderId, OrderFixture.item(1, randomQuantity()));
+        service.deleteOrderItem(item.getOrderItemId());
+        return item;
+    }
+
+    @Benchmark
+    public Order addAndDeleteItemRecalculated() {
+        OrderItem item = OrderFixture.item(1, randomQuantity());
+        item.setOrderId(orderId);
+        orderItemRepository.save(item);
+        recalculateTotal();
+        orderItemRepository.deleteById(item.getOrderItemId());
+        return recalculateTotal();
+    }
+
+    /**
+     * The total as the service used to maintain it: every line reloaded and multiplied out.
+     */
+    private Order recalculateTotal() {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        BigDecimal total = orderItemRepository.findByOrderId(orderId).stream()
+                .map(line -> line.getPriceAtOrder().multiply(new BigDecimal(line.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        order.setTotalPrice(total);
+        order.setUpdatedAt(LocalDateTime.now());
+        return orderRepository.update(orderId, order).orElseThrow();
+    }
+
+    private Long randomItem() {
+        return itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+    }
+
+    private static int randomQuantity() {
+        return ThreadLocalRandom.current().nextInt(1, 10);
+    }
+}
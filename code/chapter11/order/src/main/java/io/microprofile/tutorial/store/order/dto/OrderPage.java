@@ -0,0 +1,28 @@
+package io.microprofile.tutorial.store.order.dto;
+
+import io.microprofile.tutorial.store.order.entity.Order;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a keyset-paginated order listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+
+    /**
+     * Orders on this page.
+     */
+    private List<Order> items;
+
+    /**
+     * Cursor for the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+}
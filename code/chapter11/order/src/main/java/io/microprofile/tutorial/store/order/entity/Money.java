@@ -0,0 +1,74 @@
+package io.microprofile.tutorial.store.order.entity;
+
+import java.math.BigDecimal;
+import java.util.OptionalLong;
+
+/**
+ * Conversions between the {@link BigDecimal} amounts of the API and whole cents held in a
+ * {@code long}, which order totals use internally so that adding or removing a line costs a
+ * few arithmetic instructions instead of a chain of {@code BigDecimal} allocations. Amounts
+ * with fractions of a cent, and amounts too large for a {@code long} of cents, have no cents
+ * form; callers fall back to exact {@code BigDecimal} arithmetic for them.
+ */
+public final class Money {
+
+    private static final int CENTS_SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * @param amount The amount, e.g. {@code 12.50}
+     * @return The amount in cents, or empty if it is null, has a fraction of a cent or overflows
+     */
+    public static OptionalLong toCents(BigDecimal amount) {
+        if (amount == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            // Exact: fails instead of rounding when the amount has a fraction of a cent
+            return OptionalLong.of(amount.setScale(CENTS_SCALE).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * @param cents An amount in cents
+     * @return The amount with two decimal places
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+
+    /**
+     * The price of a line, {@code priceAtOrder * quantity}, in cents.
+     *
+     * @param item The order item
+     * @return The line total in cents, or empty if it has no cents form
+     */
+    public static OptionalLong lineCents(OrderItem item) {
+        if (item.getQuantity() == null) {
+            return OptionalLong.empty();
+        }
+        OptionalLong price = toCents(item.getPriceAtOrder());
+        if (price.isEmpty()) {
+            return price;
+        }
+        try {
+            return OptionalLong.of(Math.multiplyExact(price.getAsLong(), item.getQuantity().longValue()));
+        } catch (ArithmeticException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * The price of a line, {@code priceAtOrder * quantity}, computed exactly.
+     *
+     * @param item The order item
+     * @return The line total
+     */
+    public static BigDecimal lineTotal(OrderItem item) {
+        return item.getPriceAtOrder().multiply(BigDecimal.valueOf(item.getQuantity()));
+    }
+}
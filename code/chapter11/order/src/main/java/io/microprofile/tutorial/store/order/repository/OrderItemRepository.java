@@ -3,23 +3,38 @@ package io.microprofile.tutorial.store.order.repository;
 import io.microprofile.tutorial.store.order.entity.OrderItem;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import jakarta.enterprise.context.ApplicationScoped;
 
 /**
- * Simple in-memory repository for OrderItem objects.
+ * Thread-safe in-memory repository for OrderItem objects, indexed by order and by product.
  * This class provides CRUD operations for OrderItem entities to demonstrate MicroProfile concepts.
  */
 @ApplicationScoped
 public class OrderItemRepository {
 
-    private final Map<Long, OrderItem> orderItems = new HashMap<>();
-    private long nextId = 1;
+    // A stored item with the order and product it is indexed under
+    private record Entry(OrderItem item, Long orderId, Long productId) {
+
+        static Entry of(OrderItem item) {
+            return new Entry(item, item.getOrderId(), item.getProductId());
+        }
+    }
+
+    private final ConcurrentMap<Long, Entry> orderItems = new ConcurrentHashMap<>();
+
+    // Thread-safe ID generator
+    private final AtomicLong idGenerator = new AtomicLong(1);
+
+    // Secondary indexes, maintained inside the per-key compute of orderItems; IDs kept in ascending order
+    private final SecondaryIndex<Long> itemsByOrder = new SecondaryIndex<>();
+    private final SecondaryIndex<Long> itemsByProduct = new SecondaryIndex<>();
 
     /**
      * Saves an order item to the repository.
@@ -30,9 +45,12 @@ public class OrderItemRepository {
      */
     public OrderItem save(OrderItem orderItem) {
         if (orderItem.getOrderItemId() == null) {
-            orderItem.setOrderItemId(nextId++);
+            orderItem.setOrderItemId(idGenerator.getAndIncrement());
+        } else {
+            // Never hand out an ID that was provided by a caller
+            idGenerator.accumulateAndGet(orderItem.getOrderItemId() + 1, Math::max);
         }
-        orderItems.put(orderItem.getOrderItemId(), orderItem);
+        orderItems.compute(orderItem.getOrderItemId(), (id, previous) -> reindex(id, previous, Entry.of(orderItem)));
         return orderItem;
     }
 
@@ -43,31 +61,54 @@ public class OrderItemRepository {
      * @return An Optional containing the order item if found, or empty if not found
      */
     public Optional<OrderItem> findById(Long id) {
-        return Optional.ofNullable(orderItems.get(id));
+        if (id == null) {
+            return Optional.empty();
+        }
+        Entry entry = orderItems.get(id);
+        return entry != null ? Optional.of(entry.item()) : Optional.empty();
     }
 
     /**
      * Finds order items by order ID.
      *
      * @param orderId The order ID
-     * @return A list of order items for the specified order
+     * @return A list of order items for the specified order, in ID order
      */
     public List<OrderItem> findByOrderId(Long orderId) {
-        return orderItems.values().stream()
-                .filter(item -> item.getOrderId().equals(orderId))
-                .collect(Collectors.toList());
+        if (orderId == null) {
+            return new ArrayList<>();
+        }
+        NavigableSet<Long> ids = itemsByOrder.get(orderId);
+        List<OrderItem> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = orderItems.get(id);
+            // Skip items that were deleted or moved after the index was read
+            if (entry != null && orderId.equals(entry.orderId())) {
+                result.add(entry.item());
+            }
+        }
+        return result;
     }
 
     /**
      * Finds order items by product ID.
      *
      * @param productId The product ID
-     * @return A list of order items for the specified product
+     * @return A list of order items for the specified product, in ID order
      */
     public List<OrderItem> findByProductId(Long productId) {
-        return orderItems.values().stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .collect(Collectors.toList());
+        if (productId == null) {
+            return new ArrayList<>();
+        }
+        NavigableSet<Long> ids = itemsByProduct.get(productId);
+        List<OrderItem> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = orderItems.get(id);
+            if (entry != null && productId.equals(entry.productId())) {
+                result.add(entry.item());
+            }
+        }
+        return result;
     }
 
     /**
@@ -76,7 +117,11 @@ public class OrderItemRepository {
      * @return A list of all order items
      */
     public List<OrderItem> findAll() {
-        return new ArrayList<>(orderItems.values());
+        List<OrderItem> result = new ArrayList<>(orderItems.size());
+        for (Entry entry : orderItems.values()) {
+            result.add(entry.item());
+        }
+        return result;
     }
 
     /**
@@ -86,7 +131,18 @@ public class OrderItemRepository {
      * @return true if the order item was deleted, false if not found
      */
     public boolean deleteById(Long id) {
-        return orderItems.remove(id) != null;
+        return unstore(id, null) != null;
+    }
+
+    /**
+     * Deletes an order item by ID and returns it.
+     *
+     * @param id The ID of the order item to delete
+     * @return An Optional containing the deleted order item, or empty if not found
+     */
+    public Optional<OrderItem> remove(Long id) {
+        Entry removed = unstore(id, null);
+        return removed != null ? Optional.of(removed.item()) : Optional.empty();
     }
 
     /**
@@ -96,13 +152,18 @@ public class OrderItemRepository {
      * @return The number of order items deleted
      */
     public int deleteByOrderId(Long orderId) {
-        List<Long> itemsToDelete = orderItems.values().stream()
-                .filter(item -> item.getOrderId().equals(orderId))
-                .map(OrderItem::getOrderItemId)
-                .collect(Collectors.toList());
-        
-        itemsToDelete.forEach(orderItems::remove);
-        return itemsToDelete.size();
+        if (orderId == null) {
+            return 0;
+        }
+        // Copied first, since every deletion changes the index
+        List<Long> ids = new ArrayList<>(itemsByOrder.get(orderId));
+        int deleted = 0;
+        for (Long id : ids) {
+            if (unstore(id, orderId) != null) {
+                deleted++;
+            }
+        }
+        return deleted;
     }
 
     /**
@@ -113,12 +174,57 @@ public class OrderItemRepository {
      * @return An Optional containing the updated order item, or empty if not found
      */
     public Optional<OrderItem> update(Long id, OrderItem orderItem) {
-        if (!orderItems.containsKey(id)) {
+        return replace(id, orderItem).map(previous -> orderItem);
+    }
+
+    /**
+     * Replaces an existing order item and returns the item it replaced.
+     *
+     * @param id The ID of the order item to replace
+     * @param orderItem The new order item information
+     * @return An Optional containing the replaced order item, or empty if not found
+     */
+    public Optional<OrderItem> replace(Long id, OrderItem orderItem) {
+        if (id == null || orderItem == null) {
             return Optional.empty();
         }
-        
-        orderItem.setOrderItemId(id);
-        orderItems.put(id, orderItem);
-        return Optional.of(orderItem);
+        OrderItem[] replaced = new OrderItem[1];
+        orderItems.computeIfPresent(id, (key, existing) -> {
+            orderItem.setOrderItemId(key);
+            replaced[0] = existing.item();
+            return reindex(key, existing, Entry.of(orderItem));
+        });
+        return Optional.ofNullable(replaced[0]);
+    }
+
+    /**
+     * Removes an item and its index entries.
+     *
+     * @param id The order item ID
+     * @param orderId The order the item must still belong to, or null for any
+     * @return The removed entry, or null if there was none
+     */
+    private Entry unstore(Long id, Long orderId) {
+        if (id == null) {
+            return null;
+        }
+        Entry[] removed = new Entry[1];
+        orderItems.computeIfPresent(id, (key, existing) -> {
+            if (orderId != null && !orderId.equals(existing.orderId())) {
+                return existing;
+            }
+            itemsByOrder.remove(existing.orderId(), key);
+            itemsByProduct.remove(existing.productId(), key);
+            removed[0] = existing;
+            return null;
+        });
+        return removed[0];
+    }
+
+    // Moves an item between index keys; called inside the per-key compute of orderItems
+    private Entry reindex(Long id, Entry previous, Entry current) {
+        itemsByOrder.move(previous != null ? previous.orderId() : null, current.orderId(), id);
+        itemsByProduct.move(previous != null ? previous.productId() : null, current.productId(), id);
+        return current;
     }
 }
@@ -1,26 +1,69 @@
 package io.microprofile.tutorial.store.order.repository;
 
+import io.microprofile.tutorial.store.order.entity.Money;
 import io.microprofile.tutorial.store.order.entity.Order;
 import io.microprofile.tutorial.store.order.entity.OrderStatus;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import jakarta.enterprise.context.ApplicationScoped;
 
 /**
- * Simple in-memory repository for Order objects.
+ * Thread-safe in-memory repository for Order objects, indexed by user, status and creation time.
  * This class provides CRUD operations for Order entities to demonstrate MicroProfile concepts.
  */
 @ApplicationScoped
 public class OrderRepository {
 
-    private final Map<Long, Order> orders = new HashMap<>();
-    private long nextId = 1;
+    // Total of an entry whose total price has no exact cents form
+    private static final long NO_CENTS = Long.MIN_VALUE;
+
+    // A stored order with the values it is indexed under and its total in cents
+    private record Entry(Order order, Long userId, OrderStatus status, LocalDateTime createdAt, long totalCents) {
+
+        static Entry of(Order order) {
+            return new Entry(order, order.getUserId(), order.getStatus(), order.getCreatedAt(),
+                    Money.toCents(order.getTotalPrice()).orElse(NO_CENTS));
+        }
+    }
+
+    // Key of the creation time index; ties are ordered by ID
+    private record CreatedAtKey(LocalDateTime createdAt, long orderId) implements Comparable<CreatedAtKey> {
+
+        @Override
+        public int compareTo(CreatedAtKey other) {
+            int byTime = createdAt.compareTo(other.createdAt);
+            return byTime != 0 ? byTime : Long.compare(orderId, other.orderId);
+        }
+    }
+
+    private final ConcurrentMap<Long, Entry> orders = new ConcurrentHashMap<>();
+
+    // Thread-safe ID generator
+    private final AtomicLong idGenerator = new AtomicLong(1);
+
+    // Secondary indexes, maintained inside the per-key compute of orders; IDs kept in ascending order
+    private final SecondaryIndex<Long> ordersByUser = new SecondaryIndex<>();
+    private final SecondaryIndex<OrderStatus> ordersByStatus = new SecondaryIndex<>();
+
+    // Order IDs in ascending order, so all orders can be walked lazily; maintained together with the indexes
+    private final NavigableSet<Long> orderIds = new ConcurrentSkipListSet<>();
+
+    // Orders by creation time for range queries in O(log n + k); orders without a creation time are not indexed
+    private final NavigableSet<CreatedAtKey> ordersByCreatedAt = new ConcurrentSkipListSet<>();
 
     /**
      * Saves an order to the repository.
@@ -31,9 +74,12 @@ public class OrderRepository {
      */
     public Order save(Order order) {
         if (order.getOrderId() == null) {
-            order.setOrderId(nextId++);
+            order.setOrderId(idGenerator.getAndIncrement());
+        } else {
+            // Never hand out an ID that was provided by a caller
+            idGenerator.accumulateAndGet(order.getOrderId() + 1, Math::max);
         }
-        orders.put(order.getOrderId(), order);
+        orders.compute(order.getOrderId(), (id, previous) -> reindex(id, previous, Entry.of(order)));
         return order;
     }
 
@@ -44,31 +90,54 @@ public class OrderRepository {
      * @return An Optional containing the order if found, or empty if not found
      */
     public Optional<Order> findById(Long id) {
-        return Optional.ofNullable(orders.get(id));
+        if (id == null) {
+            return Optional.empty();
+        }
+        Entry entry = orders.get(id);
+        return entry != null ? Optional.of(entry.order()) : Optional.empty();
     }
 
     /**
      * Finds orders by user ID.
      *
      * @param userId The user ID
-     * @return A list of orders for the specified user
+     * @return A list of orders for the specified user, in ID order
      */
     public List<Order> findByUserId(Long userId) {
-        return orders.values().stream()
-                .filter(order -> order.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        if (userId == null) {
+            return new ArrayList<>();
+        }
+        NavigableSet<Long> ids = ordersByUser.get(userId);
+        List<Order> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = orders.get(id);
+            // Skip orders that were deleted or moved after the index was read
+            if (entry != null && userId.equals(entry.userId())) {
+                result.add(entry.order());
+            }
+        }
+        return result;
     }
 
     /**
      * Finds orders by status.
      *
      * @param status The order status
-     * @return A list of orders with the specified status
+     * @return A list of orders with the specified status, in ID order
      */
     public List<Order> findByStatus(OrderStatus status) {
-        return orders.values().stream()
-                .filter(order -> order.getStatus().equals(status))
-                .collect(Collectors.toList());
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        NavigableSet<Long> ids = ordersByStatus.get(status);
+        List<Order> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = orders.get(id);
+            if (entry != null && entry.status() == status) {
+                result.add(entry.order());
+            }
+        }
+        return result;
     }
 
     /**
@@ -77,7 +146,79 @@ public class OrderRepository {
      * @return A list of all orders
      */
     public List<Order> findAll() {
-        return new ArrayList<>(orders.values());
+        List<Order> result = new ArrayList<>(orders.size());
+        for (Entry entry : orders.values()) {
+            result.add(entry.order());
+        }
+        return result;
+    }
+
+    /**
+     * Streams orders in ID order, optionally only those of one user or with one status.
+     *
+     * @param userId The user ID (optional)
+     * @param status The order status (optional)
+     * @return A lazy stream of the matching orders
+     */
+    public Stream<Order> stream(Long userId, OrderStatus status) {
+        NavigableSet<Long> ids = userId != null ? ordersByUser.get(userId)
+                : status != null ? ordersByStatus.get(status)
+                : orderIds;
+        return ids.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .filter(entry -> userId == null || userId.equals(entry.userId()))
+                .filter(entry -> status == null || entry.status() == status)
+                .map(Entry::order);
+    }
+
+    /**
+     * Finds orders created in a time range, ordered by creation time and then ID, starting after
+     * the given creation time and order ID.
+     *
+     * @param createdFrom Creation time from, inclusive (optional)
+     * @param createdTo Creation time to, exclusive (optional)
+     * @param afterCreatedAt The creation time of the last order already returned, or null to start at the beginning
+     * @param afterId The ID of the last order already returned
+     * @param limit The maximum number of orders to return
+     * @return The matching orders
+     */
+    public List<Order> findByCreatedAt(LocalDateTime createdFrom, LocalDateTime createdTo,
+                                       LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        // The later of the range start and the cursor is where the page begins
+        CreatedAtKey lower = createdFrom != null ? new CreatedAtKey(createdFrom, Long.MIN_VALUE) : null;
+        boolean lowerInclusive = true;
+        if (afterCreatedAt != null) {
+            CreatedAtKey after = new CreatedAtKey(afterCreatedAt, afterId != null ? afterId : Long.MAX_VALUE);
+            if (lower == null || after.compareTo(lower) >= 0) {
+                lower = after;
+                lowerInclusive = false;
+            }
+        }
+        CreatedAtKey upper = createdTo != null ? new CreatedAtKey(createdTo, Long.MIN_VALUE) : null;
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            return new ArrayList<>();
+        }
+
+        NavigableSet<CreatedAtKey> range = ordersByCreatedAt;
+        if (lower != null) {
+            range = range.tailSet(lower, lowerInclusive);
+        }
+        if (upper != null) {
+            range = range.headSet(upper, false);
+        }
+        List<Order> page = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        for (CreatedAtKey key : range) {
+            if (page.size() >= limit) {
+                break;
+            }
+            Entry entry = orders.get(key.orderId());
+            // Skip orders deleted or re-dated after the index was read
+            if (entry != null && key.createdAt().equals(entry.createdAt())) {
+                page.add(entry.order());
+            }
+        }
+        return page;
     }
 
     /**
@@ -87,23 +228,123 @@ public class OrderRepository {
      * @return true if the order was deleted, false if not found
      */
     public boolean deleteById(Long id) {
-        return orders.remove(id) != null;
+        if (id == null) {
+            return false;
+        }
+        boolean[] deleted = new boolean[1];
+        orders.computeIfPresent(id, (key, existing) -> {
+            unindex(key, existing);
+            deleted[0] = true;
+            return null;
+        });
+        return deleted[0];
     }
 
     /**
-     * Updates an existing order.
+     * Updates an existing order, keeping its total price; totals change only through {@link #updateItems}.
      *
      * @param id The ID of the order to update
      * @param order The updated order information
      * @return An Optional containing the updated order, or empty if not found
      */
     public Optional<Order> update(Long id, Order order) {
-        if (!orders.containsKey(id)) {
+        if (id == null || order == null) {
+            return Optional.empty();
+        }
+        Entry updated = orders.computeIfPresent(id, (key, existing) -> {
+            order.setOrderId(key);
+            order.setTotalPrice(existing.totalCents() != NO_CENTS
+                    ? Money.fromCents(existing.totalCents()) : existing.order().getTotalPrice());
+            return reindex(key, existing, new Entry(order, order.getUserId(), order.getStatus(),
+                    order.getCreatedAt(), existing.totalCents()));
+        });
+        return updated != null ? Optional.of(updated.order()) : Optional.empty();
+    }
+
+    /**
+     * Changes the status of an existing order and re-indexes it in one atomic step.
+     *
+     * @param id The order ID
+     * @param status The new status
+     * @return An Optional containing the updated order, or empty if not found
+     */
+    public Optional<Order> updateStatus(Long id, OrderStatus status) {
+        if (id == null || status == null) {
             return Optional.empty();
         }
-        
-        order.setOrderId(id);
-        orders.put(id, order);
-        return Optional.of(order);
+        Entry updated = orders.computeIfPresent(id, (key, existing) -> {
+            Order order = existing.order();
+            order.setStatus(status);
+            order.setUpdatedAt(LocalDateTime.now());
+            return reindex(key, existing, Entry.of(order));
+        });
+        return updated != null ? Optional.of(updated.order()) : Optional.empty();
+    }
+
+    /**
+     * Changes the items of an order and its total price in one atomic step.
+     *
+     * @param id The order ID
+     * @param change Changes the items and returns the difference of the total in cents, or
+     *               empty if it has no exact cents form; not called if the order is not found
+     * @param recalculate Sums all items of the order
+     * @return true if the items were changed; false if the order was not found
+     */
+    public boolean updateItems(Long id, Supplier<OptionalLong> change, Supplier<BigDecimal> recalculate) {
+        if (id == null) {
+            return false;
+        }
+        boolean[] changed = new boolean[1];
+        orders.computeIfPresent(id, (key, existing) -> {
+            OptionalLong deltaCents = change.get();
+            long total = NO_CENTS;
+            if (deltaCents.isPresent() && existing.totalCents() != NO_CENTS) {
+                try {
+                    total = Math.addExact(existing.totalCents(), deltaCents.getAsLong());
+                } catch (ArithmeticException e) {
+                    total = NO_CENTS;
+                }
+            }
+            Order order = existing.order();
+            if (total != NO_CENTS) {
+                order.setTotalPrice(Money.fromCents(total));
+            } else {
+                order.setTotalPrice(recalculate.get());
+                total = Money.toCents(order.getTotalPrice()).orElse(NO_CENTS);
+            }
+            order.setUpdatedAt(LocalDateTime.now());
+            changed[0] = true;
+            return new Entry(order, existing.userId(), existing.status(), existing.createdAt(), total);
+        });
+        return changed[0];
+    }
+
+    // Moves an order between index keys; called inside the per-key compute of orders
+    private Entry reindex(Long id, Entry previous, Entry current) {
+        if (previous == null) {
+            orderIds.add(id);
+        }
+        ordersByUser.move(previous != null ? previous.userId() : null, current.userId(), id);
+        ordersByStatus.move(previous != null ? previous.status() : null, current.status(), id);
+        LocalDateTime previousCreatedAt = previous != null ? previous.createdAt() : null;
+        if (!Objects.equals(previousCreatedAt, current.createdAt())) {
+            if (previousCreatedAt != null) {
+                ordersByCreatedAt.remove(new CreatedAtKey(previousCreatedAt, id));
+            }
+            if (current.createdAt() != null) {
+                ordersByCreatedAt.add(new CreatedAtKey(current.createdAt(), id));
+            }
+        }
+        return current;
+    }
+
+    // Removes an order from the indexes; called inside the per-key compute of orders
+    private void unindex(Long id, Entry entry) {
+        orderIds.remove(id);
+        ordersByUser.remove(entry.userId(), id);
+        ordersByStatus.remove(entry.status(), id);
+        if (entry.createdAt() != null) {
+            ordersByCreatedAt.remove(new CreatedAtKey(entry.createdAt(), id));
+        }
     }
 }
@@ -0,0 +1,71 @@
+package io.microprofile.tutorial.store.order.repository;
+
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Thread-safe index from a key to the IDs of the entities that have it, in ascending ID order.
+ *
+ * @param <K> The indexed key type
+ */
+final class SecondaryIndex<K> {
+
+    private final ConcurrentMap<K, NavigableSet<Long>> ids = new ConcurrentHashMap<>();
+
+    /**
+     * @param key The key, ignored if null
+     * @param id The entity ID
+     */
+    void add(K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        // Added inside the compute so a concurrent removal cannot drop the set this ID goes into
+        ids.compute(key, (k, set) -> {
+            NavigableSet<Long> target = set != null ? set : new ConcurrentSkipListSet<>();
+            target.add(id);
+            return target;
+        });
+    }
+
+    /**
+     * @param key The key, ignored if null
+     * @param id The entity ID
+     */
+    void remove(K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        ids.computeIfPresent(key, (k, set) -> {
+            set.remove(id);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Moves an ID from one key to another; does nothing if the keys are equal.
+     *
+     * @param previous The key the entity was indexed under, or null if it was not
+     * @param current The key it is indexed under now, or null
+     * @param id The entity ID
+     */
+    void move(K previous, K current, Long id) {
+        if (!Objects.equals(previous, current)) {
+            remove(previous, id);
+            add(current, id);
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return The IDs for the key in ascending order; empty if there are none
+     */
+    NavigableSet<Long> get(K key) {
+        NavigableSet<Long> set = key != null ? ids.get(key) : null;
+        return set != null ? Collections.unmodifiableNavigableSet(set) : Collections.emptyNavigableSet();
+    }
+}
@@ -1,11 +1,15 @@
 package io.microprofile.tutorial.store.order.resource;
 
+import io.microprofile.tutorial.store.order.dto.OrderPage;
 import io.microprofile.tutorial.store.order.entity.Order;
 import io.microprofile.tutorial.store.order.entity.OrderStatus;
 import io.microprofile.tutorial.store.order.service.OrderService;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
@@ -13,8 +17,10 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -35,6 +41,9 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 @Tag(name = "Order", description = "Operations related to order management")
 public class OrderResource {
 
+    // Newline-delimited JSON: one order per line, used for exports
+    private static final String NDJSON = "application/x-ndjson";
+
     @Inject
     private OrderService orderService;
 
@@ -107,12 +116,102 @@ public class OrderResource {
     public List<Order> getOrdersByStatus(
         @Parameter(description = "Order status", required = true)
         @PathParam("status") String status) {
+        return orderService.getOrdersByStatus(parseStatus(status));
+    }
+
+    @GET
+    @Path("/created")
+    @Operation(summary = "Get orders by creation time",
+               description = "Returns orders created in a time range, oldest first, one page at a time. The next page "
+                       + "is requested with the cursor from the X-Next-Cursor header, which is absent on the last page")
+    @APIResponse(
+        responseCode = "200",
+        description = "List of orders",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(type = SchemaType.ARRAY, implementation = Order.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "400",
+        description = "Invalid timestamp or cursor"
+    )
+    public Response getOrdersByCreatedAt(
+        @Parameter(description = "Only orders created at or after this time, e.g. 2025-01-31T00:00:00")
+        @QueryParam("from") String from,
+        @Parameter(description = "Only orders created before this time, e.g. 2025-02-01T00:00:00")
+        @QueryParam("to") String to,
+        @Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+        @QueryParam("after") String after,
+        @Parameter(description = "Page size (at most " + OrderService.MAX_PAGE_LIMIT + ")", schema = @Schema(defaultValue = "100"))
+        @QueryParam("limit") @DefaultValue("100") int limit) {
+        
+        LocalDateTime createdFrom = parseTimestamp("from", from);
+        LocalDateTime createdTo = parseTimestamp("to", to);
+        OrderPage orderPage;
         try {
-            OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            return orderService.getOrdersByStatus(orderStatus);
+            orderPage = orderService.getOrdersByCreatedAt(createdFrom, createdTo, after, limit);
         } catch (IllegalArgumentException e) {
-            throw new WebApplicationException("Invalid order status: " + status, Response.Status.BAD_REQUEST);
+            throw new WebApplicationException(e.getMessage(), Response.Status.BAD_REQUEST);
         }
+        Response.ResponseBuilder response = Response.ok(orderPage.getItems())
+                .header("X-Page-Size", orderPage.getItems().size());
+        if (orderPage.getNextCursor() != null) {
+            response.header("X-Next-Cursor", orderPage.getNextCursor());
+        }
+        return response.build();
+    }
+
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    @Operation(summary = "Export orders",
+               description = "Streams orders with their items as newline-delimited JSON in order ID order, without "
+                       + "building the whole result in memory. Optionally filtered by status, user and creation time; "
+                       + "compressed with gzip when the client sends Accept-Encoding: gzip")
+    @APIResponse(
+        responseCode = "200",
+        description = "Orders, one per line",
+        content = @Content(
+            mediaType = NDJSON,
+            schema = @Schema(implementation = Order.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "400",
+        description = "Invalid order status or timestamp"
+    )
+    public Response exportOrders(
+        @Parameter(description = "Only orders with this status")
+        @QueryParam("status") String status,
+        @Parameter(description = "Only orders of this user")
+        @QueryParam("userId") Long userId,
+        @Parameter(description = "Only orders created at or after this time, e.g. 2025-01-31T00:00:00")
+        @QueryParam("createdFrom") String createdFrom,
+        @Parameter(description = "Only orders created before this time, e.g. 2025-02-01T00:00:00")
+        @QueryParam("createdTo") String createdTo,
+        @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        
+        // Parsed before streaming so bad parameters still map to an error status
+        OrderStatus orderStatus = status != null ? parseStatus(status) : null;
+        LocalDateTime from = parseTimestamp("createdFrom", createdFrom);
+        LocalDateTime to = parseTimestamp("createdTo", createdTo);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        
+        StreamingOutput body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 8192);
+                orderService.exportOrders(compressed, orderStatus, userId, from, to);
+                compressed.finish();
+            } else {
+                orderService.exportOrders(output, orderStatus, userId, from, to);
+            }
+        };
+        Response.ResponseBuilder response = Response.ok(body, NDJSON).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
     }
 
     @POST
@@ -180,12 +279,7 @@ public class OrderResource {
         @PathParam("id") Long id,
         @Parameter(description = "New order status", required = true)
         @PathParam("status") String status) {
-        try {
-            OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            return orderService.updateOrderStatus(id, orderStatus);
-        } catch (IllegalArgumentException e) {
-            throw new WebApplicationException("Invalid order status: " + status, Response.Status.BAD_REQUEST);
-        }
+        return orderService.updateOrderStatus(id, parseStatus(status));
     }
 
     @DELETE
@@ -205,4 +299,51 @@ public class OrderResource {
         orderService.deleteOrder(id);
         return Response.noContent().build();
     }
+
+    private static OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new WebApplicationException("Invalid order status: " + status, Response.Status.BAD_REQUEST);
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new WebApplicationException("Invalid " + name + ": " + value, Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * @param acceptEncoding The Accept-Encoding header, or null
+     * @return true if the client accepts gzip and has not given it a quality of zero
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
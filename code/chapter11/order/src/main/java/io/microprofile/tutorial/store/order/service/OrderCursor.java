@@ -0,0 +1,59 @@
+package io.microprofile.tutorial.store.order.service;
+
+import io.microprofile.tutorial.store.order.entity.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque position in an order listing sorted by creation time.
+ * A cursor records the creation time and ID of the last order on a page, so the next page
+ * starts right after it no matter how many orders were created or deleted before it.
+ * It is sent to clients as URL-safe Base64 text.
+ *
+ * @param createdAt The creation time of the last order
+ * @param orderId The ID of the last order
+ */
+public record OrderCursor(LocalDateTime createdAt, long orderId) {
+
+    /**
+     * Creates the cursor pointing just past an order.
+     *
+     * @param order The last order of the page
+     * @return The cursor
+     */
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getOrderId());
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @param token The encoded cursor
+     * @return The cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            // The timestamp contains colons, so the ID follows the last separator
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('/');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * @return The cursor as URL-safe text
+     */
+    public String encode() {
+        String raw = createdAt + "/" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
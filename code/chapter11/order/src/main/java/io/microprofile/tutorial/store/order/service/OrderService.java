@@ -1,15 +1,27 @@
 package io.microprofile.tutorial.store.order.service;
 
+import io.microprofile.tutorial.store.order.dto.OrderPage;
+import io.microprofile.tutorial.store.order.entity.Money;
 import io.microprofile.tutorial.store.order.entity.Order;
 import io.microprofile.tutorial.store.order.entity.OrderItem;
 import io.microprofile.tutorial.store.order.entity.OrderStatus;
 import io.microprofile.tutorial.store.order.repository.OrderItemRepository;
 import io.microprofile.tutorial.store.order.repository.OrderRepository;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -23,6 +35,11 @@ import jakarta.ws.rs.core.Response;
 @ApplicationScoped
 public class OrderService {
 
+    /**
+     * Largest page served by keyset pagination.
+     */
+    public static final int MAX_PAGE_LIMIT = 1000;
+
     @Inject
     private OrderRepository orderRepository;
     
@@ -45,13 +62,8 @@ public class OrderService {
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
         
-        // Calculate total price from order items if not specified
-        if (order.getTotalPrice() == null || order.getTotalPrice().compareTo(BigDecimal.ZERO) == 0) {
-            BigDecimal total = order.getOrderItems().stream()
-                .map(item -> item.getPriceAtOrder().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            order.setTotalPrice(total);
-        }
+        // The total always follows the items; later item changes adjust it by their difference
+        order.setTotalPrice(totalOf(order.getOrderItems() != null ? order.getOrderItems() : List.of()));
         
         // Save the order first
         Order savedOrder = orderRepository.save(order);
@@ -139,6 +151,80 @@ public class OrderService {
         return orders;
     }
 
+    /**
+     * Gets one page of the orders created in a time range, ordered by creation time, using
+     * keyset (cursor) pagination. Each page starts right after the order the cursor points at,
+     * so the cost per page is O(log n + limit) however deep the listing is, and pages stay
+     * stable while orders are created.
+     *
+     * @param createdFrom Only orders created at or after this time (optional)
+     * @param createdTo Only orders created before this time (optional)
+     * @param after Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of orders on the page (capped at {@value #MAX_PAGE_LIMIT})
+     * @return The page with the cursor for the next one
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public OrderPage getOrdersByCreatedAt(LocalDateTime createdFrom, LocalDateTime createdTo, String after, int limit) {
+        OrderCursor cursor = after != null ? OrderCursor.decode(after) : null;
+        int pageLimit = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        
+        // Read one extra order to know whether there is a next page
+        List<Order> orders = orderRepository.findByCreatedAt(createdFrom, createdTo,
+                cursor != null ? cursor.createdAt() : null, cursor != null ? cursor.orderId() : null, pageLimit + 1);
+        
+        String nextCursor = null;
+        if (orders.size() > pageLimit) {
+            orders = orders.subList(0, pageLimit);
+            nextCursor = OrderCursor.after(orders.get(pageLimit - 1)).encode();
+        }
+        
+        // Load items for each order
+        for (Order order : orders) {
+            List<OrderItem> items = orderItemRepository.findByOrderId(order.getOrderId());
+            order.setOrderItems(items);
+        }
+        
+        return new OrderPage(new ArrayList<>(orders), nextCursor);
+    }
+
+    /**
+     * Writes orders with their items as newline-delimited JSON, one order per line, in order ID
+     * order. Orders are read from the repository one at a time while they are written, so memory
+     * use does not grow with the number of orders exported.
+     *
+     * @param output The stream to write to; it is flushed but not closed
+     * @param status Only orders with this status (optional)
+     * @param userId Only orders of this user (optional)
+     * @param createdFrom Only orders created at or after this time (optional)
+     * @param createdTo Only orders created before this time (optional)
+     * @return The number of orders written
+     * @throws IOException if writing fails
+     */
+    public long exportOrders(OutputStream output, OrderStatus status, Long userId,
+                             LocalDateTime createdFrom, LocalDateTime createdTo) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long[] written = {0};
+        try (Stream<Order> orders = orderRepository.stream(userId, status)) {
+            orders.filter(order -> createdFrom == null
+                            || order.getCreatedAt() != null && !order.getCreatedAt().isBefore(createdFrom))
+                    .filter(order -> createdTo == null
+                            || order.getCreatedAt() != null && order.getCreatedAt().isBefore(createdTo))
+                    .forEachOrdered(order -> {
+                        try {
+                            OrderLineWriter.write(order, orderItemRepository.findByOrderId(order.getOrderId()), writer);
+                            writer.write('\n');
+                            written[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return written[0];
+    }
+
     /**
      * Updates an order.
      *
@@ -150,35 +236,36 @@ public class OrderService {
     @Transactional
     public Order updateOrder(Long id, Order order) {
         // Check if order exists
-        if (!orderRepository.findById(id).isPresent()) {
-            throw new WebApplicationException("Order not found", Response.Status.NOT_FOUND);
-        }
+        Order existingOrder = orderRepository.findById(id)
+                .orElseThrow(() -> new WebApplicationException("Order not found", Response.Status.NOT_FOUND));
         
         order.setOrderId(id);
+        // The creation time is assigned by the service and keeps the order in place in the creation time index
+        order.setCreatedAt(existingOrder.getCreatedAt());
         order.setUpdatedAt(LocalDateTime.now());
         
-        // Handle order items if provided
-        if (order.getOrderItems() != null && !order.getOrderItems().isEmpty()) {
-            // Delete existing items for this order
-            orderItemRepository.deleteByOrderId(id);
-            
-            // Save new items
-            for (OrderItem item : order.getOrderItems()) {
-                item.setOrderId(id);
-                orderItemRepository.save(item);
-            }
-            
-            // Recalculate total price from order items
-            BigDecimal total = order.getOrderItems().stream()
-                .map(item -> item.getPriceAtOrder().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            order.setTotalPrice(total);
-        }
-        
-        // Update the order
+        // Update the order; its total price is kept, since it follows the items
         Order updatedOrder = orderRepository.update(id, order)
                 .orElseThrow(() -> new WebApplicationException("Failed to update order", Response.Status.INTERNAL_SERVER_ERROR));
         
+        // Replace the items if provided, in the same step as the total is recalculated from them
+        List<OrderItem> newItems = order.getOrderItems();
+        if (newItems != null && !newItems.isEmpty()) {
+            boolean replaced = orderRepository.updateItems(id,
+                    () -> {
+                        orderItemRepository.deleteByOrderId(id);
+                        for (OrderItem item : newItems) {
+                            item.setOrderId(id);
+                            orderItemRepository.save(item);
+                        }
+                        return OptionalLong.empty();
+                    },
+                    () -> sumLines(orderItemRepository.findByOrderId(id)));
+            if (!replaced) {
+                throw new WebApplicationException("Order not found", Response.Status.NOT_FOUND);
+            }
+        }
+        
         // Reload items
         List<OrderItem> items = orderItemRepository.findByOrderId(id);
         updatedOrder.setOrderItems(items);
@@ -195,15 +282,10 @@ public class OrderService {
      * @throws WebApplicationException if the order is not found
      */
     public Order updateOrderStatus(Long id, OrderStatus status) {
-        Order order = orderRepository.findById(id)
+        // Changed and re-indexed in one step, so concurrent status changes cannot interleave
+        Order updatedOrder = orderRepository.updateStatus(id, status)
                 .orElseThrow(() -> new WebApplicationException("Order not found", Response.Status.NOT_FOUND));
         
-        order.setStatus(status);
-        order.setUpdatedAt(LocalDateTime.now());
-        
-        Order updatedOrder = orderRepository.update(id, order)
-                .orElseThrow(() -> new WebApplicationException("Failed to update order status", Response.Status.INTERNAL_SERVER_ERROR));
-        
         // Reload items
         List<OrderItem> items = orderItemRepository.findByOrderId(id);
         updatedOrder.setOrderItems(items);
@@ -266,24 +348,17 @@ public class OrderService {
      */
     @Transactional
     public OrderItem addOrderItem(Long orderId, OrderItem orderItem) {
-        // Check if order exists
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new WebApplicationException("Order not found", Response.Status.NOT_FOUND));
-        
         orderItem.setOrderId(orderId);
-        OrderItem savedItem = orderItemRepository.save(orderItem);
-        
-        // Update order total price
-        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
-        BigDecimal total = items.stream()
-            .map(item -> item.getPriceAtOrder().multiply(new BigDecimal(item.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
         
-        order.setTotalPrice(total);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.update(orderId, order);
+        // Save the item and add the new line to the order total in one step
+        boolean added = orderRepository.updateItems(orderId,
+                () -> Money.lineCents(orderItemRepository.save(orderItem)),
+                () -> sumLines(orderItemRepository.findByOrderId(orderId)));
+        if (!added) {
+            throw new WebApplicationException("Order not found", Response.Status.NOT_FOUND);
+        }
         
-        return savedItem;
+        return orderItem;
     }
 
     /**
@@ -304,24 +379,22 @@ public class OrderService {
         orderItem.setOrderItemId(itemId);
         orderItem.setOrderId(existingItem.getOrderId());
         
-        OrderItem updatedItem = orderItemRepository.update(itemId, orderItem)
-                .orElseThrow(() -> new WebApplicationException("Failed to update order item", Response.Status.INTERNAL_SERVER_ERROR));
-        
-        // Update order total price
-        Long orderId = updatedItem.getOrderId();
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new WebApplicationException("Order not found", Response.Status.INTERNAL_SERVER_ERROR));
-        
-        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
-        BigDecimal total = items.stream()
-            .map(item -> item.getPriceAtOrder().multiply(new BigDecimal(item.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        order.setTotalPrice(total);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.update(orderId, order);
+        Long orderId = existingItem.getOrderId();
+        
+        // Replace the item and apply the difference between the new and the replaced line to the
+        // order total in one step
+        boolean updated = orderRepository.updateItems(orderId,
+                () -> {
+                    OrderItem previousItem = orderItemRepository.replace(itemId, orderItem)
+                            .orElseThrow(() -> new WebApplicationException("Order item not found", Response.Status.NOT_FOUND));
+                    return difference(Money.lineCents(orderItem), Money.lineCents(previousItem));
+                },
+                () -> sumLines(orderItemRepository.findByOrderId(orderId)));
+        if (!updated) {
+            throw new WebApplicationException("Failed to update order item", Response.Status.INTERNAL_SERVER_ERROR);
+        }
         
-        return updatedItem;
+        return orderItem;
     }
 
     /**
@@ -332,29 +405,55 @@ public class OrderService {
      */
     @Transactional
     public void deleteOrderItem(Long itemId) {
-        // Check if item exists and get its orderId before deletion
         OrderItem item = orderItemRepository.findById(itemId)
                 .orElseThrow(() -> new WebApplicationException("Order item not found", Response.Status.NOT_FOUND));
-        
         Long orderId = item.getOrderId();
         
-        // Delete the item
-        boolean deleted = orderItemRepository.deleteById(itemId);
+        // Delete the item and subtract its line from the order total in one step; the removed
+        // item is returned so exactly the line that was removed is subtracted
+        boolean deleted = orderRepository.updateItems(orderId,
+                () -> {
+                    OrderItem removed = orderItemRepository.remove(itemId)
+                            .orElseThrow(() -> new WebApplicationException("Order item not found", Response.Status.NOT_FOUND));
+                    return difference(OptionalLong.of(0), Money.lineCents(removed));
+                },
+                () -> sumLines(orderItemRepository.findByOrderId(orderId)));
         if (!deleted) {
-            throw new WebApplicationException("Failed to delete order item", Response.Status.INTERNAL_SERVER_ERROR);
+            // The order is gone; drop the item anyway
+            orderItemRepository.remove(itemId);
         }
-        
-        // Update order total price
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new WebApplicationException("Order not found", Response.Status.INTERNAL_SERVER_ERROR));
-        
-        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
-        BigDecimal total = items.stream()
-            .map(i -> i.getPriceAtOrder().multiply(new BigDecimal(i.getQuantity())))
+    }
+
+    private static BigDecimal totalOf(List<OrderItem> items) {
+        long cents = 0;
+        for (OrderItem item : items) {
+            OptionalLong line = Money.lineCents(item);
+            if (line.isEmpty()) {
+                return sumLines(items);
+            }
+            try {
+                cents = Math.addExact(cents, line.getAsLong());
+            } catch (ArithmeticException e) {
+                return sumLines(items);
+            }
+        }
+        return Money.fromCents(cents);
+    }
+
+    private static BigDecimal sumLines(List<OrderItem> items) {
+        return items.stream()
+            .map(Money::lineTotal)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        order.setTotalPrice(total);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.update(orderId, order);
+    }
+
+    private static OptionalLong difference(OptionalLong after, OptionalLong before) {
+        if (after.isEmpty() || before.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Math.subtractExact(after.getAsLong(), before.getAsLong()));
+        } catch (ArithmeticException e) {
+            return OptionalLong.empty();
+        }
     }
 }
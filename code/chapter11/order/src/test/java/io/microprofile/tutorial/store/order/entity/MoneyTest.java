@@ -0,0 +1,61 @@
+package io.microprofile.tutorial.store.order.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the cents conversions of Money.
+ */
+class MoneyTest {
+
+    private static OrderItem line(String price, Integer quantity) {
+        return OrderItem.builder()
+                .productId(1L)
+                .quantity(quantity)
+                .priceAtOrder(price != null ? new BigDecimal(price) : null)
+                .build();
+    }
+
+    @Test
+    void testToCents_WithWholeCents_ShouldConvertExactly() {
+        assertEquals(OptionalLong.of(1250), Money.toCents(new BigDecimal("12.5")));
+        assertEquals(OptionalLong.of(1250), Money.toCents(new BigDecimal("12.500")));
+        assertEquals(OptionalLong.of(-1), Money.toCents(new BigDecimal("-0.01")));
+        assertEquals(OptionalLong.of(300), Money.toCents(new BigDecimal("3")));
+    }
+
+    @Test
+    void testToCents_WithoutCentsForm_ShouldBeEmpty() {
+        assertEquals(OptionalLong.empty(), Money.toCents(null));
+        assertEquals(OptionalLong.empty(), Money.toCents(new BigDecimal("0.001")));
+        assertEquals(OptionalLong.empty(), Money.toCents(new BigDecimal(Long.MAX_VALUE).add(BigDecimal.ONE)));
+    }
+
+    @Test
+    void testFromCents_ShouldKeepTwoDecimalPlaces() {
+        assertEquals(new BigDecimal("12.50"), Money.fromCents(1250));
+        assertEquals(new BigDecimal("0.00"), Money.fromCents(0));
+        assertEquals(OptionalLong.of(Long.MIN_VALUE + 1), Money.toCents(Money.fromCents(Long.MIN_VALUE + 1)));
+    }
+
+    @Test
+    void testLineCents_ShouldMultiplyPriceByQuantity() {
+        assertEquals(OptionalLong.of(3747), Money.lineCents(line("12.49", 3)));
+        assertEquals(OptionalLong.empty(), Money.lineCents(line("12.49", null)));
+        assertEquals(OptionalLong.empty(), Money.lineCents(line(null, 3)));
+        assertEquals(OptionalLong.empty(), Money.lineCents(line("0.005", 2)));
+        // Overflows a long of cents
+        assertEquals(OptionalLong.empty(), Money.lineCents(line("92233720368547758.07", 2)));
+    }
+
+    @Test
+    void testLineTotal_ShouldBeExact() {
+        assertEquals(new BigDecimal("37.47"), Money.lineTotal(line("12.49", 3)));
+        assertEquals(new BigDecimal("0.010"), Money.lineTotal(line("0.005", 2)));
+        assertEquals(new BigDecimal("184467440737095516.14"), Money.lineTotal(line("92233720368547758.07", 2)));
+    }
+}
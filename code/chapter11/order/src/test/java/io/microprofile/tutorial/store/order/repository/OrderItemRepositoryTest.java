@@ -0,0 +1,104 @@
+package io.microprofile.tutorial.store.order.repository;
+
+import io.microprofile.tutorial.store.order.entity.OrderItem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrderItemRepository.
+ */
+class OrderItemRepositoryTest {
+
+    private OrderItemRepository orderItemRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderItemRepository = new OrderItemRepository();
+    }
+
+    private OrderItem save(long orderId, long productId) {
+        return orderItemRepository.save(OrderItem.builder()
+                .orderId(orderId)
+                .productId(productId)
+                .quantity(1)
+                .priceAtOrder(BigDecimal.TEN)
+                .build());
+    }
+
+    private static List<Long> itemIds(List<OrderItem> items) {
+        return items.stream().map(OrderItem::getOrderItemId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testDeleteByOrderId_ShouldDeleteOnlyThatOrdersItems() {
+        OrderItem first = save(1L, 100L);
+        OrderItem other = save(2L, 100L);
+        OrderItem second = save(1L, 101L);
+
+        assertEquals(2, orderItemRepository.deleteByOrderId(1L));
+
+        assertTrue(orderItemRepository.findByOrderId(1L).isEmpty());
+        assertTrue(orderItemRepository.findById(first.getOrderItemId()).isEmpty());
+        assertTrue(orderItemRepository.findById(second.getOrderItemId()).isEmpty());
+        assertEquals(List.of(other.getOrderItemId()), itemIds(orderItemRepository.findByOrderId(2L)));
+        // The product index no longer lists the deleted items
+        assertEquals(List.of(other.getOrderItemId()), itemIds(orderItemRepository.findByProductId(100L)));
+        assertTrue(orderItemRepository.findByProductId(101L).isEmpty());
+        assertEquals(1, orderItemRepository.findAll().size());
+    }
+
+    @Test
+    void testDeleteByOrderId_WithNoItems_ShouldDeleteNothing() {
+        save(1L, 100L);
+
+        assertEquals(0, orderItemRepository.deleteByOrderId(2L));
+        assertEquals(0, orderItemRepository.deleteByOrderId(null));
+        assertEquals(1, orderItemRepository.findAll().size());
+    }
+
+    @Test
+    void testDeleteByOrderId_ShouldNotDeleteItemMovedToAnotherOrder() {
+        OrderItem moved = save(1L, 100L);
+        OrderItem kept = save(1L, 101L);
+
+        OrderItem replacement = OrderItem.builder()
+                .orderId(2L)
+                .productId(100L)
+                .quantity(3)
+                .priceAtOrder(BigDecimal.ONE)
+                .build();
+        orderItemRepository.update(moved.getOrderItemId(), replacement);
+
+        assertEquals(1, orderItemRepository.deleteByOrderId(1L));
+        assertTrue(orderItemRepository.findById(kept.getOrderItemId()).isEmpty());
+        assertEquals(List.of(moved.getOrderItemId()), itemIds(orderItemRepository.findByOrderId(2L)));
+    }
+
+    @Test
+    void testSave_ThenChangedInPlace_ShouldStayIndexedUnderSavedOrder() {
+        OrderItem item = save(1L, 100L);
+
+        // Changing a stored item without saving it must not strand its index entries
+        item.setOrderId(2L);
+
+        assertEquals(List.of(item.getOrderItemId()), itemIds(orderItemRepository.findByOrderId(1L)));
+        assertEquals(1, orderItemRepository.deleteByOrderId(1L));
+        assertTrue(orderItemRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void testRemove_ShouldReturnRemovedItem() {
+        OrderItem item = save(1L, 100L);
+
+        assertEquals(item, orderItemRepository.remove(item.getOrderItemId()).orElseThrow());
+        assertTrue(orderItemRepository.remove(item.getOrderItemId()).isEmpty());
+        assertTrue(orderItemRepository.findByOrderId(1L).isEmpty());
+    }
+}
@@ -0,0 +1,330 @@
+package io.microprofile.tutorial.store.order.repository;
+
+import io.microprofile.tutorial.store.order.entity.Money;
+import io.microprofile.tutorial.store.order.entity.Order;
+import io.microprofile.tutorial.store.order.entity.OrderStatus;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests that interleave writers and readers on one OrderRepository and then check
+ * that the primary map and its user, status, ID and creation time indexes still agree.
+ */
+class OrderRepositoryStressTest {
+
+    // Orders whose status is changed and that are moved between two users
+    private static final int MOVED = 16;
+
+    // Orders that are deleted and saved again under the same ID
+    private static final int CHURNED = 16;
+
+    // Order i belongs to user i or user i + USER_OFFSET, so no two orders ever share a user
+    private static final long USER_OFFSET = 1_000;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepository();
+    }
+
+    /**
+     * A task run by every racing thread; the argument is the thread's index.
+     */
+    @FunctionalInterface
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs writers and readers at the same time. Readers loop until every writer has finished.
+     */
+    private static void race(int writers, Worker writer, int readers, Worker reader) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        try {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            List<Future<?>> readerFutures = new ArrayList<>();
+            for (int t = 0; t < writers; t++) {
+                int thread = t;
+                writerFutures.add(executor.submit(() -> {
+                    start.await();
+                    writer.run(thread);
+                    return null;
+                }));
+            }
+            for (int t = 0; t < readers; t++) {
+                int thread = t;
+                readerFutures.add(executor.submit(() -> {
+                    start.await();
+                    do {
+                        reader.run(thread);
+                    } while (writing.get());
+                    return null;
+                }));
+            }
+            start.countDown();
+            try {
+                for (Future<?> future : writerFutures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                writing.set(false);
+            }
+            for (Future<?> future : readerFutures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Order newOrder(Long orderId, long userId, OrderStatus status, LocalDateTime createdAt) {
+        return Order.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .status(status)
+                .totalPrice(BigDecimal.ZERO)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static long otherUser(long orderIndex, long userId) {
+        return userId == orderIndex ? orderIndex + USER_OFFSET : orderIndex;
+    }
+
+    /**
+     * Checks that a page is ordered by creation time and then ID.
+     */
+    private static void assertCreatedAtOrder(List<Order> page) {
+        for (int i = 1; i < page.size(); i++) {
+            Order previous = page.get(i - 1);
+            Order current = page.get(i);
+            int byTime = previous.getCreatedAt().compareTo(current.getCreatedAt());
+            assertTrue(byTime < 0 || byTime == 0 && previous.getOrderId() < current.getOrderId(),
+                    "Order " + current.getOrderId() + " is listed after order " + previous.getOrderId());
+        }
+    }
+
+    @Test
+    void testConcurrentSaves_ShouldAssignUniqueIdsAndIndexEveryOrder() throws Exception {
+        int threads = 8;
+        int savesPerThread = 1_000;
+        Map<Long, Long> userByOrderId = new ConcurrentHashMap<>();
+
+        race(threads, thread -> {
+            for (int i = 0; i < savesPerThread; i++) {
+                // Many orders share a creation time, so ties are ordered by ID
+                Order saved = orderRepository.save(newOrder(null, thread, OrderStatus.CREATED, EPOCH.plusSeconds(i / 10)));
+                assertNull(userByOrderId.put(saved.getOrderId(), (long) thread),
+                        "Order ID " + saved.getOrderId() + " was assigned twice");
+            }
+        }, 1, thread -> {
+            // IDs are handed out in order, so the ID index must always iterate in ascending order
+            long previous = Long.MIN_VALUE;
+            for (Order order : orderRepository.stream(null, null).collect(Collectors.toList())) {
+                assertTrue(order.getOrderId() > previous);
+                previous = order.getOrderId();
+            }
+            assertCreatedAtOrder(orderRepository.findByCreatedAt(null, null, null, null, 100));
+        });
+
+        int total = threads * savesPerThread;
+        assertEquals(total, userByOrderId.size());
+        for (int thread = 0; thread < threads; thread++) {
+            long userId = thread;
+            Set<Long> expected = userByOrderId.entrySet().stream()
+                    .filter(entry -> entry.getValue() == userId)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, orderIds(orderRepository.findByUserId(userId)));
+        }
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void testInterleavedWriters_ShouldKeepIndexesConsistent() throws Exception {
+        long[] movedIds = new long[MOVED];
+        for (int i = 0; i < MOVED; i++) {
+            movedIds[i] = orderRepository.save(newOrder(null, i + 1, OrderStatus.CREATED, EPOCH.plusMinutes(i))).getOrderId();
+        }
+        long[] churnedIds = new long[CHURNED];
+        for (int i = 0; i < CHURNED; i++) {
+            churnedIds[i] = orderRepository.save(
+                    newOrder(null, MOVED + i + 1, OrderStatus.CREATED, EPOCH.plusMinutes(MOVED + i))).getOrderId();
+        }
+
+        int writers = 4;
+        int operationsPerWriter = 2_000;
+
+        race(writers, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int op = 0; op < operationsPerWriter; op++) {
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        // Change the status of any order
+                        long id = random.nextBoolean() ? movedIds[random.nextInt(MOVED)] : churnedIds[random.nextInt(CHURNED)];
+                        orderRepository.updateStatus(id, STATUSES[random.nextInt(STATUSES.length)]);
+                    }
+                    case 1 -> {
+                        // Move an order to its other user, keeping its creation time
+                        int index = random.nextInt(MOVED);
+                        long id = movedIds[index];
+                        Order current = orderRepository.findById(id).orElseThrow();
+                        Order moved = newOrder(id, otherUser(index + 1, current.getUserId()),
+                                STATUSES[random.nextInt(STATUSES.length)], EPOCH.plusMinutes(index));
+                        orderRepository.update(id, moved);
+                    }
+                    default -> {
+                        // Delete a churned order and save it again under the same ID, possibly
+                        // for its other user and at another creation time
+                        int index = random.nextInt(CHURNED);
+                        long id = churnedIds[index];
+                        long orderIndex = MOVED + index + 1;
+                        long userId = random.nextBoolean() ? orderIndex : orderIndex + USER_OFFSET;
+                        orderRepository.deleteById(id);
+                        orderRepository.save(newOrder(id, userId, OrderStatus.CREATED,
+                                EPOCH.plusMinutes(MOVED + index).plusSeconds(random.nextInt(2))));
+                    }
+                }
+            }
+        }, 2, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long orderIndex = random.nextLong(1, MOVED + CHURNED + 1);
+            long userId = random.nextBoolean() ? orderIndex : orderIndex + USER_OFFSET;
+            // Each user has at most one order at any time
+            assertTrue(orderRepository.findByUserId(userId).size() <= 1);
+
+            long previous = Long.MIN_VALUE;
+            for (Order order : orderRepository.findByStatus(STATUSES[random.nextInt(STATUSES.length)])) {
+                assertTrue(order.getOrderId() > previous);
+                previous = order.getOrderId();
+            }
+
+            // An order re-dated while the page is read may be listed at both times, but always in order
+            assertCreatedAtOrder(orderRepository.findByCreatedAt(EPOCH.plusMinutes(4), EPOCH.plusMinutes(28), null, null, 16));
+        });
+
+        for (long id : churnedIds) {
+            assertTrue(orderRepository.findById(id).isPresent(), "Churned order " + id + " is missing");
+        }
+        assertEquals(MOVED + CHURNED, orderRepository.findAll().size());
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void testConcurrentItemChanges_ShouldKeepTotalInStepWithItems() throws Exception {
+        long id = orderRepository.save(newOrder(null, 1, OrderStatus.CREATED, EPOCH)).getOrderId();
+        // Stands in for the order's items; only changed inside updateItems
+        AtomicLong itemCents = new AtomicLong();
+
+        int threads = 8;
+        int changesPerThread = 2_000;
+        race(threads, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < changesPerThread; i++) {
+                long delta = random.nextLong(-500, 1_000);
+                // Now and then the change has no cents form, so the total is recalculated
+                boolean exact = random.nextInt(10) != 0;
+                assertTrue(orderRepository.updateItems(id,
+                        () -> {
+                            itemCents.addAndGet(delta);
+                            return exact ? OptionalLong.of(delta) : OptionalLong.empty();
+                        },
+                        () -> Money.fromCents(itemCents.get())));
+            }
+        }, 1, thread -> {
+            assertNotNull(orderRepository.findById(id).orElseThrow().getTotalPrice());
+        });
+
+        assertEquals(Money.fromCents(itemCents.get()), orderRepository.findById(id).orElseThrow().getTotalPrice());
+    }
+
+    @Test
+    void testConcurrentDeletesOfOneOrder_ShouldSucceedOnce() throws Exception {
+        int rounds = 200;
+        int threads = 4;
+        for (int round = 0; round < rounds; round++) {
+            long id = orderRepository.save(newOrder(null, round, OrderStatus.CREATED, EPOCH.plusSeconds(round))).getOrderId();
+            AtomicLong deleted = new AtomicLong();
+            race(threads, thread -> {
+                if (orderRepository.deleteById(id)) {
+                    deleted.incrementAndGet();
+                }
+            }, 0, thread -> {
+            });
+            assertEquals(1, deleted.get());
+        }
+        assertTrue(orderRepository.findAll().isEmpty());
+        assertIndexesConsistent();
+    }
+
+    private static Set<Long> orderIds(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Checks, with no writes in progress, that every index holds exactly the stored orders.
+     */
+    private void assertIndexesConsistent() {
+        List<Order> all = orderRepository.findAll();
+        Set<Long> ids = orderIds(all);
+        assertEquals(all.size(), ids.size());
+
+        Set<Long> byUser = new HashSet<>();
+        Set<Long> users = all.stream().map(Order::getUserId).collect(Collectors.toSet());
+        for (Long userId : users) {
+            for (Order order : orderRepository.findByUserId(userId)) {
+                assertEquals(userId, order.getUserId());
+                assertTrue(byUser.add(order.getOrderId()));
+            }
+        }
+        assertEquals(ids, byUser);
+
+        Set<Long> byStatus = new HashSet<>();
+        for (OrderStatus status : STATUSES) {
+            for (Order order : orderRepository.findByStatus(status)) {
+                assertEquals(status, order.getStatus());
+                assertTrue(byStatus.add(order.getOrderId()));
+            }
+            assertEquals(orderRepository.findByStatus(status).size(), orderRepository.stream(null, status).count());
+        }
+        assertEquals(ids, byStatus);
+
+        List<Long> streamed = orderRepository.stream(null, null).map(Order::getOrderId).collect(Collectors.toList());
+        assertEquals(all.size(), streamed.size());
+        assertEquals(ids, new HashSet<>(streamed));
+
+        List<Order> byCreatedAt = orderRepository.findByCreatedAt(null, null, null, null, Integer.MAX_VALUE);
+        assertCreatedAtOrder(byCreatedAt);
+        assertEquals(all.size(), byCreatedAt.size());
+        assertEquals(ids, orderIds(byCreatedAt));
+    }
+}
@@ -0,0 +1,105 @@
+package io.microprofile.tutorial.store.order.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SecondaryIndex.
+ */
+class SecondaryIndexTest {
+
+    private final SecondaryIndex<String> index = new SecondaryIndex<>();
+
+    @Test
+    void testAddAndRemove_ShouldKeepIdsInAscendingOrder() {
+        index.add("a", 3L);
+        index.add("a", 1L);
+        index.add("a", 2L);
+        index.add("b", 4L);
+        index.add(null, 5L);
+
+        assertEquals(List.of(1L, 2L, 3L), new ArrayList<>(index.get("a")));
+        assertEquals(List.of(4L), new ArrayList<>(index.get("b")));
+        assertTrue(index.get(null).isEmpty());
+
+        index.remove("a", 2L);
+        index.remove("a", 9L);
+        index.remove(null, 1L);
+        assertEquals(List.of(1L, 3L), new ArrayList<>(index.get("a")));
+    }
+
+    @Test
+    void testMove_ShouldChangeKeyOnlyWhenDifferent() {
+        index.add("a", 1L);
+
+        index.move("a", "b", 1L);
+        assertTrue(index.get("a").isEmpty());
+        assertEquals(List.of(1L), new ArrayList<>(index.get("b")));
+
+        index.move("b", "b", 1L);
+        assertEquals(List.of(1L), new ArrayList<>(index.get("b")));
+
+        index.move("b", null, 1L);
+        assertTrue(index.get("b").isEmpty());
+        index.move(null, "c", 1L);
+        assertEquals(List.of(1L), new ArrayList<>(index.get("c")));
+    }
+
+    @Test
+    void testGet_ShouldBeLiveAndReadOnly() {
+        index.add("a", 1L);
+        NavigableSet<Long> view = index.get("a");
+
+        index.add("a", 2L);
+
+        assertEquals(List.of(1L, 2L), new ArrayList<>(view));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(3L));
+    }
+
+    @Test
+    void testConcurrentAddAndRemove_OfOneKey_ShouldNotLoseIds() throws Exception {
+        int threads = 4;
+        int idsPerThread = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * idsPerThread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // Every other ID is removed again, so the key keeps emptying and filling up
+                    for (long id = base; id < base + idsPerThread; id++) {
+                        index.add("hot", id);
+                        if (id % 2 == 1) {
+                            index.remove("hot", id);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        NavigableSet<Long> ids = index.get("hot");
+        assertEquals(threads * idsPerThread / 2, ids.size());
+        for (Long id : ids) {
+            assertEquals(0, id % 2);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.microprofile.tutorial.store.order.resource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Accept-Encoding negotiation of OrderResource.
+ */
+class OrderResourceTest {
+
+    @Test
+    void testAcceptsGzip_WhenListed_ShouldBeTrue() {
+        assertTrue(OrderResource.acceptsGzip("gzip"));
+        assertTrue(OrderResource.acceptsGzip("deflate, GZIP"));
+        assertTrue(OrderResource.acceptsGzip("br;q=1.0, gzip;q=0.5"));
+        assertTrue(OrderResource.acceptsGzip("gzip ; q=0.001"));
+    }
+
+    @Test
+    void testAcceptsGzip_WhenMissingOrRefused_ShouldBeFalse() {
+        assertFalse(OrderResource.acceptsGzip(null));
+        assertFalse(OrderResource.acceptsGzip(""));
+        assertFalse(OrderResource.acceptsGzip("identity"));
+        assertFalse(OrderResource.acceptsGzip("deflate, x-gzip-ish"));
+        assertFalse(OrderResource.acceptsGzip("gzip;q=0"));
+        assertFalse(OrderResource.acceptsGzip("gzip;q=0.000, deflate"));
+        assertFalse(OrderResource.acceptsGzip("gzip;q=high"));
+    }
+}
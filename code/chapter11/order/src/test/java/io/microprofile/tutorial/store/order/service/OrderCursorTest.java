@@ -0,0 +1,47 @@
+package io.microprofile.tutorial.store.order.service;
+
+import io.microprofile.tutorial.store.order.entity.Order;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrderCursor.
+ */
+class OrderCursorTest {
+
+    @Test
+    void testEncodeDecode_ShouldRoundTrip() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_789), 42L);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, OrderCursor.decode(token));
+    }
+
+    @Test
+    void testAfter_ShouldPointAtLastOrder() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        Order order = Order.builder().orderId(7L).createdAt(createdAt).build();
+
+        assertEquals(new OrderCursor(createdAt, 7L), OrderCursor.decode(OrderCursor.after(order).encode()));
+    }
+
+    @Test
+    void testDecode_WithInvalidToken_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode(encode("2025-03-01T12:00")));
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode(encode("yesterday/7")));
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode(encode("2025-03-01T12:00/seven")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
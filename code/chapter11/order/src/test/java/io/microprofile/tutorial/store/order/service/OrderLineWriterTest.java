@@ -0,0 +1,104 @@
+package io.microprofile.tutorial.store.order.service;
+
+import io.microprofile.tutorial.store.order.entity.Order;
+import io.microprofile.tutorial.store.order.entity.OrderItem;
+import io.microprofile.tutorial.store.order.entity.OrderStatus;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that OrderLineWriter writes the same JSON as the JSON binding of an order, which is
+ * what the non-streaming endpoints return.
+ */
+class OrderLineWriterTest {
+
+    private static Jsonb jsonb;
+
+    @BeforeAll
+    static void setUpJsonb() {
+        jsonb = JsonbBuilder.create();
+    }
+
+    @AfterAll
+    static void closeJsonb() throws Exception {
+        jsonb.close();
+    }
+
+    private static OrderItem item(long itemId, long orderId, long productId, int quantity, String price) {
+        return OrderItem.builder()
+                .orderItemId(itemId)
+                .orderId(orderId)
+                .productId(productId)
+                .quantity(quantity)
+                .priceAtOrder(new BigDecimal(price))
+                .build();
+    }
+
+    // Every field is set, since JSON binding leaves out null fields
+    private static Order order(LocalDateTime createdAt, LocalDateTime updatedAt, String totalPrice, List<OrderItem> items) {
+        return Order.builder()
+                .orderId(7L)
+                .userId(3L)
+                .totalPrice(new BigDecimal(totalPrice))
+                .status(OrderStatus.PAID)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .orderItems(items)
+                .build();
+    }
+
+    /**
+     * Compares the lines as parsed JSON, since JSON binding orders properties by name.
+     */
+    private static void assertSameAsJsonb(Order order) throws Exception {
+        StringBuilder line = new StringBuilder();
+        OrderLineWriter.write(order, order.getOrderItems(), line);
+
+        assertFalse(line.toString().contains("\n"));
+        assertEquals(parse(jsonb.toJson(order)), parse(line.toString()));
+    }
+
+    private static JsonValue parse(String json) {
+        try (var reader = Json.createReader(new StringReader(json))) {
+            return reader.readValue();
+        }
+    }
+
+    @Test
+    void testWrite_ShouldMatchJsonBinding() throws Exception {
+        List<OrderItem> items = new ArrayList<>();
+        items.add(item(1L, 7L, 100L, 2, "19.99"));
+        items.add(item(2L, 7L, 101L, 1, "5.02"));
+
+        assertSameAsJsonb(order(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_000_000),
+                LocalDateTime.of(2025, 3, 2, 8, 5, 59), "45.00", items));
+    }
+
+    @Test
+    void testWrite_WithWholeMinuteTimestamps_ShouldMatchJsonBinding() throws Exception {
+        // LocalDateTime.toString leaves out zero seconds; JSON binding always writes them
+        assertSameAsJsonb(order(LocalDateTime.of(2025, 3, 1, 12, 30), LocalDateTime.of(2025, 3, 1, 0, 0),
+                "0", List.of(item(1L, 7L, 100L, 1, "0.50"))));
+    }
+
+    @Test
+    void testWrite_WithNoItemsAndLargeAmounts_ShouldMatchJsonBinding() throws Exception {
+        assertSameAsJsonb(order(LocalDateTime.of(2025, 3, 1, 12, 30, 1), LocalDateTime.of(2025, 3, 1, 12, 30, 2),
+                "123456789012345678901234.50", new ArrayList<>()));
+    }
+}
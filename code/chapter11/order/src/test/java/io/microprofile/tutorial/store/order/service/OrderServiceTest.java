@@ -0,0 +1,276 @@
+package io.microprofile.tutorial.store.order.service;
+
+import io.microprofile.tutorial.store.order.dto.OrderPage;
+import io.microprofile.tutorial.store.order.entity.Order;
+import io.microprofile.tutorial.store.order.entity.OrderItem;
+import io.microprofile.tutorial.store.order.entity.OrderStatus;
+import io.microprofile.tutorial.store.order.repository.OrderItemRepository;
+import io.microprofile.tutorial.store.order.repository.OrderRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrderService, wired to real in-memory repositories.
+ */
+class OrderServiceTest {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private OrderItemRepository orderItemRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        orderRepository = new OrderRepository();
+        orderItemRepository = new OrderItemRepository();
+        orderService = new OrderService();
+        inject(orderService, "orderRepository", orderRepository);
+        inject(orderService, "orderItemRepository", orderItemRepository);
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private Order saveOrder(LocalDateTime createdAt) {
+        return orderRepository.save(Order.builder()
+                .userId(1L)
+                .status(OrderStatus.CREATED)
+                .totalPrice(BigDecimal.ZERO)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build());
+    }
+
+    private static OrderItem item(long productId, int quantity, String price) {
+        return OrderItem.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .priceAtOrder(new BigDecimal(price))
+                .build();
+    }
+
+    private static List<Long> orderIds(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testGetOrdersByCreatedAt_ShouldPageThroughTiesInOrder() {
+        // Saved out of creation order, with three orders sharing one creation time
+        Order late = saveOrder(EPOCH.plusMinutes(2));
+        Order tie1 = saveOrder(EPOCH.plusMinutes(1));
+        Order early = saveOrder(EPOCH);
+        Order tie2 = saveOrder(EPOCH.plusMinutes(1));
+        Order tie3 = saveOrder(EPOCH.plusMinutes(1));
+        List<Long> expected = List.of(early.getOrderId(), tie1.getOrderId(), tie2.getOrderId(),
+                tie3.getOrderId(), late.getOrderId());
+
+        List<Long> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPage page = orderService.getOrdersByCreatedAt(null, null, cursor, 2);
+            assertTrue(page.getItems().size() <= 2);
+            listed.addAll(orderIds(page.getItems()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, listed);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testGetOrdersByCreatedAt_WithRange_ShouldIncludeFromAndExcludeTo() {
+        saveOrder(EPOCH);
+        Order from = saveOrder(EPOCH.plusMinutes(1));
+        Order inside = saveOrder(EPOCH.plusMinutes(2));
+        saveOrder(EPOCH.plusMinutes(3));
+        saveOrder(null);
+
+        OrderPage page = orderService.getOrdersByCreatedAt(EPOCH.plusMinutes(1), EPOCH.plusMinutes(3), null, 10);
+
+        assertEquals(List.of(from.getOrderId(), inside.getOrderId()), orderIds(page.getItems()));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetOrdersByCreatedAt_WhenOrdersCreatedBetweenPages_ShouldNotRepeatOrSkip() {
+        Order first = saveOrder(EPOCH);
+        Order second = saveOrder(EPOCH.plusMinutes(1));
+        Order third = saveOrder(EPOCH.plusMinutes(2));
+
+        OrderPage page = orderService.getOrdersByCreatedAt(null, null, null, 1);
+        assertEquals(List.of(first.getOrderId()), orderIds(page.getItems()));
+
+        // An earlier order does not shift the next page
+        saveOrder(EPOCH.minusMinutes(1));
+        page = orderService.getOrdersByCreatedAt(null, null, page.getNextCursor(), 5);
+
+        assertEquals(List.of(second.getOrderId(), third.getOrderId()), orderIds(page.getItems()));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetOrdersByCreatedAt_ShouldLoadItemsAndCapLimit() {
+        Order order = saveOrder(EPOCH);
+        orderService.addOrderItem(order.getOrderId(), item(100L, 1, "1.00"));
+        for (int i = 0; i < OrderService.MAX_PAGE_LIMIT + 5; i++) {
+            saveOrder(EPOCH.plusSeconds(i + 1));
+        }
+
+        OrderPage page = orderService.getOrdersByCreatedAt(null, null, null, Integer.MAX_VALUE);
+
+        assertEquals(OrderService.MAX_PAGE_LIMIT, page.getItems().size());
+        assertEquals(1, page.getItems().get(0).getOrderItems().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetOrdersByCreatedAt_WithInvalidCursor_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersByCreatedAt(null, null, "%%%", 10));
+    }
+
+    @Test
+    void testOrderItemChanges_ShouldKeepTotalExact() {
+        Order order = saveOrder(EPOCH);
+        Long orderId = order.getOrderId();
+
+        OrderItem first = orderService.addOrderItem(orderId, item(100L, 3, "0.10"));
+        orderService.addOrderItem(orderId, item(101L, 1, "19.99"));
+        assertEquals(new BigDecimal("20.29"), orderService.getOrderById(orderId).getTotalPrice());
+
+        // A price with a fraction of a cent makes the total fall back to exact arithmetic
+        orderService.updateOrderItem(first.getOrderItemId(), item(100L, 3, "0.105"));
+        assertEquals(0, new BigDecimal("20.305").compareTo(orderService.getOrderById(orderId).getTotalPrice()));
+
+        orderService.deleteOrderItem(first.getOrderItemId());
+        assertEquals(0, new BigDecimal("19.99").compareTo(orderService.getOrderById(orderId).getTotalPrice()));
+    }
+
+    @Test
+    void testCreateOrder_ShouldDeriveTotalFromItemsAndIgnoreClientTotal() {
+        Order created = orderService.createOrder(Order.builder()
+                .userId(1L)
+                .totalPrice(new BigDecimal("999.99"))
+                .orderItems(new ArrayList<>(List.of(item(100L, 2, "1.25"), item(101L, 1, "0.10"))))
+                .build());
+        assertEquals(new BigDecimal("2.60"), created.getTotalPrice());
+
+        // Later item changes adjust the derived total, not the one the client sent
+        orderService.addOrderItem(created.getOrderId(), item(102L, 1, "1.00"));
+        assertEquals(new BigDecimal("3.60"), orderService.getOrderById(created.getOrderId()).getTotalPrice());
+
+        Order empty = orderService.createOrder(Order.builder().userId(1L).totalPrice(BigDecimal.TEN).build());
+        assertEquals(0, BigDecimal.ZERO.compareTo(empty.getTotalPrice()));
+    }
+
+    @Test
+    void testUpdateOrder_ShouldRecalculateTotalFromItemsAndIgnoreClientTotal() {
+        Order order = saveOrder(EPOCH);
+        Long orderId = order.getOrderId();
+        orderService.addOrderItem(orderId, item(100L, 1, "5.00"));
+
+        Order withItems = Order.builder()
+                .userId(1L)
+                .status(OrderStatus.PAID)
+                .totalPrice(new BigDecimal("999.99"))
+                .orderItems(new ArrayList<>(List.of(item(101L, 2, "1.25"), item(102L, 1, "0.10"))))
+                .build();
+        Order updated = orderService.updateOrder(orderId, withItems);
+        assertEquals(new BigDecimal("2.60"), updated.getTotalPrice());
+        assertEquals(2, updated.getOrderItems().size());
+        assertEquals(OrderStatus.PAID, updated.getStatus());
+
+        // Without items the total of the existing items is kept
+        Order withoutItems = Order.builder()
+                .userId(1L)
+                .status(OrderStatus.SHIPPED)
+                .totalPrice(BigDecimal.ONE)
+                .build();
+        assertEquals(new BigDecimal("2.60"), orderService.updateOrder(orderId, withoutItems).getTotalPrice());
+        assertEquals(new BigDecimal("2.60"), orderRepository.findById(orderId).orElseThrow().getTotalPrice());
+    }
+
+    @Test
+    void testConcurrentOrderItemChanges_ShouldKeepTotalEqualToItems() throws Exception {
+        Long orderId = saveOrder(EPOCH).getOrderId();
+        int threads = 8;
+        int changesPerThread = 300;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    List<Long> mine = new ArrayList<>();
+                    for (int i = 0; i < changesPerThread; i++) {
+                        int quantity = random.nextInt(1, 5);
+                        // Some prices have a fraction of a cent, so exact and cents totals interleave
+                        String price = random.nextInt(10) == 0 ? "0.125" : "2.50";
+                        switch (mine.isEmpty() ? 0 : random.nextInt(3)) {
+                            case 0 -> mine.add(orderService.addOrderItem(orderId, item(100L, quantity, price)).getOrderItemId());
+                            case 1 -> orderService.updateOrderItem(mine.get(random.nextInt(mine.size())), item(100L, quantity, price));
+                            default -> orderService.deleteOrderItem(mine.remove(mine.size() - 1));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal items = orderItemRepository.findByOrderId(orderId).stream()
+                .map(item -> item.getPriceAtOrder().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, items.compareTo(orderRepository.findById(orderId).orElseThrow().getTotalPrice()));
+    }
+
+    @Test
+    void testExportOrders_ShouldWriteOneLinePerMatchingOrder() throws Exception {
+        Order first = saveOrder(EPOCH);
+        orderService.addOrderItem(first.getOrderId(), item(100L, 2, "1.50"));
+        saveOrder(EPOCH.plusMinutes(1));
+        Order paid = saveOrder(EPOCH.plusMinutes(2));
+        orderService.updateOrderStatus(paid.getOrderId(), OrderStatus.PAID);
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        assertEquals(3, orderService.exportOrders(all, null, null, null, null));
+        String[] lines = all.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"orderId\":" + first.getOrderId() + ","));
+        assertTrue(lines[0].contains("\"priceAtOrder\":1.50"));
+
+        ByteArrayOutputStream filtered = new ByteArrayOutputStream();
+        assertEquals(1, orderService.exportOrders(filtered, OrderStatus.PAID, 1L, EPOCH.plusMinutes(1), null));
+        assertTrue(filtered.toString(StandardCharsets.UTF_8).startsWith("{\"orderId\":" + paid.getOrderId() + ","));
+    }
+}